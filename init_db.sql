@@ -1,8 +1,14 @@
 CREATE SCHEMA IF NOT EXISTS book_recommendation_system;
 
+-- Diacritic folding for full-text search (e.g. "nguyen" matches "Nguyễn")
+CREATE EXTENSION IF NOT EXISTS unaccent SCHEMA public;
+
 SET search_path TO book_recommendation_system;
 
 -- Drop old tables
+DROP TABLE IF EXISTS interaction_outbox CASCADE;
+DROP TABLE IF EXISTS similar_books_job CASCADE;
+DROP TABLE IF EXISTS similar_books CASCADE;
 DROP TABLE IF EXISTS bookmarks CASCADE;
 DROP TABLE IF EXISTS favorites CASCADE;
 DROP TABLE IF EXISTS reading_history CASCADE;
@@ -16,6 +22,11 @@ DROP TABLE IF EXISTS book_types CASCADE;
 DROP TABLE IF EXISTS books CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS roles CASCADE;
+DROP FUNCTION IF EXISTS book_search_document(BIGINT, TEXT, TEXT, TEXT) CASCADE;
+DROP FUNCTION IF EXISTS books_search_vector_refresh() CASCADE;
+DROP FUNCTION IF EXISTS book_authors_search_vector_refresh() CASCADE;
+DROP FUNCTION IF EXISTS authors_search_vector_refresh() CASCADE;
+DROP TEXT SEARCH CONFIGURATION IF EXISTS book_search;
 
 -- User roles
 CREATE TABLE roles
@@ -56,7 +67,9 @@ CREATE TABLE books
     publisher        VARCHAR(100),
     is_deleted       BOOLEAN      NOT NULL DEFAULT false,
     created_at       TIMESTAMP    NOT NULL DEFAULT now(),
-    updated_at       TIMESTAMP
+    updated_at       TIMESTAMP,
+    -- Maintained by the full-text search triggers below
+    search_vector    TSVECTOR     NOT NULL DEFAULT ''::tsvector
 );
 
 -- Book type lookup (ebook, audiobook, etc.)
@@ -155,6 +168,130 @@ CREATE TABLE bookmarks
     created_at       TIMESTAMP NOT NULL DEFAULT now()
 );
 
+-- Similar books precomputed per recommender model, ranked best first
+CREATE TABLE similar_books
+(
+    model_key        VARCHAR(50) NOT NULL,
+    book_id          BIGINT      NOT NULL,
+    similar_book_ids BIGINT[]    NOT NULL,
+    computed_at      TIMESTAMP   NOT NULL DEFAULT now(),
+    PRIMARY KEY (model_key, book_id)
+);
+
+-- Checkpoint of the similar books job, one row per model
+CREATE TABLE similar_books_job
+(
+    model_key      VARCHAR(50) PRIMARY KEY,
+    status         VARCHAR(20) NOT NULL,
+    run_started_at TIMESTAMP   NOT NULL,
+    heartbeat_at   TIMESTAMP   NOT NULL,
+    finished_at    TIMESTAMP,
+    last_book_id   BIGINT      NOT NULL DEFAULT 0,
+    processed      BIGINT      NOT NULL DEFAULT 0,
+    failed         BIGINT      NOT NULL DEFAULT 0
+);
+
+-- Interactions waiting to be pushed to online-learning recommender models, one row per model
+CREATE TABLE interaction_outbox
+(
+    event_id         BIGSERIAL PRIMARY KEY,
+    model_key        VARCHAR(50) NOT NULL,
+    user_id          BIGINT      NOT NULL,
+    book_id          BIGINT      NOT NULL,
+    interaction_type VARCHAR(30) NOT NULL,
+    value            DOUBLE PRECISION,
+    occurred_at      TIMESTAMP   NOT NULL,
+    attempts         INT         NOT NULL DEFAULT 0,
+    available_at     TIMESTAMP   NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_interaction_outbox_model_available ON interaction_outbox (model_key, available_at, event_id);
+
+-- Full-text search: no stemming (there is no Vietnamese stemmer), words folded by unaccent
+CREATE TEXT SEARCH CONFIGURATION book_search (COPY = simple);
+ALTER TEXT SEARCH CONFIGURATION book_search
+    ALTER MAPPING FOR hword, hword_part, word WITH public.unaccent, simple;
+
+-- Weighted document of a book: title A, authors B, publisher C, description D
+CREATE FUNCTION book_search_document(p_book_id BIGINT, p_title TEXT, p_publisher TEXT, p_description TEXT)
+    RETURNS TSVECTOR
+    LANGUAGE sql
+    STABLE
+    SET search_path = book_recommendation_system, public
+AS
+$$
+SELECT setweight(to_tsvector('book_search', coalesce(p_title, '')), 'A')
+           || setweight(to_tsvector('book_search', coalesce((SELECT string_agg(a.author_name, ' ')
+                                                             FROM book_authors ba
+                                                                      JOIN authors a ON a.author_id = ba.author_id
+                                                             WHERE ba.book_id = p_book_id), '')), 'B')
+           || setweight(to_tsvector('book_search', coalesce(p_publisher, '')), 'C')
+           || setweight(to_tsvector('book_search', coalesce(p_description, '')), 'D')
+$$;
+
+CREATE FUNCTION books_search_vector_refresh()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+    SET search_path = book_recommendation_system, public
+AS
+$$
+BEGIN
+    NEW.search_vector := book_search_document(NEW.book_id, NEW.title, NEW.publisher, NEW.description);
+    RETURN NEW;
+END;
+$$;
+
+CREATE FUNCTION book_authors_search_vector_refresh()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+    SET search_path = book_recommendation_system, public
+AS
+$$
+DECLARE
+    changed_book_id BIGINT := CASE WHEN TG_OP = 'DELETE' THEN OLD.book_id ELSE NEW.book_id END;
+BEGIN
+    UPDATE books b
+    SET search_vector = book_search_document(b.book_id, b.title, b.publisher, b.description)
+    WHERE b.book_id = changed_book_id;
+    RETURN NULL;
+END;
+$$;
+
+CREATE FUNCTION authors_search_vector_refresh()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+    SET search_path = book_recommendation_system, public
+AS
+$$
+BEGIN
+    UPDATE books b
+    SET search_vector = book_search_document(b.book_id, b.title, b.publisher, b.description)
+    WHERE b.book_id IN (SELECT ba.book_id FROM book_authors ba WHERE ba.author_id = NEW.author_id);
+    RETURN NULL;
+END;
+$$;
+
+-- Updates that only touch search_vector do not fire the books trigger again
+CREATE TRIGGER trg_books_search_vector
+    BEFORE INSERT OR UPDATE OF title, publisher, description
+    ON books
+    FOR EACH ROW
+EXECUTE FUNCTION books_search_vector_refresh();
+
+CREATE TRIGGER trg_book_authors_search_vector
+    AFTER INSERT OR DELETE
+    ON book_authors
+    FOR EACH ROW
+EXECUTE FUNCTION book_authors_search_vector_refresh();
+
+CREATE TRIGGER trg_authors_search_vector
+    AFTER UPDATE OF author_name
+    ON authors
+    FOR EACH ROW
+EXECUTE FUNCTION authors_search_vector_refresh();
+
+CREATE INDEX idx_books_search_vector ON books USING GIN (search_vector);
+
 -- Foreign keys
 ALTER TABLE users
     ADD CONSTRAINT fk_users_role
@@ -216,6 +353,10 @@ ALTER TABLE bookmarks
     ADD CONSTRAINT fk_bookmarks_book
         FOREIGN KEY (book_id) REFERENCES books (book_id) ON DELETE CASCADE;
 
+ALTER TABLE similar_books
+    ADD CONSTRAINT fk_similar_books_book
+        FOREIGN KEY (book_id) REFERENCES books (book_id) ON DELETE CASCADE;
+
 -- Seed data
 INSERT INTO roles (role_name)
 VALUES ('ADMIN'),
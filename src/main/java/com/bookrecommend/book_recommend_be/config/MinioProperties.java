@@ -14,4 +14,6 @@ public class MinioProperties {
     private String bucketName;
     private String publicEndpoint;
     private long presignedExpirySeconds = 3600;
+    private long presignedRefreshMarginSeconds = 300;
+    private int presignedCacheMaxEntries = 50_000;
 }
@@ -1,9 +1,22 @@
 package com.bookrecommend.book_recommend_be.config;
 
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 @EnableConfigurationProperties(RecsysProperties.class)
 public class RecsysConfig {
+
+    /**
+     * Virtual-thread executor for recommender calls; blocking HTTP and JDBC work parks the
+     * virtual thread instead of pinning a platform thread.
+     */
+    @Bean(destroyMethod = "close")
+    public ExecutorService recsysExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("recsys-", 0).factory());
+    }
 }
@@ -1,11 +1,18 @@
 package com.bookrecommend.book_recommend_be.config;
 
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Getter
 @Setter
@@ -17,17 +24,547 @@ public class RecsysProperties {
      */
     private String defaultModel;
 
+    /**
+     * Model answering similar-books lookups instead of the serving model, e.g. a local embedding
+     * index. Ignored while that model is not ready.
+     */
+    private String similarModel;
+
     /**
      * Registry of all available recommendation models keyed by identifier.
      * LinkedHashMap is used to preserve declaration order from YAML.
      */
     private Map<String, Model> models = new LinkedHashMap<>();
 
+    /**
+     * Per-user cache of ranked book ids returned by the active model.
+     */
+    private Cache cache = new Cache();
+
+    /**
+     * Connection pool and timeouts shared by all HTTP recommender models.
+     */
+    private Http http = new Http();
+
+    /**
+     * Second requests sent to another replica when the first one is slow.
+     */
+    private Hedging hedging = new Hedging();
+
+    /**
+     * Background health probes of every model and optional failover away from an unhealthy active model.
+     */
+    private Health health = new Health();
+
+    /**
+     * How the diversity endpoint picks books.
+     */
+    private Diversity diversity = new Diversity();
+
+    /**
+     * Precomputed list served to users without any ratings, favorites or reading history.
+     */
+    private ColdStart coldStart = new ColdStart();
+
+    /**
+     * Removes books the user has already finished or favorited from recommendations.
+     */
+    private ConsumedFilter consumedFilter = new ConsumedFilter();
+
+    /**
+     * Admin endpoint that computes recommendations for many users in one request.
+     */
+    private Bulk bulk = new Bulk();
+
+    /**
+     * Tuning for recommenders served in-process (models declared with {@code local: true}).
+     */
+    private Local local = new Local();
+
+    /**
+     * Scheduled job that precomputes similar books into the similar_books table.
+     */
+    private Materialization materialization = new Materialization();
+
+    /**
+     * Mirrors a sample of recommendation requests to a candidate model without serving its answer.
+     */
+    private Shadow shadow = new Shadow();
+
+    /**
+     * Transactional outbox that pushes committed interactions to models supporting online learning.
+     */
+    private Outbox outbox = new Outbox();
+
+    /**
+     * Models switched off with {@code enabled: false} are removed right after binding, so no
+     * other bean ever sees them.
+     */
+    @PostConstruct
+    void dropDisabledModels() {
+        models.values().removeIf(model -> !model.isEnabled());
+    }
+
     @Getter
     @Setter
     public static class Model {
+
+        /**
+         * Disabled models are left out of the registry entirely, as if they were not declared.
+         */
+        private boolean enabled = true;
         private String label;
         private String baseUrl;
+
+        /**
+         * Further base URLs serving the same model; requests are spread over these and baseUrl.
+         */
+        private List<String> replicas = new ArrayList<>();
         private boolean supportsOnlineLearning;
+
+        /**
+         * Served in-process by the LocalRecommender bean with the same key; baseUrl is ignored.
+         */
+        private boolean local;
+
+        /**
+         * Upper bound of pooled connections to this model's host.
+         */
+        private int maxConnections = 50;
+
+        /**
+         * Relative share of user recommendation traffic for an A/B split; 0 keeps the model out of
+         * the split. When no model has a weight, all traffic goes to the active model.
+         */
+        private int trafficWeight;
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+        /**
+         * Endpoints the model answers itself. Failover only picks a model that answers every
+         * endpoint of the model it replaces.
+         */
+        private Set<Endpoint> endpoints = EnumSet.allOf(Endpoint.class);
+
+        /**
+         * baseUrl followed by the replicas, without blanks and duplicates.
+         */
+        public List<String> getReplicaUrls() {
+            Set<String> urls = new LinkedHashSet<>();
+            if (baseUrl != null && !baseUrl.isBlank()) {
+                urls.add(baseUrl);
+            }
+            replicas.stream()
+                    .filter(url -> url != null && !url.isBlank())
+                    .forEach(urls::add);
+            return List.copyOf(urls);
+        }
+
+        public enum Endpoint {
+            RECOMMENDATIONS, SIMILAR, DIVERSITY
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+
+        /**
+         * Percentage of failed (or slow) calls in the sliding window that opens the breaker.
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * Number of most recent calls used to compute the failure rate.
+         */
+        private int slidingWindowSize = 20;
+
+        /**
+         * Calls that must be recorded before the failure rate is evaluated.
+         */
+        private int minimumNumberOfCalls = 10;
+
+        /**
+         * Calls slower than this are counted as failures.
+         */
+        private Duration slowCallDurationThreshold = Duration.ofSeconds(2);
+
+        /**
+         * How long the breaker stays open before letting probe calls through.
+         */
+        private Duration waitDurationInOpenState = Duration.ofSeconds(30);
+
+        /**
+         * Probe calls allowed while half-open; all must succeed to close the breaker again.
+         */
+        private int permittedCallsInHalfOpenState = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private boolean enabled = true;
+        private int maxEntries = 10_000;
+        private Duration ttl = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+        private Duration connectTimeout = Duration.ofSeconds(2);
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * Maximum wait for a pooled connection before the call fails.
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Keep-alive used when the server does not send a Keep-Alive header.
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+        private Duration idleEviction = Duration.ofSeconds(30);
+        private int maxTotalConnections = 200;
+    }
+
+    @Getter
+    @Setter
+    public static class Hedging {
+        private boolean enabled = true;
+
+        /**
+         * Latency quantile of recent calls after which the hedged request is sent.
+         */
+        private double quantile = 0.95;
+
+        /**
+         * Bounds of the adaptive hedge delay; maxDelay is used until enough calls are recorded.
+         */
+        private Duration minDelay = Duration.ofMillis(10);
+        private Duration maxDelay = Duration.ofMillis(500);
+    }
+
+    @Getter
+    @Setter
+    public static class Health {
+        private boolean enabled = true;
+        private Duration probeInterval = Duration.ofSeconds(15);
+
+        /**
+         * Path appended to each replica's base URL; any 2xx answer counts as healthy.
+         */
+        private String probePath = "/health";
+
+        /**
+         * Consecutive failed probes that mark a model down.
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * Consecutive successful probes that mark a down model up again.
+         */
+        private int successThreshold = 2;
+
+        /**
+         * Serve requests for an unhealthy active model from the healthiest other model, and
+         * return to the active model once it recovers.
+         */
+        private boolean failover;
+    }
+
+    @Getter
+    @Setter
+    public static class Diversity {
+
+        /**
+         * {@code model} calls the model's /diversity endpoint; {@code mmr} re-ranks similar books
+         * locally by genre and author overlap.
+         */
+        private Strategy strategy = Strategy.MODEL;
+
+        /**
+         * MMR trade-off: 1 keeps the similarity order, 0 only maximises diversity.
+         */
+        private double lambda = 0.7;
+
+        /**
+         * Similar books fetched per requested book before re-ranking.
+         */
+        private int candidateMultiplier = 4;
+        private int maxCandidates = 200;
+        private float genreWeight = 1.0f;
+        private float authorWeight = 1.0f;
+
+        public enum Strategy {
+            MODEL, MMR
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class ColdStart {
+        private boolean enabled = true;
+        private Duration refreshInterval = Duration.ofHours(1);
+
+        /**
+         * Books kept in the precomputed list; larger requests are truncated to it.
+         */
+        private int listSize = 100;
+
+        /**
+         * Most-read books taken from each genre.
+         */
+        private int booksPerGenre = 20;
+        private int recentReleases = 30;
+
+        /**
+         * Every n-th slot of the list is a recent release; the others rotate through genres.
+         */
+        private int recentEvery = 4;
+
+        /**
+         * Users remembered as having history; the least recently seen are forgotten beyond this,
+         * which only costs them one more existence query.
+         */
+        private int knownUsersMaxEntries = 100_000;
+    }
+
+    @Getter
+    @Setter
+    public static class ConsumedFilter {
+        private boolean enabled = true;
+
+        /**
+         * Reading progress (0-100) from which a book counts as finished.
+         */
+        private double minProgress = 90;
+
+        /**
+         * Users whose consumed books are kept in memory; the least recently used are dropped.
+         */
+        private int maxUsers = 50_000;
+
+        /**
+         * Candidates fetched per request are capped at {@code limit * overFetchFactor}.
+         */
+        private int overFetchFactor = 3;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulk {
+
+        /**
+         * Users resolved together; their books are loaded with one query and written out before the next batch.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Concurrent model calls within a batch.
+         */
+        private int parallelism = 16;
+
+        /**
+         * Upper bound of user ids accepted per request.
+         */
+        private int maxUsers = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Materialization {
+        private boolean enabled = true;
+        private String cron = "0 0 3 * * *";
+
+        /**
+         * Similar books stored per book; requests with a larger limit go to the model.
+         */
+        private int listSize = 50;
+
+        /**
+         * Concurrent model calls while the job runs.
+         */
+        private int parallelism = 8;
+
+        /**
+         * Books fetched per batch; progress is checkpointed after every batch.
+         */
+        private int batchSize = 200;
+
+        /**
+         * A running job whose heartbeat is older than this is considered crashed and resumed.
+         */
+        private Duration leaseTimeout = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Shadow {
+        private boolean enabled;
+
+        /**
+         * Candidate model receiving mirrored requests; requests already routed to it are not mirrored.
+         */
+        private String modelKey;
+
+        /**
+         * Fraction of served recommendation requests that are mirrored, between 0 and 1.
+         */
+        private double sampleRate = 0.05;
+
+        /**
+         * Concurrent shadow calls; mirrored requests beyond this and the queue are dropped.
+         */
+        private int maxConcurrency = 4;
+        private int queueCapacity = 64;
+
+        /**
+         * Number of most recent shadow calls kept for latency, error and overlap statistics.
+         */
+        private int windowSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbox {
+        private boolean enabled;
+
+        /**
+         * Delay between dispatcher runs.
+         */
+        private Duration pollInterval = Duration.ofSeconds(2);
+
+        /**
+         * Events posted to a model in one request.
+         */
+        private int batchSize = 500;
+
+        /**
+         * Batches sent to one model per dispatcher run; the rest waits for the next run.
+         */
+        private int maxBatchesPerPoll = 20;
+
+        /**
+         * Claimed events not acknowledged within this time (e.g. the node died) are delivered again.
+         */
+        private Duration lease = Duration.ofMinutes(1);
+
+        /**
+         * Delivery attempts before an event is discarded.
+         */
+        private int maxAttempts = 10;
+
+        /**
+         * Retry delay after the first failure; doubles with every attempt up to maxBackoff.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(5);
+        private Duration maxBackoff = Duration.ofMinutes(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Local {
+
+        /**
+         * How often the in-memory interaction matrix is reloaded from the database; committed
+         * interactions are appended in between.
+         */
+        private Duration rebuildInterval = Duration.ofHours(6);
+
+        /**
+         * Appended entries, as a fraction of the loaded ones, that trigger an in-memory compaction.
+         */
+        private double compactionRatio = 0.1;
+        private Interactions interactions = new Interactions();
+        private Cooccurrence cooccurrence = new Cooccurrence();
+        private Als als = new Als();
+        private Embedding embedding = new Embedding();
+    }
+
+    @Getter
+    @Setter
+    public static class Embedding {
+
+        /**
+         * HNSW index file, memory-mapped at startup.
+         */
+        private String indexPath = "data/book-embeddings.hnsw";
+
+        /**
+         * Embeddings export the index is built from when the index file does not exist yet:
+         * little-endian row count and dimension as ints, then per row a long book id and the floats.
+         */
+        private String vectorsPath;
+
+        /**
+         * Links per node on upper layers; the bottom layer keeps twice as many.
+         */
+        private int maxNeighbors = 16;
+        private int efConstruction = 200;
+
+        /**
+         * Candidate list size while searching; raise it for recall, lower it for speed.
+         */
+        private int efSearch = 64;
+    }
+
+    /**
+     * Weights used to turn interaction rows into matrix entries. Contributions from different
+     * tables for the same user and book are summed.
+     */
+    @Getter
+    @Setter
+    public static class Interactions {
+
+        /**
+         * Ratings below this value are not treated as a positive signal and are skipped.
+         */
+        private int minPositiveRating = 3;
+
+        /**
+         * Weight of a 5-star rating; lower ratings scale linearly.
+         */
+        private float ratingWeight = 1.0f;
+        private float favoriteWeight = 1.0f;
+
+        /**
+         * Weight of a finished book; opening a book counts for half of it.
+         */
+        private float readingWeight = 1.0f;
+    }
+
+    @Getter
+    @Setter
+    public static class Cooccurrence {
+        private int neighborsPerItem = 50;
+
+        /**
+         * Users with more interactions than this are ignored when counting co-occurrences;
+         * they add quadratic work and little signal.
+         */
+        private int maxItemsPerUser = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Als {
+        private int factors = 64;
+        private int iterations = 15;
+        private double regularization = 0.01;
+
+        /**
+         * Confidence of an entry is {@code 1 + alpha * weight}.
+         */
+        private double alpha = 40;
+
+        /**
+         * Conjugate-gradient steps per least-squares solve.
+         */
+        private int cgSteps = 3;
+
+        /**
+         * Training threads; {@code 0} uses every available processor.
+         */
+        private int parallelism = 0;
     }
 }
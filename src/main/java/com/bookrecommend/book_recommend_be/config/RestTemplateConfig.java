@@ -1,20 +1,98 @@
 package com.bookrecommend.book_recommend_be.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.Duration;
+import java.net.URI;
 
 @Configuration
+@Slf4j
 public class RestTemplateConfig {
 
+    /**
+     * Keep-alive connection pool for the recommender services. Each model's host gets its own
+     * per-route limit so one slow model cannot starve the connections of the others.
+     */
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager recsysConnectionManager(RecsysProperties properties) {
+        RecsysProperties.Http http = properties.getHttp();
+        int defaultMaxPerRoute = properties.getModels().values().stream()
+                .mapToInt(RecsysProperties.Model::getMaxConnections)
+                .max()
+                .orElse(50);
+
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(http.getMaxTotalConnections())
+                .setMaxConnPerRoute(defaultMaxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(http.getConnectTimeout().toMillis()))
+                        .setSocketTimeout(Timeout.ofMilliseconds(http.getReadTimeout().toMillis()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        properties.getModels().forEach((key, model) -> model.getReplicaUrls().forEach(url -> {
+            HttpRoute route = toRoute(url);
+            if (route != null) {
+                connectionManager.setMaxPerRoute(route, model.getMaxConnections());
+                log.info("Recommender model '{}' limited to {} pooled connections to {}",
+                        key, model.getMaxConnections(), route.getTargetHost());
+            }
+        }));
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient recsysHttpClient(PoolingHttpClientConnectionManager recsysConnectionManager,
+                                                RecsysProperties properties) {
+        RecsysProperties.Http http = properties.getHttp();
+        return HttpClients.custom()
+                .setConnectionManager(recsysConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(http.getConnectionRequestTimeout().toMillis()))
+                        .setResponseTimeout(Timeout.ofMilliseconds(http.getReadTimeout().toMillis()))
+                        .setConnectionKeepAlive(TimeValue.ofMilliseconds(http.getKeepAlive().toMillis()))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.ofMilliseconds(http.getIdleEviction().toMillis()))
+                .disableAutomaticRetries()
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient recsysHttpClient) {
         return builder
-                .setConnectTimeout(Duration.ofSeconds(5))
-                .setReadTimeout(Duration.ofSeconds(5))
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(recsysHttpClient))
                 .build();
     }
-}
\ No newline at end of file
+
+    private HttpRoute toRoute(String baseUrl) {
+        if (!StringUtils.hasText(baseUrl)) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(baseUrl);
+            boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+            int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+            return new HttpRoute(new HttpHost(uri.getScheme(), uri.getHost(), port), null, secure);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid recommender base URL '{}': {}", baseUrl, e.getMessage());
+            return null;
+        }
+    }
+}
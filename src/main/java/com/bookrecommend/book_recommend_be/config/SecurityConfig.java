@@ -69,7 +69,8 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.OPTIONS).permitAll()
                         .requestMatchers(API + "/auth/**").permitAll()
                         .requestMatchers(HttpMethod.GET, API + "/books", API + "/books/newest", API + "/books/most-read",
-                                API + "/books/genre/**", API + "/books/search").permitAll()
+                                API + "/books/genre/**", API + "/books/search", API + "/books/scroll",
+                                API + "/books/search/scroll").permitAll()
                         .requestMatchers(HttpMethod.GET, API + "/books/{bookId}").permitAll()
                         .requestMatchers(HttpMethod.GET, API + "/books/{bookId}/ratings").permitAll()
                         .requestMatchers(HttpMethod.GET, API + "/books/{bookId}/average-rating").permitAll()
@@ -1,28 +1,64 @@
 package com.bookrecommend.book_recommend_be.controller;
 
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationLine;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationRequest;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationCacheStats;
 import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationModelInfo;
 import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationModelsResponse;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationTrafficResponse;
+import com.bookrecommend.book_recommend_be.dto.recommendation.ShadowTrafficStats;
+import com.bookrecommend.book_recommend_be.dto.recommendation.SimilarBooksJobStatus;
 import com.bookrecommend.book_recommend_be.dto.response.ApiResponse;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecommendationResultCache;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecommendationService;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysArmStatsRegistry;
 import com.bookrecommend.book_recommend_be.service.recommendation.RecsysRoutingService;
+import com.bookrecommend.book_recommend_be.service.recommendation.ShadowTrafficService;
+import com.bookrecommend.book_recommend_be.service.recommendation.SimilarBooksMaterializationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("${api.prefix}/admin/recommendation")
 @RequiredArgsConstructor
 public class AdminRecommendationController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final RecsysRoutingService recsysRoutingService;
+    private final RecommendationResultCache recommendationResultCache;
+    private final SimilarBooksMaterializationService similarBooksMaterializationService;
+    private final RecsysArmStatsRegistry armStatsRegistry;
+    private final ShadowTrafficService shadowTrafficService;
+    private final RecommendationService recommendationService;
+    private final RecsysProperties recsysProperties;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/models")
     public ResponseEntity<ApiResponse<RecommendationModelsResponse>> getModels() {
         RecommendationModelsResponse payload = new RecommendationModelsResponse(
                 recsysRoutingService.getActiveModelKey(),
+                recsysRoutingService.getServingModelKey(),
                 recsysRoutingService.getAvailableModels()
         );
         return ResponseEntity.ok(
@@ -42,4 +78,157 @@ public class AdminRecommendationController {
                     .body(new ApiResponse<>(ex.getMessage()));
         }
     }
+
+    @GetMapping("/cache")
+    public ResponseEntity<ApiResponse<RecommendationCacheStats>> getCacheStats() {
+        return ResponseEntity.ok(
+                ApiResponse.success(recommendationResultCache.getStats(),
+                        "Recommendation cache statistics retrieved successfully")
+        );
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<ApiResponse<RecommendationCacheStats>> flushCache() {
+        recommendationResultCache.invalidateAll();
+        return ResponseEntity.ok(
+                ApiResponse.success(recommendationResultCache.getStats(),
+                        "Recommendation cache flushed successfully")
+        );
+    }
+
+    @GetMapping("/similar-books/job")
+    public ResponseEntity<ApiResponse<SimilarBooksJobStatus>> getSimilarBooksJob(
+            @RequestParam(required = false) String modelKey) {
+        String key = modelKey != null ? modelKey : recsysRoutingService.getActiveModelKey();
+        return ResponseEntity.ok(
+                ApiResponse.success(similarBooksMaterializationService.getStatus(key),
+                        "Similar books job status retrieved successfully")
+        );
+    }
+
+    @PostMapping("/similar-books/job")
+    public ResponseEntity<ApiResponse<SimilarBooksJobStatus>> startSimilarBooksJob(
+            @RequestParam(required = false) String modelKey) {
+        String key = modelKey != null ? modelKey : recsysRoutingService.getActiveModelKey();
+        try {
+            if (!similarBooksMaterializationService.refreshAsync(key)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(new ApiResponse<>(similarBooksMaterializationService.getStatus(key),
+                                "Similar books job is already running"));
+            }
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success(similarBooksMaterializationService.getStatus(key),
+                            "Similar books job started"));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(ex.getMessage()));
+        }
+    }
+
+    @GetMapping("/traffic")
+    public ResponseEntity<ApiResponse<RecommendationTrafficResponse>> getTraffic() {
+        return ResponseEntity.ok(
+                ApiResponse.success(buildTrafficResponse(), "Recommendation traffic split retrieved successfully")
+        );
+    }
+
+    @PutMapping("/traffic")
+    public ResponseEntity<ApiResponse<RecommendationTrafficResponse>> updateTraffic(
+            @RequestBody Map<String, Integer> weights) {
+        try {
+            recsysRoutingService.updateTrafficWeights(weights);
+            return ResponseEntity.ok(
+                    ApiResponse.success(buildTrafficResponse(), "Recommendation traffic split updated successfully")
+            );
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(ex.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/traffic/stats")
+    public ResponseEntity<ApiResponse<RecommendationTrafficResponse>> resetTrafficStats() {
+        armStatsRegistry.resetAll();
+        return ResponseEntity.ok(
+                ApiResponse.success(buildTrafficResponse(), "Recommendation traffic statistics reset successfully")
+        );
+    }
+
+    @GetMapping("/shadow")
+    public ResponseEntity<ApiResponse<ShadowTrafficStats>> getShadowTraffic() {
+        return ResponseEntity.ok(
+                ApiResponse.success(shadowTrafficService.getStats(), "Shadow traffic statistics retrieved successfully")
+        );
+    }
+
+    @PutMapping("/shadow/{modelKey}")
+    public ResponseEntity<ApiResponse<ShadowTrafficStats>> startShadowTraffic(
+            @PathVariable String modelKey,
+            @RequestParam(defaultValue = "0.05") double sampleRate) {
+        try {
+            return ResponseEntity.ok(
+                    ApiResponse.success(shadowTrafficService.configure(modelKey, sampleRate),
+                            "Shadow traffic started successfully")
+            );
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(ex.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/shadow")
+    public ResponseEntity<ApiResponse<ShadowTrafficStats>> stopShadowTraffic() {
+        return ResponseEntity.ok(
+                ApiResponse.success(shadowTrafficService.disable(), "Shadow traffic stopped successfully")
+        );
+    }
+
+    /**
+     * Streams one JSON line per user, in request order, flushing after every batch.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> getBulkRecommendations(@RequestBody BulkRecommendationRequest request) {
+        List<Long> userIds = request.getUserIds() == null ? List.of() : request.getUserIds().stream()
+                .filter(Objects::nonNull)
+                .toList();
+        int limit = request.getLimit() != null ? request.getLimit() : 10;
+        int maxUsers = recsysProperties.getBulk().getMaxUsers();
+
+        if (userIds.isEmpty() || userIds.size() > maxUsers) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("Between 1 and " + maxUsers + " user ids are required"));
+        }
+        if (limit < 1 || limit > 100) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("Limit must be between 1 and 100"));
+        }
+
+        StreamingResponseBody body = outputStream ->
+                recommendationService.streamBulkRecommendations(userIds, limit, lines -> {
+                    try {
+                        for (BulkRecommendationLine line : lines) {
+                            outputStream.write(objectMapper.writeValueAsBytes(line));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        // The client went away; stop computing the remaining batches
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
+    }
+
+    private RecommendationTrafficResponse buildTrafficResponse() {
+        Map<String, Integer> weights = recsysRoutingService.getTrafficWeights();
+        return new RecommendationTrafficResponse(
+                recsysRoutingService.getActiveModelKey(),
+                weights,
+                recsysRoutingService.getAvailableModels().stream()
+                        .map(model -> armStatsRegistry.snapshot(model.getKey(), weights.getOrDefault(model.getKey(), 0)))
+                        .toList()
+        );
+    }
 }
@@ -4,6 +4,8 @@ import com.bookrecommend.book_recommend_be.dto.request.BookRequest;
 import com.bookrecommend.book_recommend_be.dto.request.BulkIdsRequest;
 import com.bookrecommend.book_recommend_be.dto.response.ApiResponse;
 import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
+import com.bookrecommend.book_recommend_be.dto.response.CursorSlice;
 import com.bookrecommend.book_recommend_be.service.book.BookFileDownload;
 import com.bookrecommend.book_recommend_be.service.book.IBookService;
 import jakarta.validation.Valid;
@@ -19,46 +21,64 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.Map;
 import java.io.InputStream;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("${api.prefix}")
 @RequiredArgsConstructor
 public class BookController {
 
+    private static final String VIEW_SUMMARY = "summary";
+    private static final String VIEW_FULL = "full";
+    // Slices fetch size + 1 rows to detect a next page
+    private static final int MAX_SLICE_SIZE = 100;
+
     private final IBookService bookService;
 
     @GetMapping("books")
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> getBooks(
+    public ResponseEntity<ApiResponse<Page<?>>> getBooks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<BookResponse> books = bookService.getBooks(page, size);
-        return ResponseEntity.ok(ApiResponse.success(books, "Books retrieved successfully"));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        return listing(view,
+                () -> bookService.getBookSummaries(page, size),
+                () -> bookService.getBooks(page, size),
+                "Books retrieved successfully");
     }
 
     @GetMapping("books/newest")
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> getNewestBooks(
+    public ResponseEntity<ApiResponse<Page<?>>> getNewestBooks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<BookResponse> books = bookService.getNewestBooks(page, size);
-        return ResponseEntity.ok(ApiResponse.success(books, "Newest books retrieved successfully"));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        return listing(view,
+                () -> bookService.getNewestBookSummaries(page, size),
+                () -> bookService.getNewestBooks(page, size),
+                "Newest books retrieved successfully");
     }
 
     @GetMapping("books/most-read")
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> getMostReadBooks(
+    public ResponseEntity<ApiResponse<Page<?>>> getMostReadBooks(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<BookResponse> books = bookService.getMostReadBooks(page, size);
-        return ResponseEntity.ok(ApiResponse.success(books, "Most read books retrieved successfully"));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        return listing(view,
+                () -> bookService.getMostReadBookSummaries(page, size),
+                () -> bookService.getMostReadBooks(page, size),
+                "Most read books retrieved successfully");
     }
 
     @GetMapping("books/genre/{genreId}")
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> getBooksByGenre(
+    public ResponseEntity<ApiResponse<Page<?>>> getBooksByGenre(
             @PathVariable Long genreId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false, name = "sort") String sortOption) {
-        Page<BookResponse> books = bookService.getBooksByGenre(genreId, page, size, sortOption);
-        return ResponseEntity.ok(ApiResponse.success(books, "Books by genre retrieved successfully"));
+            @RequestParam(required = false, name = "sort") String sortOption,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        return listing(view,
+                () -> bookService.getBookSummariesByGenre(genreId, page, size, sortOption),
+                () -> bookService.getBooksByGenre(genreId, page, size, sortOption),
+                "Books by genre retrieved successfully");
     }
 
     @GetMapping("admin/books")
@@ -73,12 +93,55 @@ public class BookController {
     }
 
     @GetMapping("books/search")
-    public ResponseEntity<ApiResponse<Page<BookResponse>>> searchBooks(
+    public ResponseEntity<ApiResponse<Page<?>>> searchBooks(
             @RequestParam String keyword,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<BookResponse> books = bookService.searchBooks(keyword, page, size);
-        return ResponseEntity.ok(ApiResponse.success(books, "Books found successfully"));
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        return listing(view,
+                () -> bookService.searchBookSummaries(keyword, page, size),
+                () -> bookService.searchBooks(keyword, page, size),
+                "Books found successfully");
+    }
+
+    @GetMapping("books/scroll")
+    public ResponseEntity<ApiResponse<CursorSlice<?>>> scrollBooks(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        if (!isKnownView(view)) {
+            return invalidView();
+        }
+        Supplier<CursorSlice<?>> loader = VIEW_FULL.equalsIgnoreCase(view)
+                ? () -> bookService.scrollBooks(null, after, size)
+                : () -> bookService.scrollBookSummaries(null, after, size);
+        return slice(size, loader, "Books retrieved successfully");
+    }
+
+    @GetMapping("books/search/scroll")
+    public ResponseEntity<ApiResponse<CursorSlice<?>>> scrollSearchBooks(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+        if (!isKnownView(view)) {
+            return invalidView();
+        }
+        Supplier<CursorSlice<?>> loader = VIEW_FULL.equalsIgnoreCase(view)
+                ? () -> bookService.scrollBooks(keyword, after, size)
+                : () -> bookService.scrollBookSummaries(keyword, after, size);
+        return slice(size, loader, "Books found successfully");
+    }
+
+    @GetMapping("admin/books/scroll")
+    public ResponseEntity<ApiResponse<CursorSlice<?>>> scrollAdminBooks(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) Long genreId,
+            @RequestParam(required = false, name = "sort") String sortOption) {
+        return slice(size, () -> bookService.scrollAdminBooks(after, size, keyword, genreId, sortOption),
+                "Books retrieved successfully");
     }
 
     @GetMapping("books/{id}")
@@ -142,4 +205,43 @@ public class BookController {
                 .contentLength(fileDownload.contentLength())
                 .body(body);
     }
+
+    /*
+     * Catalog listings return BookSummary cards unless view=full asks for the complete
+     * BookResponse with descriptions and signed download URLs.
+     */
+    private ResponseEntity<ApiResponse<Page<?>>> listing(String view,
+                                                         Supplier<Page<BookSummary>> summaries,
+                                                         Supplier<Page<BookResponse>> full,
+                                                         String message) {
+        if (!isKnownView(view)) {
+            return invalidView();
+        }
+        if (VIEW_FULL.equalsIgnoreCase(view)) {
+            return ResponseEntity.ok(ApiResponse.success(full.get(), message));
+        }
+        return ResponseEntity.ok(ApiResponse.success(summaries.get(), message));
+    }
+
+    /*
+     * Keyset listings. Bad cursors and unsupported sorts surface as InvalidCursorException,
+     * which GlobalExceptionHandler answers with 400.
+     */
+    private ResponseEntity<ApiResponse<CursorSlice<?>>> slice(int size, Supplier<CursorSlice<?>> loader,
+                                                              String message) {
+        if (size <= 0 || size > MAX_SLICE_SIZE) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>("size must be between 1 and " + MAX_SLICE_SIZE));
+        }
+        return ResponseEntity.ok(ApiResponse.success(loader.get(), message));
+    }
+
+    private static boolean isKnownView(String view) {
+        return VIEW_SUMMARY.equalsIgnoreCase(view) || VIEW_FULL.equalsIgnoreCase(view);
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> invalidView() {
+        return ResponseEntity.badRequest()
+                .body(new ApiResponse<>("view must be '" + VIEW_SUMMARY + "' or '" + VIEW_FULL + "'"));
+    }
 }
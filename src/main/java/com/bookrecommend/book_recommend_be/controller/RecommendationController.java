@@ -54,7 +54,8 @@ public class RecommendationController {
     @GetMapping("/diversity-books")
     public ResponseEntity<ApiResponse<DiversityBooksResponse>> getDiversityBooks(
             @RequestParam Long bookId,
-            @RequestParam(defaultValue = "5") int limit) {
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) Double lambda) {
 
         if (limit < 1 || limit > 100) {
             DiversityBooksResponse empty = new DiversityBooksResponse(Collections.emptyList());
@@ -62,8 +63,14 @@ public class RecommendationController {
                     ApiResponse.success(empty, "Limit must be between 1 and 100")
             );
         }
+        if (lambda != null && (lambda < 0 || lambda > 1)) {
+            DiversityBooksResponse empty = new DiversityBooksResponse(Collections.emptyList());
+            return ResponseEntity.ok(
+                    ApiResponse.success(empty, "Lambda must be between 0 and 1")
+            );
+        }
 
-        DiversityBooksResponse books = recommendationService.getDiversityBooks(bookId, limit);
+        DiversityBooksResponse books = recommendationService.getDiversityBooks(bookId, limit, lambda);
         return ResponseEntity.ok(
                 ApiResponse.success(books, "Diversity recommendations retrieved successfully")
         );
@@ -0,0 +1,17 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRecommendationLine {
+    private Long userId;
+    private List<BookResponse> books;
+    private String error;
+}
@@ -0,0 +1,15 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRecommendationRequest {
+    private List<Long> userIds;
+    private Integer limit;
+}
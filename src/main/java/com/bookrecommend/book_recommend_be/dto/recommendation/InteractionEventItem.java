@@ -0,0 +1,29 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InteractionEventItem {
+    @JsonProperty("event_id")
+    private Long eventId;
+
+    @JsonProperty("user_id")
+    private Long userId;
+
+    @JsonProperty("book_id")
+    private Long bookId;
+
+    private String type;
+
+    private Double value;
+
+    @JsonProperty("occurred_at")
+    private Instant occurredAt;
+}
@@ -0,0 +1,21 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RecommendationArmStats {
+    private String modelKey;
+    private int trafficWeight;
+    private long requests;
+    private long upstreamCalls;
+    private long errors;
+    private double errorRate;
+    private long emptyResults;
+    private double emptyResultRate;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+}
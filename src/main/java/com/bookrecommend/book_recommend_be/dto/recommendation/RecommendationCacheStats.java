@@ -0,0 +1,17 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class RecommendationCacheStats {
+    private boolean enabled;
+    private int size;
+    private int maxEntries;
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions;
+    private long invalidations;
+}
@@ -3,6 +3,8 @@ package com.bookrecommend.book_recommend_be.dto.recommendation;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.Instant;
+
 @Data
 @NoArgsConstructor
 public class RecommendationModelInfo {
@@ -11,4 +13,13 @@ public class RecommendationModelInfo {
     private String baseUrl;
     private boolean supportsOnlineLearning;
     private boolean active;
+    private boolean local;
+    private boolean ready;
+    private String circuitState;
+    private double failureRate;
+    private int trafficWeight;
+    private String healthStatus;
+    private Double probeLatencyMillis;
+    private Instant lastProbeAt;
+    private String lastProbeError;
 }
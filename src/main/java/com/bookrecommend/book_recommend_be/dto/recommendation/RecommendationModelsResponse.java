@@ -11,5 +11,6 @@ import java.util.List;
 @AllArgsConstructor
 public class RecommendationModelsResponse {
     private String activeKey;
+    private String servingKey;
     private List<RecommendationModelInfo> models;
 }
@@ -0,0 +1,17 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommendationTrafficResponse {
+    private String activeModel;
+    private Map<String, Integer> trafficWeights;
+    private List<RecommendationArmStats> arms;
+}
@@ -0,0 +1,27 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class ShadowTrafficStats {
+    private boolean enabled;
+    private String modelKey;
+    private double sampleRate;
+    private long mirrored;
+    private long dropped;
+    private int windowSize;
+    private int samples;
+    private int errors;
+    private double errorRate;
+    private double p50Millis;
+    private double p95Millis;
+    private double p99Millis;
+    private double maxMillis;
+
+    /**
+     * Mean share of the primary model's books also returned by the shadow model, over successful calls.
+     */
+    private double meanOverlap;
+}
@@ -0,0 +1,21 @@
+package com.bookrecommend.book_recommend_be.dto.recommendation;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+public class SimilarBooksJobStatus {
+    private String modelKey;
+    private String status;
+    private boolean runningLocally;
+    private Instant runStartedAt;
+    private Instant heartbeatAt;
+    private Instant finishedAt;
+    private long lastBookId;
+    private long processed;
+    private long failed;
+    private double booksPerSecond;
+}
@@ -0,0 +1,20 @@
+package com.bookrecommend.book_recommend_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Card-sized view of a book for catalog listings: no description and no format download URLs.
+ * Author names arrive already joined by the database, in alphabetical order.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class BookSummary {
+    Long id;
+    String title;
+    String coverImageUrl;
+    Integer publicationYear;
+    String authorNames;
+}
@@ -0,0 +1,21 @@
+package com.bookrecommend.book_recommend_be.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page. There is no total count; pass {@code nextCursor} back as {@code after}
+ * to get the following page, until {@code hasNext} is false.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Data
+public class CursorSlice<T> {
+    List<T> content;
+    int size;
+    boolean hasNext;
+    String nextCursor;
+}
@@ -0,0 +1,15 @@
+package com.bookrecommend.book_recommend_be.exceptions;
+
+/**
+ * A keyset pagination cursor that is malformed, was issued for another order, or a sort that
+ * has no cursor pagination. Always the client's fault, so it is answered with 400.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
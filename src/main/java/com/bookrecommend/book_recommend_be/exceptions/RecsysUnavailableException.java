@@ -0,0 +1,12 @@
+package com.bookrecommend.book_recommend_be.exceptions;
+
+public class RecsysUnavailableException extends RuntimeException {
+
+    public RecsysUnavailableException(String message) {
+        super(message);
+    }
+
+    public RecsysUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,9 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import java.util.Set;
+
+/**
+ * Genre and author ids of one book: all diversity re-ranking compares, without the book itself.
+ */
+public record BookFeatures(long bookId, Set<Long> genreIds, Set<Long> authorIds) {
+}
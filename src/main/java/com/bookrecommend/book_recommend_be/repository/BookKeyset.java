@@ -0,0 +1,19 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import java.time.Instant;
+
+/**
+ * Sort keys of one book row, used as the seek position of keyset pagination.
+ * A missing publication year is carried as 0, the same value the queries order by.
+ */
+public record BookKeyset(Long id, Instant createdAt, int publicationYear) {
+
+    public enum Order {
+        /** createdAt DESC, id DESC */
+        CREATED_DESC,
+        /** publicationYear DESC, createdAt DESC, id DESC */
+        YEAR_DESC,
+        /** publicationYear ASC, createdAt ASC, id ASC */
+        YEAR_ASC
+    }
+}
@@ -0,0 +1,23 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import com.bookrecommend.book_recommend_be.model.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface BookKeysetRepository {
+    /**
+     * Sort keys of up to {@code limit} books matching the specification that come strictly
+     * after {@code after} in the given order, or from the start when {@code after} is null.
+     * No count query is issued.
+     */
+    List<BookKeyset> findKeysets(Specification<Book> specification, BookKeyset.Order order, BookKeyset after, int limit);
+
+    /**
+     * Offset page of the ids of books matching the specification, in the pageable's sort, with
+     * the usual count query. The id-only counterpart of {@code findAll(specification, pageable)}.
+     */
+    Page<Long> findIdPage(Specification<Book> specification, Pageable pageable);
+}
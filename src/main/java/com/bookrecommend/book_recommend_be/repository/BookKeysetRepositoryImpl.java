@@ -0,0 +1,155 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import com.bookrecommend.book_recommend_be.model.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.NullPrecedence;
+import org.hibernate.query.criteria.JpaOrder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seek and id page queries over the book sort keys. Only the id and the sort keys are selected,
+ * so every ORDER BY expression is also in the select list and the DISTINCT added by join-based
+ * specifications stays valid.
+ */
+public class BookKeysetRepositoryImpl implements BookKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookKeyset> findKeysets(Specification<Book> specification, BookKeyset.Order order,
+                                        BookKeyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        Expression<Long> id = root.get("id");
+        Expression<Instant> createdAt = root.get("createdAt");
+        Expression<Integer> year = cb.coalesce(root.get("publicationYear"), 0);
+        query.multiselect(id.alias("id"), createdAt.alias("createdAt"), year.alias("year"));
+
+        List<Predicate> predicates = new ArrayList<>();
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+
+        boolean descending = order != BookKeyset.Order.YEAR_ASC;
+        if (after != null) {
+            // (createdAt, id) strictly past the cursor, then widened by the year for year orders
+            Predicate seek = cb.or(
+                    beyond(cb, createdAt, after.createdAt(), descending),
+                    cb.and(cb.equal(createdAt, after.createdAt()), beyond(cb, id, after.id(), descending)));
+            if (order != BookKeyset.Order.CREATED_DESC) {
+                seek = cb.or(
+                        beyond(cb, year, after.publicationYear(), descending),
+                        cb.and(cb.equal(year, after.publicationYear()), seek));
+            }
+            predicates.add(seek);
+        }
+        query.where(predicates.toArray(Predicate[]::new));
+
+        List<jakarta.persistence.criteria.Order> orderBy = new ArrayList<>();
+        if (order != BookKeyset.Order.CREATED_DESC) {
+            orderBy.add(descending ? cb.desc(year) : cb.asc(year));
+        }
+        orderBy.add(descending ? cb.desc(createdAt) : cb.asc(createdAt));
+        orderBy.add(descending ? cb.desc(id) : cb.asc(id));
+        query.orderBy(orderBy);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList()
+                .stream()
+                .map(row -> new BookKeyset(
+                        row.get("id", Long.class),
+                        row.get("createdAt", Instant.class),
+                        row.get("year", Integer.class)))
+                .toList();
+    }
+
+    @Override
+    public Page<Long> findIdPage(Specification<Book> specification, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+
+        List<jakarta.persistence.criteria.Order> orderBy = toOrders(pageable.getSort(), root, cb);
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(root.get("id").alias("id"));
+        orderBy.forEach(order -> selections.add(order.getExpression()));
+        query.multiselect(selections);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.orderBy(orderBy);
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()))
+                    .setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = typedQuery.getResultList().stream()
+                .map(row -> row.get("id", Long.class))
+                .toList();
+        return PageableExecutionUtils.getPage(ids, pageable, () -> count(specification));
+    }
+
+    /**
+     * {@link QueryUtils#toOrders} rejects explicit null handling, so it is applied through
+     * Hibernate's order extension instead.
+     */
+    private static List<jakarta.persistence.criteria.Order> toOrders(Sort sort, Root<Book> root, CriteriaBuilder cb) {
+        List<jakarta.persistence.criteria.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            JpaOrder jpaOrder = (JpaOrder) QueryUtils.toOrders(
+                    Sort.by(order.with(Sort.NullHandling.NATIVE)), root, cb).get(0);
+            switch (order.getNullHandling()) {
+                case NULLS_FIRST -> jpaOrder.nullPrecedence(NullPrecedence.FIRST);
+                case NULLS_LAST -> jpaOrder.nullPrecedence(NullPrecedence.LAST);
+                case NATIVE -> {
+                }
+            }
+            orders.add(jpaOrder);
+        }
+        return orders;
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        Predicate filter = specification.toPredicate(root, query, cb);
+        if (filter != null) {
+            query.where(filter);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(root) : cb.count(root));
+        // DISTINCT now lives inside the count
+        query.distinct(false);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder cb, Expression<Y> key, Y value,
+                                                               boolean descending) {
+        return descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+    }
+}
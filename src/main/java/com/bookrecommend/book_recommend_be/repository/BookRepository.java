@@ -1,5 +1,6 @@
 package com.bookrecommend.book_recommend_be.repository;
 
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
 import com.bookrecommend.book_recommend_be.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -9,11 +10,85 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
-    Page<Book> findByIsDeletedFalse(Pageable pageable);
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookKeysetRepository {
+    /*
+     * Id-only pages: the first phase of a page load. Books are hydrated afterwards with
+     * findAllWithDetailsByIdIn and findAllWithFormatsByIdIn, so a page costs the same number of
+     * queries at any size.
+     */
+    @Query(value = """
+            SELECT b.id FROM Book b
+            WHERE b.isDeleted = false
+            """,
+            countQuery = """
+                    SELECT COUNT(b) FROM Book b
+                    WHERE b.isDeleted = false
+                    """)
+    Page<Long> findVisibleBookIdPage(Pageable pageable);
+
+    @Query(value = """
+            SELECT b.id FROM Book b
+            WHERE b.isDeleted = false
+            ORDER BY b.createdAt DESC
+            """,
+            countQuery = """
+                    SELECT COUNT(b) FROM Book b
+                    WHERE b.isDeleted = false
+                    """)
+    Page<Long> findNewestBookIdPage(Pageable pageable);
+
+    @Query(value = """
+            SELECT b.id FROM Book b
+            LEFT JOIN b.readingHistories rh
+            WHERE b.isDeleted = false
+            GROUP BY b.id
+            ORDER BY COUNT(rh) DESC
+            """,
+            countQuery = """
+                    SELECT COUNT(b) FROM Book b
+                    WHERE b.isDeleted = false
+                    """)
+    Page<Long> findMostReadBookIdPage(Pageable pageable);
+
+    @Query(value = """
+            SELECT b.id FROM Book b
+            WHERE b.isDeleted = false
+              AND EXISTS (
+                  SELECT 1 FROM b.genres g
+                  WHERE g.id = :genreId
+              )
+            """,
+            countQuery = """
+                    SELECT COUNT(b) FROM Book b
+                    WHERE b.isDeleted = false
+                      AND EXISTS (
+                          SELECT 1 FROM b.genres g
+                          WHERE g.id = :genreId
+                      )
+                    """)
+    Page<Long> findBookIdPageByGenre(@Param("genreId") Long genreId, Pageable pageable);
+
+    @Query(value = """
+            SELECT b.id FROM Book b
+            JOIN b.genres g
+            LEFT JOIN b.readingHistories rh
+            WHERE g.id = :genreId
+              AND b.isDeleted = false
+            GROUP BY b.id, b.title
+            ORDER BY COUNT(rh) DESC, b.title ASC
+            """,
+            countQuery = """
+                    SELECT COUNT(b) FROM Book b
+                    JOIN b.genres g
+                    WHERE g.id = :genreId
+                      AND b.isDeleted = false
+                    """)
+    Page<Long> findBookIdPageByGenreOrderByPopularity(@Param("genreId") Long genreId, Pageable pageable);
 
     long countByIsDeletedFalse();
 
@@ -21,55 +96,101 @@ public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificat
 
     Optional<Book> findByIdAndIsDeletedFalse(Long id);
 
+    /*
+     * Formats are a list, so fetching them in the same query as the author and genre sets would
+     * repeat each format once per author/genre combination. They are fetched by a second query
+     * in the same persistence context, which initializes them on the books loaded here.
+     */
     @Query("""
-            SELECT b FROM Book b
+            SELECT DISTINCT b FROM Book b
+            LEFT JOIN FETCH b.authors
+            LEFT JOIN FETCH b.genres
+            WHERE b.id IN :ids
+              AND b.isDeleted = false
+            """)
+    List<Book> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT DISTINCT b FROM Book b
+            LEFT JOIN FETCH b.formats f
+            LEFT JOIN FETCH f.type
+            WHERE b.id IN :ids
+              AND b.isDeleted = false
+            """)
+    List<Book> findAllWithFormatsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Listing projection: only the card columns, with author names joined by the database so
+     * the TEXT description and the format rows are never read.
+     */
+    @Query("""
+            SELECT new com.bookrecommend.book_recommend_be.dto.response.BookSummary(
+                   b.id, b.title, b.coverImageUrl, b.publicationYear,
+                   LISTAGG(a.name, ', ') WITHIN GROUP (ORDER BY a.name))
+            FROM Book b
+            LEFT JOIN b.authors a
+            WHERE b.id IN :ids
+              AND b.isDeleted = false
+            GROUP BY b.id, b.title, b.coverImageUrl, b.publicationYear
+            """)
+    List<BookSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /*
+     * Feature projection for diversity re-ranking: one (book, genre, author) id row per
+     * combination, so a large candidate pool is compared without hydrating any book.
+     */
+    @Query("""
+            SELECT b.id, g.id, a.id FROM Book b
+            LEFT JOIN b.genres g
+            LEFT JOIN b.authors a
+            WHERE b.id IN :ids
+              AND b.isDeleted = false
+            """)
+    List<Object[]> findGenreAndAuthorIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("""
+            SELECT b.id FROM Book b
             WHERE b.isDeleted = false
-            ORDER BY b.createdAt DESC
+            ORDER BY b.createdAt DESC, b.id DESC
             """)
-    Page<Book> findNewestBooks(Pageable pageable);
+    List<Long> findNewestBookIds(Pageable pageable);
 
     @Query("""
-            SELECT b FROM Book b
+            SELECT b.id FROM Book b
             LEFT JOIN b.readingHistories rh
             WHERE b.isDeleted = false
-            GROUP BY b
-            ORDER BY COUNT(rh) DESC
+            GROUP BY b.id
+            ORDER BY COUNT(rh) DESC, b.id DESC
             """)
-    Page<Book> findMostReadBooks(Pageable pageable);
+    List<Long> findMostReadBookIds(Pageable pageable);
 
     @Query("""
-            SELECT b FROM Book b
+            SELECT b.id FROM Book b
+            LEFT JOIN b.readingHistories rh
             WHERE b.isDeleted = false
               AND EXISTS (
                   SELECT 1 FROM b.genres g
-                  WHERE g.id = :genreId
+                  WHERE g.id IN :genreIds
               )
+            GROUP BY b.id
+            ORDER BY COUNT(rh) DESC, b.id DESC
             """)
-    Page<Book> findBooksByGenre(Long genreId, Pageable pageable);
+    List<Long> findMostReadBookIdsByGenreIds(@Param("genreIds") Collection<Long> genreIds, Pageable pageable);
 
     @Query("""
-            SELECT b FROM Book b
+            SELECT g.id FROM Book b
             JOIN b.genres g
-            LEFT JOIN b.readingHistories rh
-            WHERE g.id = :genreId
-              AND b.isDeleted = false
-            GROUP BY b
-            ORDER BY COUNT(rh) DESC, b.title ASC
+            WHERE b.id = :bookId
             """)
-    Page<Book> findBooksByGenreOrderByPopularity(Long genreId, Pageable pageable);
+    List<Long> findGenreIdsByBookId(@Param("bookId") Long bookId);
 
     @Query("""
-            SELECT DISTINCT b FROM Book b
-            LEFT JOIN b.authors a
+            SELECT b.id FROM Book b
             WHERE b.isDeleted = false
-              AND (
-                    LOWER(b.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                 OR LOWER(a.name) LIKE LOWER(CONCAT('%', :keyword, '%'))
-                 OR LOWER(b.publisher) LIKE LOWER(CONCAT('%', :keyword, '%'))
-              )
-            ORDER BY b.createdAt DESC
+              AND b.id > :afterId
+            ORDER BY b.id
             """)
-    Page<Book> searchBooks(@Param("keyword") String keyword, Pageable pageable);
+    List<Long> findVisibleBookIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     @Query("""
             SELECT b.id AS bookId,
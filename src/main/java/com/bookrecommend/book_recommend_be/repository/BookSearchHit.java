@@ -0,0 +1,7 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+/**
+ * A full-text match and its {@code ts_rank}; also the seek position of ranked search pages.
+ */
+public record BookSearchHit(long bookId, float rank) {
+}
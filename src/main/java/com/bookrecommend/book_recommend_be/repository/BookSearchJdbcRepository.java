@@ -0,0 +1,95 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+/**
+ * Ranked full-text search over the {@code books.search_vector} column, which init_db.sql keeps
+ * up to date with triggers and indexes with GIN. Queries are parsed with the
+ * {@code book_search} configuration, so they are folded by unaccent the same way as the documents.
+ * <p>
+ * Query strings are {@code to_tsquery} syntax and must come from trusted code, not raw user input.
+ */
+@Repository
+public class BookSearchJdbcRepository {
+
+    private static final RowMapper<BookSearchHit> HIT_MAPPER =
+            (resultSet, rowNum) -> new BookSearchHit(resultSet.getLong(1), resultSet.getFloat(2));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schemaPrefix;
+
+    public BookSearchJdbcRepository(JdbcTemplate jdbcTemplate,
+                                    @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaPrefix = StringUtils.hasText(schema) ? schema + "." : "";
+    }
+
+    /**
+     * Best matches first; from the start when {@code after} is null, otherwise strictly after it
+     * in (rank, id) order.
+     */
+    public List<BookSearchHit> search(String tsQuery, BookSearchHit after, int limit) {
+        if (after == null) {
+            return jdbcTemplate.query("""
+                    SELECT b.book_id, ts_rank(b.search_vector, q.query) AS rank
+                    FROM %1$sbooks b,
+                         to_tsquery('%1$sbook_search', ?) AS q(query)
+                    WHERE b.is_deleted = false
+                      AND b.search_vector @@ q.query
+                    ORDER BY rank DESC, b.book_id DESC
+                    LIMIT ?
+                    """.formatted(schemaPrefix), HIT_MAPPER, tsQuery, limit);
+        }
+        return jdbcTemplate.query("""
+                SELECT b.book_id, ts_rank(b.search_vector, q.query) AS rank
+                FROM %1$sbooks b,
+                     to_tsquery('%1$sbook_search', ?) AS q(query)
+                WHERE b.is_deleted = false
+                  AND b.search_vector @@ q.query
+                  AND (ts_rank(b.search_vector, q.query), b.book_id) < (CAST(? AS real), ?)
+                ORDER BY rank DESC, b.book_id DESC
+                LIMIT ?
+                """.formatted(schemaPrefix), HIT_MAPPER, tsQuery, after.rank(), after.bookId(), limit);
+    }
+
+    public List<Long> searchIds(String tsQuery, long offset, int limit) {
+        return jdbcTemplate.queryForList("""
+                SELECT b.book_id
+                FROM %1$sbooks b,
+                     to_tsquery('%1$sbook_search', ?) AS q(query)
+                WHERE b.is_deleted = false
+                  AND b.search_vector @@ q.query
+                ORDER BY ts_rank(b.search_vector, q.query) DESC, b.book_id DESC
+                OFFSET ? LIMIT ?
+                """.formatted(schemaPrefix), Long.class, tsQuery, offset, limit);
+    }
+
+    public long count(String tsQuery) {
+        Long count = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*)
+                FROM %1$sbooks b
+                WHERE b.is_deleted = false
+                  AND b.search_vector @@ to_tsquery('%1$sbook_search', ?)
+                """.formatted(schemaPrefix), Long.class, tsQuery);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * SQL predicate for Hibernate's {@code sql()} function that is true when the book id bound
+     * to the first placeholder matches the query bound to the second. It plans as a GIN bitmap
+     * scan joined on the primary key, so specifications can filter by full-text search.
+     */
+    public String matchPredicateSql() {
+        return """
+                exists (select 1 from %1$sbooks s
+                        where s.book_id = ?
+                          and s.search_vector @@ to_tsquery('%1$sbook_search', ?))\
+                """.formatted(schemaPrefix);
+    }
+}
@@ -0,0 +1,127 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Plain JDBC access to the interaction tables for in-process recommenders, which need every
+ * row but none of the entity overhead, and for the cold-start tier and consumed-book filter.
+ * Full reads are streamed with a server-side cursor.
+ */
+@Repository
+public class InteractionJdbcRepository {
+
+    private static final int FETCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schemaPrefix;
+
+    public InteractionJdbcRepository(JdbcTemplate jdbcTemplate,
+                                     @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaPrefix = StringUtils.hasText(schema) ? schema + "." : "";
+    }
+
+    /**
+     * Streams ratings, favorites and reading progress on visible books to the matching handler
+     * method, one table after the other inside a single read-only transaction.
+     */
+    @Transactional(readOnly = true)
+    public void streamInteractions(InteractionRowHandler handler) {
+        stream("""
+                SELECT r.user_id, r.book_id, r.rating_value
+                FROM %1$sratings r
+                JOIN %1$sbooks b ON b.book_id = r.book_id
+                WHERE b.is_deleted = false
+                """, resultSet -> handler.onRating(resultSet.getLong(1), resultSet.getLong(2), resultSet.getInt(3)));
+        stream("""
+                SELECT f.user_id, f.book_id
+                FROM %1$sfavorites f
+                JOIN %1$sbooks b ON b.book_id = f.book_id
+                WHERE b.is_deleted = false
+                """, resultSet -> handler.onFavorite(resultSet.getLong(1), resultSet.getLong(2)));
+        stream("""
+                SELECT h.user_id, h.book_id, COALESCE(h.progress, 0)
+                FROM %1$sreading_history h
+                JOIN %1$sbooks b ON b.book_id = h.book_id
+                WHERE b.is_deleted = false
+                """, resultSet -> handler.onReadingProgress(resultSet.getLong(1), resultSet.getLong(2), resultSet.getDouble(3)));
+    }
+
+    /**
+     * One index probe per table; used to detect users without any history.
+     */
+    public boolean hasInteractions(long userId) {
+        Boolean exists = jdbcTemplate.queryForObject("""
+                SELECT EXISTS (SELECT 1 FROM %1$sratings WHERE user_id = ?)
+                    OR EXISTS (SELECT 1 FROM %1$sfavorites WHERE user_id = ?)
+                    OR EXISTS (SELECT 1 FROM %1$sreading_history WHERE user_id = ?)
+                """.formatted(schemaPrefix), Boolean.class, userId, userId, userId);
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * Books the user has favorited or read to at least {@code minProgress}, streamed to {@code consumer}.
+     */
+    public void forEachConsumedBookId(long userId, double minProgress, LongConsumer consumer) {
+        jdbcTemplate.query("""
+                        SELECT book_id FROM %1$sfavorites WHERE user_id = ?
+                        UNION
+                        SELECT book_id FROM %1$sreading_history WHERE user_id = ? AND progress >= ?
+                        """.formatted(schemaPrefix),
+                (RowCallbackHandler) resultSet -> consumer.accept(resultSet.getLong(1)),
+                userId, userId, minProgress);
+    }
+
+    /**
+     * The {@code perGenre} most-read visible books of every genre, ordered by genre and rank.
+     */
+    public List<GenreBook> findMostReadBooksPerGenre(int perGenre) {
+        return jdbcTemplate.query("""
+                        SELECT genre_id, book_id, reads
+                        FROM (SELECT bg.genre_id,
+                                     b.book_id,
+                                     COUNT(h.history_id) AS reads,
+                                     ROW_NUMBER() OVER (PARTITION BY bg.genre_id
+                                                        ORDER BY COUNT(h.history_id) DESC, b.book_id DESC) AS genre_rank
+                              FROM %1$sbooks b
+                                       JOIN %1$sbook_genres bg ON bg.book_id = b.book_id
+                                       LEFT JOIN %1$sreading_history h ON h.book_id = b.book_id
+                              WHERE b.is_deleted = false
+                              GROUP BY bg.genre_id, b.book_id) ranked
+                        WHERE genre_rank <= ?
+                        ORDER BY genre_id, genre_rank
+                        """.formatted(schemaPrefix),
+                (resultSet, rowNum) -> new GenreBook(resultSet.getLong(1), resultSet.getLong(2), resultSet.getLong(3)),
+                perGenre);
+    }
+
+    private void stream(String sqlTemplate, RowCallbackHandler rowHandler) {
+        String sql = sqlTemplate.formatted(schemaPrefix);
+        jdbcTemplate.query(connection -> {
+            // A fetch size inside a transaction makes the PostgreSQL driver use a cursor
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(FETCH_SIZE);
+            return statement;
+        }, rowHandler);
+    }
+
+    public interface InteractionRowHandler {
+        void onRating(long userId, long bookId, int ratingValue);
+
+        void onFavorite(long userId, long bookId);
+
+        void onReadingProgress(long userId, long bookId, double progress);
+    }
+
+    public record GenreBook(long genreId, long bookId, long reads) {
+    }
+}
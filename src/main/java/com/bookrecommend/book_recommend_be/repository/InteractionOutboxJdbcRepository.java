@@ -0,0 +1,141 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC access to {@code interaction_outbox}. Rows are written in the transaction of the
+ * interaction itself and claimed by dispatchers with {@code FOR UPDATE SKIP LOCKED}, so several
+ * nodes can drain the table without handing the same event to two of them.
+ */
+@Repository
+public class InteractionOutboxJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schemaPrefix;
+
+    public InteractionOutboxJdbcRepository(JdbcTemplate jdbcTemplate,
+                                           @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaPrefix = StringUtils.hasText(schema) ? schema + "." : "";
+    }
+
+    /**
+     * Queues one row per model. Joins the caller's transaction when there is one.
+     */
+    public void append(List<String> modelKeys, Long userId, Long bookId, String type, Double value, Instant occurredAt) {
+        if (modelKeys.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO %sinteraction_outbox (model_key, user_id, book_id, interaction_type, value, occurred_at)
+                VALUES (?, ?, ?, ?, ?, ?)
+                """.formatted(schemaPrefix), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                statement.setString(1, modelKeys.get(i));
+                statement.setLong(2, userId);
+                statement.setLong(3, bookId);
+                statement.setString(4, type);
+                if (value != null) {
+                    statement.setDouble(5, value);
+                } else {
+                    statement.setNull(5, Types.DOUBLE);
+                }
+                statement.setTimestamp(6, Timestamp.from(occurredAt));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return modelKeys.size();
+            }
+        });
+    }
+
+    /**
+     * Claims up to {@code limit} due events for a model, oldest first. Claimed events are hidden
+     * from other dispatchers for {@code lease} and their attempt counter is incremented; events
+     * that are neither deleted nor rescheduled in time become due again.
+     */
+    public List<OutboxEntry> claim(String modelKey, int limit, Duration lease) {
+        List<OutboxEntry> entries = jdbcTemplate.query("""
+                        UPDATE %1$sinteraction_outbox o
+                        SET attempts = o.attempts + 1, available_at = now() + make_interval(secs => ?)
+                        WHERE o.event_id IN (
+                            SELECT event_id FROM %1$sinteraction_outbox
+                            WHERE model_key = ? AND available_at <= now()
+                            ORDER BY event_id
+                            LIMIT ?
+                            FOR UPDATE SKIP LOCKED)
+                        RETURNING o.event_id, o.user_id, o.book_id, o.interaction_type, o.value, o.occurred_at, o.attempts
+                        """.formatted(schemaPrefix),
+                (resultSet, rowNum) -> toEntry(resultSet),
+                (double) lease.toSeconds(), modelKey, limit);
+        return entries.stream()
+                .sorted(Comparator.comparingLong(OutboxEntry::eventId))
+                .toList();
+    }
+
+    public int delete(List<Long> eventIds) {
+        return updateByIds("DELETE FROM %sinteraction_outbox WHERE event_id = ANY (?)", eventIds);
+    }
+
+    /**
+     * Discards events that already used {@code maxAttempts} deliveries.
+     */
+    public int deleteExhausted(List<Long> eventIds, int maxAttempts) {
+        return updateByIds("DELETE FROM %sinteraction_outbox WHERE event_id = ANY (?) AND attempts >= " + maxAttempts,
+                eventIds);
+    }
+
+    public int reschedule(List<Long> eventIds, Duration delay) {
+        return updateByIds("UPDATE %sinteraction_outbox SET available_at = now() + make_interval(secs => "
+                + delay.toSeconds() + ") WHERE event_id = ANY (?)", eventIds);
+    }
+
+    private int updateByIds(String sqlTemplate, List<Long> eventIds) {
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+        String sql = sqlTemplate.formatted(schemaPrefix);
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Array ids = connection.createArrayOf("bigint", eventIds.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setArray(1, ids);
+                return statement.executeUpdate();
+            } finally {
+                ids.free();
+            }
+        });
+    }
+
+    private static OutboxEntry toEntry(ResultSet resultSet) throws SQLException {
+        return new OutboxEntry(
+                resultSet.getLong("event_id"),
+                resultSet.getLong("user_id"),
+                resultSet.getLong("book_id"),
+                resultSet.getString("interaction_type"),
+                resultSet.getObject("value", Double.class),
+                resultSet.getTimestamp("occurred_at").toInstant(),
+                resultSet.getInt("attempts"));
+    }
+
+    public record OutboxEntry(long eventId, long userId, long bookId, String type, Double value,
+                              Instant occurredAt, int attempts) {
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -29,4 +30,18 @@ public interface ReadingHistoryRepository extends JpaRepository<ReadingHistory,
               AND b.isDeleted = false
             """)
     Page<ReadingHistory> findAllByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT g.id FROM ReadingHistory rh
+            JOIN rh.book b
+            JOIN b.genres g
+            WHERE rh.user.id = :userId
+              AND b.isDeleted = false
+            GROUP BY g.id
+            ORDER BY COUNT(rh) DESC
+            """)
+    List<Long> findTopGenreIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT rh.book.id FROM ReadingHistory rh WHERE rh.user.id = :userId")
+    List<Long> findBookIdsByUserId(@Param("userId") Long userId);
 }
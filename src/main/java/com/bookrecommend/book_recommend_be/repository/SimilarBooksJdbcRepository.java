@@ -0,0 +1,188 @@
+package com.bookrecommend.book_recommend_be.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.StringUtils;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to the precomputed {@code similar_books} lists and the checkpoint row of the
+ * job that fills them. Plain JDBC because the lists are PostgreSQL {@code BIGINT[]} columns
+ * written in batches with upserts.
+ */
+@Repository
+public class SimilarBooksJdbcRepository {
+
+    public static final String STATUS_RUNNING = "RUNNING";
+    public static final String STATUS_COMPLETED = "COMPLETED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String schemaPrefix;
+
+    public SimilarBooksJdbcRepository(JdbcTemplate jdbcTemplate,
+                                      @Value("${spring.jpa.properties.hibernate.default_schema:}") String schema) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.schemaPrefix = StringUtils.hasText(schema) ? schema + "." : "";
+    }
+
+    public Optional<List<Long>> findSimilarBookIds(String modelKey, Long bookId) {
+        List<List<Long>> rows = jdbcTemplate.query(
+                "SELECT similar_book_ids FROM %ssimilar_books WHERE model_key = ? AND book_id = ?".formatted(schemaPrefix),
+                (resultSet, rowNum) -> toLongList(resultSet.getArray(1)),
+                modelKey, bookId);
+        return rows.stream().findFirst();
+    }
+
+    public void upsertSimilarBookIds(String modelKey, Map<Long, List<Long>> similarByBookId) {
+        if (similarByBookId.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, List<Long>>> entries = new ArrayList<>(similarByBookId.entrySet());
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO %ssimilar_books (model_key, book_id, similar_book_ids, computed_at)
+                VALUES (?, ?, ?, now())
+                ON CONFLICT (model_key, book_id)
+                DO UPDATE SET similar_book_ids = EXCLUDED.similar_book_ids, computed_at = EXCLUDED.computed_at
+                """.formatted(schemaPrefix), new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Map.Entry<Long, List<Long>> entry = entries.get(i);
+                statement.setString(1, modelKey);
+                statement.setLong(2, entry.getKey());
+                statement.setArray(3, statement.getConnection().createArrayOf("bigint", entry.getValue().toArray()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entries.size();
+            }
+        });
+    }
+
+    /**
+     * Stamps the stored lists of {@code bookIds} as computed now without changing them, so a run
+     * that could not refresh them keeps the previous lists past its stale delete.
+     */
+    public void markComputed(String modelKey, List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            Array ids = connection.createArrayOf("bigint", bookIds.toArray());
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE %ssimilar_books SET computed_at = now() WHERE model_key = ? AND book_id = ANY (?)"
+                            .formatted(schemaPrefix))) {
+                statement.setString(1, modelKey);
+                statement.setArray(2, ids);
+                return statement.executeUpdate();
+            } finally {
+                ids.free();
+            }
+        });
+    }
+
+    /**
+     * Removes lists not refreshed since {@code before}, i.e. books that disappeared during a run.
+     */
+    public int deleteComputedBefore(String modelKey, Instant before) {
+        return jdbcTemplate.update(
+                "DELETE FROM %ssimilar_books WHERE model_key = ? AND computed_at < ?".formatted(schemaPrefix),
+                modelKey, Timestamp.from(before));
+    }
+
+    public Optional<JobCheckpoint> findCheckpoint(String modelKey) {
+        return jdbcTemplate.query("""
+                        SELECT model_key, status, run_started_at, heartbeat_at, finished_at, last_book_id, processed, failed
+                        FROM %ssimilar_books_job WHERE model_key = ?
+                        """.formatted(schemaPrefix),
+                (resultSet, rowNum) -> toCheckpoint(resultSet), modelKey).stream().findFirst();
+    }
+
+    /**
+     * Takes the job lease for a model. A completed job starts a new run from the first book;
+     * a failed one, or a running one whose heartbeat expired, resumes from its checkpoint.
+     *
+     * @return the checkpoint to continue from, or empty when another run holds the lease
+     */
+    public Optional<JobCheckpoint> claim(String modelKey, Duration leaseTimeout) {
+        return jdbcTemplate.query("""
+                        INSERT INTO %1$ssimilar_books_job AS j (model_key, status, run_started_at, heartbeat_at)
+                        VALUES (?, 'RUNNING', now(), now())
+                        ON CONFLICT (model_key) DO UPDATE SET
+                            status         = 'RUNNING',
+                            heartbeat_at   = now(),
+                            finished_at    = NULL,
+                            run_started_at = CASE WHEN j.status = 'COMPLETED' THEN now() ELSE j.run_started_at END,
+                            last_book_id   = CASE WHEN j.status = 'COMPLETED' THEN 0 ELSE j.last_book_id END,
+                            processed      = CASE WHEN j.status = 'COMPLETED' THEN 0 ELSE j.processed END,
+                            failed         = CASE WHEN j.status = 'COMPLETED' THEN 0 ELSE j.failed END
+                        WHERE j.status <> 'RUNNING' OR j.heartbeat_at < now() - make_interval(secs => ?)
+                        RETURNING model_key, status, run_started_at, heartbeat_at, finished_at, last_book_id, processed, failed
+                        """.formatted(schemaPrefix),
+                (resultSet, rowNum) -> toCheckpoint(resultSet),
+                modelKey, (double) leaseTimeout.toSeconds()).stream().findFirst();
+    }
+
+    public void saveProgress(String modelKey, long lastBookId, long processed, long failed) {
+        jdbcTemplate.update("""
+                UPDATE %ssimilar_books_job
+                SET last_book_id = ?, processed = ?, failed = ?, heartbeat_at = now()
+                WHERE model_key = ?
+                """.formatted(schemaPrefix), lastBookId, processed, failed, modelKey);
+    }
+
+    public void finish(String modelKey, String status) {
+        jdbcTemplate.update("""
+                UPDATE %ssimilar_books_job
+                SET status = ?, finished_at = now(), heartbeat_at = now()
+                WHERE model_key = ?
+                """.formatted(schemaPrefix), status, modelKey);
+    }
+
+    private static JobCheckpoint toCheckpoint(ResultSet resultSet) throws SQLException {
+        Timestamp finishedAt = resultSet.getTimestamp("finished_at");
+        return new JobCheckpoint(
+                resultSet.getString("model_key"),
+                resultSet.getString("status"),
+                resultSet.getTimestamp("run_started_at").toInstant(),
+                resultSet.getTimestamp("heartbeat_at").toInstant(),
+                finishedAt != null ? finishedAt.toInstant() : null,
+                resultSet.getLong("last_book_id"),
+                resultSet.getLong("processed"),
+                resultSet.getLong("failed"));
+    }
+
+    private static List<Long> toLongList(Array array) throws SQLException {
+        if (array == null) {
+            return List.of();
+        }
+        try {
+            Object[] values = (Object[]) array.getArray();
+            return Arrays.stream(values)
+                    .map(value -> ((Number) value).longValue())
+                    .toList();
+        } finally {
+            array.free();
+        }
+    }
+
+    public record JobCheckpoint(String modelKey, String status, Instant runStartedAt, Instant heartbeatAt,
+                                Instant finishedAt, long lastBookId, long processed, long failed) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import com.bookrecommend.book_recommend_be.exceptions.InvalidCursorException;
+import com.bookrecommend.book_recommend_be.repository.BookKeyset;
+import com.bookrecommend.book_recommend_be.repository.BookSearchHit;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque cursor for keyset pages: the order and the sort keys of the last book returned,
+ * base64url encoded. A cursor is only accepted by a listing with the same order; ranked search
+ * cursors carry the exact float bits of the rank so the seek repeats the database comparison.
+ */
+final class BookCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final String RANK = "RANK";
+
+    private BookCursor() {
+    }
+
+    static String encode(BookKeyset.Order order, BookKeyset keyset) {
+        return toToken(String.join(SEPARATOR,
+                VERSION,
+                order.name(),
+                Integer.toString(keyset.publicationYear()),
+                Long.toString(keyset.createdAt().getEpochSecond()),
+                Integer.toString(keyset.createdAt().getNano()),
+                Long.toString(keyset.id())));
+    }
+
+    static String encodeSearch(BookSearchHit hit) {
+        return toToken(String.join(SEPARATOR,
+                VERSION,
+                RANK,
+                Integer.toHexString(Float.floatToIntBits(hit.rank())),
+                Long.toString(hit.bookId())));
+    }
+
+    /**
+     * @return the decoded position, or null for a blank cursor (first page)
+     * @throws InvalidCursorException if the cursor is malformed or was issued for another order
+     */
+    static BookKeyset decode(BookKeyset.Order order, String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String[] parts = fromToken(cursor);
+            if (parts.length != 6 || !VERSION.equals(parts[0]) || !order.name().equals(parts[1])) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new BookKeyset(
+                    Long.parseLong(parts[5]),
+                    Instant.ofEpochSecond(Long.parseLong(parts[3]), Integer.parseInt(parts[4])),
+                    Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            // NumberFormatException and base64 errors are IllegalArgumentExceptions too
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * @return the decoded position, or null for a blank cursor (first page)
+     * @throws InvalidCursorException if the cursor is malformed or is not a search cursor
+     */
+    static BookSearchHit decodeSearch(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String[] parts = fromToken(cursor);
+            if (parts.length != 4 || !VERSION.equals(parts[0]) || !RANK.equals(parts[1])) {
+                throw new InvalidCursorException("Invalid cursor");
+            }
+            return new BookSearchHit(Long.parseLong(parts[3]), Float.intBitsToFloat(Integer.parseUnsignedInt(parts[2], 16)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor", e);
+        }
+    }
+
+    private static String toToken(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] fromToken(String cursor) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        return raw.split("\\|", -1);
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import org.springframework.util.StringUtils;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Turns a search box keyword into {@code to_tsquery} syntax: every word must match and the last
+ * one may be a prefix, so results follow the user while they type. Only letters, marks and
+ * digits survive, which keeps the query free of tsquery operators.
+ */
+final class BookSearchQuery {
+
+    private static final int MAX_TERMS = 16;
+
+    private BookSearchQuery() {
+    }
+
+    /**
+     * @return the tsquery, or null when the keyword has no searchable word
+     */
+    static String toTsQuery(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return null;
+        }
+        // NFC so decomposed Vietnamese input folds like the stored, precomposed text
+        String normalized = Normalizer.normalize(keyword, Normalizer.Form.NFC);
+        String[] terms = Arrays.stream(normalized.split("[^\\p{L}\\p{M}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .toArray(String[]::new);
+        if (terms.length == 0) {
+            return null;
+        }
+        terms[terms.length - 1] = terms[terms.length - 1] + ":*";
+        return Arrays.stream(terms).collect(Collectors.joining(" & "));
+    }
+}
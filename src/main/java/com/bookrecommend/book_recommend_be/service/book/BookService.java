@@ -2,11 +2,18 @@ package com.bookrecommend.book_recommend_be.service.book;
 
 import com.bookrecommend.book_recommend_be.dto.request.BookRequest;
 import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
+import com.bookrecommend.book_recommend_be.dto.response.CursorSlice;
 import com.bookrecommend.book_recommend_be.dto.response.ImageUploadResponse;
+import com.bookrecommend.book_recommend_be.exceptions.InvalidCursorException;
 import com.bookrecommend.book_recommend_be.exceptions.ResourceNotFoundException;
 import com.bookrecommend.book_recommend_be.model.*;
 import com.bookrecommend.book_recommend_be.repository.AuthorRepository;
+import com.bookrecommend.book_recommend_be.repository.BookFeatures;
+import com.bookrecommend.book_recommend_be.repository.BookKeyset;
 import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.BookSearchHit;
+import com.bookrecommend.book_recommend_be.repository.BookSearchJdbcRepository;
 import com.bookrecommend.book_recommend_be.repository.BookTypeRepository;
 import com.bookrecommend.book_recommend_be.repository.GenreRepository;
 import com.bookrecommend.book_recommend_be.service.file.CloudinaryService;
@@ -18,10 +25,12 @@ import jakarta.persistence.criteria.JoinType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
@@ -29,6 +38,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.text.Normalizer;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -41,44 +51,154 @@ public class BookService implements IBookService {
     private final BookTypeRepository bookTypeRepository;
     private final IFileStorageService fileStorageService;
     private final CloudinaryService cloudinaryService;
+    private final BookSearchJdbcRepository bookSearchRepository;
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> getBooks(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.findByIsDeletedFalse(pageable)
-                .map(this::mapToBookResponse);
+        return hydratePage(bookRepository.findVisibleBookIdPage(pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> getNewestBooks(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.findNewestBooks(pageable)
-                .map(this::mapToBookResponse);
+        return hydratePage(bookRepository.findNewestBookIdPage(pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> getMostReadBooks(int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.findMostReadBooks(pageable)
-                .map(this::mapToBookResponse);
+        return hydratePage(bookRepository.findMostReadBookIdPage(pageable));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> getBooksByGenre(Long genreId, int page, int size, String sortOption) {
+        return hydratePage(findGenreIdPage(genreId, page, size, sortOption));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getBookSummaries(int page, int size) {
+        return summarizePage(bookRepository.findVisibleBookIdPage(PageRequest.of(page, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getNewestBookSummaries(int page, int size) {
+        return summarizePage(bookRepository.findNewestBookIdPage(PageRequest.of(page, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getMostReadBookSummaries(int page, int size) {
+        return summarizePage(bookRepository.findMostReadBookIdPage(PageRequest.of(page, size)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummary> getBookSummariesByGenre(Long genreId, int page, int size, String sortOption) {
+        return summarizePage(findGenreIdPage(genreId, page, size, sortOption));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<BookSummary> searchBookSummaries(String keyword, int page, int size) {
+        return summarizePage(findSearchIdPage(keyword, page, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookSummary> scrollBookSummaries(String keyword, String after, int size) {
+        CursorSlice<Long> ids = scrollCatalogIds(keyword, after, size);
+        return new CursorSlice<>(summarize(ids.getContent()), ids.getSize(), ids.isHasNext(), ids.getNextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookResponse> scrollBooks(String keyword, String after, int size) {
+        CursorSlice<Long> ids = scrollCatalogIds(keyword, after, size);
+        return new CursorSlice<>(getBooksByIds(ids.getContent()), ids.getSize(), ids.isHasNext(), ids.getNextCursor());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<BookResponse> scrollAdminBooks(String after, int size, String keyword, Long genreId, String sortOption) {
+        BookKeyset.Order order = resolveAdminKeysetOrder(sortOption);
+        CursorSlice<Long> ids = scrollIds(buildAdminSpecification(keyword, genreId), order, after, size);
+        return new CursorSlice<>(getBooksByIds(ids.getContent()), ids.getSize(), ids.isHasNext(), ids.getNextCursor());
+    }
+
+    /**
+     * Keyset counterpart of the id pages: seeks past the cursor instead of skipping an offset
+     * and fetches one extra key to know whether another page exists, so no count is needed.
+     */
+    private CursorSlice<Long> scrollIds(Specification<Book> specification, BookKeyset.Order order,
+                                        String after, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        BookKeyset position = BookCursor.decode(order, after);
+        List<BookKeyset> keysets = bookRepository.findKeysets(specification, order, position, size + 1);
+        boolean hasNext = keysets.size() > size;
+        List<BookKeyset> slice = hasNext ? keysets.subList(0, size) : keysets;
+        String nextCursor = hasNext ? BookCursor.encode(order, slice.get(size - 1)) : null;
+        return new CursorSlice<>(slice.stream().map(BookKeyset::id).toList(), size, hasNext, nextCursor);
+    }
+
+    /**
+     * Newest first without a keyword; with one, ranked full-text matches seeking on (rank, id).
+     */
+    private CursorSlice<Long> scrollCatalogIds(String keyword, String after, int size) {
+        if (!StringUtils.hasText(keyword)) {
+            return scrollIds(notDeletedSpecification(), BookKeyset.Order.CREATED_DESC, after, size);
+        }
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        BookSearchHit position = BookCursor.decodeSearch(after);
+        String tsQuery = BookSearchQuery.toTsQuery(keyword);
+        if (tsQuery == null) {
+            return new CursorSlice<>(Collections.emptyList(), size, false, null);
+        }
+        List<BookSearchHit> hits = bookSearchRepository.search(tsQuery, position, size + 1);
+        boolean hasNext = hits.size() > size;
+        List<BookSearchHit> slice = hasNext ? hits.subList(0, size) : hits;
+        String nextCursor = hasNext ? BookCursor.encodeSearch(slice.get(size - 1)) : null;
+        return new CursorSlice<>(slice.stream().map(BookSearchHit::bookId).toList(), size, hasNext, nextCursor);
+    }
+
+    private BookKeyset.Order resolveAdminKeysetOrder(String sortOption) {
+        String normalized = StringUtils.hasText(sortOption)
+                ? sortOption.trim().toLowerCase(Locale.ROOT)
+                : "newest";
+
+        // Mirrors resolveAdminSort; title orders have no keyset variant
+        return switch (normalized) {
+            case "oldest" -> BookKeyset.Order.YEAR_ASC;
+            case "newest" -> BookKeyset.Order.YEAR_DESC;
+            case "title-asc", "title-desc" ->
+                    throw new InvalidCursorException("Sort '" + normalized + "' is not supported with cursor pagination");
+            default -> BookKeyset.Order.CREATED_DESC;
+        };
+    }
+
+    private Page<Long> findGenreIdPage(Long genreId, int page, int size, String sortOption) {
         String normalizedSort = StringUtils.hasText(sortOption)
                 ? sortOption.trim().toLowerCase(Locale.ROOT)
                 : "newest";
 
         if ("popular".equals(normalizedSort)) {
             Pageable pageable = PageRequest.of(page, size);
-            return bookRepository.findBooksByGenreOrderByPopularity(genreId, pageable)
-                    .map(this::mapToBookResponse);
+            return bookRepository.findBookIdPageByGenreOrderByPopularity(genreId, pageable);
         }
 
         Sort sort = resolveGenreSort(normalizedSort);
         Pageable pageable = PageRequest.of(page, size, sort);
-        return bookRepository.findBooksByGenre(genreId, pageable)
-                .map(this::mapToBookResponse);
+        return bookRepository.findBookIdPageByGenre(genreId, pageable);
     }
 
     @Override
@@ -87,8 +207,7 @@ public class BookService implements IBookService {
         Sort sort = resolveAdminSort(sortOption);
         Pageable pageable = PageRequest.of(page, size, sort);
         Specification<Book> specification = buildAdminSpecification(keyword, genreId);
-        return bookRepository.findAll(specification, pageable)
-                .map(this::mapToBookResponse);
+        return hydratePage(bookRepository.findIdPage(specification, pageable));
     }
 
     @Override
@@ -97,6 +216,75 @@ public class BookService implements IBookService {
         return mapToBookResponse(book);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookResponse> getBooksByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> orderedIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (orderedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Two fetch-joined queries; deleted or unknown ids are simply absent from the result
+        Map<Long, Book> booksById = bookRepository.findAllWithDetailsByIdIn(orderedIds).stream()
+                .collect(Collectors.toMap(
+                        Book::getId,
+                        book -> book,
+                        (existing, ignore) -> existing));
+        // Initializes the formats of the books above in the same persistence context
+        bookRepository.findAllWithFormatsByIdIn(booksById.keySet());
+
+        // Preserve the caller's ordering (e.g. recommender ranking)
+        return orderedIds.stream()
+                .map(booksById::get)
+                .filter(Objects::nonNull)
+                .map(this::mapToBookResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookFeatures> getBookFeaturesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> orderedIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (orderedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Set<Long>> genreIds = new HashMap<>();
+        Map<Long, Set<Long>> authorIds = new HashMap<>();
+        for (Object[] row : bookRepository.findGenreAndAuthorIdsByIdIn(orderedIds)) {
+            Long bookId = (Long) row[0];
+            Set<Long> genres = genreIds.computeIfAbsent(bookId, id -> new HashSet<>());
+            Set<Long> authors = authorIds.computeIfAbsent(bookId, id -> new HashSet<>());
+            if (row[1] != null) {
+                genres.add((Long) row[1]);
+            }
+            if (row[2] != null) {
+                authors.add((Long) row[2]);
+            }
+        }
+
+        return orderedIds.stream()
+                .filter(genreIds::containsKey)
+                .map(id -> new BookFeatures(id, genreIds.get(id), authorIds.get(id)))
+                .toList();
+    }
+
     @Override
     @Transactional
     public int deleteBooks(List<Long> ids) {
@@ -311,16 +499,28 @@ public class BookService implements IBookService {
     }
 
     private void applyStoredFile(BookFormat target, StoredFile storedFile) {
+        // The replaced object must not keep serving its cached download URL
+        fileStorageService.evictPresignedUrl(target.getContentUrl());
         target.setContentUrl(storedFile.objectKey());
         target.setFileSizeKb(fileStorageService.calculateFileSizeKb(storedFile.sizeBytes()));
         target.setTotalPages(storedFile.totalPages());
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<BookResponse> searchBooks(String keyword, int page, int size) {
+        return hydratePage(findSearchIdPage(keyword, page, size));
+    }
+
+    private Page<Long> findSearchIdPage(String keyword, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return bookRepository.searchBooks(keyword, pageable)
-                .map(this::mapToBookResponse);
+        String tsQuery = BookSearchQuery.toTsQuery(keyword);
+        if (tsQuery == null) {
+            return Page.empty(pageable);
+        }
+        List<Long> ids = bookSearchRepository.searchIds(tsQuery, pageable.getOffset(), size);
+        // The count is skipped when the page itself shows where the results end
+        return PageableExecutionUtils.getPage(ids, pageable, () -> bookSearchRepository.count(tsQuery));
     }
 
     @Override
@@ -377,19 +577,18 @@ public class BookService implements IBookService {
         return (root, query, cb) -> cb.isFalse(root.get("isDeleted"));
     }
 
+    /*
+     * Full-text match through the GIN-indexed search vector, embedded with Hibernate's sql()
+     * function because the vector is not mapped on the entity.
+     */
     private Specification<Book> keywordSpecification(String keyword) {
-        String normalized = keyword.toLowerCase(Locale.ROOT);
-        String likePattern = "%" + normalized + "%";
-
-        return (root, query, cb) -> {
-            query.distinct(true);
-            Join<Book, Author> authorJoin = root.join("authors", JoinType.LEFT);
-            return cb.or(
-                    cb.like(cb.lower(root.get("title")), likePattern),
-                    cb.like(cb.lower(root.get("publisher")), likePattern),
-                    cb.like(cb.lower(authorJoin.get("name")), likePattern)
-            );
-        };
+        String tsQuery = BookSearchQuery.toTsQuery(keyword);
+        if (tsQuery == null) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        String matchPredicate = bookSearchRepository.matchPredicateSql();
+        return (root, query, cb) -> cb.isTrue(cb.function("sql", Boolean.class,
+                cb.literal(matchPredicate), root.get("id"), cb.literal(tsQuery)));
     }
 
     private Specification<Book> genreSpecification(Long genreId) {
@@ -400,10 +599,11 @@ public class BookService implements IBookService {
         };
     }
 
+    // Books without a publication year sort as year 0, as in the keyset orders of resolveAdminKeysetOrder
     private Sort resolveGenreSort(String sortOption) {
         return switch (sortOption) {
             case "oldest" -> Sort.by(
-                    Sort.Order.asc("publicationYear"),
+                    Sort.Order.asc("publicationYear").nullsFirst(),
                     Sort.Order.asc("createdAt"));
             case "title-asc", "title" -> Sort.by(
                     Sort.Order.asc("title").ignoreCase(),
@@ -412,7 +612,7 @@ public class BookService implements IBookService {
                     Sort.Order.desc("title").ignoreCase(),
                     Sort.Order.desc("createdAt"));
             case "newest" -> Sort.by(
-                    Sort.Order.desc("publicationYear"),
+                    Sort.Order.desc("publicationYear").nullsLast(),
                     Sort.Order.desc("createdAt"));
             default -> Sort.by(Sort.Order.desc("createdAt"));
         };
@@ -425,7 +625,7 @@ public class BookService implements IBookService {
 
         return switch (normalized) {
             case "oldest" -> Sort.by(
-                    Sort.Order.asc("publicationYear"),
+                    Sort.Order.asc("publicationYear").nullsFirst(),
                     Sort.Order.asc("createdAt"));
             case "title-asc" -> Sort.by(
                     Sort.Order.asc("title").ignoreCase(),
@@ -434,12 +634,41 @@ public class BookService implements IBookService {
                     Sort.Order.desc("title").ignoreCase(),
                     Sort.Order.desc("createdAt"));
             case "newest" -> Sort.by(
-                    Sort.Order.desc("publicationYear"),
+                    Sort.Order.desc("publicationYear").nullsLast(),
                     Sort.Order.desc("createdAt"));
             default -> Sort.by(Sort.Order.desc("createdAt"));
         };
     }
 
+    /**
+     * Second phase of a page load: hydrates the page's ids with fetch-joined queries,
+     * keeping the page order, instead of lazily loading each book's associations.
+     */
+    private Page<BookResponse> hydratePage(Page<Long> bookIds) {
+        return new PageImpl<>(getBooksByIds(bookIds.getContent()), bookIds.getPageable(), bookIds.getTotalElements());
+    }
+
+    /**
+     * Listing counterpart of {@link #hydratePage}: one projection query for the page's ids,
+     * with no entities loaded and no download URLs signed.
+     */
+    private Page<BookSummary> summarizePage(Page<Long> bookIds) {
+        return new PageImpl<>(summarize(bookIds.getContent()), bookIds.getPageable(), bookIds.getTotalElements());
+    }
+
+    private List<BookSummary> summarize(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, BookSummary> summariesById = new HashMap<>();
+        bookRepository.findSummariesByIdIn(ids)
+                .forEach(summary -> summariesById.put(summary.getId(), summary));
+        return ids.stream()
+                .map(summariesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     private BookResponse mapToBookResponse(Book book) {
         BookResponse response = new BookResponse();
         response.setId(book.getId());
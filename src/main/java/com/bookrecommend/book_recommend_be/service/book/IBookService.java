@@ -2,6 +2,9 @@ package com.bookrecommend.book_recommend_be.service.book;
 
 import com.bookrecommend.book_recommend_be.dto.request.BookRequest;
 import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
+import com.bookrecommend.book_recommend_be.dto.response.CursorSlice;
+import com.bookrecommend.book_recommend_be.repository.BookFeatures;
 import org.springframework.data.domain.Page;
 
 import java.util.List;
@@ -15,6 +18,22 @@ public interface IBookService {
 
     Page<BookResponse> getBooksByGenre(Long genreId, int page, int size, String sort);
 
+    Page<BookSummary> getBookSummaries(int page, int size);
+
+    Page<BookSummary> getNewestBookSummaries(int page, int size);
+
+    Page<BookSummary> getMostReadBookSummaries(int page, int size);
+
+    Page<BookSummary> getBookSummariesByGenre(Long genreId, int page, int size, String sort);
+
+    Page<BookSummary> searchBookSummaries(String keyword, int page, int size);
+
+    CursorSlice<BookSummary> scrollBookSummaries(String keyword, String after, int size);
+
+    CursorSlice<BookResponse> scrollBooks(String keyword, String after, int size);
+
+    CursorSlice<BookResponse> scrollAdminBooks(String after, int size, String keyword, Long genreId, String sort);
+
     Page<BookResponse> getAdminBooks(int page, int size, String keyword, Long genreId, String sort);
 
     BookResponse createBook(BookRequest request);
@@ -23,6 +42,10 @@ public interface IBookService {
 
     BookResponse getBookById(Long id);
 
+    List<BookResponse> getBooksByIds(List<Long> ids);
+
+    List<BookFeatures> getBookFeaturesByIds(List<Long> ids);
+
     void deleteBook(Long id);
 
     int deleteBooks(List<Long> ids);
@@ -9,7 +9,10 @@ import com.bookrecommend.book_recommend_be.model.User;
 import com.bookrecommend.book_recommend_be.repository.BookRepository;
 import com.bookrecommend.book_recommend_be.repository.BookmarkRepository;
 import com.bookrecommend.book_recommend_be.repository.UserRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class BookmarkService implements IBookmarkService {
     private final BookmarkRepository bookmarkRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -38,6 +42,8 @@ public class BookmarkService implements IBookmarkService {
                 .build();
 
         Bookmark saved = bookmarkRepository.save(bookmark);
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.BOOKMARK_ADDED, null));
         return mapToResponse(saved);
     }
 
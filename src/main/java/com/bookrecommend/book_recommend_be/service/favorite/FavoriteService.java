@@ -8,7 +8,10 @@ import com.bookrecommend.book_recommend_be.model.User;
 import com.bookrecommend.book_recommend_be.repository.BookRepository;
 import com.bookrecommend.book_recommend_be.repository.FavoriteRepository;
 import com.bookrecommend.book_recommend_be.repository.UserRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,6 +24,7 @@ public class FavoriteService implements IFavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -33,6 +37,8 @@ public class FavoriteService implements IFavoriteService {
                         .user(user)
                         .book(book)
                         .build()));
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.FAVORITE_ADDED, null));
 
         return mapToFavoriteResponse(favorite);
     }
@@ -43,6 +49,8 @@ public class FavoriteService implements IFavoriteService {
         Favorite favorite = favoriteRepository.findByUserIdAndBookId(userId, bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Favorite not found for user and book"));
         favoriteRepository.delete(favorite);
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.FAVORITE_REMOVED, null));
     }
 
     @Override
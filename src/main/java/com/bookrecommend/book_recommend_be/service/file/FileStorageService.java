@@ -5,8 +5,8 @@ import io.minio.*;
 import io.minio.errors.MinioException;
 import io.minio.http.Method;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -18,11 +18,14 @@ import java.text.Normalizer;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class FileStorageService implements IFileStorageService {
 
     private static final DateTimeFormatter DATE_PATH_FORMATTER = DateTimeFormatter.ofPattern("yyyy/MM/dd");
@@ -32,6 +35,22 @@ public class FileStorageService implements IFileStorageService {
     private long maxSizeMb;
     private long maxSizeBytes;
 
+    // Signing is HMAC work inside MinioClient, so URLs are reused per object key until close to expiry
+    private final Map<String, PresignedUrl> presignedUrls = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public FileStorageService(MinioClient minioClient, MinioProperties minioProperties) {
+        this(minioClient, minioProperties, System::nanoTime);
+    }
+
+    // Lets tests move the presigned URL cache through time
+    FileStorageService(MinioClient minioClient, MinioProperties minioProperties, LongSupplier nanoClock) {
+        this.minioClient = minioClient;
+        this.minioProperties = minioProperties;
+        this.nanoClock = nanoClock;
+    }
+
     @PostConstruct
     public void init() {
         this.maxSizeBytes = maxSizeMb * 1024 * 1024;
@@ -86,6 +105,8 @@ public class FileStorageService implements IFileStorageService {
             log.info("Deleted file from MinIO: {}", objectKey);
         } catch (Exception e) {
             log.warn("Failed to delete file '{}' from MinIO: {}", objectKey, e.getMessage());
+        } finally {
+            evictPresignedUrl(objectKey);
         }
     }
 
@@ -132,20 +153,38 @@ public class FileStorageService implements IFileStorageService {
             return minioProperties.getPublicEndpoint().replaceAll("/+$", "") + "/"
                     + minioProperties.getBucketName() + "/" + objectKey;
         }
+        long configuredExpiry = minioProperties.getPresignedExpirySeconds();
+        int expirySeconds = (int) Math.max(60, Math.min(604800, configuredExpiry));
+        // Never reuse a URL past half its lifetime, whatever margin is configured
+        long margin = Math.min(Math.max(0, minioProperties.getPresignedRefreshMarginSeconds()), expirySeconds / 2);
+        long reuseNanos = TimeUnit.SECONDS.toNanos(expirySeconds - margin);
+
+        long now = nanoClock.getAsLong();
+        PresignedUrl cached = presignedUrls.get(objectKey);
+        if (cached != null && cached.isReusable(now, reuseNanos)) {
+            return cached.url();
+        }
         try {
-            long configuredExpiry = minioProperties.getPresignedExpirySeconds();
-            int expirySeconds = (int) Math.max(60, Math.min(604800, configuredExpiry));
-            return minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+            String url = minioClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
                     .bucket(minioProperties.getBucketName())
                     .object(objectKey)
                     .method(Method.GET)
                     .expiry(expirySeconds)
                     .build());
+            cachePresignedUrl(objectKey, new PresignedUrl(url, now), reuseNanos);
+            return url;
         } catch (Exception e) {
             throw new RuntimeException("Failed to generate presigned URL", e);
         }
     }
 
+    @Override
+    public void evictPresignedUrl(String objectKey) {
+        if (StringUtils.hasText(objectKey)) {
+            presignedUrls.remove(objectKey);
+        }
+    }
+
     @Override
     public DownloadedFile getFile(String objectKey) {
         if (!StringUtils.hasText(objectKey)) {
@@ -176,6 +215,21 @@ public class FileStorageService implements IFileStorageService {
         }
     }
 
+    private void cachePresignedUrl(String objectKey, PresignedUrl presignedUrl, long reuseNanos) {
+        int maxEntries = minioProperties.getPresignedCacheMaxEntries();
+        if (maxEntries <= 0) {
+            return;
+        }
+        if (presignedUrls.size() >= maxEntries) {
+            long now = nanoClock.getAsLong();
+            presignedUrls.values().removeIf(entry -> !entry.isReusable(now, reuseNanos));
+            if (presignedUrls.size() >= maxEntries) {
+                presignedUrls.clear();
+            }
+        }
+        presignedUrls.put(objectKey, presignedUrl);
+    }
+
     private void ensureBucket() {
         try {
             boolean exists = minioClient.bucketExists(BucketExistsArgs.builder()
@@ -249,4 +303,9 @@ public class FileStorageService implements IFileStorageService {
         return filename.substring(lastDotIndex + 1);
     }
 
+    private record PresignedUrl(String url, long issuedAtNanos) {
+        boolean isReusable(long nowNanos, long reuseNanos) {
+            return nowNanos - issuedAtNanos < reuseNanos;
+        }
+    }
 }
@@ -13,5 +13,7 @@ public interface IFileStorageService {
 
     String generatePresignedUrl(String objectKey);
 
+    void evictPresignedUrl(String objectKey);
+
     DownloadedFile getFile(String objectKey);
 }
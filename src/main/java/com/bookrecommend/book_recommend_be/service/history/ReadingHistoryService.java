@@ -10,7 +10,10 @@ import com.bookrecommend.book_recommend_be.model.User;
 import com.bookrecommend.book_recommend_be.repository.BookRepository;
 import com.bookrecommend.book_recommend_be.repository.ReadingHistoryRepository;
 import com.bookrecommend.book_recommend_be.repository.UserRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -29,6 +32,7 @@ public class ReadingHistoryService implements IReadingHistoryService {
     private final ReadingHistoryRepository readingHistoryRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -46,6 +50,8 @@ public class ReadingHistoryService implements IReadingHistoryService {
         history.setLastReadAt(Instant.now());
 
         ReadingHistory savedHistory = readingHistoryRepository.save(history);
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.READING_PROGRESS, request.getProgress()));
         return mapToReadingHistoryResponse(savedHistory);
     }
 
@@ -0,0 +1,10 @@
+package com.bookrecommend.book_recommend_be.service.interaction;
+
+public enum InteractionType {
+    RATED,
+    RATING_REMOVED,
+    FAVORITE_ADDED,
+    FAVORITE_REMOVED,
+    READING_PROGRESS,
+    BOOKMARK_ADDED
+}
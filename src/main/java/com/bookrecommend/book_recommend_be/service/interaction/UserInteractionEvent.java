@@ -0,0 +1,21 @@
+package com.bookrecommend.book_recommend_be.service.interaction;
+
+import java.time.Instant;
+
+/**
+ * Published whenever a user interacts with a book in a way that can change their recommendations.
+ * Listeners that depend on committed data should use {@code @TransactionalEventListener}.
+ *
+ * @param value rating value, reading progress, or {@code null} when the interaction carries none
+ */
+public record UserInteractionEvent(
+        Long userId,
+        Long bookId,
+        InteractionType type,
+        Double value,
+        Instant occurredAt
+) {
+    public static UserInteractionEvent of(Long userId, Long bookId, InteractionType type, Double value) {
+        return new UserInteractionEvent(userId, bookId, type, value, Instant.now());
+    }
+}
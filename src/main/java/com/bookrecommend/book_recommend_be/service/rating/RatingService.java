@@ -9,7 +9,10 @@ import com.bookrecommend.book_recommend_be.model.User;
 import com.bookrecommend.book_recommend_be.repository.BookRepository;
 import com.bookrecommend.book_recommend_be.repository.RatingRepository;
 import com.bookrecommend.book_recommend_be.repository.UserRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +25,7 @@ public class RatingService implements IRatingService {
     private final RatingRepository ratingRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     @Transactional
@@ -43,6 +47,8 @@ public class RatingService implements IRatingService {
                         .build());
 
         ratingRepository.save(rating);
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.RATED, request.getValue().doubleValue()));
 
         return ratingRepository.findAllByBookId(bookId).stream()
                 .map(this::mapToRatingResponse)
@@ -55,6 +61,8 @@ public class RatingService implements IRatingService {
         Rating rating = ratingRepository.findByUserIdAndBookId(userId, bookId)
                 .orElseThrow(() -> new ResourceNotFoundException("Rating not found for user and book"));
         ratingRepository.delete(rating);
+        eventPublisher.publishEvent(UserInteractionEvent.of(
+                userId, bookId, InteractionType.RATING_REMOVED, null));
     }
 
     @Override
@@ -0,0 +1,173 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository.GenreBook;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves users without any ratings, favorites or reading history from a precomputed list
+ * instead of the recommender, which has nothing to base a ranking on for them.
+ * <p>
+ * The list blends the most-read books of every genre, taking genres in turn starting with the
+ * most read, with recent releases. It is built once the application is ready, rebuilt on a
+ * schedule and kept as an immutable array.
+ * Users found to have history are remembered in a bounded LRU set, so the existence query runs
+ * only until a user interacts for the first time.
+ */
+@Service
+@Slf4j
+public class ColdStartRecommendationService {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final RecsysProperties.ColdStart settings;
+    private final InteractionJdbcRepository interactionRepository;
+    private final BookRepository bookRepository;
+    private final Map<Long, Boolean> usersWithHistory;
+    private volatile long[] bookIds = EMPTY;
+
+    public ColdStartRecommendationService(RecsysProperties properties,
+                                          InteractionJdbcRepository interactionRepository,
+                                          BookRepository bookRepository) {
+        this.settings = properties.getColdStart();
+        this.interactionRepository = interactionRepository;
+        this.bookRepository = bookRepository;
+        int maxKnownUsers = Math.max(1, settings.getKnownUsersMaxEntries());
+        // Access-ordered, and both lookups and interactions touch their user, so the eldest is the least recently seen
+        this.usersWithHistory = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxKnownUsers;
+            }
+        });
+    }
+
+    /**
+     * @return {@code true} when the user has no interactions; the precomputed list may still be
+     * empty if it has not been built yet
+     */
+    public boolean isColdStart(Long userId) {
+        return isColdStart(userId, true);
+    }
+
+    /**
+     * @param remember whether a user found to have history is added to the known users; passes
+     *                 over many users, such as the bulk export, leave the set to active users
+     */
+    public boolean isColdStart(Long userId, boolean remember) {
+        if (!settings.isEnabled() || userId == null || usersWithHistory.get(userId) != null) {
+            return false;
+        }
+        try {
+            if (interactionRepository.hasInteractions(userId)) {
+                if (remember) {
+                    usersWithHistory.put(userId, Boolean.TRUE);
+                }
+                return false;
+            }
+            return true;
+        } catch (DataAccessException e) {
+            log.debug("Cold-start check failed for user {}: {}", userId, e.getMessage());
+            return false;
+        }
+    }
+
+    public List<Long> getColdStartBookIds(int limit) {
+        long[] current = bookIds;
+        int size = Math.min(Math.max(limit, 0), current.length);
+        List<Long> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(current[i]);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (event.userId() != null) {
+            usersWithHistory.put(event.userId(), Boolean.TRUE);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void refreshOnStartup() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${recsys.cold-start.refresh-interval:1h}",
+            fixedDelayString = "${recsys.cold-start.refresh-interval:1h}")
+    public void refresh() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        try {
+            long[] blended = blend(
+                    interactionRepository.findMostReadBooksPerGenre(Math.max(1, settings.getBooksPerGenre())),
+                    bookRepository.findNewestBookIds(PageRequest.of(0, Math.max(1, settings.getRecentReleases()))));
+            bookIds = blended;
+            log.info("Cold-start list refreshed with {} books", blended.length);
+        } catch (DataAccessException e) {
+            log.warn("Cold-start list refresh failed: {}", e.getMessage());
+        }
+    }
+
+    private long[] blend(List<GenreBook> genreBooks, List<Long> recentBookIds) {
+        // Genres in descending order of total reads, each with its books in rank order
+        Map<Long, List<GenreBook>> byGenre = new LinkedHashMap<>();
+        genreBooks.forEach(book -> byGenre.computeIfAbsent(book.genreId(), ignored -> new ArrayList<>()).add(book));
+        List<List<GenreBook>> genres = byGenre.values().stream()
+                .sorted(Comparator.comparingLong((List<GenreBook> books) ->
+                        books.stream().mapToLong(GenreBook::reads).sum()).reversed())
+                .toList();
+
+        int listSize = Math.max(1, settings.getListSize());
+        int recentEvery = Math.max(1, settings.getRecentEvery());
+        LinkedHashSet<Long> blended = new LinkedHashSet<>();
+        int[] genreCursor = new int[genres.size()];
+        int nextGenre = 0;
+        int nextRecent = 0;
+        boolean progress = true;
+        while (blended.size() < listSize && progress) {
+            progress = false;
+            if ((blended.size() + 1) % recentEvery == 0 && nextRecent < recentBookIds.size()) {
+                blended.add(recentBookIds.get(nextRecent++));
+                progress = true;
+                continue;
+            }
+            for (int tried = 0; tried < genres.size(); tried++) {
+                int genre = (nextGenre + tried) % genres.size();
+                List<GenreBook> books = genres.get(genre);
+                if (genreCursor[genre] < books.size()) {
+                    blended.add(books.get(genreCursor[genre]++).bookId());
+                    nextGenre = genre + 1;
+                    progress = true;
+                    break;
+                }
+            }
+            if (!progress && nextRecent < recentBookIds.size()) {
+                blended.add(recentBookIds.get(nextRecent++));
+                progress = true;
+            }
+        }
+        return blended.stream().mapToLong(Long::longValue).toArray();
+    }
+}
@@ -0,0 +1,159 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-user compressed bitmaps of books the user has favorited or finished reading, used to keep
+ * them out of recommendations.
+ * <p>
+ * Bitmaps are loaded on first use and kept in a bounded LRU map. They are never modified once
+ * published: committed interactions replace a user's bitmap with an updated copy, and changes
+ * that may remove a book (unfavoriting, lower progress) drop it so the next request reloads it.
+ * A load racing with such a change is returned but not kept.
+ */
+@Component
+@Slf4j
+public class ConsumedBooksIndex {
+
+    private static final Roaring64Bitmap EMPTY = new Roaring64Bitmap();
+    private static final int VERSION_STRIPES = 64;
+
+    private final RecsysProperties.ConsumedFilter settings;
+    private final InteractionJdbcRepository interactionRepository;
+    private final int maxUsers;
+
+    // Access-ordered so the eldest entry is always the least recently used one
+    private final LinkedHashMap<Long, Roaring64Bitmap> bitmaps = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLongArray writeVersions = new AtomicLongArray(VERSION_STRIPES);
+
+    public ConsumedBooksIndex(RecsysProperties properties, InteractionJdbcRepository interactionRepository) {
+        this.settings = properties.getConsumedFilter();
+        this.interactionRepository = interactionRepository;
+        this.maxUsers = Math.max(1, settings.getMaxUsers());
+    }
+
+    /**
+     * @return the user's consumed books; the bitmap is shared and must not be modified
+     */
+    public Roaring64Bitmap consumedBy(Long userId) {
+        return consumedBy(userId, true);
+    }
+
+    /**
+     * @param keep whether a bitmap loaded here is kept; passes over many users, such as the bulk
+     *             export, reuse cached bitmaps without evicting the ones of active users
+     */
+    public Roaring64Bitmap consumedBy(Long userId, boolean keep) {
+        if (!settings.isEnabled() || userId == null) {
+            return EMPTY;
+        }
+        synchronized (this) {
+            Roaring64Bitmap cached = bitmaps.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        int stripe = stripe(userId);
+        long version = writeVersions.get(stripe);
+        Roaring64Bitmap loaded = new Roaring64Bitmap();
+        try {
+            interactionRepository.forEachConsumedBookId(userId, settings.getMinProgress(), loaded::addLong);
+        } catch (DataAccessException e) {
+            log.debug("Loading consumed books failed for user {}: {}", userId, e.getMessage());
+            return EMPTY;
+        }
+        loaded.runOptimize();
+        if (!keep) {
+            return loaded;
+        }
+
+        synchronized (this) {
+            if (writeVersions.get(stripe) == version) {
+                bitmaps.put(userId, loaded);
+                while (bitmaps.size() > maxUsers) {
+                    bitmaps.remove(bitmaps.keySet().iterator().next());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Candidates to request so that {@code limit} books remain once consumed ones are removed.
+     */
+    public int candidateLimit(int limit, Roaring64Bitmap consumed) {
+        long extra = Math.min(consumed.getLongCardinality(),
+                (long) limit * (Math.max(1, settings.getOverFetchFactor()) - 1));
+        return limit + (int) extra;
+    }
+
+    /**
+     * The first {@code limit} candidates that are not in {@code consumed}, in ranked order.
+     */
+    public List<Long> filter(List<Long> candidates, Roaring64Bitmap consumed, int limit) {
+        if (consumed.isEmpty()) {
+            return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+        }
+        List<Long> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (Long bookId : candidates) {
+            if (result.size() == limit) {
+                break;
+            }
+            if (bookId != null && !consumed.contains(bookId)) {
+                result.add(bookId);
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (!settings.isEnabled() || event.userId() == null || event.bookId() == null) {
+            return;
+        }
+        boolean consumed;
+        switch (event.type()) {
+            case FAVORITE_ADDED -> consumed = true;
+            case READING_PROGRESS -> consumed = event.value() != null && event.value() >= settings.getMinProgress();
+            case FAVORITE_REMOVED -> consumed = false;
+            default -> {
+                return;
+            }
+        }
+
+        synchronized (this) {
+            writeVersions.incrementAndGet(stripe(event.userId()));
+            Roaring64Bitmap current = bitmaps.get(event.userId());
+            if (current == null) {
+                return;
+            }
+            if (!consumed) {
+                // The book may still count as consumed through the other table
+                bitmaps.remove(event.userId());
+            } else if (!current.contains(event.bookId())) {
+                Roaring64Bitmap updated = current.clone();
+                updated.addLong(event.bookId());
+                bitmaps.put(event.userId(), updated);
+            }
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Objects.hashCode(userId), VERSION_STRIPES);
+    }
+}
@@ -0,0 +1,111 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.InteractionBatchRequest;
+import com.bookrecommend.book_recommend_be.dto.recommendation.InteractionEventItem;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import com.bookrecommend.book_recommend_be.repository.InteractionOutboxJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionOutboxJdbcRepository.OutboxEntry;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Feeds committed interactions to the HTTP models that support online learning.
+ * <p>
+ * Interactions are written to {@code interaction_outbox} just before the transaction that
+ * produced them commits, so an event exists exactly when its rating, favorite, reading progress
+ * or bookmark does. A scheduled dispatcher drains the table in batches per model. A model that
+ * fails is backed off exponentially and the rest of its backlog waits for a later run, so a slow
+ * or broken model never slows the write path or the other models.
+ */
+@Service
+@Slf4j
+public class InteractionOutboxService {
+
+    private final RecsysProperties.Outbox settings;
+    private final RecsysRoutingService recsysRoutingService;
+    private final RecsysClient recsysClient;
+    private final InteractionOutboxJdbcRepository outboxRepository;
+
+    public InteractionOutboxService(RecsysProperties properties,
+                                    RecsysRoutingService recsysRoutingService,
+                                    RecsysClient recsysClient,
+                                    InteractionOutboxJdbcRepository outboxRepository) {
+        this.settings = properties.getOutbox();
+        this.recsysRoutingService = recsysRoutingService;
+        this.recsysClient = recsysClient;
+        this.outboxRepository = outboxRepository;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (!settings.isEnabled() || event.userId() == null || event.bookId() == null || event.type() == null) {
+            return;
+        }
+        outboxRepository.append(recsysRoutingService.getOnlineLearningModelKeys(),
+                event.userId(), event.bookId(), event.type().name(), event.value(), event.occurredAt());
+    }
+
+    @Scheduled(fixedDelayString = "${recsys.outbox.poll-interval:2s}")
+    public void dispatch() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        for (String modelKey : recsysRoutingService.getOnlineLearningModelKeys()) {
+            try {
+                drain(modelKey);
+            } catch (DataAccessException e) {
+                log.warn("Interaction outbox dispatch for model '{}' failed: {}", modelKey, e.getMessage());
+            }
+        }
+    }
+
+    private void drain(String modelKey) {
+        int batchSize = Math.max(1, settings.getBatchSize());
+        for (int i = 0; i < Math.max(1, settings.getMaxBatchesPerPoll()); i++) {
+            List<OutboxEntry> batch = outboxRepository.claim(modelKey, batchSize, settings.getLease());
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Long> eventIds = batch.stream().map(OutboxEntry::eventId).toList();
+            try {
+                recsysClient.postInteractions(modelKey, toRequest(batch));
+                outboxRepository.delete(eventIds);
+            } catch (RecsysUnavailableException e) {
+                int discarded = outboxRepository.deleteExhausted(eventIds, settings.getMaxAttempts());
+                if (discarded > 0) {
+                    log.warn("Discarded {} interaction events for model '{}' after {} attempts",
+                            discarded, modelKey, settings.getMaxAttempts());
+                }
+                int attempts = batch.stream().mapToInt(OutboxEntry::attempts).max().orElse(1);
+                Duration delay = backoff(attempts);
+                outboxRepository.reschedule(eventIds, delay);
+                log.debug("Interaction batch for model '{}' failed, retrying in {}", modelKey, delay);
+                return;
+            }
+            if (batch.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = settings.getInitialBackoff().multipliedBy(1L << Math.min(Math.max(attempts - 1, 0), 20));
+        return delay.compareTo(settings.getMaxBackoff()) > 0 ? settings.getMaxBackoff() : delay;
+    }
+
+    private static InteractionBatchRequest toRequest(List<OutboxEntry> batch) {
+        return new InteractionBatchRequest(batch.stream()
+                .map(entry -> new InteractionEventItem(entry.eventId(), entry.userId(), entry.bookId(),
+                        entry.type(), entry.value(), entry.occurredAt()))
+                .toList());
+    }
+}
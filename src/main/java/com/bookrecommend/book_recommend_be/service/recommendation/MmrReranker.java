@@ -0,0 +1,143 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.BookFeatures;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maximal Marginal Relevance re-ranking of a ranked candidate list.
+ * <p>
+ * Each book is described by a sparse binary vector of its genre and author ids; similarity is
+ * the weighted cosine of two vectors. The ids come from a slim projection, so the whole pool is
+ * compared without hydrating it and only the selected books are loaded afterwards. Relevance comes from the candidate's rank, so the stage works
+ * the same for every model and for precomputed lists. The greedy selection keeps, per candidate,
+ * its highest similarity to anything already picked, so picking K of N books costs K·N
+ * similarity evaluations.
+ */
+@Component
+public class MmrReranker {
+
+    private final float genreWeight;
+    private final float authorWeight;
+
+    public MmrReranker(RecsysProperties properties) {
+        RecsysProperties.Diversity settings = properties.getDiversity();
+        this.genreWeight = settings.getGenreWeight();
+        this.authorWeight = settings.getAuthorWeight();
+    }
+
+    /**
+     * @param candidates books ranked best first
+     * @param lambda     1 keeps the original order, 0 only maximises diversity
+     * @return up to {@code limit} book ids in selection order
+     */
+    public List<Long> rerank(List<BookFeatures> candidates, int limit, double lambda) {
+        int n = candidates.size();
+        int k = Math.min(limit, n);
+        if (k <= 0) {
+            return List.of();
+        }
+
+        long[][] features = new long[n][];
+        float[] norms = new float[n];
+        for (int i = 0; i < n; i++) {
+            features[i] = featuresOf(candidates.get(i));
+            norms[i] = norm(features[i]);
+        }
+
+        int[] order = select(features, norms, k, lambda);
+        List<Long> result = new ArrayList<>(order.length);
+        for (int index : order) {
+            result.add(candidates.get(index).bookId());
+        }
+        return result;
+    }
+
+    private int[] select(long[][] features, float[] norms, int k, double lambda) {
+        int n = features.length;
+        double[] maxSimilarity = new double[n];
+        boolean[] picked = new boolean[n];
+        int[] order = new int[k];
+        for (int step = 0; step < k; step++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int j = 0; j < n; j++) {
+                if (picked[j]) {
+                    continue;
+                }
+                double relevance = 1d - (double) j / n;
+                double score = lambda * relevance - (1d - lambda) * maxSimilarity[j];
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = j;
+                }
+            }
+            picked[best] = true;
+            order[step] = best;
+            for (int j = 0; j < n; j++) {
+                if (!picked[j]) {
+                    double similarity = similarity(features[best], norms[best], features[j], norms[j]);
+                    if (similarity > maxSimilarity[j]) {
+                        maxSimilarity[j] = similarity;
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Sorted feature keys: genre ids are even, author ids odd.
+     */
+    private static long[] featuresOf(BookFeatures book) {
+        long[] keys = new long[book.genreIds().size() + book.authorIds().size()];
+        int size = 0;
+        for (Long genreId : book.genreIds()) {
+            keys[size++] = genreId << 1;
+        }
+        for (Long authorId : book.authorIds()) {
+            keys[size++] = (authorId << 1) | 1L;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private float weightOf(long key) {
+        return (key & 1L) == 0 ? genreWeight : authorWeight;
+    }
+
+    private float norm(long[] features) {
+        float sum = 0f;
+        for (long key : features) {
+            float weight = weightOf(key);
+            sum += weight * weight;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    private double similarity(long[] a, float normA, long[] b, float normB) {
+        if (normA == 0f || normB == 0f) {
+            return 0d;
+        }
+        float dot = 0f;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                float weight = weightOf(a[i]);
+                dot += weight * weight;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dot / (normA * normB);
+    }
+}
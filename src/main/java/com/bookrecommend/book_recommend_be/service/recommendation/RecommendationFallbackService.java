@@ -0,0 +1,104 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.ReadingHistoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Popularity-based rankings computed from the local database, served while a recommender
+ * model is unavailable. Results are book ids only; hydration happens in the caller.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecommendationFallbackService {
+
+    private static final int USER_GENRE_LIMIT = 3;
+    private static final int MAX_FETCH_SIZE = 500;
+    private static final long MOST_READ_TTL_NANOS = Duration.ofMinutes(1).toNanos();
+
+    private final BookRepository bookRepository;
+    private final ReadingHistoryRepository readingHistoryRepository;
+
+    private volatile MostReadSnapshot mostReadSnapshot;
+
+    /**
+     * Top books in the genres the user reads most, topped up with the globally most-read books.
+     * Books the user has already opened are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getFallbackRecommendations(Long userId, int limit) {
+        Set<Long> excluded = new HashSet<>(readingHistoryRepository.findBookIdsByUserId(userId));
+        int fetchSize = Math.min(MAX_FETCH_SIZE, limit + excluded.size());
+
+        LinkedHashSet<Long> ranked = new LinkedHashSet<>();
+        List<Long> genreIds = readingHistoryRepository.findTopGenreIdsByUserId(
+                userId, PageRequest.of(0, USER_GENRE_LIMIT));
+        if (!genreIds.isEmpty()) {
+            addUntilLimit(ranked, bookRepository.findMostReadBookIdsByGenreIds(
+                    genreIds, PageRequest.of(0, fetchSize)), excluded, limit);
+        }
+        if (ranked.size() < limit) {
+            addUntilLimit(ranked, getMostReadBookIds(fetchSize), excluded, limit);
+        }
+        return List.copyOf(ranked);
+    }
+
+    /**
+     * Most-read books sharing a genre with the given book, topped up with the globally most-read books.
+     */
+    @Transactional(readOnly = true)
+    public List<Long> getFallbackSimilarBooks(Long bookId, int limit) {
+        Set<Long> excluded = Set.of(bookId);
+        int fetchSize = Math.min(MAX_FETCH_SIZE, limit + 1);
+
+        LinkedHashSet<Long> ranked = new LinkedHashSet<>();
+        List<Long> genreIds = bookRepository.findGenreIdsByBookId(bookId);
+        if (!genreIds.isEmpty()) {
+            addUntilLimit(ranked, bookRepository.findMostReadBookIdsByGenreIds(
+                    genreIds, PageRequest.of(0, fetchSize)), excluded, limit);
+        }
+        if (ranked.size() < limit) {
+            addUntilLimit(ranked, getMostReadBookIds(fetchSize), excluded, limit);
+        }
+        return List.copyOf(ranked);
+    }
+
+    private List<Long> getMostReadBookIds(int size) {
+        MostReadSnapshot snapshot = mostReadSnapshot;
+        if (snapshot == null
+                || snapshot.requestedSize() < size
+                || System.nanoTime() - snapshot.loadedAtNanos() > MOST_READ_TTL_NANOS) {
+            int requested = Math.max(size, snapshot != null ? snapshot.requestedSize() : 0);
+            snapshot = new MostReadSnapshot(
+                    List.copyOf(bookRepository.findMostReadBookIds(PageRequest.of(0, requested))),
+                    requested,
+                    System.nanoTime());
+            mostReadSnapshot = snapshot;
+        }
+        return snapshot.bookIds();
+    }
+
+    private void addUntilLimit(Set<Long> target, Collection<Long> candidates, Set<Long> excluded, int limit) {
+        for (Long candidate : candidates) {
+            if (target.size() >= limit) {
+                return;
+            }
+            if (candidate != null && !excluded.contains(candidate)) {
+                target.add(candidate);
+            }
+        }
+    }
+
+    private record MostReadSnapshot(List<Long> bookIds, int requestedSize, long loadedAtNanos) {
+    }
+}
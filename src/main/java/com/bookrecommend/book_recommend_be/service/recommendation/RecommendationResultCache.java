@@ -0,0 +1,178 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationCacheStats;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of ranked book ids per (model key, user, limit).
+ * <p>
+ * Only ids are cached; books are hydrated on every request so catalog edits and
+ * presigned URLs stay fresh. Entries for a user are dropped as soon as one of
+ * their interactions commits, and everything is flushed when the active model changes.
+ * <p>
+ * A lookup that started before such an invalidation must not write its now stale result back,
+ * so callers read {@link #generation(Long)} before calling the model and hand it to
+ * {@link #put}. Generations are striped by user id to keep them bounded; an invalidation also
+ * drops in-flight writes of the few users sharing its stripe, which only costs a cache miss.
+ */
+@Component
+@Slf4j
+public class RecommendationResultCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    private final LinkedHashMap<CacheKey, Entry> entries;
+    private final Map<Long, Set<CacheKey>> keysByUser = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final long[] generations = new long[GENERATION_STRIPES];
+
+    public RecommendationResultCache(RecsysProperties properties) {
+        RecsysProperties.Cache config = properties.getCache();
+        this.enabled = config.isEnabled() && config.getMaxEntries() > 0;
+        this.maxEntries = Math.max(1, config.getMaxEntries());
+        this.ttlNanos = config.getTtl().toNanos();
+        // Access-ordered so the eldest entry is always the least recently used one
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public Optional<List<Long>> get(String modelKey, Long userId, int limit) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        CacheKey key = new CacheKey(modelKey, userId, limit);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtNanos() - System.nanoTime() > 0) {
+                hits.incrementAndGet();
+                return Optional.of(entry.bookIds());
+            }
+            if (entry != null) {
+                remove(key);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    /**
+     * @return the user's current generation, to be passed to {@link #put} once the result is in
+     */
+    public synchronized long generation(Long userId) {
+        return generations[stripe(userId)];
+    }
+
+    /**
+     * Caches the ids unless the user was invalidated since {@code generation} was read.
+     */
+    public void put(String modelKey, Long userId, int limit, List<Long> bookIds, long generation) {
+        if (!enabled || bookIds == null || bookIds.isEmpty()) {
+            return;
+        }
+        CacheKey key = new CacheKey(modelKey, userId, limit);
+        Entry entry = new Entry(List.copyOf(bookIds), System.nanoTime() + ttlNanos);
+        synchronized (this) {
+            if (generations[stripe(userId)] != generation) {
+                return;
+            }
+            entries.put(key, entry);
+            keysByUser.computeIfAbsent(userId, ignored -> new HashSet<>()).add(key);
+            while (entries.size() > maxEntries) {
+                CacheKey eldest = entries.keySet().iterator().next();
+                remove(eldest);
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public synchronized void invalidateUser(Long userId) {
+        generations[stripe(userId)]++;
+        Set<CacheKey> keys = keysByUser.remove(userId);
+        if (keys == null) {
+            return;
+        }
+        keys.forEach(entries::remove);
+        invalidations.addAndGet(keys.size());
+    }
+
+    public synchronized void invalidateAll() {
+        for (int i = 0; i < generations.length; i++) {
+            generations[i]++;
+        }
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        keysByUser.clear();
+        log.info("Recommendation result cache flushed");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (event.userId() != null) {
+            invalidateUser(event.userId());
+        }
+    }
+
+    public RecommendationCacheStats getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        RecommendationCacheStats stats = new RecommendationCacheStats();
+        stats.setEnabled(enabled);
+        stats.setSize(size);
+        stats.setMaxEntries(maxEntries);
+        stats.setHits(hitCount);
+        stats.setMisses(missCount);
+        stats.setHitRate(lookups == 0 ? 0D : (double) hitCount / lookups);
+        stats.setEvictions(evictions.get());
+        stats.setInvalidations(invalidations.get());
+        return stats;
+    }
+
+    private static int stripe(Long userId) {
+        return Math.floorMod(Long.hashCode(userId), GENERATION_STRIPES);
+    }
+
+    private void remove(CacheKey key) {
+        entries.remove(key);
+        Set<CacheKey> userKeys = keysByUser.get(key.userId());
+        if (userKeys != null) {
+            userKeys.remove(key);
+            if (userKeys.isEmpty()) {
+                keysByUser.remove(key.userId());
+            }
+        }
+    }
+
+    private record CacheKey(String modelKey, Long userId, int limit) {
+    }
+
+    private record Entry(List<Long> bookIds, long expiresAtNanos) {
+    }
+}
@@ -1,83 +1,182 @@
 package com.bookrecommend.book_recommend_be.service.recommendation;
 
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationLine;
 import com.bookrecommend.book_recommend_be.dto.recommendation.DiversityBooksResponse;
 import com.bookrecommend.book_recommend_be.dto.recommendation.DiversityItem;
 import com.bookrecommend.book_recommend_be.dto.recommendation.DiversityResponse;
-import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationsResponse;
-import com.bookrecommend.book_recommend_be.dto.recommendation.SimilarBooksResponse;
 import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
 import com.bookrecommend.book_recommend_be.service.book.IBookService;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class RecommendationService {
 
-    private final RestTemplate restTemplate;
+    private final RecsysClient recsysClient;
     private final IBookService bookService;
     private final RecsysRoutingService recsysRoutingService;
+    private final RecommendationResultCache recommendationResultCache;
+    private final RecommendationFallbackService fallbackService;
+    private final SimilarBooksMaterializationService similarBooksMaterializationService;
+    private final RecsysArmStatsRegistry armStatsRegistry;
+    private final ShadowTrafficService shadowTrafficService;
+    private final MmrReranker mmrReranker;
+    private final ColdStartRecommendationService coldStartService;
+    private final ConsumedBooksIndex consumedBooksIndex;
+    private final RecsysProperties recsysProperties;
+    @Qualifier("recsysExecutor")
+    private final ExecutorService recsysExecutor;
+
+    // Popular book pages fire many identical lookups at once; they share one upstream call
+    private final SingleFlight<BookLookupKey, List<Long>> similarFlights = new SingleFlight<>();
+    private final SingleFlight<BookLookupKey, DiversityResponse> diversityFlights = new SingleFlight<>();
 
     public List<BookResponse> getRecommendations(Long userId, int limit) {
         try {
-            String recsysUrl = recsysRoutingService.getActiveBaseUrl();
-            String url = String.format("%s/recommendations?user_id=%d&limit=%d",
-                    recsysUrl, userId, limit);
-
-            RecommendationsResponse response = restTemplate.getForObject(
-                    url, RecommendationsResponse.class);
-
-            if (response == null || response.getItems() == null) {
-                return Collections.emptyList();
-            }
-
             // Map recommendation items to full book responses
-            return response.getItems().stream()
-                    .map(item -> {
-                        try {
-                            return bookService.getBookById(item.getBookId());
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(book -> book != null)
-                    .collect(Collectors.toList());
+            return hydrateBooks(recommendBookIds(userId, limit, true));
 
         } catch (Exception e) {
             return Collections.emptyList();
         }
     }
 
-    public List<BookResponse> getSimilarBooks(Long bookId, int limit) {
-        try {
-            String recsysUrl = recsysRoutingService.getActiveBaseUrl();
-            String url = String.format("%s/similar?book_id=%d&limit=%d",
-                    recsysUrl, bookId, limit);
+    /**
+     * Computes recommendations for many users and hands them to {@code sink} one batch at a time,
+     * in the order of {@code userIds}. Users of a batch are resolved concurrently, and all books
+     * they reference are loaded with a single query, so memory is bounded by the batch size.
+     * A user whose ranking fails gets a line with an error instead of books.
+     */
+    public void streamBulkRecommendations(List<Long> userIds, int limit,
+                                          Consumer<List<BulkRecommendationLine>> sink) {
+        RecsysProperties.Bulk settings = recsysProperties.getBulk();
+        int batchSize = Math.max(1, settings.getBatchSize());
+        Semaphore permits = new Semaphore(Math.max(1, settings.getParallelism()));
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            List<Long> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+            sink.accept(recommendBatch(batch, limit, permits));
+        }
+    }
 
-            SimilarBooksResponse response = restTemplate.getForObject(
-                    url, SimilarBooksResponse.class);
+    private List<BulkRecommendationLine> recommendBatch(List<Long> userIds, int limit, Semaphore permits) {
+        List<CompletableFuture<List<Long>>> calls = userIds.stream()
+                .map(userId -> CompletableFuture.supplyAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        return recommendBookIds(userId, limit, false);
+                    } finally {
+                        permits.release();
+                    }
+                }, recsysExecutor))
+                .toList();
+        CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).exceptionally(e -> null).join();
 
-            if (response == null || response.getItems() == null) {
-                return Collections.emptyList();
+        Map<Long, BookResponse> booksById = new HashMap<>();
+        hydrateBooks(calls.stream()
+                .filter(call -> !call.isCompletedExceptionally())
+                .flatMap(call -> call.join().stream())
+                .distinct()
+                .toList())
+                .forEach(book -> booksById.put(book.getId(), book));
+
+        List<BulkRecommendationLine> lines = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            CompletableFuture<List<Long>> call = calls.get(i);
+            if (call.isCompletedExceptionally()) {
+                log.debug("Bulk recommendations failed for user {}: {}", userId, call.exceptionNow().getMessage());
+                lines.add(new BulkRecommendationLine(userId, List.of(), "Recommendations unavailable"));
+                continue;
             }
+            List<BookResponse> books = call.join().stream()
+                    .map(booksById::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            lines.add(new BulkRecommendationLine(userId, books, null));
+        }
+        return lines;
+    }
+
+    /**
+     * Ranked book ids for a user from the cold-start list, the cache, the routed model or the
+     * fallback, in that order. Books the user has already consumed are removed from an
+     * over-fetched candidate list, which is what gets cached and mirrored.
+     * <p>
+     * Without {@code sideEffects}, as for the bulk export, cached lists are reused but nothing is
+     * written back to the result cache or the per-user lookups, and the call is neither counted
+     * in the arm stats nor mirrored, so an export over many users does not evict live entries
+     * or skew the A/B comparison.
+     */
+    private List<Long> recommendBookIds(Long userId, int limit, boolean sideEffects) {
+        if (coldStartService.isColdStart(userId, sideEffects)) {
+            List<Long> coldStartBookIds = coldStartService.getColdStartBookIds(limit);
+            // Until the first list is built, new users get the popularity fallback
+            return coldStartBookIds.isEmpty()
+                    ? fallbackService.getFallbackRecommendations(userId, limit)
+                    : coldStartBookIds;
+        }
+
+        Roaring64Bitmap consumed = consumedBooksIndex.consumedBy(userId, sideEffects);
+        int candidateLimit = consumedBooksIndex.candidateLimit(limit, consumed);
+        String modelKey = recsysRoutingService.resolveModelKey(userId);
+        RecsysArmStats armStats = armStatsRegistry.forModel(modelKey);
+        if (sideEffects) {
+            armStats.recordRequest();
+        }
+        long cacheGeneration = recommendationResultCache.generation(userId);
+        Optional<List<Long>> cached = recommendationResultCache.get(modelKey, userId, candidateLimit);
+        if (cached.isPresent()) {
+            if (sideEffects) {
+                shadowTrafficService.mirror(modelKey, userId, candidateLimit, cached.get());
+            }
+            return consumedBooksIndex.filter(cached.get(), consumed, limit);
+        }
+
+        List<Long> candidates;
+        long startedAt = System.nanoTime();
+        try {
+            candidates = recsysClient.getRecommendedBookIds(modelKey, userId, candidateLimit);
+            if (sideEffects) {
+                armStats.recordCall(System.nanoTime() - startedAt, false, candidates.isEmpty());
+                recommendationResultCache.put(modelKey, userId, candidateLimit, candidates, cacheGeneration);
+                shadowTrafficService.mirror(modelKey, userId, candidateLimit, candidates);
+            }
+        } catch (RecsysUnavailableException e) {
+            if (sideEffects) {
+                armStats.recordCall(System.nanoTime() - startedAt, true, false);
+            }
+            // Fallback rankings are not cached so recovery of the model is picked up immediately
+            log.debug("Serving fallback recommendations for user {}: {}", userId, e.getMessage());
+            candidates = fallbackService.getFallbackRecommendations(userId, candidateLimit);
+        }
+        return consumedBooksIndex.filter(candidates, consumed, limit);
+    }
+
+    public List<BookResponse> getSimilarBooks(Long bookId, int limit) {
+        try {
+            String modelKey = recsysRoutingService.getSimilarModelKey();
 
             // Map similar items to full book responses
-            return response.getItems().stream()
-                    .map(item -> {
-                        try {
-                            return bookService.getBookById(item.getBookId());
-                        } catch (Exception e) {
-                            return null;
-                        }
-                    })
-                    .filter(book -> book != null)
-                    .collect(Collectors.toList());
+            return hydrateBooks(findSimilarBookIds(modelKey, bookId, limit));
 
         } catch (Exception e) {
             return Collections.emptyList();
@@ -85,13 +184,30 @@ public class RecommendationService {
     }
 
     public DiversityBooksResponse getDiversityBooks(Long bookId, int limit) {
+        return getDiversityBooks(bookId, limit, null);
+    }
+
+    /**
+     * @param lambda MMR trade-off for this request; when set, books are re-ranked locally
+     *               whatever the configured strategy
+     */
+    public DiversityBooksResponse getDiversityBooks(Long bookId, int limit, Double lambda) {
+        RecsysProperties.Diversity settings = recsysProperties.getDiversity();
+        if (lambda != null || settings.getStrategy() == RecsysProperties.Diversity.Strategy.MMR) {
+            return getMmrDiversityBooks(bookId, limit, lambda != null ? lambda : settings.getLambda());
+        }
         try {
-            String recsysUrl = recsysRoutingService.getActiveBaseUrl();
-            String url = String.format("%s/diversity?book_id=%d&limit=%d",
-                    recsysUrl, bookId, limit);
+            String modelKey = recsysRoutingService.getServingModelKey();
 
-            DiversityResponse response = restTemplate.getForObject(
-                    url, DiversityResponse.class);
+            DiversityResponse response;
+            try {
+                response = diversityFlights.execute(new BookLookupKey(modelKey, "diversity", bookId, limit),
+                        () -> recsysClient.getDiversity(modelKey, bookId, limit));
+            } catch (RecsysUnavailableException e) {
+                log.debug("Serving fallback diversity books for book {}: {}", bookId, e.getMessage());
+                return new DiversityBooksResponse(
+                        hydrateBooks(fallbackService.getFallbackSimilarBooks(bookId, limit)));
+            }
 
             if (response == null) {
                 return new DiversityBooksResponse(Collections.emptyList());
@@ -105,21 +221,71 @@ public class RecommendationService {
         }
     }
 
+    private DiversityBooksResponse getMmrDiversityBooks(Long bookId, int limit, double lambda) {
+        try {
+            RecsysProperties.Diversity settings = recsysProperties.getDiversity();
+            int candidates = Math.min(Math.max(limit, settings.getMaxCandidates()),
+                    limit * Math.max(1, settings.getCandidateMultiplier()));
+            String modelKey = recsysRoutingService.getSimilarModelKey();
+            // A stored list shorter than the candidate pool still beats a model call
+            int storedCandidates = Math.max(limit,
+                    Math.min(candidates, recsysProperties.getMaterialization().getListSize()));
+            List<Long> candidateIds = similarBooksMaterializationService
+                    .findSimilarBookIds(modelKey, bookId, storedCandidates)
+                    .orElseGet(() -> requestSimilarBookIds(modelKey, bookId, candidates));
+            List<Long> selected = mmrReranker.rerank(bookService.getBookFeaturesByIds(candidateIds), limit, lambda);
+            return new DiversityBooksResponse(hydrateBooks(selected));
+        } catch (Exception e) {
+            log.warn("MMR diversity books failed for book {}: {}", bookId, e.getMessage());
+            return new DiversityBooksResponse(Collections.emptyList());
+        }
+    }
+
+    /**
+     * Precomputed lists first; the model is only called for books the job has not covered.
+     */
+    private List<Long> findSimilarBookIds(String modelKey, Long bookId, int limit) {
+        Optional<List<Long>> materialized = similarBooksMaterializationService.findSimilarBookIds(modelKey, bookId, limit);
+        if (materialized.isPresent()) {
+            return materialized.get();
+        }
+        return requestSimilarBookIds(modelKey, bookId, limit);
+    }
+
+    private List<Long> requestSimilarBookIds(String modelKey, Long bookId, int limit) {
+        try {
+            return similarFlights.execute(new BookLookupKey(modelKey, "similar", bookId, limit),
+                    () -> recsysClient.getSimilarBookIds(modelKey, bookId, limit));
+        } catch (RecsysUnavailableException e) {
+            log.debug("Serving fallback similar books for book {}: {}", bookId, e.getMessage());
+            return fallbackService.getFallbackSimilarBooks(bookId, limit);
+        }
+    }
+
     private List<BookResponse> mapDiversityItems(List<DiversityItem> items) {
         if (items == null || items.isEmpty()) {
             return Collections.emptyList();
         }
 
-        return items.stream()
-                .map(item -> {
-                    try {
-                        return bookService.getBookById(item.getBookId());
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
+        return hydrateBooks(items.stream()
+                .map(DiversityItem::getBookId)
+                .toList());
+    }
+
+    /**
+     * Loads all ranked books with a single query, keeping the recommender order
+     * and dropping ids that no longer resolve to a visible book.
+     */
+    private List<BookResponse> hydrateBooks(List<Long> rankedBookIds) {
+        List<Long> bookIds = rankedBookIds.stream()
                 .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+                .toList();
+        if (bookIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return bookService.getBooksByIds(bookIds);
     }
 
+    private record BookLookupKey(String modelKey, String endpoint, Long bookId, int limit) {
+    }
 }
@@ -0,0 +1,113 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters for one routing arm (model). Upstream latencies go into log-spaced
+ * buckets growing by 10%, so percentiles are accurate to within one bucket.
+ */
+public class RecsysArmStats {
+
+    private static final double BUCKET_GROWTH = 1.1;
+    private static final double LOG_GROWTH = Math.log(BUCKET_GROWTH);
+    private static final long MIN_MICROS = 100;
+    // Enough buckets to cover 100us .. 60s
+    private static final int BUCKETS = (int) Math.ceil(Math.log(60_000_000d / MIN_MICROS) / LOG_GROWTH) + 2;
+
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder upstreamCalls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder emptyResults = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * A request routed to this arm, whether or not it was answered from cache.
+     */
+    public void recordRequest() {
+        requests.increment();
+    }
+
+    public void recordCall(long elapsedNanos, boolean error, boolean empty) {
+        upstreamCalls.increment();
+        if (error) {
+            errors.increment();
+        } else if (empty) {
+            emptyResults.increment();
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(elapsedNanos);
+        latencyBuckets.incrementAndGet(bucketOf(micros));
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getUpstreamCalls() {
+        return upstreamCalls.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getEmptyResults() {
+        return emptyResults.sum();
+    }
+
+    public double getMaxMillis() {
+        return maxMicros.get() / 1000d;
+    }
+
+    /**
+     * @param quantile between 0 and 1
+     * @return upper bound of the bucket holding the quantile, in milliseconds; 0 without samples
+     */
+    public double percentileMillis(double quantile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencyBuckets.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0d;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundMicros(i), maxMicros.get()) / 1000d;
+            }
+        }
+        return getMaxMillis();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            latencyBuckets.set(i, 0);
+        }
+        requests.reset();
+        upstreamCalls.reset();
+        errors.reset();
+        emptyResults.reset();
+        maxMicros.set(0);
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros <= MIN_MICROS) {
+            return 0;
+        }
+        int bucket = (int) Math.ceil(Math.log((double) micros / MIN_MICROS) / LOG_GROWTH);
+        return Math.min(bucket, BUCKETS - 1);
+    }
+
+    private static double upperBoundMicros(int bucket) {
+        return MIN_MICROS * Math.pow(BUCKET_GROWTH, bucket);
+    }
+}
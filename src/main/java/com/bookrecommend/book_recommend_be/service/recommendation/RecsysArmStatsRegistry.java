@@ -0,0 +1,40 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationArmStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RecsysArmStatsRegistry {
+
+    private final Map<String, RecsysArmStats> stats = new ConcurrentHashMap<>();
+
+    public RecsysArmStats forModel(String modelKey) {
+        return stats.computeIfAbsent(modelKey, ignored -> new RecsysArmStats());
+    }
+
+    public RecommendationArmStats snapshot(String modelKey, int trafficWeight) {
+        RecsysArmStats arm = forModel(modelKey);
+        long calls = arm.getUpstreamCalls();
+        RecommendationArmStats snapshot = new RecommendationArmStats();
+        snapshot.setModelKey(modelKey);
+        snapshot.setTrafficWeight(trafficWeight);
+        snapshot.setRequests(arm.getRequests());
+        snapshot.setUpstreamCalls(calls);
+        snapshot.setErrors(arm.getErrors());
+        snapshot.setErrorRate(calls > 0 ? (double) arm.getErrors() / calls : 0d);
+        snapshot.setEmptyResults(arm.getEmptyResults());
+        snapshot.setEmptyResultRate(calls > 0 ? (double) arm.getEmptyResults() / calls : 0d);
+        snapshot.setP50Millis(arm.percentileMillis(0.50));
+        snapshot.setP95Millis(arm.percentileMillis(0.95));
+        snapshot.setP99Millis(arm.percentileMillis(0.99));
+        snapshot.setMaxMillis(arm.getMaxMillis());
+        return snapshot;
+    }
+
+    public void resetAll() {
+        stats.values().forEach(RecsysArmStats::reset);
+    }
+}
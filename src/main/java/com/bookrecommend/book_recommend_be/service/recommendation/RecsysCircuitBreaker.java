@@ -0,0 +1,154 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+
+/**
+ * Count-based circuit breaker guarding calls to a single recommender model.
+ * <p>
+ * CLOSED records the outcome of the last {@code slidingWindowSize} calls and opens once the
+ * failure rate reaches the threshold. OPEN rejects calls until the wait duration has elapsed,
+ * then HALF_OPEN lets a few probe calls through: any failure re-opens the breaker, and
+ * once every probe has succeeded it closes again with a fresh window.
+ */
+@Slf4j
+public class RecsysCircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final int minimumNumberOfCalls;
+    private final long slowCallNanos;
+    private final long waitInOpenNanos;
+    private final int permittedCallsInHalfOpen;
+
+    private final boolean[] failures;
+    private int windowIndex;
+    private int recordedCalls;
+    private int failedCalls;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenPermitsIssued;
+    private int halfOpenSuccesses;
+
+    public RecsysCircuitBreaker(String name, RecsysProperties.CircuitBreaker config) {
+        this.name = name;
+        this.enabled = config.isEnabled();
+        this.failureRateThreshold = Math.max(1, Math.min(100, config.getFailureRateThreshold()));
+        this.failures = new boolean[Math.max(1, config.getSlidingWindowSize())];
+        this.minimumNumberOfCalls = Math.max(1, Math.min(failures.length, config.getMinimumNumberOfCalls()));
+        this.slowCallNanos = config.getSlowCallDurationThreshold() != null
+                ? config.getSlowCallDurationThreshold().toNanos()
+                : Long.MAX_VALUE;
+        this.waitInOpenNanos = config.getWaitDurationInOpenState().toNanos();
+        this.permittedCallsInHalfOpen = Math.max(1, config.getPermittedCallsInHalfOpenState());
+    }
+
+    /**
+     * @return {@code true} when the caller may contact the model; every granted permission must be
+     * followed by {@link #onSuccess(long)} or {@link #onError(long)}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (!enabled) {
+            return true;
+        }
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAtNanos < waitInOpenNanos) {
+                return false;
+            }
+            transitionTo(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermitsIssued >= permittedCallsInHalfOpen) {
+                return false;
+            }
+            halfOpenPermitsIssued++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess(long durationNanos) {
+        record(durationNanos > slowCallNanos);
+    }
+
+    public synchronized void onError(long durationNanos) {
+        record(true);
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= waitInOpenNanos) {
+            // Report the state the next call would observe
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return recordedCalls == 0 ? 0D : (double) failedCalls * 100 / recordedCalls;
+    }
+
+    private void record(boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        switch (state) {
+            case HALF_OPEN -> {
+                if (failed) {
+                    transitionTo(State.OPEN);
+                } else if (++halfOpenSuccesses >= permittedCallsInHalfOpen) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            case CLOSED -> {
+                if (recordedCalls == failures.length) {
+                    if (failures[windowIndex]) {
+                        failedCalls--;
+                    }
+                } else {
+                    recordedCalls++;
+                }
+                failures[windowIndex] = failed;
+                if (failed) {
+                    failedCalls++;
+                }
+                windowIndex = (windowIndex + 1) % failures.length;
+
+                if (recordedCalls >= minimumNumberOfCalls
+                        && failedCalls * 100 >= failureRateThreshold * recordedCalls) {
+                    transitionTo(State.OPEN);
+                }
+            }
+            case OPEN -> {
+                // Late result of a call admitted before the breaker opened; nothing to do
+            }
+        }
+    }
+
+    private void transitionTo(State next) {
+        if (state == next) {
+            return;
+        }
+        log.info("Circuit breaker for recommender model '{}' changed from {} to {}", name, state, next);
+        state = next;
+        halfOpenPermitsIssued = 0;
+        halfOpenSuccesses = 0;
+        if (next == State.OPEN) {
+            openedAtNanos = System.nanoTime();
+        }
+        if (next == State.CLOSED) {
+            Arrays.fill(failures, false);
+            windowIndex = 0;
+            recordedCalls = 0;
+            failedCalls = 0;
+        }
+    }
+}
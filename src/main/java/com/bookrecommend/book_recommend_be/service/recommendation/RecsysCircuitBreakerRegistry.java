@@ -0,0 +1,44 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two breakers per model: one for reads and one for interaction pushes, so a backlog of
+ * failing outbox batches never opens the breaker that guards user-facing recommendations.
+ */
+@Component
+public class RecsysCircuitBreakerRegistry {
+
+    private final Map<String, RecsysCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, RecsysCircuitBreaker> writeBreakers = new ConcurrentHashMap<>();
+
+    public RecsysCircuitBreakerRegistry(RecsysProperties properties) {
+        properties.getModels().forEach((key, model) -> {
+            RecsysProperties.CircuitBreaker config = model.getCircuitBreaker() != null
+                    ? model.getCircuitBreaker()
+                    : new RecsysProperties.CircuitBreaker();
+            breakers.put(key, new RecsysCircuitBreaker(key, config));
+            writeBreakers.put(key, new RecsysCircuitBreaker(key + "/interactions", config));
+        });
+    }
+
+    public RecsysCircuitBreaker forModel(String modelKey) {
+        return lookup(breakers, modelKey);
+    }
+
+    public RecsysCircuitBreaker forModelWrites(String modelKey) {
+        return lookup(writeBreakers, modelKey);
+    }
+
+    private RecsysCircuitBreaker lookup(Map<String, RecsysCircuitBreaker> registry, String modelKey) {
+        RecsysCircuitBreaker breaker = registry.get(modelKey);
+        if (breaker == null) {
+            throw new IllegalArgumentException("Unknown recommender model: " + modelKey);
+        }
+        return breaker;
+    }
+}
@@ -0,0 +1,212 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.dto.recommendation.DiversityItem;
+import com.bookrecommend.book_recommend_be.dto.recommendation.DiversityResponse;
+import com.bookrecommend.book_recommend_be.dto.recommendation.InteractionBatchRequest;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationItem;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationsResponse;
+import com.bookrecommend.book_recommend_be.dto.recommendation.SimilarBooksResponse;
+import com.bookrecommend.book_recommend_be.dto.recommendation.SimilarItem;
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysReplicaSet.Replica;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.LocalRecommender;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Client for the recommender models. Local models are answered in-process; HTTP calls go
+ * through the model's circuit breaker, with interaction pushes on a breaker of their own. Failures, rejected calls and local models that are
+ * still loading surface as {@link RecsysUnavailableException}.
+ * <p>
+ * Reads against a model with several replicas are hedged: when the first replica has not
+ * answered within the recent p95 latency, the same request goes to a second replica, the first
+ * answer wins and the other call is interrupted, which closes its socket on a virtual thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecsysClient {
+
+    private final RestTemplate restTemplate;
+    private final RecsysRoutingService recsysRoutingService;
+    private final RecsysCircuitBreakerRegistry circuitBreakerRegistry;
+    private final RecsysReplicaRegistry replicaRegistry;
+    private final RecsysProperties properties;
+    @Qualifier("recsysExecutor")
+    private final ExecutorService recsysExecutor;
+
+    public List<Long> getRecommendedBookIds(String modelKey, Long userId, int limit) {
+        Optional<LocalRecommender> local = recsysRoutingService.getLocalRecommender(modelKey);
+        if (local.isPresent()) {
+            return toBookIds(readyOrThrow(modelKey, local.get()).recommend(userId, limit));
+        }
+
+        String path = String.format("/recommendations?user_id=%d&limit=%d", userId, limit);
+
+        RecommendationsResponse response = get(modelKey, path, RecommendationsResponse.class);
+        if (response == null || response.getItems() == null) {
+            return Collections.emptyList();
+        }
+        return response.getItems().stream()
+                .map(RecommendationItem::getBookId)
+                .toList();
+    }
+
+    public List<Long> getSimilarBookIds(String modelKey, Long bookId, int limit) {
+        Optional<LocalRecommender> local = recsysRoutingService.getLocalRecommender(modelKey);
+        if (local.isPresent()) {
+            return toBookIds(readyOrThrow(modelKey, local.get()).similar(bookId, limit));
+        }
+
+        String path = String.format("/similar?book_id=%d&limit=%d", bookId, limit);
+
+        SimilarBooksResponse response = get(modelKey, path, SimilarBooksResponse.class);
+        if (response == null || response.getItems() == null) {
+            return Collections.emptyList();
+        }
+        return response.getItems().stream()
+                .map(SimilarItem::getBookId)
+                .toList();
+    }
+
+    public DiversityResponse getDiversity(String modelKey, Long bookId, int limit) {
+        Optional<LocalRecommender> local = recsysRoutingService.getLocalRecommender(modelKey);
+        if (local.isPresent()) {
+            // Local models have no diversity re-ranking; serve their nearest neighbours
+            List<DiversityItem> items = readyOrThrow(modelKey, local.get()).similar(bookId, limit).stream()
+                    .map(scored -> new DiversityItem(scored.bookId(), null, scored.score(), null))
+                    .toList();
+            return new DiversityResponse(bookId, items);
+        }
+
+        String path = String.format("/diversity?book_id=%d&limit=%d", bookId, limit);
+
+        return get(modelKey, path, DiversityResponse.class);
+    }
+
+    /**
+     * Pushes a batch of interactions to an HTTP model for online learning. Not hedged, so a
+     * batch reaches a single replica, and guarded by the model's write breaker so failed pushes
+     * do not reject reads.
+     */
+    public void postInteractions(String modelKey, InteractionBatchRequest batch) {
+        RecsysReplicaSet replicaSet = replicaRegistry.forModel(modelKey);
+        call(modelKey, circuitBreakerRegistry.forModelWrites(modelKey), () -> attempt(replicaSet, replicaSet.choose(null),
+                baseUrl -> restTemplate.postForEntity(baseUrl + "/interactions", batch, Void.class)));
+    }
+
+    private LocalRecommender readyOrThrow(String modelKey, LocalRecommender recommender) {
+        if (!recommender.isReady()) {
+            throw new RecsysUnavailableException("Recommender model '" + modelKey + "' is still loading");
+        }
+        return recommender;
+    }
+
+    private List<Long> toBookIds(List<LocalRecommender.ScoredBook> scoredBooks) {
+        return scoredBooks.stream()
+                .map(LocalRecommender.ScoredBook::bookId)
+                .toList();
+    }
+
+    private <T> T get(String modelKey, String path, Class<T> responseType) {
+        RecsysReplicaSet replicaSet = replicaRegistry.forModel(modelKey);
+        Function<String, T> request = baseUrl -> restTemplate.getForObject(baseUrl + path, responseType);
+        if (replicaSet.size() > 1 && properties.getHedging().isEnabled()) {
+            return call(modelKey, () -> hedged(replicaSet, request));
+        }
+        return call(modelKey, () -> attempt(replicaSet, replicaSet.choose(null), request));
+    }
+
+    private <T> T hedged(RecsysReplicaSet replicaSet, Function<String, T> request) {
+        ExecutorCompletionService<T> completion = new ExecutorCompletionService<>(recsysExecutor);
+        List<Future<T>> calls = new ArrayList<>(2);
+        Replica first = replicaSet.choose(null);
+        calls.add(completion.submit(() -> attempt(replicaSet, first, request)));
+        try {
+            Future<T> done = completion.poll(replicaSet.getHedgeDelayNanos(), TimeUnit.NANOSECONDS);
+            if (done != null) {
+                try {
+                    return done.get();
+                } catch (ExecutionException e) {
+                    // The first replica failed fast; the second request doubles as a retry
+                }
+            }
+            Replica second = replicaSet.choose(first);
+            calls.add(completion.submit(() -> attempt(replicaSet, second, request)));
+            int pending = done != null ? 1 : 2;
+            RuntimeException failure = null;
+            while (pending-- > 0) {
+                try {
+                    return completion.take().get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException runtime
+                            ? runtime
+                            : new RecsysUnavailableException("Recommender replica call failed", e.getCause());
+                }
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RecsysUnavailableException("Interrupted while waiting for recommender replicas", e);
+        } finally {
+            calls.forEach(call -> call.cancel(true));
+        }
+    }
+
+    private <T> T attempt(RecsysReplicaSet replicaSet, Replica replica, Function<String, T> request) {
+        replica.begin();
+        long startedAt = System.nanoTime();
+        boolean failed = true;
+        try {
+            T response = request.apply(replica.getBaseUrl());
+            failed = false;
+            return response;
+        } finally {
+            replica.end();
+            long elapsed = System.nanoTime() - startedAt;
+            if (failed && Thread.currentThread().isInterrupted()) {
+                // Lost a hedge race: the replica was slow, not broken
+                replicaSet.recordCancelled(replica, elapsed);
+            } else {
+                replicaSet.record(replica, elapsed, failed);
+            }
+        }
+    }
+
+    private <T> T call(String modelKey, Supplier<T> request) {
+        return call(modelKey, circuitBreakerRegistry.forModel(modelKey), request);
+    }
+
+    private <T> T call(String modelKey, RecsysCircuitBreaker breaker, Supplier<T> request) {
+        if (!breaker.tryAcquirePermission()) {
+            throw new RecsysUnavailableException("Circuit breaker is open for recommender model '" + modelKey + "'");
+        }
+
+        long startedAt = System.nanoTime();
+        try {
+            T response = request.get();
+            breaker.onSuccess(System.nanoTime() - startedAt);
+            return response;
+        } catch (RuntimeException e) {
+            breaker.onError(System.nanoTime() - startedAt);
+            log.warn("Recommender model '{}' call failed: {}", modelKey, e.getMessage());
+            throw new RecsysUnavailableException("Recommender model '" + modelKey + "' call failed", e);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.LocalRecommender;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Probes every configured model on a schedule and keeps its up/down state and an EWMA of the
+ * probe latency. HTTP models are probed on each replica and count as up while any replica
+ * answers; local models are up once they finished loading. A model changes state only after
+ * several consecutive probes agree, so a single slow probe does not flap it.
+ */
+@Component
+@Slf4j
+public class RecsysHealthMonitor {
+
+    private static final double EWMA_ALPHA = 0.3;
+
+    public enum Status {
+        UNKNOWN, UP, DOWN
+    }
+
+    private final RecsysProperties.Health settings;
+    private final Map<String, RecsysProperties.Model> models;
+    private final Map<String, LocalRecommender> localRecommenders;
+    private final Map<String, ModelHealth> health = new LinkedHashMap<>();
+    private final RestTemplate restTemplate;
+    private final ExecutorService recsysExecutor;
+
+    public RecsysHealthMonitor(RecsysProperties properties,
+                               RestTemplate restTemplate,
+                               List<LocalRecommender> localRecommenders,
+                               @Qualifier("recsysExecutor") ExecutorService recsysExecutor) {
+        this.settings = properties.getHealth();
+        this.models = properties.getModels();
+        this.localRecommenders = localRecommenders.stream()
+                .collect(Collectors.toUnmodifiableMap(LocalRecommender::getKey, Function.identity()));
+        this.restTemplate = restTemplate;
+        this.recsysExecutor = recsysExecutor;
+        models.keySet().forEach(key -> health.put(key, new ModelHealth()));
+    }
+
+    @Scheduled(fixedDelayString = "${recsys.health.probe-interval:15s}")
+    public void probeAll() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        List<Callable<Void>> probes = models.entrySet().stream()
+                .map(entry -> (Callable<Void>) () -> {
+                    probe(entry.getKey(), entry.getValue());
+                    return null;
+                })
+                .toList();
+        try {
+            recsysExecutor.invokeAll(probes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public HealthSnapshot getHealth(String modelKey) {
+        ModelHealth modelHealth = health.get(modelKey);
+        return modelHealth != null ? modelHealth.snapshot() : new HealthSnapshot(Status.UNKNOWN, null, null, null);
+    }
+
+    /**
+     * Models not probed yet are assumed healthy.
+     */
+    public boolean isHealthy(String modelKey) {
+        return getHealth(modelKey).status() != Status.DOWN;
+    }
+
+    /**
+     * Picks the model to fail over to from {@code modelKey}: a model that is up, answers every
+     * endpoint of the failed one and learns online when it does, preferring one served the same
+     * way (HTTP or in-process) and then the lowest probe latency.
+     */
+    public Optional<String> findFailoverTarget(String modelKey) {
+        RecsysProperties.Model failed = models.get(modelKey);
+        boolean local = failed != null && failed.isLocal();
+        return models.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(modelKey))
+                .filter(entry -> canReplace(entry.getValue(), failed))
+                .filter(entry -> getHealth(entry.getKey()).status() == Status.UP)
+                .sorted(Comparator
+                        .comparing((Map.Entry<String, RecsysProperties.Model> entry) -> entry.getValue().isLocal() != local)
+                        .thenComparing(entry -> {
+                            Double latency = getHealth(entry.getKey()).latencyMillis();
+                            return latency != null ? latency : Double.MAX_VALUE;
+                        }))
+                .map(Map.Entry::getKey)
+                .findFirst();
+    }
+
+    private static boolean canReplace(RecsysProperties.Model candidate, RecsysProperties.Model failed) {
+        if (failed == null) {
+            return true;
+        }
+        return candidate.getEndpoints().containsAll(failed.getEndpoints())
+                && (candidate.isSupportsOnlineLearning() || !failed.isSupportsOnlineLearning());
+    }
+
+    private void probe(String modelKey, RecsysProperties.Model model) {
+        ModelHealth modelHealth = health.get(modelKey);
+        if (model.isLocal()) {
+            LocalRecommender recommender = localRecommenders.get(modelKey);
+            if (recommender != null && recommender.isReady()) {
+                modelHealth.onSuccess(modelKey, 0d);
+            } else {
+                modelHealth.onFailure(modelKey, "still loading");
+            }
+            return;
+        }
+
+        Double fastestMillis = null;
+        String lastError = "no replica configured";
+        for (String baseUrl : model.getReplicaUrls()) {
+            long startedAt = System.nanoTime();
+            try {
+                restTemplate.getForEntity(baseUrl + settings.getProbePath(), String.class);
+                double millis = (System.nanoTime() - startedAt) / 1_000_000d;
+                fastestMillis = fastestMillis == null ? millis : Math.min(fastestMillis, millis);
+            } catch (RuntimeException e) {
+                lastError = baseUrl + ": " + e.getMessage();
+            }
+        }
+        if (fastestMillis != null) {
+            modelHealth.onSuccess(modelKey, fastestMillis);
+        } else {
+            modelHealth.onFailure(modelKey, lastError);
+        }
+    }
+
+    public record HealthSnapshot(Status status, Double latencyMillis, Instant lastProbeAt, String lastError) {
+    }
+
+    /**
+     * Written by one probe at a time per model; read by request threads.
+     */
+    private final class ModelHealth {
+        private volatile Status status = Status.UNKNOWN;
+        private volatile Double latencyMillis;
+        private volatile Instant lastProbeAt;
+        private volatile String lastError;
+        private int consecutiveSuccesses;
+        private int consecutiveFailures;
+
+        void onSuccess(String modelKey, double millis) {
+            consecutiveFailures = 0;
+            consecutiveSuccesses++;
+            latencyMillis = latencyMillis == null ? millis : latencyMillis + EWMA_ALPHA * (millis - latencyMillis);
+            lastProbeAt = Instant.now();
+            lastError = null;
+            if (status == Status.UNKNOWN
+                    || (status == Status.DOWN && consecutiveSuccesses >= Math.max(1, settings.getSuccessThreshold()))) {
+                transition(modelKey, Status.UP);
+            }
+        }
+
+        void onFailure(String modelKey, String error) {
+            consecutiveSuccesses = 0;
+            consecutiveFailures++;
+            lastProbeAt = Instant.now();
+            lastError = error;
+            if (status != Status.DOWN && consecutiveFailures >= Math.max(1, settings.getFailureThreshold())) {
+                transition(modelKey, Status.DOWN);
+            }
+        }
+
+        HealthSnapshot snapshot() {
+            return new HealthSnapshot(status, latencyMillis, lastProbeAt, lastError);
+        }
+
+        private void transition(String modelKey, Status next) {
+            Status previous = status;
+            status = next;
+            if (next == Status.DOWN) {
+                log.warn("Recommender model '{}' is down: {}", modelKey, lastError);
+            } else if (previous == Status.DOWN) {
+                log.info("Recommender model '{}' is up again", modelKey);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class RecsysReplicaRegistry {
+
+    private final Map<String, RecsysReplicaSet> replicaSets = new ConcurrentHashMap<>();
+
+    public RecsysReplicaRegistry(RecsysProperties properties) {
+        RecsysProperties.Hedging hedging = properties.getHedging();
+        long failurePenaltyNanos = properties.getHttp().getReadTimeout().toNanos();
+        properties.getModels().forEach((key, model) -> {
+            if (!model.isLocal() && !model.getReplicaUrls().isEmpty()) {
+                replicaSets.put(key, new RecsysReplicaSet(model.getReplicaUrls(), failurePenaltyNanos,
+                        hedging.getQuantile(), hedging.getMinDelay().toNanos(), hedging.getMaxDelay().toNanos()));
+            }
+        });
+    }
+
+    public RecsysReplicaSet forModel(String modelKey) {
+        RecsysReplicaSet replicaSet = replicaSets.get(modelKey);
+        if (replicaSet == null) {
+            throw new IllegalStateException("Recommender model '" + modelKey + "' does not have a base URL configured");
+        }
+        return replicaSet;
+    }
+}
@@ -0,0 +1,144 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replicas of one HTTP model with their recent latency.
+ * <p>
+ * Each replica keeps an exponentially weighted moving average of its latency and the number of
+ * calls in flight. Selection takes the cheaper of two distinct random replicas (power of two
+ * choices), which biases traffic towards fast replicas; a small share of calls goes to a random
+ * replica so a slow one that recovered is noticed. The hedge delay is
+ * a quantile of the last {@value #WINDOW} call latencies across all replicas.
+ */
+public class RecsysReplicaSet {
+
+    private static final int WINDOW = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 32;
+    private static final double EWMA_ALPHA = 0.2;
+    private static final double EXPLORE_RATE = 0.02;
+
+    private final Replica[] replicas;
+    private final long failurePenaltyNanos;
+    private final double quantile;
+    private final long minDelayNanos;
+    private final long maxDelayNanos;
+
+    private final long[] recentNanos = new long[WINDOW];
+    private int next;
+    private int size;
+    private volatile long hedgeDelayNanos;
+
+    public RecsysReplicaSet(List<String> baseUrls, long failurePenaltyNanos,
+                            double quantile, long minDelayNanos, long maxDelayNanos) {
+        this.replicas = baseUrls.stream().map(Replica::new).toArray(Replica[]::new);
+        this.failurePenaltyNanos = failurePenaltyNanos;
+        this.quantile = quantile;
+        this.minDelayNanos = minDelayNanos;
+        this.maxDelayNanos = maxDelayNanos;
+        this.hedgeDelayNanos = maxDelayNanos;
+    }
+
+    public int size() {
+        return replicas.length;
+    }
+
+    /**
+     * @param exclude replica already in use by this call, or {@code null}
+     * @return the cheaper of two random replicas other than {@code exclude}
+     */
+    public Replica choose(Replica exclude) {
+        if (replicas.length == 1) {
+            return replicas[0];
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Replica first = pick(random, exclude, null);
+        int candidates = exclude != null ? replicas.length - 1 : replicas.length;
+        if (candidates == 1 || random.nextDouble() < EXPLORE_RATE) {
+            return first;
+        }
+        Replica second = pick(random, exclude, first);
+        return first.cost() <= second.cost() ? first : second;
+    }
+
+    public long getHedgeDelayNanos() {
+        return hedgeDelayNanos;
+    }
+
+    /**
+     * Records a finished call on {@code replica}. Failed calls count as at least the failure
+     * penalty so broken replicas lose traffic, and are kept out of the hedge delay window.
+     */
+    public void record(Replica replica, long elapsedNanos, boolean failed) {
+        replica.update(failed ? Math.max(elapsedNanos, failurePenaltyNanos) : elapsedNanos);
+        if (!failed) {
+            addSample(elapsedNanos);
+        }
+    }
+
+    /**
+     * Records a call interrupted because the other hedged request won; only the replica's
+     * latency estimate is updated.
+     */
+    public void recordCancelled(Replica replica, long elapsedNanos) {
+        replica.update(elapsedNanos);
+    }
+
+    private Replica pick(ThreadLocalRandom random, Replica exclude, Replica other) {
+        Replica candidate;
+        do {
+            candidate = replicas[random.nextInt(replicas.length)];
+        } while (candidate == exclude || candidate == other);
+        return candidate;
+    }
+
+    private synchronized void addSample(long nanos) {
+        recentNanos[next] = nanos;
+        next = (next + 1) % WINDOW;
+        size = Math.min(size + 1, WINDOW);
+        if (size >= MIN_SAMPLES && next % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(recentNanos, size);
+            Arrays.sort(sorted);
+            long delay = sorted[Math.min(size - 1, (int) Math.ceil(quantile * size) - 1)];
+            hedgeDelayNanos = Math.max(minDelayNanos, Math.min(maxDelayNanos, delay));
+        }
+    }
+
+    public static final class Replica {
+        private final String baseUrl;
+        private final AtomicLong ewmaNanos = new AtomicLong();
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Replica(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void begin() {
+            inFlight.incrementAndGet();
+        }
+
+        public void end() {
+            inFlight.decrementAndGet();
+        }
+
+        private double cost() {
+            // Unmeasured replicas cost nothing so they are tried early
+            return (double) ewmaNanos.get() * (inFlight.get() + 1);
+        }
+
+        private void update(long nanos) {
+            ewmaNanos.updateAndGet(current -> current == 0
+                    ? nanos
+                    : (long) (current + EWMA_ALPHA * (nanos - current)));
+        }
+    }
+}
@@ -2,14 +2,20 @@ package com.bookrecommend.book_recommend_be.service.recommendation;
 
 import com.bookrecommend.book_recommend_be.config.RecsysProperties;
 import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationModelInfo;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.LocalRecommender;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
@@ -18,12 +24,40 @@ public class RecsysRoutingService {
 
     private final Map<String, RecsysProperties.Model> models;
     private final AtomicReference<String> activeModelKey = new AtomicReference<>();
+    private final AtomicReference<Map<String, Integer>> trafficWeights = new AtomicReference<>(Map.of());
+    private final RecommendationResultCache recommendationResultCache;
+    private final RecsysCircuitBreakerRegistry circuitBreakerRegistry;
+    private final RecsysHealthMonitor healthMonitor;
+    private final boolean failoverEnabled;
+    private final AtomicReference<String> failoverModelKey = new AtomicReference<>();
+    private final Map<String, LocalRecommender> localRecommenders;
+    private final String similarModelKey;
 
-    public RecsysRoutingService(RecsysProperties properties) {
+    public RecsysRoutingService(RecsysProperties properties,
+                                RecommendationResultCache recommendationResultCache,
+                                RecsysCircuitBreakerRegistry circuitBreakerRegistry,
+                                RecsysHealthMonitor healthMonitor,
+                                List<LocalRecommender> localRecommenders) {
+        this.recommendationResultCache = recommendationResultCache;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.healthMonitor = healthMonitor;
+        this.failoverEnabled = properties.getHealth().isEnabled() && properties.getHealth().isFailover();
         if (properties.getModels() == null || properties.getModels().isEmpty()) {
             throw new IllegalStateException("No recommender models configured under 'recsys.models'");
         }
         this.models = Collections.unmodifiableMap(properties.getModels());
+        this.localRecommenders = localRecommenders.stream()
+                .collect(Collectors.toUnmodifiableMap(LocalRecommender::getKey, Function.identity()));
+        models.forEach((key, model) -> {
+            if (model.isLocal() && !this.localRecommenders.containsKey(key)) {
+                throw new IllegalStateException("Recommender model '" + key + "' is marked local but no in-process implementation exists");
+            }
+        });
+
+        this.similarModelKey = StringUtils.hasText(properties.getSimilarModel()) ? properties.getSimilarModel() : null;
+        if (similarModelKey != null && !models.containsKey(similarModelKey)) {
+            throw new IllegalStateException("Similar books model '" + similarModelKey + "' is not configured under 'recsys.models'");
+        }
 
         String initialKey = properties.getDefaultModel();
         if (!StringUtils.hasText(initialKey) || !models.containsKey(initialKey)) {
@@ -31,6 +65,98 @@ public class RecsysRoutingService {
         }
         activeModelKey.set(initialKey);
         log.info("Active recommendation model initialized to '{}'", initialKey);
+
+        Map<String, Integer> configuredWeights = new LinkedHashMap<>();
+        models.forEach((key, model) -> configuredWeights.put(key, model.getTrafficWeight()));
+        trafficWeights.set(normalizeWeights(configuredWeights));
+        if (!trafficWeights.get().isEmpty()) {
+            log.info("Recommendation traffic split initialized to {}", trafficWeights.get());
+        }
+    }
+
+    /**
+     * Picks the model serving a user's recommendations. With a traffic split configured the
+     * assignment uses weighted rendezvous hashing on the user id: it is sticky for as long as
+     * the weights do not change, and changing one arm's weight only moves users into or out of
+     * that arm. Anonymous requests and an empty split go to the serving model, as do users of an
+     * unhealthy arm when failover is enabled.
+     */
+    public String resolveModelKey(Long userId) {
+        Map<String, Integer> weights = trafficWeights.get();
+        if (userId == null || weights.isEmpty()) {
+            return getServingModelKey();
+        }
+        String chosen = null;
+        double best = Double.POSITIVE_INFINITY;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            double score = -Math.log(unitHash(userId, entry.getKey())) / entry.getValue();
+            if (score < best) {
+                best = score;
+                chosen = entry.getKey();
+            }
+        }
+        if (failoverEnabled && !healthMonitor.isHealthy(chosen)) {
+            return getServingModelKey();
+        }
+        return chosen;
+    }
+
+    /**
+     * The active model, or with failover enabled and the active model down, the healthiest
+     * other model. Switches back as soon as the active model is probed healthy again.
+     */
+    public String getServingModelKey() {
+        String active = activeModelKey.get();
+        String target = failoverEnabled && !healthMonitor.isHealthy(active)
+                ? healthMonitor.findFailoverTarget(active).orElse(active)
+                : active;
+        String failover = target.equals(active) ? null : target;
+        String previous = failoverModelKey.getAndSet(failover);
+        if (!Objects.equals(previous, failover)) {
+            if (target.equals(active)) {
+                log.info("Recommender model '{}' recovered; failover ended", active);
+            } else {
+                log.warn("Recommender model '{}' is unhealthy; failing over to '{}'", active, target);
+            }
+        }
+        return target;
+    }
+
+    /**
+     * The model for similar-books lookups: the configured similar model while it is ready and
+     * healthy, the serving model otherwise.
+     */
+    public String getSimilarModelKey() {
+        if (similarModelKey != null
+                && getLocalRecommender(similarModelKey).map(LocalRecommender::isReady).orElse(true)
+                && (!failoverEnabled || healthMonitor.isHealthy(similarModelKey))) {
+            return similarModelKey;
+        }
+        return getServingModelKey();
+    }
+
+    public Map<String, Integer> getTrafficWeights() {
+        return trafficWeights.get();
+    }
+
+    /**
+     * Replaces the traffic split. Models with a weight of 0 are left out; an empty map routes
+     * everything back to the active model.
+     */
+    public Map<String, Integer> updateTrafficWeights(Map<String, Integer> weights) {
+        Map<String, Integer> requested = weights == null ? Map.of() : weights;
+        requested.forEach((key, weight) -> {
+            if (!models.containsKey(key)) {
+                throw new IllegalArgumentException("Unknown recommender model: " + key);
+            }
+            if (weight == null || weight < 0) {
+                throw new IllegalArgumentException("Traffic weight for '" + key + "' must be zero or positive");
+            }
+        });
+        Map<String, Integer> normalized = normalizeWeights(requested);
+        trafficWeights.set(normalized);
+        log.info("Recommendation traffic split set to {}", normalized.isEmpty() ? "active model only" : normalized);
+        return normalized;
     }
 
     public String getActiveModelKey() {
@@ -42,18 +168,56 @@ public class RecsysRoutingService {
     }
 
     public String getActiveBaseUrl() {
-        RecsysProperties.Model model = getActiveModel();
+        return getBaseUrl(activeModelKey.get());
+    }
+
+    public String getBaseUrl(String modelKey) {
+        RecsysProperties.Model model = models.get(modelKey);
         if (model == null || !StringUtils.hasText(model.getBaseUrl())) {
-            throw new IllegalStateException("Active recommender model does not have a base URL configured");
+            throw new IllegalStateException("Recommender model '" + modelKey + "' does not have a base URL configured");
         }
         return model.getBaseUrl();
     }
 
+    public boolean hasModel(String modelKey) {
+        return models.containsKey(modelKey);
+    }
+
+    public boolean isLocal(String modelKey) {
+        RecsysProperties.Model model = models.get(modelKey);
+        return model != null && model.isLocal();
+    }
+
+    /**
+     * @return HTTP models that accept interaction updates, in declaration order
+     */
+    public List<String> getOnlineLearningModelKeys() {
+        return models.entrySet().stream()
+                .filter(entry -> entry.getValue().isSupportsOnlineLearning() && !entry.getValue().isLocal())
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * @return the in-process recommender backing {@code modelKey}, or empty for HTTP models
+     */
+    public Optional<LocalRecommender> getLocalRecommender(String modelKey) {
+        if (!isLocal(modelKey)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(localRecommenders.get(modelKey));
+    }
+
     public RecommendationModelInfo activateModel(String modelKey) {
         if (!models.containsKey(modelKey)) {
             throw new IllegalArgumentException("Unknown recommender model: " + modelKey);
         }
-        activeModelKey.set(modelKey);
+        String previous = activeModelKey.getAndSet(modelKey);
+        // Activating a model explicitly ends any running experiment
+        Map<String, Integer> previousWeights = trafficWeights.getAndSet(Map.of());
+        if (!modelKey.equals(previous) || !previousWeights.isEmpty()) {
+            recommendationResultCache.invalidateAll();
+        }
         log.info("Switched active recommender model to '{}'", modelKey);
         return buildModelInfo(modelKey, models.get(modelKey), true);
     }
@@ -81,6 +245,43 @@ public class RecsysRoutingService {
         info.setBaseUrl(model.getBaseUrl());
         info.setSupportsOnlineLearning(model.isSupportsOnlineLearning());
         info.setActive(active);
+        info.setLocal(model.isLocal());
+        info.setReady(getLocalRecommender(key).map(LocalRecommender::isReady).orElse(true));
+        RecsysCircuitBreaker breaker = circuitBreakerRegistry.forModel(key);
+        info.setCircuitState(breaker.getState().name());
+        info.setFailureRate(breaker.getFailureRate());
+        info.setTrafficWeight(trafficWeights.get().getOrDefault(key, 0));
+        RecsysHealthMonitor.HealthSnapshot health = healthMonitor.getHealth(key);
+        info.setHealthStatus(health.status().name());
+        info.setProbeLatencyMillis(health.latencyMillis());
+        info.setLastProbeAt(health.lastProbeAt());
+        info.setLastProbeError(health.lastError());
         return info;
     }
+
+    private static Map<String, Integer> normalizeWeights(Map<String, Integer> weights) {
+        Map<String, Integer> normalized = new LinkedHashMap<>();
+        weights.forEach((key, weight) -> {
+            if (weight != null && weight > 0) {
+                normalized.put(key, weight);
+            }
+        });
+        return Collections.unmodifiableMap(normalized);
+    }
+
+    /**
+     * Uniform value in (0, 1) derived from the user id and model key (SplitMix64 finalizer).
+     */
+    private static double unitHash(long userId, String modelKey) {
+        long z = userId ^ mix64(modelKey.hashCode());
+        z = mix64(z);
+        return ((z >>> 11) + 0.5) * 0x1.0p-53;
+    }
+
+    private static long mix64(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
@@ -0,0 +1,208 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.ShadowTrafficStats;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Mirrors a sample of served recommendation requests to a candidate model so it can be judged
+ * under production load before being activated. The shadow answer is never served; only its
+ * latency, errors and overlap with the primary answer are kept, over the most recent calls.
+ * <p>
+ * Shadow calls run on a small bounded pool. When it is saturated mirrored requests are dropped,
+ * so the primary path never waits on the shadow model.
+ */
+@Service
+@Slf4j
+public class ShadowTrafficService {
+
+    private final RecsysClient recsysClient;
+    private final RecsysRoutingService recsysRoutingService;
+    private final int windowSize;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder mirrored = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private volatile Shadow shadow;
+
+    public ShadowTrafficService(RecsysProperties properties,
+                                RecsysClient recsysClient,
+                                RecsysRoutingService recsysRoutingService) {
+        this.recsysClient = recsysClient;
+        this.recsysRoutingService = recsysRoutingService;
+        RecsysProperties.Shadow settings = properties.getShadow();
+        this.windowSize = Math.max(1, settings.getWindowSize());
+        int concurrency = Math.max(1, settings.getMaxConcurrency());
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, settings.getQueueCapacity())),
+                Thread.ofVirtual().name("recsys-shadow-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        if (settings.isEnabled() && StringUtils.hasText(settings.getModelKey())) {
+            configure(settings.getModelKey(), settings.getSampleRate());
+        }
+    }
+
+    /**
+     * Mirrors the request with the configured probability. Returns immediately.
+     *
+     * @param primaryModelKey model that served {@code primaryBookIds}
+     */
+    public void mirror(String primaryModelKey, Long userId, int limit, List<Long> primaryBookIds) {
+        Shadow current = shadow;
+        if (current == null || userId == null || current.modelKey().equals(primaryModelKey)) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= current.sampleRate()) {
+            return;
+        }
+        try {
+            executor.execute(() -> callShadow(current, userId, limit, primaryBookIds));
+            mirrored.increment();
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Starts mirroring to {@code modelKey}, discarding statistics of the previous shadow model.
+     */
+    public ShadowTrafficStats configure(String modelKey, double sampleRate) {
+        if (!recsysRoutingService.hasModel(modelKey)) {
+            throw new IllegalArgumentException("Unknown recommender model: " + modelKey);
+        }
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Shadow sample rate must be greater than 0 and at most 1");
+        }
+        shadow = new Shadow(modelKey, sampleRate, new RollingWindow(windowSize));
+        resetCounters();
+        log.info("Mirroring {}% of recommendation requests to shadow model '{}'", sampleRate * 100, modelKey);
+        return getStats();
+    }
+
+    public ShadowTrafficStats disable() {
+        shadow = null;
+        resetCounters();
+        log.info("Shadow traffic disabled");
+        return getStats();
+    }
+
+    public ShadowTrafficStats getStats() {
+        Shadow current = shadow;
+        ShadowTrafficStats stats = new ShadowTrafficStats();
+        stats.setWindowSize(windowSize);
+        stats.setMirrored(mirrored.sum());
+        stats.setDropped(dropped.sum());
+        if (current == null) {
+            return stats;
+        }
+        stats.setEnabled(true);
+        stats.setModelKey(current.modelKey());
+        stats.setSampleRate(current.sampleRate());
+        current.window().fill(stats);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void callShadow(Shadow target, Long userId, int limit, List<Long> primaryBookIds) {
+        long startedAt = System.nanoTime();
+        try {
+            List<Long> shadowBookIds = recsysClient.getRecommendedBookIds(target.modelKey(), userId, limit);
+            target.window().record(System.nanoTime() - startedAt, false, overlap(primaryBookIds, shadowBookIds));
+        } catch (RuntimeException e) {
+            target.window().record(System.nanoTime() - startedAt, true, 0d);
+            log.debug("Shadow call to model '{}' failed for user {}: {}", target.modelKey(), userId, e.getMessage());
+        }
+    }
+
+    private void resetCounters() {
+        mirrored.reset();
+        dropped.reset();
+    }
+
+    private static double overlap(List<Long> primary, List<Long> shadow) {
+        if (primary.isEmpty()) {
+            return shadow.isEmpty() ? 1d : 0d;
+        }
+        Set<Long> shadowIds = new HashSet<>(shadow);
+        long shared = primary.stream().filter(shadowIds::contains).count();
+        return (double) shared / primary.size();
+    }
+
+    private record Shadow(String modelKey, double sampleRate, RollingWindow window) {
+    }
+
+    /**
+     * Ring buffer of the last {@code capacity} shadow calls. Only shadow threads and admin reads
+     * touch it, so a plain monitor is enough.
+     */
+    private static final class RollingWindow {
+        private final long[] latencyNanos;
+        private final boolean[] errors;
+        private final double[] overlaps;
+        private int next;
+        private int size;
+
+        RollingWindow(int capacity) {
+            this.latencyNanos = new long[capacity];
+            this.errors = new boolean[capacity];
+            this.overlaps = new double[capacity];
+        }
+
+        synchronized void record(long nanos, boolean error, double overlap) {
+            latencyNanos[next] = nanos;
+            errors[next] = error;
+            overlaps[next] = overlap;
+            next = (next + 1) % latencyNanos.length;
+            size = Math.min(size + 1, latencyNanos.length);
+        }
+
+        synchronized void fill(ShadowTrafficStats stats) {
+            stats.setSamples(size);
+            if (size == 0) {
+                return;
+            }
+            long[] sorted = Arrays.copyOf(latencyNanos, size);
+            Arrays.sort(sorted);
+            int errorCount = 0;
+            double overlapSum = 0;
+            for (int i = 0; i < size; i++) {
+                if (errors[i]) {
+                    errorCount++;
+                } else {
+                    overlapSum += overlaps[i];
+                }
+            }
+            int successes = size - errorCount;
+            stats.setErrors(errorCount);
+            stats.setErrorRate((double) errorCount / size);
+            stats.setMeanOverlap(successes > 0 ? overlapSum / successes : 0d);
+            stats.setP50Millis(percentileMillis(sorted, 0.50));
+            stats.setP95Millis(percentileMillis(sorted, 0.95));
+            stats.setP99Millis(percentileMillis(sorted, 0.99));
+            stats.setMaxMillis(sorted[size - 1] / 1_000_000d);
+        }
+
+        private static double percentileMillis(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1_000_000d;
+        }
+    }
+}
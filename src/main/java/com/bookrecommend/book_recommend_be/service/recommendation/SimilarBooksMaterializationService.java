@@ -0,0 +1,231 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.SimilarBooksJobStatus;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.SimilarBooksJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.SimilarBooksJdbcRepository.JobCheckpoint;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputes similar-book lists for every visible book into the {@code similar_books} table so
+ * book pages are served without calling the recommender.
+ * <p>
+ * The job walks books in id order, calls the model with bounded concurrency and checkpoints
+ * after every batch. A database lease keeps a single run per model across instances; a run
+ * that crashed (stale heartbeat) or failed is resumed from its checkpoint.
+ */
+@Service
+@Slf4j
+public class SimilarBooksMaterializationService {
+
+    private final RecsysProperties.Materialization settings;
+    private final RecsysRoutingService recsysRoutingService;
+    private final RecsysClient recsysClient;
+    private final BookRepository bookRepository;
+    private final SimilarBooksJdbcRepository similarBooksRepository;
+    private final ExecutorService recsysExecutor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public SimilarBooksMaterializationService(RecsysProperties properties,
+                                              RecsysRoutingService recsysRoutingService,
+                                              RecsysClient recsysClient,
+                                              BookRepository bookRepository,
+                                              SimilarBooksJdbcRepository similarBooksRepository,
+                                              @Qualifier("recsysExecutor") ExecutorService recsysExecutor) {
+        this.settings = properties.getMaterialization();
+        this.recsysRoutingService = recsysRoutingService;
+        this.recsysClient = recsysClient;
+        this.bookRepository = bookRepository;
+        this.similarBooksRepository = similarBooksRepository;
+        this.recsysExecutor = recsysExecutor;
+    }
+
+    /**
+     * @return the stored list truncated to {@code limit}, or empty when there is none or the
+     * request asks for more books than are stored
+     */
+    public Optional<List<Long>> findSimilarBookIds(String modelKey, Long bookId, int limit) {
+        if (!settings.isEnabled() || limit > settings.getListSize()) {
+            return Optional.empty();
+        }
+        try {
+            return similarBooksRepository.findSimilarBookIds(modelKey, bookId)
+                    .map(ids -> ids.size() > limit ? ids.subList(0, limit) : ids);
+        } catch (DataAccessException e) {
+            log.debug("Similar books lookup failed for book {}: {}", bookId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Only hands the run to the recsys executor: a run takes minutes to hours and would otherwise
+     * hold the scheduler thread away from health probes and the outbox dispatcher.
+     */
+    @Scheduled(cron = "${recsys.materialization.cron:0 0 3 * * *}")
+    public void scheduledRefresh() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        String modelKey = recsysRoutingService.getActiveModelKey();
+        if (!running.get()) {
+            recsysExecutor.execute(() -> refresh(modelKey));
+        }
+    }
+
+    /**
+     * Starts a run in the background.
+     *
+     * @return {@code false} when this instance is already running the job
+     */
+    public boolean refreshAsync(String modelKey) {
+        if (!recsysRoutingService.hasModel(modelKey)) {
+            throw new IllegalArgumentException("Unknown recommender model: " + modelKey);
+        }
+        if (recsysRoutingService.isLocal(modelKey)) {
+            throw new IllegalArgumentException("Recommender model '" + modelKey + "' is served in-process");
+        }
+        if (running.get()) {
+            return false;
+        }
+        recsysExecutor.execute(() -> refresh(modelKey));
+        return true;
+    }
+
+    public SimilarBooksJobStatus getStatus(String modelKey) {
+        SimilarBooksJobStatus status = new SimilarBooksJobStatus();
+        status.setModelKey(modelKey);
+        status.setRunningLocally(running.get());
+        similarBooksRepository.findCheckpoint(modelKey).ifPresent(checkpoint -> {
+            status.setStatus(checkpoint.status());
+            status.setRunStartedAt(checkpoint.runStartedAt());
+            status.setHeartbeatAt(checkpoint.heartbeatAt());
+            status.setFinishedAt(checkpoint.finishedAt());
+            status.setLastBookId(checkpoint.lastBookId());
+            status.setProcessed(checkpoint.processed());
+            status.setFailed(checkpoint.failed());
+            long elapsedMillis = Duration.between(checkpoint.runStartedAt(), checkpoint.heartbeatAt()).toMillis();
+            status.setBooksPerSecond(elapsedMillis > 0 ? checkpoint.processed() * 1000d / elapsedMillis : 0d);
+        });
+        return status;
+    }
+
+    public void refresh(String modelKey) {
+        if (recsysRoutingService.isLocal(modelKey)) {
+            log.info("Skipping similar books job for in-process model '{}'", modelKey);
+            return;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.info("Similar books job is already running on this instance");
+            return;
+        }
+        try {
+            runJob(modelKey);
+        } catch (RuntimeException e) {
+            log.error("Similar books job for model '{}' failed", modelKey, e);
+            similarBooksRepository.finish(modelKey, SimilarBooksJdbcRepository.STATUS_FAILED);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runJob(String modelKey) {
+        Optional<JobCheckpoint> claimed = similarBooksRepository.claim(modelKey, settings.getLeaseTimeout());
+        if (claimed.isEmpty()) {
+            log.info("Similar books job for model '{}' is running on another instance", modelKey);
+            return;
+        }
+        JobCheckpoint checkpoint = claimed.get();
+        long lastBookId = checkpoint.lastBookId();
+        long processed = checkpoint.processed();
+        long failed = checkpoint.failed();
+        if (lastBookId > 0) {
+            log.info("Resuming similar books job for model '{}' after book {}", modelKey, lastBookId);
+        } else {
+            log.info("Starting similar books job for model '{}'", modelKey);
+        }
+
+        Semaphore permits = new Semaphore(Math.max(1, settings.getParallelism()));
+        long startedAt = System.nanoTime();
+        long sessionBooks = 0;
+        while (true) {
+            List<Long> bookIds = bookRepository.findVisibleBookIdsAfter(lastBookId,
+                    PageRequest.of(0, Math.max(1, settings.getBatchSize())));
+            if (bookIds.isEmpty()) {
+                break;
+            }
+
+            BatchResult batch = fetchBatch(modelKey, bookIds, permits);
+            if (batch.similar().isEmpty() && !batch.failedBookIds().isEmpty()) {
+                // The model is unreachable; keep the checkpoint so the next run retries this batch
+                similarBooksRepository.finish(modelKey, SimilarBooksJdbcRepository.STATUS_FAILED);
+                log.warn("Similar books job for model '{}' stopped after book {}: model unavailable",
+                        modelKey, lastBookId);
+                return;
+            }
+
+            similarBooksRepository.upsertSimilarBookIds(modelKey, batch.similar());
+            // Books the model failed for keep their previous list instead of losing it to the stale delete
+            similarBooksRepository.markComputed(modelKey, batch.failedBookIds());
+            processed += batch.similar().size();
+            failed += batch.failedBookIds().size();
+            lastBookId = bookIds.get(bookIds.size() - 1);
+            similarBooksRepository.saveProgress(modelKey, lastBookId, processed, failed);
+
+            sessionBooks += bookIds.size();
+            log.debug("Similar books job '{}': {} books stored, {} failed, {} books/s",
+                    modelKey, processed, failed, booksPerSecond(sessionBooks, startedAt));
+        }
+
+        int removed = similarBooksRepository.deleteComputedBefore(modelKey, checkpoint.runStartedAt());
+        similarBooksRepository.finish(modelKey, SimilarBooksJdbcRepository.STATUS_COMPLETED);
+        log.info("Similar books job for model '{}' completed: {} books stored, {} failed, {} stale removed, {} books/s",
+                modelKey, processed, failed, removed, booksPerSecond(sessionBooks, startedAt));
+    }
+
+    private BatchResult fetchBatch(String modelKey, List<Long> bookIds, Semaphore permits) {
+        Map<Long, List<Long>> similar = new ConcurrentHashMap<>();
+        Queue<Long> failed = new ConcurrentLinkedQueue<>();
+        CompletableFuture<?>[] calls = bookIds.stream()
+                .map(bookId -> CompletableFuture.runAsync(() -> {
+                    permits.acquireUninterruptibly();
+                    try {
+                        similar.put(bookId, recsysClient.getSimilarBookIds(modelKey, bookId, settings.getListSize()));
+                    } catch (RecsysUnavailableException e) {
+                        failed.add(bookId);
+                    } finally {
+                        permits.release();
+                    }
+                }, recsysExecutor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(calls).join();
+        return new BatchResult(similar, List.copyOf(failed));
+    }
+
+    private static long booksPerSecond(long books, long startedAtNanos) {
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAtNanos);
+        return elapsedMillis > 0 ? books * 1000 / elapsedMillis : books;
+    }
+
+    private record BatchResult(Map<Long, List<Long>> similar, List<Long> failedBookIds) {
+    }
+}
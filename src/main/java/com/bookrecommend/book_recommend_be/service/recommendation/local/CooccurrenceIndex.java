@@ -0,0 +1,204 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Top-N item-to-item cosine neighbours computed from an {@link InteractionMatrix}, treating
+ * every entry as a binary co-occurrence. Each book's list is an immutable {@link Neighbors}
+ * keyed by matrix column, published together with the matrix it was computed from.
+ * <p>
+ * Builds read one {@link InteractionMatrix.Structure} snapshot instead of locking the matrix
+ * per row and column. Writes come from the matrix updater thread only; lookups are lock-free.
+ */
+final class CooccurrenceIndex {
+
+    private static final Neighbors NO_NEIGHBORS = new Neighbors(new int[0], new float[0]);
+
+    private final int neighborsPerItem;
+    private final int maxItemsPerUser;
+
+    private volatile State state;
+
+    CooccurrenceIndex(int neighborsPerItem, int maxItemsPerUser) {
+        this.neighborsPerItem = Math.max(1, neighborsPerItem);
+        this.maxItemsPerUser = Math.max(2, maxItemsPerUser);
+    }
+
+    boolean isReady() {
+        return state != null;
+    }
+
+    int maxItemsPerUser() {
+        return maxItemsPerUser;
+    }
+
+    void computeAll(InteractionMatrix matrix) {
+        InteractionMatrix.Structure structure = matrix.structure();
+        int columns = structure.columnCount();
+        Neighbors[] table = new Neighbors[columns];
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> new Scratch(columns, neighborsPerItem));
+        IntStream.range(0, columns).parallel()
+                .forEach(item -> table[item] = computeNeighbors(structure, item, scratch.get()));
+        state = new State(matrix, table);
+    }
+
+    /**
+     * Recomputes the neighbour lists of the given columns against {@code matrix}, which must
+     * share dense indices with the matrix of the current state.
+     */
+    void recompute(InteractionMatrix matrix, BitSet items) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        InteractionMatrix.Structure structure = matrix.structure();
+        int columns = structure.columnCount();
+        Neighbors[] table = current.table();
+        if (table.length < columns) {
+            table = Arrays.copyOf(table, columns);
+        }
+        Scratch scratch = new Scratch(columns, neighborsPerItem);
+        for (int item = items.nextSetBit(0); item >= 0; item = items.nextSetBit(item + 1)) {
+            // Lists are immutable, so replacing one in place is safe for concurrent readers
+            table[item] = computeNeighbors(structure, item, scratch);
+        }
+        state = new State(matrix, table);
+    }
+
+    List<LocalRecommender.ScoredBook> similar(long bookId, int limit) {
+        State current = state;
+        if (current == null) {
+            return Collections.emptyList();
+        }
+        int item = current.matrix().columnOf(bookId);
+        Neighbors list = current.neighborsOf(item);
+        int count = Math.min(limit, list.ids().length);
+        List<LocalRecommender.ScoredBook> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new LocalRecommender.ScoredBook(current.matrix().bookIdOf(list.ids()[i]), list.scores()[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Sums the similarities of the neighbours of every book the user has interacted with,
+     * skipping books the user already knows.
+     */
+    List<LocalRecommender.ScoredBook> recommend(long userId, int limit) {
+        State current = state;
+        if (current == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        InteractionMatrix matrix = current.matrix();
+        int user = matrix.rowOf(userId);
+        if (user < 0) {
+            return Collections.emptyList();
+        }
+
+        BitSet seen = new BitSet();
+        matrix.forEachInRow(user, (item, weight) -> seen.set(item));
+
+        // Dense accumulator indexed by column; only the touched columns are ranked
+        Scratch scratch = new Scratch(matrix.columnCount(), limit);
+        for (int item = seen.nextSetBit(0); item >= 0; item = seen.nextSetBit(item + 1)) {
+            Neighbors list = current.neighborsOf(item);
+            for (int n = 0; n < list.ids().length; n++) {
+                if (!seen.get(list.ids()[n])) {
+                    scratch.add(list.ids()[n], list.scores()[n]);
+                }
+            }
+        }
+
+        TopKSelector topK = scratch.topK;
+        for (int t = 0; t < scratch.touchedCount; t++) {
+            topK.offer(scratch.touched[t], scratch.counts[scratch.touched[t]]);
+        }
+        int[] ids = new int[topK.size()];
+        float[] scores = new float[topK.size()];
+        int count = topK.drainDescending(ids, scores);
+
+        List<LocalRecommender.ScoredBook> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new LocalRecommender.ScoredBook(matrix.bookIdOf(ids[i]), scores[i]));
+        }
+        return result;
+    }
+
+    private Neighbors computeNeighbors(InteractionMatrix.Structure structure, int item, Scratch scratch) {
+        int[] rowPointers = structure.rowPointers();
+        int[] columnIndices = structure.columnIndices();
+        int[] columnPointers = structure.columnPointers();
+        int[] rowIndices = structure.rowIndices();
+        for (int k = columnPointers[item]; k < columnPointers[item + 1]; k++) {
+            int user = rowIndices[k];
+            if (structure.rowLength(user) > maxItemsPerUser) {
+                continue;
+            }
+            for (int e = rowPointers[user]; e < rowPointers[user + 1]; e++) {
+                int other = columnIndices[e];
+                if (other != item) {
+                    scratch.add(other, 1f);
+                }
+            }
+        }
+
+        TopKSelector topK = scratch.topK;
+        topK.clear();
+        double itemNorm = Math.sqrt(structure.columnLength(item));
+        for (int t = 0; t < scratch.touchedCount; t++) {
+            int other = scratch.touched[t];
+            float cosine = (float) (scratch.counts[other] / (itemNorm * Math.sqrt(structure.columnLength(other))));
+            topK.offer(other, cosine);
+            scratch.counts[other] = 0f;
+        }
+        scratch.touchedCount = 0;
+
+        if (topK.size() == 0) {
+            return NO_NEIGHBORS;
+        }
+        int[] ids = new int[topK.size()];
+        float[] scores = new float[topK.size()];
+        topK.drainDescending(ids, scores);
+        return new Neighbors(ids, scores);
+    }
+
+    record Neighbors(int[] ids, float[] scores) {
+    }
+
+    private record State(InteractionMatrix matrix, Neighbors[] table) {
+
+        Neighbors neighborsOf(int item) {
+            if (item < 0 || item >= table.length || table[item] == null) {
+                return NO_NEIGHBORS;
+            }
+            return table[item];
+        }
+    }
+
+    private static final class Scratch {
+        private final float[] counts;
+        private final TopKSelector topK;
+        private int[] touched = new int[64];
+        private int touchedCount;
+
+        private Scratch(int itemCount, int neighborsPerItem) {
+            this.counts = new float[itemCount];
+            this.topK = new TopKSelector(neighborsPerItem);
+        }
+
+        private void add(int item, float amount) {
+            if (counts[item] == 0f) {
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = item;
+            }
+            counts[item] += amount;
+        }
+    }
+}
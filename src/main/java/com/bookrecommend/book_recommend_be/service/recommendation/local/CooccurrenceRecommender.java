@@ -0,0 +1,82 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Item-to-item co-occurrence recommender served from memory.
+ * <p>
+ * Neighbour lists are computed in full whenever {@link InteractionMatrixStore} loads a matrix.
+ * For each appended interaction only the lists it touches are recomputed: the book itself
+ * and the other books of the same user.
+ */
+@Component
+@Slf4j
+public class CooccurrenceRecommender implements LocalRecommender, InteractionMatrixListener {
+
+    public static final String KEY = "cooccurrence";
+
+    private final CooccurrenceIndex index;
+
+    public CooccurrenceRecommender(RecsysProperties properties, InteractionMatrixStore matrixStore) {
+        RecsysProperties.Cooccurrence settings = properties.getLocal().getCooccurrence();
+        this.index = new CooccurrenceIndex(settings.getNeighborsPerItem(), settings.getMaxItemsPerUser());
+        RecsysProperties.Model model = properties.getModels().get(KEY);
+        if (model != null && model.isLocal()) {
+            matrixStore.addListener(this);
+        }
+    }
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public boolean isReady() {
+        return index.isReady();
+    }
+
+    @Override
+    public List<ScoredBook> recommend(Long userId, int limit) {
+        if (userId == null) {
+            return Collections.emptyList();
+        }
+        return index.recommend(userId, limit);
+    }
+
+    @Override
+    public List<ScoredBook> similar(Long bookId, int limit) {
+        if (bookId == null) {
+            return Collections.emptyList();
+        }
+        return index.similar(bookId, limit);
+    }
+
+    @Override
+    public void onMatrixLoaded(InteractionMatrix matrix) {
+        long startedAt = System.nanoTime();
+        index.computeAll(matrix);
+        log.info("Co-occurrence neighbours computed for {} books in {} ms", matrix.columnCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public void onInteractionAppended(InteractionMatrix matrix, int row, int column, boolean newEntry) {
+        BitSet affected = new BitSet();
+        if (newEntry) {
+            affected.set(column);
+            if (matrix.rowLength(row) <= index.maxItemsPerUser()) {
+                matrix.forEachInRow(row, (item, weight) -> affected.set(item));
+            }
+        }
+        // Always republish so lookups follow the matrix the store is appending to
+        index.recompute(matrix, affected);
+    }
+}
@@ -0,0 +1,90 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps sparse database ids to dense {@code 0..size-1} indices. Ids known at build time are kept
+ * in a sorted {@code long[]} and resolved by binary search; ids added later get the next free
+ * index and go through a small hash map.
+ */
+final class DenseIdIndex {
+
+    // Rough per-entry cost of a HashMap node plus boxed key and value
+    private static final int APPENDED_ENTRY_BYTES = 64;
+
+    private final long[] baseIds;
+    private final Map<Long, Integer> appendedIndex;
+    private long[] appendedIds;
+    private int appendedCount;
+
+    private DenseIdIndex(long[] baseIds, Map<Long, Integer> appendedIndex, long[] appendedIds, int appendedCount) {
+        this.baseIds = baseIds;
+        this.appendedIndex = appendedIndex;
+        this.appendedIds = appendedIds;
+        this.appendedCount = appendedCount;
+    }
+
+    /**
+     * Builds an index over the distinct values among the first {@code count} ids; dense indices
+     * follow ascending id order.
+     */
+    static DenseIdIndex of(long[] ids, int count) {
+        long[] sorted = Arrays.copyOf(ids, count);
+        Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || sorted[distinct - 1] != sorted[i]) {
+                sorted[distinct++] = sorted[i];
+            }
+        }
+        return new DenseIdIndex(Arrays.copyOf(sorted, distinct), new HashMap<>(), new long[16], 0);
+    }
+
+    int size() {
+        return baseIds.length + appendedCount;
+    }
+
+    /**
+     * @return the dense index of {@code id}, or {@code -1} when unknown
+     */
+    int indexOf(long id) {
+        int index = Arrays.binarySearch(baseIds, id);
+        if (index >= 0) {
+            return index;
+        }
+        if (appendedCount == 0) {
+            return -1;
+        }
+        Integer appended = appendedIndex.get(id);
+        return appended != null ? appended : -1;
+    }
+
+    int getOrAdd(long id) {
+        int index = indexOf(id);
+        if (index >= 0) {
+            return index;
+        }
+        if (appendedCount == appendedIds.length) {
+            appendedIds = Arrays.copyOf(appendedIds, appendedCount * 2);
+        }
+        appendedIds[appendedCount] = id;
+        index = baseIds.length + appendedCount++;
+        appendedIndex.put(id, index);
+        return index;
+    }
+
+    long idAt(int index) {
+        return index < baseIds.length ? baseIds[index] : appendedIds[index - baseIds.length];
+    }
+
+    DenseIdIndex copy() {
+        return new DenseIdIndex(baseIds, new HashMap<>(appendedIndex),
+                Arrays.copyOf(appendedIds, appendedIds.length), appendedCount);
+    }
+
+    long footprintBytes() {
+        return 8L * baseIds.length + 8L * appendedIds.length + (long) APPENDED_ENTRY_BYTES * appendedCount;
+    }
+}
@@ -0,0 +1,156 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest neighbours over book embeddings from a memory-mapped {@link MappedHnswIndex}, so
+ * similar books can be served without the external SBERT service.
+ * <p>
+ * The index file is mapped at startup. When it is missing but an embeddings export is
+ * configured, the index is built from it on a background thread and mapped once written.
+ * Recommendations for a user search around the mean of the books they favorited or finished.
+ */
+@Component
+@Slf4j
+public class EmbeddingIndexRecommender implements LocalRecommender {
+
+    public static final String KEY = "embedding-local";
+    private static final long BUILD_SEED = 42;
+
+    private final RecsysProperties.Embedding settings;
+    private final InteractionJdbcRepository interactionRepository;
+    private final double minProgress;
+
+    private volatile MappedHnswIndex index;
+
+    public EmbeddingIndexRecommender(RecsysProperties properties, InteractionJdbcRepository interactionRepository) {
+        this.settings = properties.getLocal().getEmbedding();
+        this.interactionRepository = interactionRepository;
+        this.minProgress = properties.getConsumedFilter().getMinProgress();
+        RecsysProperties.Model model = properties.getModels().get(KEY);
+        if (model != null && model.isLocal()) {
+            load();
+        }
+    }
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public boolean isReady() {
+        return index != null;
+    }
+
+    @Override
+    public List<ScoredBook> recommend(Long userId, int limit) {
+        MappedHnswIndex current = index;
+        if (current == null || userId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        float[] profile = new float[current.dimension()];
+        float[] vector = new float[current.dimension()];
+        Set<Integer> seen = new HashSet<>();
+        try {
+            interactionRepository.forEachConsumedBookId(userId, minProgress, bookId -> {
+                int node = current.nodeOf(bookId);
+                if (node >= 0 && seen.add(node)) {
+                    current.vector(node, vector);
+                    for (int d = 0; d < vector.length; d++) {
+                        profile[d] += vector[d];
+                    }
+                }
+            });
+        } catch (DataAccessException e) {
+            log.debug("Loading consumed books failed for user {}: {}", userId, e.getMessage());
+            return Collections.emptyList();
+        }
+        if (seen.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return search(current, profile, limit, seen);
+    }
+
+    @Override
+    public List<ScoredBook> similar(Long bookId, int limit) {
+        MappedHnswIndex current = index;
+        if (current == null || bookId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        int node = current.nodeOf(bookId);
+        if (node < 0) {
+            return Collections.emptyList();
+        }
+        return search(current, current.vector(node, new float[current.dimension()]), limit, Set.of(node));
+    }
+
+    private List<ScoredBook> search(MappedHnswIndex current, float[] query, int limit, Set<Integer> excluded) {
+        int k = limit + excluded.size();
+        int[] nodes = new int[k];
+        float[] scores = new float[k];
+        int count = current.search(query, k, Math.max(settings.getEfSearch(), k), nodes, scores);
+        List<ScoredBook> result = new ArrayList<>(Math.min(limit, count));
+        for (int i = 0; i < count && result.size() < limit; i++) {
+            if (!excluded.contains(nodes[i])) {
+                result.add(new ScoredBook(current.bookIdOf(nodes[i]), scores[i]));
+            }
+        }
+        return result;
+    }
+
+    private void load() {
+        Path indexPath = Path.of(settings.getIndexPath());
+        if (Files.exists(indexPath)) {
+            open(indexPath);
+            return;
+        }
+        if (!StringUtils.hasText(settings.getVectorsPath()) || !Files.exists(Path.of(settings.getVectorsPath()))) {
+            log.warn("Embedding index {} not found and no embeddings export to build it from; model '{}' stays unavailable",
+                    indexPath, KEY);
+            return;
+        }
+        Thread.ofPlatform().name("embedding-index-build").daemon().start(() -> build(indexPath));
+    }
+
+    private void build(Path indexPath) {
+        long startedAt = System.nanoTime();
+        try {
+            HnswIndexBuilder builder = HnswIndexBuilder.fromEmbeddingsFile(Path.of(settings.getVectorsPath()),
+                    settings.getMaxNeighbors(), settings.getEfConstruction(), BUILD_SEED);
+            builder.writeTo(indexPath);
+            log.info("Embedding index of {} books built in {} ms", builder.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+            open(indexPath);
+        } catch (IOException | RuntimeException e) {
+            log.error("Building embedding index {} failed: {}", indexPath, e.toString());
+        }
+    }
+
+    private void open(Path indexPath) {
+        long startedAt = System.nanoTime();
+        try {
+            MappedHnswIndex opened = MappedHnswIndex.open(indexPath);
+            index = opened;
+            log.info("Embedding index {} mapped: {} books x {} dimensions in {} ms", indexPath,
+                    opened.size(), opened.dimension(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        } catch (IOException e) {
+            log.error("Mapping embedding index {} failed: {}", indexPath, e.getMessage());
+        }
+    }
+}
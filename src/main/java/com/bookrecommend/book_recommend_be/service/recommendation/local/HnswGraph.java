@@ -0,0 +1,201 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.Arrays;
+
+/**
+ * Layer search shared by the in-memory {@link HnswIndexBuilder} and the read-only
+ * {@link MappedHnswIndex}. Nodes are dense ints; similarity is the dot product of unit vectors,
+ * so higher is closer.
+ */
+abstract class HnswGraph {
+
+    abstract float similarity(float[] query, int node);
+
+    /**
+     * Copies the neighbours of {@code node} on {@code level} into {@code out}.
+     *
+     * @return number of neighbours written
+     */
+    abstract int neighbors(int node, int level, int[] out);
+
+    abstract int maxNeighbors(int level);
+
+    /**
+     * Greedy walk towards the single closest node on one layer.
+     */
+    int greedyClosest(float[] query, int entry, int level) {
+        int[] buffer = new int[maxNeighbors(level)];
+        int current = entry;
+        float best = similarity(query, current);
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int count = neighbors(current, level, buffer);
+            for (int i = 0; i < count; i++) {
+                float score = similarity(query, buffer[i]);
+                if (score > best) {
+                    best = score;
+                    current = buffer[i];
+                    improved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer keeping the {@code ef} closest nodes found.
+     *
+     * @return number of entries written to {@code outNodes}/{@code outScores}, closest first
+     */
+    int searchLayer(float[] query, int entry, int ef, int level, int[] outNodes, float[] outScores) {
+        int[] buffer = new int[maxNeighbors(level)];
+        VisitedSet visited = new VisitedSet(ef * 8);
+        CandidateQueue candidates = new CandidateQueue(ef * 2);
+        TopKSelector results = new TopKSelector(ef);
+
+        float entryScore = similarity(query, entry);
+        visited.add(entry);
+        candidates.push(entry, entryScore);
+        results.offer(entry, entryScore);
+        while (!candidates.isEmpty()) {
+            // Every remaining candidate is farther than the worst kept result
+            if (candidates.peekScore() < results.threshold()) {
+                break;
+            }
+            int current = candidates.pop();
+            int count = neighbors(current, level, buffer);
+            for (int i = 0; i < count; i++) {
+                int neighbor = buffer[i];
+                if (!visited.add(neighbor)) {
+                    continue;
+                }
+                float score = similarity(query, neighbor);
+                if (score > results.threshold()) {
+                    candidates.push(neighbor, score);
+                    results.offer(neighbor, score);
+                }
+            }
+        }
+        return results.drainDescending(outNodes, outScores);
+    }
+
+    /**
+     * Max-heap of nodes by similarity.
+     */
+    private static final class CandidateQueue {
+        private int[] nodes;
+        private float[] scores;
+        private int size;
+
+        CandidateQueue(int capacity) {
+            nodes = new int[Math.max(capacity, 16)];
+            scores = new float[nodes.length];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        float peekScore() {
+            return scores[0];
+        }
+
+        void push(int node, float score) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            int index = size++;
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (scores[parent] >= score) {
+                    break;
+                }
+                nodes[index] = nodes[parent];
+                scores[index] = scores[parent];
+                index = parent;
+            }
+            nodes[index] = node;
+            scores[index] = score;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            if (size > 0) {
+                int node = nodes[size];
+                float score = scores[size];
+                int index = 0;
+                int half = size >>> 1;
+                while (index < half) {
+                    int child = 2 * index + 1;
+                    int right = child + 1;
+                    if (right < size && scores[right] > scores[child]) {
+                        child = right;
+                    }
+                    if (score >= scores[child]) {
+                        break;
+                    }
+                    nodes[index] = nodes[child];
+                    scores[index] = scores[child];
+                    index = child;
+                }
+                nodes[index] = node;
+                scores[index] = score;
+            }
+            return top;
+        }
+    }
+
+    /**
+     * Open-addressing set of node ids; a search only touches a small part of the graph, so
+     * this stays far smaller than a bitmap over all nodes.
+     */
+    private static final class VisitedSet {
+        private int[] slots;
+        private int size;
+
+        VisitedSet(int expected) {
+            slots = new int[Integer.highestOneBit(Math.max(expected, 16) * 2 - 1) << 1];
+            Arrays.fill(slots, -1);
+        }
+
+        /**
+         * @return {@code false} when the node was already present
+         */
+        boolean add(int node) {
+            if (size * 2 >= slots.length) {
+                grow();
+            }
+            int mask = slots.length - 1;
+            int index = mix(node) & mask;
+            while (slots[index] != -1) {
+                if (slots[index] == node) {
+                    return false;
+                }
+                index = (index + 1) & mask;
+            }
+            slots[index] = node;
+            size++;
+            return true;
+        }
+
+        private void grow() {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            Arrays.fill(slots, -1);
+            size = 0;
+            for (int node : old) {
+                if (node != -1) {
+                    add(node);
+                }
+            }
+        }
+
+        private static int mix(int value) {
+            int h = value * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
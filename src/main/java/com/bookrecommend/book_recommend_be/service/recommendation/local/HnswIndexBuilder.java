@@ -0,0 +1,403 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Builds an HNSW graph over book embeddings in memory and writes it in the format read by
+ * {@link MappedHnswIndex}.
+ * <p>
+ * Vectors are normalised on insertion so similarity is cosine. Each node links to at most
+ * {@code M} neighbours on upper layers and {@code 2M} on the bottom layer, chosen with the
+ * diversity heuristic of the HNSW paper and topped up with the closest pruned candidates.
+ * Insertion is single-threaded and deterministic for a given seed.
+ */
+public final class HnswIndexBuilder extends HnswGraph {
+
+    private static final int MAX_LEVEL = 16;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final int dimension;
+    private final int maxNeighbors;
+    private final int maxNeighborsLevel0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final SplittableRandom random;
+    private final Map<Long, Integer> nodesByBookId = new HashMap<>();
+
+    private float[] vectors;
+    private long[] bookIds;
+    private int[][][] links;
+    private int size;
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndexBuilder(int dimension, int maxNeighbors, int efConstruction, long seed) {
+        if (dimension <= 0 || maxNeighbors < 2 || efConstruction < maxNeighbors) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimension=" + dimension
+                    + ", M=" + maxNeighbors + ", efConstruction=" + efConstruction);
+        }
+        this.dimension = dimension;
+        this.maxNeighbors = maxNeighbors;
+        this.maxNeighborsLevel0 = maxNeighbors * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(maxNeighbors);
+        this.random = new SplittableRandom(seed);
+        this.vectors = new float[1024 * dimension];
+        this.bookIds = new long[1024];
+        this.links = new int[1024][][];
+    }
+
+    /**
+     * Reads an embeddings export and indexes every row. The file is little-endian: the row count
+     * and dimension as ints, then per row the book id as a long followed by the vector.
+     */
+    public static HnswIndexBuilder fromEmbeddingsFile(Path path, int maxNeighbors, int efConstruction, long seed)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+            fill(channel, buffer, 8);
+            int rows = buffer.getInt();
+            int dimension = buffer.getInt();
+            HnswIndexBuilder builder = new HnswIndexBuilder(dimension, maxNeighbors, efConstruction, seed);
+            int rowBytes = 8 + 4 * dimension;
+            float[] vector = new float[dimension];
+            for (int row = 0; row < rows; row++) {
+                fill(channel, buffer, rowBytes);
+                long bookId = buffer.getLong();
+                buffer.asFloatBuffer().get(vector);
+                buffer.position(buffer.position() + 4 * dimension);
+                builder.add(bookId, vector);
+            }
+            return builder;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @throws IllegalArgumentException when the vector has the wrong dimension or the book is already indexed
+     */
+    public void add(long bookId, float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of dimension " + dimension + " but got " + vector.length);
+        }
+        if (nodesByBookId.putIfAbsent(bookId, size) != null) {
+            throw new IllegalArgumentException("Book " + bookId + " is already indexed");
+        }
+        ensureCapacity(size + 1);
+        int node = size++;
+        System.arraycopy(unit(vector), 0, vectors, node * dimension, dimension);
+        bookIds[node] = bookId;
+
+        int level = Math.min(MAX_LEVEL, (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier));
+        links[node] = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            links[node][l] = new int[maxNeighbors(l) + 1];
+        }
+        if (entryPoint < 0) {
+            entryPoint = node;
+            topLevel = level;
+            return;
+        }
+
+        float[] query = Arrays.copyOfRange(vectors, node * dimension, (node + 1) * dimension);
+        int entry = entryPoint;
+        for (int l = topLevel; l > level; l--) {
+            entry = greedyClosest(query, entry, l);
+        }
+        int[] found = new int[efConstruction];
+        float[] scores = new float[efConstruction];
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            int count = searchLayer(query, entry, efConstruction, l, found, scores);
+            int[] selected = selectNeighbors(found, scores, count, maxNeighbors);
+            int[] own = links[node][l];
+            own[0] = selected.length;
+            System.arraycopy(selected, 0, own, 1, selected.length);
+            for (int neighbor : selected) {
+                link(neighbor, node, l);
+            }
+            entry = found[0];
+        }
+        if (level > topLevel) {
+            entryPoint = node;
+            topLevel = level;
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file next to {@code path} and moves it into place, so
+     * readers never see a partial file.
+     */
+    public void writeTo(Path path) throws IOException {
+        Integer[] sorted = IntStream.range(0, size).boxed()
+                .sorted(Comparator.comparingLong(node -> bookIds[node]))
+                .toArray(Integer[]::new);
+        int[] upperOffsets = new int[size];
+        long upperInts = 0;
+        for (int node = 0; node < size; node++) {
+            int levels = links[node].length - 1;
+            upperOffsets[node] = levels > 0 ? Math.toIntExact(upperInts) : -1;
+            upperInts += (long) levels * (maxNeighbors + 1);
+        }
+        MappedHnswIndex.Layout layout = new MappedHnswIndex.Layout(size, dimension, maxNeighborsLevel0, upperInts);
+
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer out = new Writer(channel);
+            out.putInt(MappedHnswIndex.MAGIC);
+            out.putInt(MappedHnswIndex.VERSION);
+            out.putInt(size);
+            out.putInt(dimension);
+            out.putInt(maxNeighbors);
+            out.putInt(maxNeighborsLevel0);
+            out.putInt(entryPoint);
+            out.putInt(topLevel);
+            out.putLong(upperInts);
+            out.padTo(layout.sortedIdsOffset());
+            for (int node : sorted) {
+                out.putLong(bookIds[node]);
+            }
+            for (int node : sorted) {
+                out.putInt(node);
+            }
+            out.padTo(layout.nodeIdsOffset());
+            for (int node = 0; node < size; node++) {
+                out.putLong(bookIds[node]);
+            }
+            for (int node = 0; node < size; node++) {
+                out.putInt(upperOffsets[node]);
+            }
+            out.padTo(layout.level0Offset());
+            for (int node = 0; node < size; node++) {
+                for (int value : links[node][0]) {
+                    out.putInt(value);
+                }
+            }
+            for (int node = 0; node < size; node++) {
+                for (int l = 1; l < links[node].length; l++) {
+                    for (int value : links[node][l]) {
+                        out.putInt(value);
+                    }
+                }
+            }
+            out.padTo(layout.vectorsOffset());
+            for (int i = 0; i < size * dimension; i++) {
+                out.putFloat(vectors[i]);
+            }
+            out.flush();
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static float[] unit(float[] vector) {
+        double sum = 0;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        float scale = sum > 0 ? (float) (1 / Math.sqrt(sum)) : 0f;
+        float[] result = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            result[i] = vector[i] * scale;
+        }
+        return result;
+    }
+
+    @Override
+    float similarity(float[] query, int node) {
+        int base = node * dimension;
+        float sum = 0f;
+        for (int d = 0; d < dimension; d++) {
+            sum += query[d] * vectors[base + d];
+        }
+        return sum;
+    }
+
+    private float similarityBetween(int left, int right) {
+        int leftBase = left * dimension;
+        int rightBase = right * dimension;
+        float sum = 0f;
+        for (int d = 0; d < dimension; d++) {
+            sum += vectors[leftBase + d] * vectors[rightBase + d];
+        }
+        return sum;
+    }
+
+    @Override
+    int neighbors(int node, int level, int[] out) {
+        int[] own = links[node][level];
+        System.arraycopy(own, 1, out, 0, own[0]);
+        return own[0];
+    }
+
+    @Override
+    int maxNeighbors(int level) {
+        return level == 0 ? maxNeighborsLevel0 : maxNeighbors;
+    }
+
+    /**
+     * Adds {@code node} to the neighbours of {@code target}, re-selecting them when the list is full.
+     */
+    private void link(int target, int node, int level) {
+        int[] own = links[target][level];
+        int capacity = maxNeighbors(level);
+        if (own[0] < capacity) {
+            own[++own[0]] = node;
+            return;
+        }
+        int count = own[0] + 1;
+        int[] candidates = new int[count];
+        float[] scores = new float[count];
+        for (int i = 0; i < count; i++) {
+            candidates[i] = i < own[0] ? own[i + 1] : node;
+            scores[i] = similarityBetween(target, candidates[i]);
+        }
+        sortDescending(candidates, scores, count);
+        int[] selected = selectNeighbors(candidates, scores, count, capacity);
+        own[0] = selected.length;
+        System.arraycopy(selected, 0, own, 1, selected.length);
+    }
+
+    /**
+     * Keeps a candidate only if it is closer to the base node than to every neighbour already
+     * kept, so links point in different directions; the closest pruned ones fill any free slots.
+     *
+     * @param candidates sorted closest first
+     */
+    private int[] selectNeighbors(int[] candidates, float[] scores, int count, int limit) {
+        int[] selected = new int[Math.min(limit, count)];
+        int[] pruned = new int[count];
+        int selectedCount = 0;
+        int prunedCount = 0;
+        for (int i = 0; i < count && selectedCount < selected.length; i++) {
+            int candidate = candidates[i];
+            boolean diverse = true;
+            for (int j = 0; j < selectedCount; j++) {
+                if (similarityBetween(candidate, selected[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[selectedCount++] = candidate;
+            } else {
+                pruned[prunedCount++] = candidate;
+            }
+        }
+        for (int i = 0; i < prunedCount && selectedCount < selected.length; i++) {
+            selected[selectedCount++] = pruned[i];
+        }
+        return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+    }
+
+    private static void sortDescending(int[] nodes, float[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            int node = nodes[i];
+            float score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                nodes[j + 1] = nodes[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            scores[j + 1] = score;
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= bookIds.length) {
+            return;
+        }
+        int capacity = Math.max(required, bookIds.length * 2);
+        vectors = Arrays.copyOf(vectors, Math.multiplyExact(capacity, dimension));
+        bookIds = Arrays.copyOf(bookIds, capacity);
+        links = Arrays.copyOf(links, capacity);
+    }
+
+    private static void fill(FileChannel channel, ByteBuffer buffer, int required) throws IOException {
+        if (buffer.remaining() >= required) {
+            return;
+        }
+        if (required > buffer.capacity()) {
+            throw new IOException("Embedding rows of " + required + " bytes exceed the read buffer");
+        }
+        buffer.compact();
+        while (buffer.position() < required) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException("Embeddings file is truncated");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Buffered little-endian writes to a channel.
+     */
+    private static final class Writer {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private long written;
+
+        Writer(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensure(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensure(8);
+            buffer.putLong(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensure(4);
+            buffer.putFloat(value);
+        }
+
+        void padTo(long offset) throws IOException {
+            while (written + buffer.position() < offset) {
+                ensure(1);
+                buffer.put((byte) 0);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
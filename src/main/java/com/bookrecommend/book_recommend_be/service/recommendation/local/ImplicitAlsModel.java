@@ -0,0 +1,102 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Trained ALS factors: row {@code i} of a side occupies {@code [i * factors, (i + 1) * factors)}
+ * of its array. Rows and columns follow the dense indices of the matrix the model was trained
+ * on. Users re-solved after training are kept apart in {@link #foldIn} so the trained arrays
+ * are never written once published.
+ */
+final class ImplicitAlsModel {
+
+    private final int factors;
+    private final int userCount;
+    private final int itemCount;
+    private final float[] userFactors;
+    private final float[] itemFactors;
+    private final float[] inverseItemNorms;
+    private final double[] gramian;
+    private final ScoringKernel kernel = ScoringKernels.best();
+    private final Map<Integer, float[]> foldedIn = new ConcurrentHashMap<>();
+
+    ImplicitAlsModel(int factors, int userCount, int itemCount,
+                     float[] userFactors, float[] itemFactors, double[] gramian) {
+        this.factors = factors;
+        this.userCount = userCount;
+        this.itemCount = itemCount;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+        this.gramian = gramian;
+        this.inverseItemNorms = new float[itemCount];
+        for (int item = 0; item < itemCount; item++) {
+            int offset = item * factors;
+            float norm = (float) Math.sqrt(kernel.dot(itemFactors, offset, itemFactors, offset, factors));
+            inverseItemNorms[item] = norm > 0f ? 1f / norm : 0f;
+        }
+    }
+
+    int factors() {
+        return factors;
+    }
+
+    int itemCount() {
+        return itemCount;
+    }
+
+    float[] itemFactors() {
+        return itemFactors;
+    }
+
+    double[] gramian() {
+        return gramian;
+    }
+
+    /**
+     * @return the user's factors, or {@code null} when the user was unknown at training time
+     * and has not been folded in
+     */
+    float[] userVector(int row) {
+        float[] folded = foldedIn.get(row);
+        if (folded != null) {
+            return folded;
+        }
+        if (row < 0 || row >= userCount) {
+            return null;
+        }
+        float[] vector = new float[factors];
+        System.arraycopy(userFactors, row * factors, vector, 0, factors);
+        return vector;
+    }
+
+    void foldIn(int row, float[] vector) {
+        foldedIn.put(row, vector);
+    }
+
+    /**
+     * Scores every item against the user vector and keeps the best {@code limit} unseen ones.
+     *
+     * @return number of entries written to {@code outItems}/{@code outScores}
+     */
+    int topItems(float[] userVector, BitSet seen, int limit, int[] outItems, float[] outScores) {
+        return kernel.topK(userVector, 0, itemFactors, factors, itemCount, null, seen, limit, outItems, outScores);
+    }
+
+    /**
+     * Items with the highest cosine similarity between factor vectors.
+     */
+    int similarItems(int item, int limit, int[] outItems, float[] outScores) {
+        if (item < 0 || item >= itemCount || inverseItemNorms[item] == 0f) {
+            return 0;
+        }
+        float[] query = new float[factors];
+        for (int d = 0; d < factors; d++) {
+            query[d] = itemFactors[item * factors + d] * inverseItemNorms[item];
+        }
+        BitSet self = new BitSet();
+        self.set(item);
+        return kernel.topK(query, 0, itemFactors, factors, itemCount, inverseItemNorms, self, limit, outItems, outScores);
+    }
+}
@@ -0,0 +1,131 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implicit ALS trained in-process on the shared interaction matrix.
+ * <p>
+ * The model is retrained whenever {@link InteractionMatrixStore} loads a matrix. New
+ * interactions fold the user back in against the fixed item factors, so recommendations
+ * react immediately; new books get factors at the next retraining.
+ */
+@Component
+@Slf4j
+public class ImplicitAlsRecommender implements LocalRecommender, InteractionMatrixListener {
+
+    public static final String KEY = "implicit-local";
+
+    private final ForkJoinPool pool;
+    private final ImplicitAlsTrainer trainer;
+
+    private volatile State state;
+
+    public ImplicitAlsRecommender(RecsysProperties properties, InteractionMatrixStore matrixStore) {
+        RecsysProperties.Als settings = properties.getLocal().getAls();
+        RecsysProperties.Model model = properties.getModels().get(KEY);
+        boolean enabled = model != null && model.isLocal();
+        int parallelism = settings.getParallelism() > 0
+                ? settings.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = enabled ? new ForkJoinPool(parallelism) : null;
+        this.trainer = new ImplicitAlsTrainer(settings, pool);
+        if (enabled) {
+            matrixStore.addListener(this);
+        }
+    }
+
+    @Override
+    public String getKey() {
+        return KEY;
+    }
+
+    @Override
+    public boolean isReady() {
+        return state != null;
+    }
+
+    @Override
+    public List<ScoredBook> recommend(Long userId, int limit) {
+        State current = state;
+        if (current == null || userId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        InteractionMatrix matrix = current.matrix();
+        int row = matrix.rowOf(userId);
+        float[] userVector = row >= 0 ? current.model().userVector(row) : null;
+        if (userVector == null) {
+            return Collections.emptyList();
+        }
+
+        BitSet seen = new BitSet();
+        matrix.forEachInRow(row, (item, weight) -> seen.set(item));
+        int[] items = new int[limit];
+        float[] scores = new float[limit];
+        int count = current.model().topItems(userVector, seen, limit, items, scores);
+        return toScoredBooks(matrix, items, scores, count);
+    }
+
+    @Override
+    public List<ScoredBook> similar(Long bookId, int limit) {
+        State current = state;
+        if (current == null || bookId == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        InteractionMatrix matrix = current.matrix();
+        int[] items = new int[limit];
+        float[] scores = new float[limit];
+        int count = current.model().similarItems(matrix.columnOf(bookId), limit, items, scores);
+        return toScoredBooks(matrix, items, scores, count);
+    }
+
+    @Override
+    public void onMatrixLoaded(InteractionMatrix matrix) {
+        long startedAt = System.nanoTime();
+        ImplicitAlsModel model = trainer.train(matrix);
+        state = new State(model, matrix);
+        log.info("Implicit ALS trained on {} users x {} books ({} factors) in {} ms",
+                matrix.rowCount(), matrix.columnCount(), model.factors(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    @Override
+    public void onInteractionAppended(InteractionMatrix matrix, int row, int column, boolean newEntry) {
+        State current = state;
+        if (current == null) {
+            return;
+        }
+        current.model().foldIn(row, trainer.foldIn(current.model(), matrix, row));
+        if (current.matrix() != matrix) {
+            // The store compacted the matrix; dense indices are unchanged
+            state = new State(current.model(), matrix);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    private List<ScoredBook> toScoredBooks(InteractionMatrix matrix, int[] items, float[] scores, int count) {
+        List<ScoredBook> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(new ScoredBook(matrix.bookIdOf(items[i]), scores[i]));
+        }
+        return result;
+    }
+
+    private record State(ImplicitAlsModel model, InteractionMatrix matrix) {
+    }
+}
@@ -0,0 +1,280 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Implicit-feedback ALS (Hu, Koren and Volinsky) over an {@link InteractionMatrix}. Every entry
+ * is an observed preference with confidence {@code 1 + alpha * weight}; each least-squares
+ * subproblem is solved with a few warm-started conjugate-gradient steps.
+ * <p>
+ * Users and items are solved in parallel on the given fork-join pool. Factors are stored row
+ * after row in one contiguous {@code float[]} per side.
+ */
+final class ImplicitAlsTrainer {
+
+    private static final int GRAIN = 64;
+    private static final float INIT_SCALE = 0.01f;
+    private static final int FOLD_IN_CG_STEPS = 10;
+    private static final double CG_TOLERANCE = 1e-10;
+
+    private final RecsysProperties.Als settings;
+    private final ForkJoinPool pool;
+    private final int factors;
+
+    ImplicitAlsTrainer(RecsysProperties.Als settings, ForkJoinPool pool) {
+        this.settings = settings;
+        this.pool = pool;
+        this.factors = Math.max(1, settings.getFactors());
+    }
+
+    ImplicitAlsModel train(InteractionMatrix matrix) {
+        int users = matrix.rowCount();
+        int items = matrix.columnCount();
+        float[] userFactors = randomFactors(users, 17L);
+        float[] itemFactors = randomFactors(items, 31L);
+
+        for (int iteration = 0; iteration < settings.getIterations(); iteration++) {
+            solveAll(matrix, true, userFactors, itemFactors, items);
+            solveAll(matrix, false, itemFactors, userFactors, users);
+        }
+        return new ImplicitAlsModel(factors, users, items, userFactors, itemFactors, regularizedGramian(itemFactors, items));
+    }
+
+    /**
+     * Solves a single user's factors against fixed item factors, e.g. after a new interaction.
+     * Items added to the matrix after training have no factors and are ignored.
+     */
+    float[] foldIn(ImplicitAlsModel model, InteractionMatrix matrix, int row) {
+        float[] target = new float[factors];
+        float[] current = model.userVector(row);
+        if (current != null) {
+            System.arraycopy(current, 0, target, 0, factors);
+        }
+        new Solver().solve(matrix, true, row, model.gramian(), model.itemFactors(), model.itemCount(),
+                target, 0, Math.max(settings.getCgSteps(), FOLD_IN_CG_STEPS));
+        return target;
+    }
+
+    private void solveAll(InteractionMatrix matrix, boolean byRow, float[] target, float[] fixed, int fixedCount) {
+        double[] gramian = regularizedGramian(fixed, fixedCount);
+        int count = target.length / factors;
+        pool.invoke(new RangeAction(0, count, (from, to) -> {
+            Solver solver = new Solver();
+            for (int i = from; i < to; i++) {
+                solver.solve(matrix, byRow, i, gramian, fixed, fixedCount, target, i * factors, settings.getCgSteps());
+            }
+        }));
+    }
+
+    /**
+     * {@code Y^T Y + lambda I} over the first {@code count} rows of {@code fixed}, as a dense
+     * row-major {@code factors x factors} matrix.
+     */
+    private double[] regularizedGramian(float[] fixed, int count) {
+        double[] gramian = pool.invoke(new GramianTask(fixed, 0, count));
+        for (int d = 0; d < factors; d++) {
+            gramian[d * factors + d] += settings.getRegularization();
+        }
+        return gramian;
+    }
+
+    private float[] randomFactors(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        float[] values = new float[count * factors];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (float) random.nextDouble(-INIT_SCALE, INIT_SCALE);
+        }
+        return values;
+    }
+
+    /**
+     * Per-thread scratch for one conjugate-gradient solve; reused across rows of a leaf task.
+     */
+    private final class Solver {
+        private final double[] x = new double[factors];
+        private final double[] r = new double[factors];
+        private final double[] p = new double[factors];
+        private final double[] ap = new double[factors];
+        private int[] indices = new int[64];
+        private float[] confidences = new float[64];
+        private int size;
+
+        void solve(InteractionMatrix matrix, boolean byRow, int index, double[] gramian,
+                   float[] fixed, int fixedCount, float[] target, int offset, int steps) {
+            size = 0;
+            InteractionMatrix.EntryConsumer collect = (other, weight) -> {
+                if (other < fixedCount) {
+                    add(other, (float) (1 + settings.getAlpha() * weight));
+                }
+            };
+            if (byRow) {
+                matrix.forEachInRow(index, collect);
+            } else {
+                matrix.forEachInColumn(index, collect);
+            }
+
+            for (int d = 0; d < factors; d++) {
+                x[d] = target[offset + d];
+            }
+
+            // r = b - A x, with A = Y^T C Y + lambda I and b = Y^T C p(u)
+            multiplyGramian(gramian, x, r);
+            for (int d = 0; d < factors; d++) {
+                r[d] = -r[d];
+            }
+            for (int e = 0; e < size; e++) {
+                int base = indices[e] * factors;
+                double confidence = confidences[e];
+                double projection = dot(fixed, base, x);
+                double coefficient = confidence - (confidence - 1) * projection;
+                for (int d = 0; d < factors; d++) {
+                    r[d] += coefficient * fixed[base + d];
+                }
+            }
+
+            System.arraycopy(r, 0, p, 0, factors);
+            double residual = squaredNorm(r);
+            for (int step = 0; step < steps && residual > CG_TOLERANCE; step++) {
+                multiplyGramian(gramian, p, ap);
+                for (int e = 0; e < size; e++) {
+                    int base = indices[e] * factors;
+                    double coefficient = (confidences[e] - 1) * dot(fixed, base, p);
+                    for (int d = 0; d < factors; d++) {
+                        ap[d] += coefficient * fixed[base + d];
+                    }
+                }
+
+                double denominator = 0;
+                for (int d = 0; d < factors; d++) {
+                    denominator += p[d] * ap[d];
+                }
+                if (denominator <= 0) {
+                    break;
+                }
+                double stepSize = residual / denominator;
+                for (int d = 0; d < factors; d++) {
+                    x[d] += stepSize * p[d];
+                    r[d] -= stepSize * ap[d];
+                }
+                double next = squaredNorm(r);
+                double beta = next / residual;
+                for (int d = 0; d < factors; d++) {
+                    p[d] = r[d] + beta * p[d];
+                }
+                residual = next;
+            }
+
+            for (int d = 0; d < factors; d++) {
+                target[offset + d] = (float) x[d];
+            }
+        }
+
+        private void add(int index, float confidence) {
+            if (size == indices.length) {
+                indices = Arrays.copyOf(indices, size * 2);
+                confidences = Arrays.copyOf(confidences, size * 2);
+            }
+            indices[size] = index;
+            confidences[size++] = confidence;
+        }
+
+        private void multiplyGramian(double[] gramian, double[] vector, double[] out) {
+            for (int row = 0; row < factors; row++) {
+                double sum = 0;
+                int base = row * factors;
+                for (int d = 0; d < factors; d++) {
+                    sum += gramian[base + d] * vector[d];
+                }
+                out[row] = sum;
+            }
+        }
+
+        private double dot(float[] fixed, int base, double[] vector) {
+            double sum = 0;
+            for (int d = 0; d < factors; d++) {
+                sum += fixed[base + d] * vector[d];
+            }
+            return sum;
+        }
+
+        private double squaredNorm(double[] vector) {
+            double sum = 0;
+            for (double value : vector) {
+                sum += value * value;
+            }
+            return sum;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeBody {
+        void run(int from, int to);
+    }
+
+    private static final class RangeAction extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final RangeBody body;
+
+        private RangeAction(int from, int to, RangeBody body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                body.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new RangeAction(from, middle, body), new RangeAction(middle, to, body));
+        }
+    }
+
+    private final class GramianTask extends RecursiveTask<double[]> {
+        private final float[] fixed;
+        private final int from;
+        private final int to;
+
+        private GramianTask(float[] fixed, int from, int to) {
+            this.fixed = fixed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= GRAIN * 16) {
+                double[] partial = new double[factors * factors];
+                for (int i = from; i < to; i++) {
+                    int base = i * factors;
+                    for (int a = 0; a < factors; a++) {
+                        double value = fixed[base + a];
+                        int row = a * factors;
+                        for (int b = 0; b < factors; b++) {
+                            partial[row + b] += value * fixed[base + b];
+                        }
+                    }
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            GramianTask left = new GramianTask(fixed, from, middle);
+            left.fork();
+            double[] right = new GramianTask(fixed, middle, to).compute();
+            double[] sum = left.join();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += right[i];
+            }
+            return sum;
+        }
+    }
+}
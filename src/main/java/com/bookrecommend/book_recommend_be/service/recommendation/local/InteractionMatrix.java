@@ -0,0 +1,568 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * User x book interaction weights in compressed sparse row (CSR) form, built from primitive
+ * arrays only. Rows are users and columns are books, both remapped to dense indices; a
+ * transposed copy of the structure gives column access without duplicating the weights.
+ * <p>
+ * Entries appended after the build are chained per row and per column in a delta buffer and
+ * show up in lengths and iteration straight away; {@link #compact()} folds them into a new
+ * matrix with the same dense indices. Appends take a write lock, reads a read lock.
+ */
+public final class InteractionMatrix {
+
+    private static final int NONE = -1;
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final DenseIdIndex users;
+    private final DenseIdIndex books;
+
+    // Entries of row r live in columnIndices/values[rowPointers[r], rowPointers[r + 1]), columns ascending
+    private final int baseRows;
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final float[] values;
+
+    // Transposed structure over the same entries; valuePositions point back into values
+    private final int baseColumns;
+    private final int[] columnPointers;
+    private final int[] rowIndices;
+    private final int[] valuePositions;
+
+    private int deltaSize;
+    private int[] deltaRows = new int[0];
+    private int[] deltaColumns = new int[0];
+    private float[] deltaValues = new float[0];
+    private int[] nextInRow = new int[0];
+    private int[] nextInColumn = new int[0];
+    private int[] rowHeads;
+    private int[] columnHeads;
+    private int[] rowLengths;
+    private int[] columnLengths;
+
+    private InteractionMatrix(DenseIdIndex users, DenseIdIndex books,
+                              int[] rowPointers, int[] columnIndices, float[] values) {
+        this.users = users;
+        this.books = books;
+        this.baseRows = users.size();
+        this.baseColumns = books.size();
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+
+        this.columnPointers = new int[baseColumns + 1];
+        this.rowIndices = new int[values.length];
+        this.valuePositions = new int[values.length];
+        for (int column : columnIndices) {
+            columnPointers[column + 1]++;
+        }
+        for (int c = 0; c < baseColumns; c++) {
+            columnPointers[c + 1] += columnPointers[c];
+        }
+        int[] cursor = Arrays.copyOf(columnPointers, baseColumns);
+        for (int r = 0; r < baseRows; r++) {
+            for (int k = rowPointers[r]; k < rowPointers[r + 1]; k++) {
+                int slot = cursor[columnIndices[k]]++;
+                rowIndices[slot] = r;
+                valuePositions[slot] = k;
+            }
+        }
+
+        this.rowHeads = filled(baseRows, NONE);
+        this.columnHeads = filled(baseColumns, NONE);
+        this.rowLengths = new int[baseRows];
+        for (int r = 0; r < baseRows; r++) {
+            rowLengths[r] = rowPointers[r + 1] - rowPointers[r];
+        }
+        this.columnLengths = new int[baseColumns];
+        for (int c = 0; c < baseColumns; c++) {
+            columnLengths[c] = columnPointers[c + 1] - columnPointers[c];
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int rowCount() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int columnCount() {
+        lock.readLock().lock();
+        try {
+            return books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long nonZeroCount() {
+        lock.readLock().lock();
+        try {
+            return (long) values.length + deltaSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of entries appended since the build that have not been compacted yet.
+     */
+    public int pendingAppends() {
+        lock.readLock().lock();
+        try {
+            return deltaSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the dense row of {@code userId}, or {@code -1} when the user has no interactions
+     */
+    public int rowOf(long userId) {
+        lock.readLock().lock();
+        try {
+            return users.indexOf(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the dense column of {@code bookId}, or {@code -1} when the book has no interactions
+     */
+    public int columnOf(long bookId) {
+        lock.readLock().lock();
+        try {
+            return books.indexOf(bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long userIdOf(int row) {
+        lock.readLock().lock();
+        try {
+            return users.idAt(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long bookIdOf(int column) {
+        lock.readLock().lock();
+        try {
+            return books.idAt(column);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int rowLength(int row) {
+        lock.readLock().lock();
+        try {
+            return rowLengths[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int columnLength(int column) {
+        lock.readLock().lock();
+        try {
+            return columnLengths[column];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every (column, weight) entry of {@code row}: built entries in ascending column
+     * order, then appended ones. The consumer must not append to this matrix.
+     */
+    public void forEachInRow(int row, EntryConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            if (row < baseRows) {
+                for (int k = rowPointers[row]; k < rowPointers[row + 1]; k++) {
+                    consumer.accept(columnIndices[k], values[k]);
+                }
+            }
+            for (int d = rowHeads[row]; d != NONE; d = nextInRow[d]) {
+                consumer.accept(deltaColumns[d], deltaValues[d]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every (row, weight) entry of {@code column}: built entries in ascending row
+     * order, then appended ones. The consumer must not append to this matrix.
+     */
+    public void forEachInColumn(int column, EntryConsumer consumer) {
+        lock.readLock().lock();
+        try {
+            if (column < baseColumns) {
+                for (int k = columnPointers[column]; k < columnPointers[column + 1]; k++) {
+                    consumer.accept(rowIndices[k], values[valuePositions[k]]);
+                }
+            }
+            for (int d = columnHeads[column]; d != NONE; d = nextInColumn[d]) {
+                consumer.accept(deltaRows[d], deltaValues[d]);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The positions of all entries, appended ones included, as plain row and column index
+     * arrays copied under a single read lock. Passes that walk most rows and columns, such as
+     * a co-occurrence build, read these instead of locking once per row and column. Without
+     * pending appends the built arrays are shared rather than copied; they are never modified.
+     */
+    public Structure structure() {
+        lock.readLock().lock();
+        try {
+            int rowCount = users.size();
+            int columnCount = books.size();
+            if (deltaSize == 0 && rowCount == baseRows && columnCount == baseColumns) {
+                return new Structure(rowPointers, columnIndices, columnPointers, rowIndices);
+            }
+
+            int[] mergedRowPointers = pointers(rowLengths, rowCount);
+            int[] mergedColumnIndices = new int[mergedRowPointers[rowCount]];
+            for (int r = 0; r < rowCount; r++) {
+                int k = mergedRowPointers[r];
+                if (r < baseRows) {
+                    int length = rowPointers[r + 1] - rowPointers[r];
+                    System.arraycopy(columnIndices, rowPointers[r], mergedColumnIndices, k, length);
+                    k += length;
+                }
+                for (int d = rowHeads[r]; d != NONE; d = nextInRow[d]) {
+                    mergedColumnIndices[k++] = deltaColumns[d];
+                }
+            }
+
+            int[] mergedColumnPointers = pointers(columnLengths, columnCount);
+            int[] mergedRowIndices = new int[mergedColumnPointers[columnCount]];
+            for (int c = 0; c < columnCount; c++) {
+                int k = mergedColumnPointers[c];
+                if (c < baseColumns) {
+                    int length = columnPointers[c + 1] - columnPointers[c];
+                    System.arraycopy(rowIndices, columnPointers[c], mergedRowIndices, k, length);
+                    k += length;
+                }
+                for (int d = columnHeads[c]; d != NONE; d = nextInColumn[d]) {
+                    mergedRowIndices[k++] = deltaRows[d];
+                }
+            }
+            return new Structure(mergedRowPointers, mergedColumnIndices, mergedColumnPointers, mergedRowIndices);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the weight at ({@code row}, {@code column}), or {@code 0} when there is no entry
+     */
+    public float weight(int row, int column) {
+        lock.readLock().lock();
+        try {
+            int position = basePosition(row, column);
+            if (position >= 0) {
+                return values[position];
+            }
+            int delta = deltaPosition(row, column);
+            return delta >= 0 ? deltaValues[delta] : 0f;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records an interaction observed after the build. Unknown users and books get new dense
+     * indices. An existing entry keeps the larger of the two weights, so repeated events for the
+     * same pair (e.g. progress updates) do not inflate it; a rebuild recomputes exact weights.
+     *
+     * @return {@code true} when a new entry was created
+     */
+    public boolean append(long userId, long bookId, float weight) {
+        lock.writeLock().lock();
+        try {
+            int row = users.getOrAdd(userId);
+            int column = books.getOrAdd(bookId);
+            ensureIndexCapacity(row, column);
+
+            int position = basePosition(row, column);
+            if (position >= 0) {
+                values[position] = Math.max(values[position], weight);
+                return false;
+            }
+            int delta = deltaPosition(row, column);
+            if (delta >= 0) {
+                deltaValues[delta] = Math.max(deltaValues[delta], weight);
+                return false;
+            }
+
+            if (deltaSize == deltaRows.length) {
+                int capacity = Math.max(64, deltaSize * 2);
+                deltaRows = Arrays.copyOf(deltaRows, capacity);
+                deltaColumns = Arrays.copyOf(deltaColumns, capacity);
+                deltaValues = Arrays.copyOf(deltaValues, capacity);
+                nextInRow = Arrays.copyOf(nextInRow, capacity);
+                nextInColumn = Arrays.copyOf(nextInColumn, capacity);
+            }
+            int entry = deltaSize++;
+            deltaRows[entry] = row;
+            deltaColumns[entry] = column;
+            deltaValues[entry] = weight;
+            nextInRow[entry] = rowHeads[row];
+            rowHeads[row] = entry;
+            nextInColumn[entry] = columnHeads[column];
+            columnHeads[column] = entry;
+            rowLengths[row]++;
+            columnLengths[column]++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a new matrix with the appended entries folded into the CSR arrays. Dense row and
+     * column indices are unchanged, so indices computed against this matrix stay valid.
+     */
+    public InteractionMatrix compact() {
+        lock.readLock().lock();
+        try {
+            int entries = values.length + deltaSize;
+            int[] rows = new int[entries];
+            int[] columns = new int[entries];
+            float[] weights = new float[entries];
+            int n = 0;
+            for (int r = 0; r < baseRows; r++) {
+                for (int k = rowPointers[r]; k < rowPointers[r + 1]; k++) {
+                    rows[n] = r;
+                    columns[n] = columnIndices[k];
+                    weights[n++] = values[k];
+                }
+            }
+            for (int d = 0; d < deltaSize; d++) {
+                rows[n] = deltaRows[d];
+                columns[n] = deltaColumns[d];
+                weights[n++] = deltaValues[d];
+            }
+            return assemble(users.copy(), books.copy(), rows, columns, weights, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Footprint footprint() {
+        lock.readLock().lock();
+        try {
+            long bytes = users.footprintBytes() + books.footprintBytes()
+                    + intBytes(rowPointers) + intBytes(columnIndices) + floatBytes(values)
+                    + intBytes(columnPointers) + intBytes(rowIndices) + intBytes(valuePositions)
+                    + intBytes(deltaRows) + intBytes(deltaColumns) + floatBytes(deltaValues)
+                    + intBytes(nextInRow) + intBytes(nextInColumn)
+                    + intBytes(rowHeads) + intBytes(columnHeads) + intBytes(rowLengths) + intBytes(columnLengths);
+            return new Footprint(users.size(), books.size(), (long) values.length + deltaSize, deltaSize, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int basePosition(int row, int column) {
+        if (row >= baseRows || column >= baseColumns) {
+            return NONE;
+        }
+        int position = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+        return position >= 0 ? position : NONE;
+    }
+
+    private int deltaPosition(int row, int column) {
+        for (int d = rowHeads[row]; d != NONE; d = nextInRow[d]) {
+            if (deltaColumns[d] == column) {
+                return d;
+            }
+        }
+        return NONE;
+    }
+
+    private void ensureIndexCapacity(int row, int column) {
+        if (row >= rowHeads.length) {
+            int capacity = Math.max(row + 1, rowHeads.length * 2);
+            rowHeads = grown(rowHeads, capacity, NONE);
+            rowLengths = Arrays.copyOf(rowLengths, capacity);
+        }
+        if (column >= columnHeads.length) {
+            int capacity = Math.max(column + 1, columnHeads.length * 2);
+            columnHeads = grown(columnHeads, capacity, NONE);
+            columnLengths = Arrays.copyOf(columnLengths, capacity);
+        }
+    }
+
+    /**
+     * Builds the CSR arrays from {@code n} coordinate entries given as dense indices.
+     * Entries for the same cell are summed.
+     */
+    private static InteractionMatrix assemble(DenseIdIndex users, DenseIdIndex books,
+                                              int[] rows, int[] columns, float[] weights, int n) {
+        int rowCount = users.size();
+        int[] starts = new int[rowCount + 1];
+        for (int i = 0; i < n; i++) {
+            starts[rows[i] + 1]++;
+        }
+        for (int r = 0; r < rowCount; r++) {
+            starts[r + 1] += starts[r];
+        }
+
+        // Pack (column, weight bits) so one primitive sort per row orders entries by column
+        long[] packed = new long[n];
+        int[] cursor = Arrays.copyOf(starts, rowCount);
+        for (int i = 0; i < n; i++) {
+            packed[cursor[rows[i]]++] = ((long) columns[i] << 32) | (Float.floatToRawIntBits(weights[i]) & 0xFFFFFFFFL);
+        }
+
+        int[] rowPointers = new int[rowCount + 1];
+        int[] columnIndices = new int[n];
+        float[] values = new float[n];
+        int nnz = 0;
+        for (int r = 0; r < rowCount; r++) {
+            rowPointers[r] = nnz;
+            Arrays.sort(packed, starts[r], starts[r + 1]);
+            for (int k = starts[r]; k < starts[r + 1]; k++) {
+                int column = (int) (packed[k] >>> 32);
+                float weight = Float.intBitsToFloat((int) packed[k]);
+                if (nnz > rowPointers[r] && columnIndices[nnz - 1] == column) {
+                    values[nnz - 1] += weight;
+                } else {
+                    columnIndices[nnz] = column;
+                    values[nnz++] = weight;
+                }
+            }
+        }
+        rowPointers[rowCount] = nnz;
+        return new InteractionMatrix(users, books, rowPointers,
+                Arrays.copyOf(columnIndices, nnz), Arrays.copyOf(values, nnz));
+    }
+
+    private static int[] pointers(int[] lengths, int count) {
+        int[] pointers = new int[count + 1];
+        for (int i = 0; i < count; i++) {
+            pointers[i + 1] = pointers[i] + lengths[i];
+        }
+        return pointers;
+    }
+
+    private static int[] filled(int length, int value) {
+        int[] array = new int[length];
+        Arrays.fill(array, value);
+        return array;
+    }
+
+    private static int[] grown(int[] array, int capacity, int fill) {
+        int previous = array.length;
+        int[] copy = Arrays.copyOf(array, capacity);
+        Arrays.fill(copy, previous, capacity, fill);
+        return copy;
+    }
+
+    private static long intBytes(int[] array) {
+        return ARRAY_HEADER_BYTES + 4L * array.length;
+    }
+
+    private static long floatBytes(float[] array) {
+        return ARRAY_HEADER_BYTES + 4L * array.length;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(int index, float weight);
+    }
+
+    /**
+     * Entries of row r are at columnIndices[rowPointers[r], rowPointers[r + 1]), entries of
+     * column c at rowIndices[columnPointers[c], columnPointers[c + 1]). Arrays must not be modified.
+     */
+    public record Structure(int[] rowPointers, int[] columnIndices, int[] columnPointers, int[] rowIndices) {
+
+        public int rowCount() {
+            return rowPointers.length - 1;
+        }
+
+        public int columnCount() {
+            return columnPointers.length - 1;
+        }
+
+        public int rowLength(int row) {
+            return rowPointers[row + 1] - rowPointers[row];
+        }
+
+        public int columnLength(int column) {
+            return columnPointers[column + 1] - columnPointers[column];
+        }
+    }
+
+    /**
+     * @param bytes estimated heap retained by the matrix, dominated by the primitive arrays
+     */
+    public record Footprint(int rows, int columns, long nonZeros, int pendingAppends, long bytes) {
+    }
+
+    /**
+     * Collects (user id, book id, weight) triples in primitive arrays. Triples for the same
+     * pair are summed by {@link #build()}.
+     */
+    public static final class Builder {
+
+        private long[] userIds = new long[1024];
+        private long[] bookIds = new long[1024];
+        private float[] weights = new float[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        public Builder add(long userId, long bookId, float weight) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                bookIds = Arrays.copyOf(bookIds, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+            }
+            userIds[size] = userId;
+            bookIds[size] = bookId;
+            weights[size++] = weight;
+            return this;
+        }
+
+        public InteractionMatrix build() {
+            DenseIdIndex users = DenseIdIndex.of(userIds, size);
+            DenseIdIndex books = DenseIdIndex.of(bookIds, size);
+            int[] rows = new int[size];
+            int[] columns = new int[size];
+            for (int i = 0; i < size; i++) {
+                rows[i] = users.indexOf(userIds[i]);
+                columns[i] = books.indexOf(bookIds[i]);
+            }
+            return assemble(users, books, rows, columns, weights, size);
+        }
+    }
+}
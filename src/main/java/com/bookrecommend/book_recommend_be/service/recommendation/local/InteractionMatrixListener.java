@@ -0,0 +1,20 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+/**
+ * Callbacks from {@link InteractionMatrixStore}, invoked on its single updater thread.
+ */
+public interface InteractionMatrixListener {
+
+    /**
+     * A freshly loaded matrix replaced the previous one; dense indices may have changed.
+     */
+    void onMatrixLoaded(InteractionMatrix matrix);
+
+    /**
+     * An interaction was appended to the current matrix.
+     *
+     * @param newEntry {@code false} when only the weight of an existing entry changed
+     */
+    default void onInteractionAppended(InteractionMatrix matrix, int row, int column, boolean newEntry) {
+    }
+}
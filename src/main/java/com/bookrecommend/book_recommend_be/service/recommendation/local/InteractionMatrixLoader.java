@@ -0,0 +1,87 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams the interaction tables over a JDBC cursor straight into an {@link InteractionMatrix},
+ * without materialising entities, and converts interactions into weights.
+ */
+@Component
+@Slf4j
+public class InteractionMatrixLoader {
+
+    private final InteractionJdbcRepository interactionRepository;
+    private final RecsysProperties.Interactions weights;
+
+    public InteractionMatrixLoader(InteractionJdbcRepository interactionRepository, RecsysProperties properties) {
+        this.interactionRepository = interactionRepository;
+        this.weights = properties.getLocal().getInteractions();
+    }
+
+    public InteractionMatrix load() {
+        long startedAt = System.nanoTime();
+        InteractionMatrix.Builder builder = InteractionMatrix.builder();
+        interactionRepository.streamInteractions(new InteractionJdbcRepository.InteractionRowHandler() {
+            @Override
+            public void onRating(long userId, long bookId, int ratingValue) {
+                addIfPositive(builder, userId, bookId, ratingWeight(ratingValue));
+            }
+
+            @Override
+            public void onFavorite(long userId, long bookId) {
+                addIfPositive(builder, userId, bookId, weights.getFavoriteWeight());
+            }
+
+            @Override
+            public void onReadingProgress(long userId, long bookId, double progress) {
+                addIfPositive(builder, userId, bookId, readingWeight(progress));
+            }
+        });
+        InteractionMatrix matrix = builder.build();
+
+        InteractionMatrix.Footprint footprint = matrix.footprint();
+        log.info("Loaded interaction matrix: {} users x {} books, {} entries, ~{} KiB in {} ms",
+                footprint.rows(), footprint.columns(), footprint.nonZeros(), footprint.bytes() / 1024,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return matrix;
+    }
+
+    /**
+     * @return the matrix weight of an interaction event, or {@code 0} when it is not a positive signal
+     */
+    public float weightOf(InteractionType type, Double value) {
+        if (type == null) {
+            return 0f;
+        }
+        return switch (type) {
+            case RATED -> value != null ? ratingWeight(value.intValue()) : 0f;
+            case FAVORITE_ADDED -> weights.getFavoriteWeight();
+            case READING_PROGRESS -> readingWeight(value != null ? value : 0d);
+            default -> 0f;
+        };
+    }
+
+    private float ratingWeight(int ratingValue) {
+        if (ratingValue < weights.getMinPositiveRating()) {
+            return 0f;
+        }
+        return weights.getRatingWeight() * ratingValue / 5f;
+    }
+
+    private float readingWeight(double progress) {
+        double clamped = Math.max(0d, Math.min(100d, progress));
+        return (float) (weights.getReadingWeight() * (0.5d + clamped / 200d));
+    }
+
+    private static void addIfPositive(InteractionMatrix.Builder builder, long userId, long bookId, float weight) {
+        if (weight > 0f) {
+            builder.add(userId, bookId, weight);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the shared in-memory {@link InteractionMatrix} used by the local recommenders.
+ * <p>
+ * The matrix is loaded when the application starts and reloaded on
+ * {@code recsys.local.rebuild-interval}; committed interactions are appended in between.
+ * Loads, appends and listener callbacks all run on one updater thread, so listeners never
+ * see two updates at once. Nothing is loaded unless a local model is configured.
+ */
+@Component
+@Slf4j
+public class InteractionMatrixStore {
+
+    private final InteractionMatrixLoader loader;
+    private final RecsysProperties.Local settings;
+    private final boolean enabled;
+    private final ScheduledExecutorService updater;
+    private final List<InteractionMatrixListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile InteractionMatrix matrix;
+    private long loadedEntries;
+
+    public InteractionMatrixStore(RecsysProperties properties, InteractionMatrixLoader loader) {
+        this.loader = loader;
+        this.settings = properties.getLocal();
+        this.enabled = properties.getModels().values().stream().anyMatch(RecsysProperties.Model::isLocal);
+        this.updater = enabled
+                ? Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                        .name("interaction-matrix-updater").daemon(true).factory())
+                : null;
+    }
+
+    public void addListener(InteractionMatrixListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @return the current matrix, or {@code null} until the first load has finished
+     */
+    public InteractionMatrix getMatrix() {
+        return matrix;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleReloads() {
+        if (!enabled) {
+            return;
+        }
+        long intervalMillis = settings.getRebuildInterval().toMillis();
+        updater.scheduleWithFixedDelay(this::reload, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserInteraction(UserInteractionEvent event) {
+        if (!enabled || event.userId() == null || event.bookId() == null) {
+            return;
+        }
+        float weight = loader.weightOf(event.type(), event.value());
+        if (weight <= 0f) {
+            // Removals and negative signals are not applied incrementally; the next reload drops them
+            return;
+        }
+        try {
+            updater.execute(() -> append(event.userId(), event.bookId(), weight));
+        } catch (RejectedExecutionException e) {
+            log.debug("Interaction matrix updater is shut down, skipping interaction for user {}", event.userId());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (updater != null) {
+            updater.shutdownNow();
+        }
+    }
+
+    private void reload() {
+        try {
+            InteractionMatrix fresh = loader.load();
+            matrix = fresh;
+            loadedEntries = fresh.nonZeroCount();
+            for (InteractionMatrixListener listener : listeners) {
+                notifyLoaded(listener, fresh);
+            }
+        } catch (Exception e) {
+            // Keep serving the previous matrix; the next scheduled run retries
+            log.error("Failed to load interaction matrix", e);
+        }
+    }
+
+    private void append(long userId, long bookId, float weight) {
+        InteractionMatrix current = matrix;
+        if (current == null) {
+            // The initial load has not finished; it will read the interaction from the database
+            return;
+        }
+
+        boolean newEntry = current.append(userId, bookId, weight);
+        if (current.pendingAppends() > Math.max(1_000, loadedEntries * settings.getCompactionRatio())) {
+            // Compaction keeps dense indices, so listeners do not need to rebuild
+            current = current.compact();
+            matrix = current;
+            loadedEntries = current.nonZeroCount();
+        }
+
+        int row = current.rowOf(userId);
+        int column = current.columnOf(bookId);
+        for (InteractionMatrixListener listener : listeners) {
+            try {
+                listener.onInteractionAppended(current, row, column, newEntry);
+            } catch (RuntimeException e) {
+                log.warn("Interaction matrix listener {} failed on append: {}",
+                        listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    private void notifyLoaded(InteractionMatrixListener listener, InteractionMatrix loaded) {
+        try {
+            listener.onMatrixLoaded(loaded);
+        } catch (RuntimeException e) {
+            log.error("Interaction matrix listener {} failed on load", listener.getClass().getSimpleName(), e);
+        }
+    }
+}
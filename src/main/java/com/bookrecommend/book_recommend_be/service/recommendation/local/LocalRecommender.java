@@ -0,0 +1,24 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.List;
+
+/**
+ * A recommender served from memory inside this JVM. Models configured with {@code local: true}
+ * under {@code recsys.models} are backed by the bean whose {@link #getKey()} matches the model key.
+ */
+public interface LocalRecommender {
+
+    String getKey();
+
+    /**
+     * @return {@code false} while the model is still loading; callers should fall back meanwhile
+     */
+    boolean isReady();
+
+    List<ScoredBook> recommend(Long userId, int limit);
+
+    List<ScoredBook> similar(Long bookId, int limit);
+
+    record ScoredBook(Long bookId, double score) {
+    }
+}
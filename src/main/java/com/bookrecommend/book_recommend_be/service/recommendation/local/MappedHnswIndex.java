@@ -0,0 +1,284 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only HNSW index over unit-length book embeddings, memory-mapped from a file written by
+ * {@link HnswIndexBuilder}.
+ * <p>
+ * Opening only maps the file, so it is near-instant and the data lives in the page cache rather
+ * than the heap. All reads are absolute, which makes concurrent searches safe. The vectors are
+ * mapped in chunks and may exceed 2 GB; the graph section must stay below it.
+ * <p>
+ * File layout, little-endian: a 64-byte header (magic, version, count, dimension, M, level-0
+ * M, entry point, top level, upper-layer int count), book ids sorted with their node, book id
+ * per node, per-node offset into the upper layers, fixed-size level-0 adjacency
+ * ({@code count, neighbours...}), upper-layer adjacency, and finally the vectors row by row.
+ */
+public final class MappedHnswIndex extends HnswGraph {
+
+    static final int MAGIC = 0x57534E48;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final int count;
+    private final int dimension;
+    private final int maxNeighbors;
+    private final int maxNeighborsLevel0;
+    private final int entryPoint;
+    private final int topLevel;
+
+    private final LongBuffer sortedIds;
+    private final IntBuffer sortedNodes;
+    private final LongBuffer nodeIds;
+    private final IntBuffer upperOffsets;
+    private final IntBuffer level0;
+    private final IntBuffer upper;
+    private final FloatBuffer[] vectorChunks;
+    private final int rowsPerChunk;
+
+    private MappedHnswIndex(FileChannel channel) throws IOException {
+        ByteBuffer header = map(channel, 0, HEADER_BYTES);
+        if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+            throw new IOException("Not an HNSW index file of version " + VERSION);
+        }
+        this.count = header.getInt(8);
+        this.dimension = header.getInt(12);
+        this.maxNeighbors = header.getInt(16);
+        this.maxNeighborsLevel0 = header.getInt(20);
+        this.entryPoint = header.getInt(24);
+        this.topLevel = header.getInt(28);
+        Layout layout = new Layout(count, dimension, maxNeighborsLevel0, header.getLong(32));
+        if (channel.size() < layout.totalBytes()) {
+            throw new IOException("HNSW index file is truncated");
+        }
+        if (layout.vectorsOffset() > Integer.MAX_VALUE) {
+            throw new IOException("HNSW graph section exceeds 2 GB");
+        }
+
+        ByteBuffer graph = map(channel, 0, layout.vectorsOffset());
+        this.sortedIds = slice(graph, layout.sortedIdsOffset(), 8L * count).asLongBuffer();
+        this.sortedNodes = slice(graph, layout.sortedNodesOffset(), 4L * count).asIntBuffer();
+        this.nodeIds = slice(graph, layout.nodeIdsOffset(), 8L * count).asLongBuffer();
+        this.upperOffsets = slice(graph, layout.upperOffsetsOffset(), 4L * count).asIntBuffer();
+        this.level0 = slice(graph, layout.level0Offset(), layout.level0Bytes()).asIntBuffer();
+        this.upper = slice(graph, layout.upperOffset(), layout.upperBytes()).asIntBuffer();
+
+        long rowBytes = 4L * Math.max(1, dimension);
+        this.rowsPerChunk = (int) Math.max(1, MAX_CHUNK_BYTES / rowBytes);
+        int chunks = count == 0 ? 0 : (count + rowsPerChunk - 1) / rowsPerChunk;
+        this.vectorChunks = new FloatBuffer[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            int rows = Math.min(rowsPerChunk, count - chunk * rowsPerChunk);
+            long offset = layout.vectorsOffset() + chunk * (long) rowsPerChunk * rowBytes;
+            vectorChunks[chunk] = map(channel, offset, rows * rowBytes).asFloatBuffer();
+        }
+    }
+
+    public static MappedHnswIndex open(Path path) throws IOException {
+        // The mappings stay valid after the channel is closed
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new MappedHnswIndex(channel);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * @return the node holding {@code bookId}, or -1 when the book is not indexed
+     */
+    public int nodeOf(long bookId) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = sortedIds.get(mid);
+            if (value < bookId) {
+                low = mid + 1;
+            } else if (value > bookId) {
+                high = mid - 1;
+            } else {
+                return sortedNodes.get(mid);
+            }
+        }
+        return -1;
+    }
+
+    public long bookIdOf(int node) {
+        return nodeIds.get(node);
+    }
+
+    /**
+     * Copies the unit vector of {@code node} into {@code out} and returns it.
+     */
+    public float[] vector(int node, float[] out) {
+        FloatBuffer chunk = vectorChunks[node / rowsPerChunk];
+        chunk.get((node % rowsPerChunk) * dimension, out, 0, dimension);
+        return out;
+    }
+
+    /**
+     * Approximate {@code k} nearest nodes by cosine similarity.
+     *
+     * @param ef size of the dynamic candidate list; larger is slower and more accurate
+     * @return number of entries written to {@code outNodes}/{@code outScores}, closest first
+     */
+    public int search(float[] query, int k, int ef, int[] outNodes, float[] outScores) {
+        if (count == 0 || k <= 0) {
+            return 0;
+        }
+        float[] unit = normalized(query);
+        int entry = entryPoint;
+        for (int level = topLevel; level > 0; level--) {
+            entry = greedyClosest(unit, entry, level);
+        }
+        int width = Math.max(ef, k);
+        int[] nodes = new int[width];
+        float[] scores = new float[width];
+        int found = searchLayer(unit, entry, width, 0, nodes, scores);
+        int result = Math.min(k, found);
+        System.arraycopy(nodes, 0, outNodes, 0, result);
+        System.arraycopy(scores, 0, outScores, 0, result);
+        return result;
+    }
+
+    /**
+     * Exact {@code k} nearest nodes by scanning every vector; the reference for measuring recall.
+     */
+    public int bruteForce(float[] query, int k, int[] outNodes, float[] outScores) {
+        float[] unit = normalized(query);
+        TopKSelector topK = new TopKSelector(k);
+        for (int node = 0; node < count; node++) {
+            float score = similarity(unit, node);
+            if (score > topK.threshold()) {
+                topK.offer(node, score);
+            }
+        }
+        return topK.drainDescending(outNodes, outScores);
+    }
+
+    @Override
+    float similarity(float[] query, int node) {
+        FloatBuffer chunk = vectorChunks[node / rowsPerChunk];
+        int base = (node % rowsPerChunk) * dimension;
+        float s0 = 0f;
+        float s1 = 0f;
+        float s2 = 0f;
+        float s3 = 0f;
+        int d = 0;
+        for (int bound = dimension & ~3; d < bound; d += 4) {
+            s0 += query[d] * chunk.get(base + d);
+            s1 += query[d + 1] * chunk.get(base + d + 1);
+            s2 += query[d + 2] * chunk.get(base + d + 2);
+            s3 += query[d + 3] * chunk.get(base + d + 3);
+        }
+        for (; d < dimension; d++) {
+            s0 += query[d] * chunk.get(base + d);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    int neighbors(int node, int level, int[] out) {
+        IntBuffer links;
+        int base;
+        if (level == 0) {
+            links = level0;
+            base = node * (maxNeighborsLevel0 + 1);
+        } else {
+            links = upper;
+            base = upperOffsets.get(node) + (level - 1) * (maxNeighbors + 1);
+        }
+        int size = links.get(base);
+        links.get(base + 1, out, 0, size);
+        return size;
+    }
+
+    @Override
+    int maxNeighbors(int level) {
+        return level == 0 ? maxNeighborsLevel0 : maxNeighbors;
+    }
+
+    private float[] normalized(float[] query) {
+        if (query.length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of dimension " + dimension + " but got " + query.length);
+        }
+        return HnswIndexBuilder.unit(query);
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long offset, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, long offset, long size) {
+        return buffer.slice((int) offset, (int) size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Byte offsets of every section; shared with the writer so both agree on the format.
+     */
+    record Layout(int count, int dimension, int maxNeighborsLevel0, long upperInts) {
+
+        long sortedIdsOffset() {
+            return HEADER_BYTES;
+        }
+
+        long sortedNodesOffset() {
+            return sortedIdsOffset() + 8L * count;
+        }
+
+        long nodeIdsOffset() {
+            return align8(sortedNodesOffset() + 4L * count);
+        }
+
+        long upperOffsetsOffset() {
+            return nodeIdsOffset() + 8L * count;
+        }
+
+        long level0Offset() {
+            return align8(upperOffsetsOffset() + 4L * count);
+        }
+
+        long level0Bytes() {
+            return 4L * count * (maxNeighborsLevel0 + 1);
+        }
+
+        long upperOffset() {
+            return level0Offset() + level0Bytes();
+        }
+
+        long upperBytes() {
+            return 4L * upperInts;
+        }
+
+        long vectorsOffset() {
+            return align8(upperOffset() + upperBytes());
+        }
+
+        long totalBytes() {
+            return vectorsOffset() + 4L * count * dimension;
+        }
+
+        private static long align8(long offset) {
+            return (offset + 7) & ~7L;
+        }
+    }
+}
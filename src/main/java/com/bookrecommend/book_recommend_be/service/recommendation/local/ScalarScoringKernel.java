@@ -0,0 +1,29 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+/**
+ * Plain Java loops; used when the Vector API module is not available.
+ */
+final class ScalarScoringKernel implements ScoringKernel {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public float dot(float[] left, int leftOffset, float[] right, int rightOffset, int length) {
+        float sum = 0f;
+        for (int d = 0; d < length; d++) {
+            sum += left[leftOffset + d] * right[rightOffset + d];
+        }
+        return sum;
+    }
+
+    @Override
+    public void scoreRows(float[] query, int queryOffset, float[] matrix, int dimension,
+                          int fromRow, int toRow, float[] scores) {
+        for (int row = fromRow; row < toRow; row++) {
+            scores[row - fromRow] = dot(query, queryOffset, matrix, row * dimension, dimension);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import java.util.BitSet;
+
+/**
+ * Dot-product scoring over embeddings stored row after row in one contiguous {@code float[]}.
+ * Obtain an instance from {@link ScoringKernels}.
+ */
+public interface ScoringKernel {
+
+    int BLOCK_ROWS = 256;
+
+    String name();
+
+    float dot(float[] left, int leftOffset, float[] right, int rightOffset, int length);
+
+    /**
+     * Writes {@code dot(query, row r)} to {@code scores[r - fromRow]} for every row in
+     * {@code [fromRow, toRow)} of {@code matrix}.
+     */
+    void scoreRows(float[] query, int queryOffset, float[] matrix, int dimension,
+                   int fromRow, int toRow, float[] scores);
+
+    /**
+     * Keeps the {@code k} best-scoring rows among the first {@code rows} of {@code matrix}.
+     * Rows are scored a block at a time so the kernel loop stays free of heap work.
+     *
+     * @param rowScale optional per-row multiplier applied to each score (e.g. inverse norms)
+     * @param excluded optional rows to skip
+     * @return number of entries written to {@code outRows}/{@code outScores}, best first
+     */
+    default int topK(float[] query, int queryOffset, float[] matrix, int dimension, int rows,
+                     float[] rowScale, BitSet excluded, int k, int[] outRows, float[] outScores) {
+        TopKSelector topK = new TopKSelector(k);
+        float[] block = new float[Math.min(BLOCK_ROWS, Math.max(rows, 1))];
+        for (int from = 0; from < rows; from += block.length) {
+            int to = Math.min(rows, from + block.length);
+            scoreRows(query, queryOffset, matrix, dimension, from, to, block);
+            for (int row = from; row < to; row++) {
+                if (excluded != null && excluded.get(row)) {
+                    continue;
+                }
+                float score = rowScale != null ? block[row - from] * rowScale[row] : block[row - from];
+                if (score > topK.threshold()) {
+                    topK.offer(row, score);
+                }
+            }
+        }
+        return topK.drainDescending(outRows, outScores);
+    }
+}
@@ -0,0 +1,69 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Picks the scoring kernel for this JVM: the Vector API kernel when the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}, the scalar one otherwise. Setting the system
+ * property {@code recsys.scoring.kernel=scalar} forces the fallback.
+ */
+@Slf4j
+public final class ScoringKernels {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final ScoringKernel SCALAR = new ScalarScoringKernel();
+    private static final ScoringKernel BEST = selectBest();
+
+    private ScoringKernels() {
+    }
+
+    /**
+     * @return the fastest kernel available, chosen once per JVM
+     */
+    public static ScoringKernel best() {
+        return BEST;
+    }
+
+    public static ScoringKernel scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * @throws IllegalStateException when the Vector API module is not present
+     */
+    public static ScoringKernel simd() {
+        ScoringKernel kernel = loadSimd();
+        if (kernel == null) {
+            throw new IllegalStateException("Vector API unavailable; start the JVM with --add-modules " + VECTOR_MODULE);
+        }
+        return kernel;
+    }
+
+    private static ScoringKernel selectBest() {
+        if ("scalar".equalsIgnoreCase(System.getProperty("recsys.scoring.kernel"))) {
+            return SCALAR;
+        }
+        ScoringKernel kernel = loadSimd();
+        if (kernel == null) {
+            log.info("Module {} not present, using scalar scoring kernel", VECTOR_MODULE);
+            return SCALAR;
+        }
+        log.info("Using {} scoring kernel", kernel.name());
+        return kernel;
+    }
+
+    private static ScoringKernel loadSimd() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            // Loaded reflectively so this class links without the incubator module
+            return (ScoringKernel) Class.forName(ScoringKernels.class.getPackageName() + ".SimdScoringKernel")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.warn("Vector API kernel failed to load: {}", e.toString());
+            return null;
+        }
+    }
+}
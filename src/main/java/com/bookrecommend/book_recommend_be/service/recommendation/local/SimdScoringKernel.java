@@ -0,0 +1,80 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API kernel using the widest float species of the CPU. Four rows are scored per pass
+ * so every query lane loaded is reused four times. Only loaded reflectively by
+ * {@link ScoringKernels} once {@code jdk.incubator.vector} is known to be present.
+ */
+final class SimdScoringKernel implements ScoringKernel {
+
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String name() {
+        return "simd-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public float dot(float[] left, int leftOffset, float[] right, int rightOffset, int length) {
+        FloatVector sum = FloatVector.zero(SPECIES);
+        int upper = SPECIES.loopBound(length);
+        int d = 0;
+        for (; d < upper; d += SPECIES.length()) {
+            FloatVector a = FloatVector.fromArray(SPECIES, left, leftOffset + d);
+            FloatVector b = FloatVector.fromArray(SPECIES, right, rightOffset + d);
+            sum = a.fma(b, sum);
+        }
+        float result = sum.reduceLanes(VectorOperators.ADD);
+        for (; d < length; d++) {
+            result += left[leftOffset + d] * right[rightOffset + d];
+        }
+        return result;
+    }
+
+    @Override
+    public void scoreRows(float[] query, int queryOffset, float[] matrix, int dimension,
+                          int fromRow, int toRow, float[] scores) {
+        int upper = SPECIES.loopBound(dimension);
+        int row = fromRow;
+        for (; row + 3 < toRow; row += 4) {
+            int base0 = row * dimension;
+            int base1 = base0 + dimension;
+            int base2 = base1 + dimension;
+            int base3 = base2 + dimension;
+            FloatVector sum0 = FloatVector.zero(SPECIES);
+            FloatVector sum1 = FloatVector.zero(SPECIES);
+            FloatVector sum2 = FloatVector.zero(SPECIES);
+            FloatVector sum3 = FloatVector.zero(SPECIES);
+            int d = 0;
+            for (; d < upper; d += SPECIES.length()) {
+                FloatVector q = FloatVector.fromArray(SPECIES, query, queryOffset + d);
+                sum0 = q.fma(FloatVector.fromArray(SPECIES, matrix, base0 + d), sum0);
+                sum1 = q.fma(FloatVector.fromArray(SPECIES, matrix, base1 + d), sum1);
+                sum2 = q.fma(FloatVector.fromArray(SPECIES, matrix, base2 + d), sum2);
+                sum3 = q.fma(FloatVector.fromArray(SPECIES, matrix, base3 + d), sum3);
+            }
+            float s0 = sum0.reduceLanes(VectorOperators.ADD);
+            float s1 = sum1.reduceLanes(VectorOperators.ADD);
+            float s2 = sum2.reduceLanes(VectorOperators.ADD);
+            float s3 = sum3.reduceLanes(VectorOperators.ADD);
+            for (; d < dimension; d++) {
+                float q = query[queryOffset + d];
+                s0 += q * matrix[base0 + d];
+                s1 += q * matrix[base1 + d];
+                s2 += q * matrix[base2 + d];
+                s3 += q * matrix[base3 + d];
+            }
+            scores[row - fromRow] = s0;
+            scores[row + 1 - fromRow] = s1;
+            scores[row + 2 - fromRow] = s2;
+            scores[row + 3 - fromRow] = s3;
+        }
+        for (; row < toRow; row++) {
+            scores[row - fromRow] = dot(query, queryOffset, matrix, row * dimension, dimension);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+/**
+ * Bounded min-heap keeping the {@code k} highest-scoring ids seen so far.
+ * Offering is O(log k) and allocation-free; the heap root is the current cut-off score.
+ */
+public final class TopKSelector {
+
+    private final int capacity;
+    private final int[] ids;
+    private final float[] scores;
+    private int size;
+
+    public TopKSelector(int k) {
+        this.capacity = Math.max(0, k);
+        this.ids = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    public void offer(int id, float score) {
+        if (capacity == 0) {
+            return;
+        }
+        if (size < capacity) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (score > scores[0]) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Lowest score currently retained, or negative infinity while the heap is not full.
+     * Callers can skip candidates that cannot beat it.
+     */
+    public float threshold() {
+        return size < capacity ? Float.NEGATIVE_INFINITY : scores[0];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drains the heap into {@code outIds}/{@code outScores} ordered by descending score.
+     *
+     * @return number of entries written
+     */
+    public int drainDescending(int[] outIds, float[] outScores) {
+        int count = size;
+        for (int i = count - 1; i >= 0; i--) {
+            outIds[i] = ids[0];
+            if (outScores != null) {
+                outScores[i] = scores[0];
+            }
+            size--;
+            if (size > 0) {
+                ids[0] = ids[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return count;
+    }
+
+    private void siftUp(int index) {
+        int id = ids[index];
+        float score = scores[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= score) {
+                break;
+            }
+            ids[index] = ids[parent];
+            scores[index] = scores[parent];
+            index = parent;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+
+    private void siftDown(int index) {
+        int id = ids[index];
+        float score = scores[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < size && scores[right] < scores[child]) {
+                child = right;
+            }
+            if (score <= scores[child]) {
+                break;
+            }
+            ids[index] = ids[child];
+            scores[index] = scores[child];
+            index = child;
+        }
+        ids[index] = id;
+        scores[index] = score;
+    }
+}
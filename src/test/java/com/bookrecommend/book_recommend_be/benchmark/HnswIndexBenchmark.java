@@ -0,0 +1,146 @@
+package com.bookrecommend.book_recommend_be.benchmark;
+
+import com.bookrecommend.book_recommend_be.service.recommendation.local.HnswIndexBuilder;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.MappedHnswIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries per second of the memory-mapped HNSW index against a brute-force scan of the same
+ * file, on clustered vectors shaped like sentence embeddings. Recall@10 of every {@code ef} is
+ * measured against the exact result during setup and printed before the run.
+ * <p>
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<deps>
+ * com.bookrecommend.book_recommend_be.benchmark.HnswIndexBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HnswIndexBenchmark {
+
+    private static final int TOP_K = 10;
+    private static final int QUERIES = 256;
+    private static final int CLUSTERS = 64;
+
+    @Param({"10000", "50000"})
+    private int catalogSize;
+
+    @Param({"384"})
+    private int dimension;
+
+    @Param({"16", "64", "128"})
+    private int ef;
+
+    private Path file;
+    private MappedHnswIndex index;
+    private float[][] queries;
+    private int[] outNodes;
+    private float[] outScores;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        float[][] centers = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            centers[c] = gaussian(random, null, 1f);
+        }
+        HnswIndexBuilder builder = new HnswIndexBuilder(dimension, 16, 100, 42);
+        for (int i = 0; i < catalogSize; i++) {
+            builder.add(i + 1L, gaussian(random, centers[random.nextInt(CLUSTERS)], 0.8f));
+        }
+        file = Files.createTempFile("hnsw-benchmark", ".hnsw");
+        builder.writeTo(file);
+        index = MappedHnswIndex.open(file);
+
+        queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            queries[q] = gaussian(random, centers[random.nextInt(CLUSTERS)], 0.8f);
+        }
+        outNodes = new int[TOP_K];
+        outScores = new float[TOP_K];
+        System.out.printf("%n# catalogSize=%d dimension=%d ef=%d recall@%d=%.4f%n",
+                catalogSize, dimension, ef, TOP_K, recall());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int hnswSearch() {
+        return index.search(nextQuery(), TOP_K, ef, outNodes, outScores);
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        return index.bruteForce(nextQuery(), TOP_K, outNodes, outScores);
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries[next];
+    }
+
+    private double recall() {
+        int[] exact = new int[TOP_K];
+        float[] exactScores = new float[TOP_K];
+        long hits = 0;
+        for (float[] query : queries) {
+            int found = index.search(query, TOP_K, ef, outNodes, outScores);
+            index.bruteForce(query, TOP_K, exact, exactScores);
+            Set<Integer> truth = new HashSet<>();
+            for (int node : exact) {
+                truth.add(node);
+            }
+            for (int i = 0; i < found; i++) {
+                if (truth.contains(outNodes[i])) {
+                    hits++;
+                }
+            }
+        }
+        return (double) hits / ((long) QUERIES * TOP_K);
+    }
+
+    private float[] gaussian(SplittableRandom random, float[] center, float scale) {
+        float[] vector = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            vector[d] = (center != null ? center[d] : 0f) + (float) (random.nextGaussian() * scale);
+        }
+        return vector;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HnswIndexBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
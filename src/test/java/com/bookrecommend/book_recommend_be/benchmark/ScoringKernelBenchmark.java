@@ -0,0 +1,89 @@
+package com.bookrecommend.book_recommend_be.benchmark;
+
+import com.bookrecommend.book_recommend_be.service.recommendation.local.ScoringKernel;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.ScoringKernels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API top-K scoring of one query against the whole catalog.
+ * <p>
+ * Run after {@code mvn test-compile} with the test classpath, e.g.
+ * {@code java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:<deps>
+ * com.bookrecommend.book_recommend_be.benchmark.ScoringKernelBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class ScoringKernelBenchmark {
+
+    private static final int TOP_K = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int catalogSize;
+
+    @Param({"64", "128"})
+    private int dimension;
+
+    private ScoringKernel scalar;
+    private ScoringKernel simd;
+    private float[] items;
+    private float[] query;
+    private int[] outRows;
+    private float[] outScores;
+
+    @Setup
+    public void setUp() {
+        scalar = ScoringKernels.scalar();
+        simd = ScoringKernels.simd();
+        SplittableRandom random = new SplittableRandom(7);
+        items = new float[catalogSize * dimension];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = (float) random.nextDouble(-1, 1);
+        }
+        query = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            query[d] = (float) random.nextDouble(-1, 1);
+        }
+        outRows = new int[TOP_K];
+        outScores = new float[TOP_K];
+    }
+
+    @Benchmark
+    public void scalarTopK(Blackhole blackhole) {
+        blackhole.consume(scalar.topK(query, 0, items, dimension, catalogSize, null, null, TOP_K, outRows, outScores));
+        blackhole.consume(outRows);
+    }
+
+    @Benchmark
+    public void simdTopK(Blackhole blackhole) {
+        blackhole.consume(simd.topK(query, 0, items, dimension, catalogSize, null, null, TOP_K, outRows, outScores));
+        blackhole.consume(outRows);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ScoringKernelBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookrecommend.book_recommend_be.controller;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationLine;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationRequest;
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecommendationResultCache;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecommendationService;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysArmStatsRegistry;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysRoutingService;
+import com.bookrecommend.book_recommend_be.service.recommendation.ShadowTrafficService;
+import com.bookrecommend.book_recommend_be.service.recommendation.SimilarBooksMaterializationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * The bulk endpoint writes one JSON object per line and flushes after every batch.
+ */
+class AdminRecommendationControllerBulkTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RecommendationService recommendationService = mock(RecommendationService.class);
+    private final AdminRecommendationController controller = new AdminRecommendationController(
+            mock(RecsysRoutingService.class), mock(RecommendationResultCache.class),
+            mock(SimilarBooksMaterializationService.class), mock(RecsysArmStatsRegistry.class),
+            mock(ShadowTrafficService.class), recommendationService, new RecsysProperties(), objectMapper);
+
+    @Test
+    void writesOneLinePerUserAndFlushesPerBatch() throws IOException {
+        doAnswer(invocation -> {
+            Consumer<List<BulkRecommendationLine>> sink = invocation.getArgument(2);
+            sink.accept(List.of(line(1L, null, 10L, 11L), line(2L, null)));
+            sink.accept(List.of(line(3L, "Recommendations unavailable")));
+            return null;
+        }).when(recommendationService).streamBulkRecommendations(eq(List.of(1L, 2L, 3L)), eq(2), any());
+
+        ResponseEntity<?> response = controller.getBulkRecommendations(new BulkRecommendationRequest(List.of(1L, 2L, 3L), 2));
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+
+        List<Integer> linesAtFlush = new ArrayList<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+                buffer.write(b);
+            }
+
+            @Override
+            public void flush() {
+                linesAtFlush.add(lineCount(buffer));
+            }
+        };
+        ((StreamingResponseBody) response.getBody()).writeTo(output);
+
+        assertThat(linesAtFlush).containsExactly(2, 3);
+        String[] lines = buffer.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("userId").asLong()).isEqualTo(1L);
+        assertThat(first.get("books")).extracting(book -> book.get("id").asLong()).containsExactly(10L, 11L);
+        assertThat(first.get("error").isNull()).isTrue();
+        assertThat(objectMapper.readTree(lines[1]).get("books")).isEmpty();
+        JsonNode failed = objectMapper.readTree(lines[2]);
+        assertThat(failed.get("userId").asLong()).isEqualTo(3L);
+        assertThat(failed.get("error").asText()).isEqualTo("Recommendations unavailable");
+    }
+
+    @Test
+    void rejectsOversizedRequestsBeforeStreaming() {
+        RecsysProperties properties = new RecsysProperties();
+        properties.getBulk().setMaxUsers(2);
+        AdminRecommendationController limited = new AdminRecommendationController(
+                mock(RecsysRoutingService.class), mock(RecommendationResultCache.class),
+                mock(SimilarBooksMaterializationService.class), mock(RecsysArmStatsRegistry.class),
+                mock(ShadowTrafficService.class), recommendationService, properties, objectMapper);
+
+        assertThat(limited.getBulkRecommendations(new BulkRecommendationRequest(List.of(1L, 2L, 3L), 2))
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(limited.getBulkRecommendations(new BulkRecommendationRequest(List.of(1L), 101))
+                .getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private static BulkRecommendationLine line(Long userId, String error, Long... bookIds) {
+        List<BookResponse> books = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            BookResponse book = new BookResponse();
+            book.setId(bookId);
+            books.add(book);
+        }
+        return new BulkRecommendationLine(userId, books, error);
+    }
+
+    private static int lineCount(ByteArrayOutputStream buffer) {
+        return (int) buffer.toString(StandardCharsets.UTF_8).chars().filter(c -> c == '\n').count();
+    }
+}
@@ -0,0 +1,250 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
+import com.bookrecommend.book_recommend_be.dto.response.CursorSlice;
+import com.bookrecommend.book_recommend_be.repository.BookSearchHit;
+import com.bookrecommend.book_recommend_be.repository.BookSearchJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.file.CloudinaryService;
+import com.bookrecommend.book_recommend_be.service.file.IFileStorageService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Full-text search against a real PostgreSQL built from init_db.sql: unaccent folding, the
+ * title-over-description weights, the triggers that keep search_vector in step with authors,
+ * rank-keyset scrolling, and the placement of books without a publication year, where
+ * PostgreSQL's defaults differ from H2's. H2 has none of this, so the server runs embedded.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BookService.class, BookSearchJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BookSearchPostgresTest {
+
+    private static final String SCHEMA = "book_recommendation_system.";
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookSearchJdbcRepository bookSearchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockitoBean
+    private IFileStorageService fileStorageService;
+
+    @MockitoBean
+    private CloudinaryService cloudinaryService;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("encoding", "UTF8")
+                .setLocaleConfig("locale", "C")
+                .start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            // One simple-protocol call, so the dollar-quoted function bodies are not split
+            statement.execute(Files.readString(Path.of("init_db.sql")));
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void clearCatalog() {
+        jdbcTemplate.execute("TRUNCATE " + SCHEMA + "books, " + SCHEMA + "authors, " + SCHEMA + "book_authors, "
+                + SCHEMA + "genres, " + SCHEMA + "book_genres RESTART IDENTITY CASCADE");
+    }
+
+    @Test
+    void accentsAndCaseAreFolded() {
+        long book = book("Mắt biếc", "Truyện dài");
+        link(book, author("Nguyễn Nhật Ánh"));
+
+        assertThat(searchIds("nguyen nhat anh")).containsExactly(book);
+        assertThat(searchIds("NGUYỄN")).containsExactly(book);
+        assertThat(searchIds("mat biec")).containsExactly(book);
+    }
+
+    @Test
+    void lastWordMatchesAsAPrefix() {
+        long book = book("Dế Mèn phiêu lưu ký", "Truyện thiếu nhi");
+
+        assertThat(searchIds("de men phieu")).containsExactly(book);
+        assertThat(searchIds("de men phi")).containsExactly(book);
+        assertThat(searchIds("de me phieu")).isEmpty();
+    }
+
+    @Test
+    void titleMatchesOutrankDescriptionMatches() {
+        long inDescription = book("Tuyển tập truyện ngắn", "Có truyện Đất rừng phương Nam");
+        long inTitle = book("Đất rừng phương Nam", "Tiểu thuyết");
+
+        assertThat(searchIds("dat rung phuong nam")).containsExactly(inTitle, inDescription);
+    }
+
+    @Test
+    void searchVectorFollowsAuthorChanges() {
+        long book = book("Số đỏ", "Tiểu thuyết trào phúng");
+        long author = author("Vũ Trọng Phụng");
+        assertThat(searchIds("vu trong phung")).isEmpty();
+
+        link(book, author);
+        assertThat(searchIds("vu trong phung")).containsExactly(book);
+
+        jdbcTemplate.update("UPDATE " + SCHEMA + "authors SET author_name = ? WHERE author_id = ?", "Tô Hoài", author);
+        assertThat(searchIds("vu trong phung")).isEmpty();
+        assertThat(searchIds("to hoai")).containsExactly(book);
+
+        jdbcTemplate.update("DELETE FROM " + SCHEMA + "book_authors WHERE book_id = ?", book);
+        assertThat(searchIds("to hoai")).isEmpty();
+    }
+
+    @Test
+    void deletedBooksAreNotFound() {
+        long kept = book("Số đỏ", "Tiểu thuyết");
+        long deleted = book("Số đỏ tái bản", "Tiểu thuyết");
+        jdbcTemplate.update("UPDATE " + SCHEMA + "books SET is_deleted = true WHERE book_id = ?", deleted);
+
+        assertThat(searchIds("so do")).containsExactly(kept);
+        assertThat(bookSearchRepository.count("so & do")).isEqualTo(1);
+    }
+
+    @Test
+    void scrollingVisitsEveryMatchOnceInRankOrder() {
+        for (int i = 0; i < 25; i++) {
+            // Repeating the word in some descriptions spreads the ranks, others tie
+            book("Số đỏ " + i, "Truyện số " + i + (i % 5 == 0 ? " đỏ đỏ đỏ" : ""));
+        }
+        book("Dế Mèn", "Không liên quan");
+
+        List<Long> scrolled = new ArrayList<>();
+        String after = null;
+        do {
+            CursorSlice<BookSummary> slice = bookService.scrollBookSummaries("đỏ", after, 4);
+            slice.getContent().forEach(summary -> scrolled.add(summary.getId()));
+            after = slice.getNextCursor();
+        } while (after != null);
+
+        assertThat(scrolled).hasSize(25).doesNotHaveDuplicates();
+        assertThat(scrolled).containsExactlyElementsOf(searchIds("do"));
+        assertThat(bookService.searchBookSummaries("đỏ", 2, 10).getTotalElements()).isEqualTo(25);
+    }
+
+    @Test
+    void keywordWithoutWordsFindsNothing() {
+        book("Số đỏ", "Tiểu thuyết");
+
+        assertThat(bookService.searchBookSummaries("!!!", 0, 5).getTotalElements()).isZero();
+        assertThat(bookService.getAdminBooks(0, 5, "!!!", null, null).getTotalElements()).isZero();
+    }
+
+    @Test
+    void adminKeywordFilterUsesTheSameIndex() {
+        long book = book("Số đỏ", "Tiểu thuyết");
+        link(book, author("Vũ Trọng Phụng"));
+        book("Dế Mèn phiêu lưu ký", "Truyện thiếu nhi");
+
+        assertThat(bookService.getAdminBooks(0, 10, "phung", null, "newest").getContent())
+                .extracting(BookResponse::getId)
+                .containsExactly(book);
+    }
+
+    @Test
+    void booksWithoutYearComeLastInNewestAndFirstInOldestEverywhere() {
+        long genre = jdbcTemplate.queryForObject(
+                "INSERT INTO " + SCHEMA + "genres (genre_name) VALUES ('Tiểu thuyết') RETURNING genre_id", Long.class);
+        List<Long> books = new ArrayList<>();
+        for (Integer year : Arrays.asList(1990, null, 2005, 1975, null)) {
+            long book = book("Sách " + year, "Tiểu thuyết");
+            jdbcTemplate.update("UPDATE " + SCHEMA + "books SET publication_year = ? WHERE book_id = ?", year, book);
+            jdbcTemplate.update("INSERT INTO " + SCHEMA + "book_genres (book_id, genre_id) VALUES (?, ?)", book, genre);
+            books.add(book);
+        }
+
+        // 2005, 1990, 1975, then the two without a year, newest first
+        List<Long> newest = List.of(books.get(2), books.get(0), books.get(3), books.get(4), books.get(1));
+        assertThat(ids(bookService.getAdminBooks(0, 10, null, null, "newest").getContent())).isEqualTo(newest);
+        assertThat(ids(bookService.getBooksByGenre(genre, 0, 10, "newest").getContent())).isEqualTo(newest);
+        assertThat(scrollAdminIds("newest")).isEqualTo(newest);
+
+        List<Long> oldest = List.of(books.get(1), books.get(4), books.get(3), books.get(0), books.get(2));
+        assertThat(ids(bookService.getAdminBooks(0, 10, null, null, "oldest").getContent())).isEqualTo(oldest);
+        assertThat(ids(bookService.getBooksByGenre(genre, 0, 10, "oldest").getContent())).isEqualTo(oldest);
+        assertThat(scrollAdminIds("oldest")).isEqualTo(oldest);
+    }
+
+    private List<Long> scrollAdminIds(String sort) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            CursorSlice<BookResponse> slice = bookService.scrollAdminBooks(after, 2, null, null, sort);
+            ids.addAll(ids(slice.getContent()));
+            after = slice.getNextCursor();
+        } while (after != null);
+        return ids;
+    }
+
+    private static List<Long> ids(List<BookResponse> books) {
+        return books.stream().map(BookResponse::getId).toList();
+    }
+
+    private List<Long> searchIds(String keyword) {
+        return bookSearchRepository.search(BookSearchQuery.toTsQuery(keyword), null, 100).stream()
+                .map(BookSearchHit::bookId)
+                .toList();
+    }
+
+    private long book(String title, String description) {
+        return jdbcTemplate.queryForObject("""
+                INSERT INTO %sbooks (title, description, cover_image_url, publisher)
+                VALUES (?, ?, 'cover.jpg', 'NXB Trẻ')
+                RETURNING book_id
+                """.formatted(SCHEMA), Long.class, title, description);
+    }
+
+    private long author(String name) {
+        return jdbcTemplate.queryForObject("INSERT INTO " + SCHEMA + "authors (author_name) VALUES (?) RETURNING author_id",
+                Long.class, name);
+    }
+
+    private void link(long book, long author) {
+        jdbcTemplate.update("INSERT INTO " + SCHEMA + "book_authors (book_id, author_id) VALUES (?, ?)", book, author);
+    }
+}
@@ -0,0 +1,56 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.NullAndEmptySource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchQueryTest {
+
+    @ParameterizedTest
+    @NullAndEmptySource
+    @ValueSource(strings = {"   ", "&|!():*'\\", " - ; , "})
+    void keywordWithoutWordsHasNoQuery(String keyword) {
+        assertThat(BookSearchQuery.toTsQuery(keyword)).isNull();
+    }
+
+    @Test
+    void singleWordBecomesAPrefix() {
+        assertThat(BookSearchQuery.toTsQuery("harry")).isEqualTo("harry:*");
+    }
+
+    @Test
+    void everyWordMustMatchAndOnlyTheLastIsAPrefix() {
+        assertThat(BookSearchQuery.toTsQuery("  Harry   Potter và ")).isEqualTo("Harry & Potter & và:*");
+    }
+
+    @Test
+    void operatorCharactersAreStripped() {
+        assertThat(BookSearchQuery.toTsQuery("a&b | !c (d):* 'e'")).isEqualTo("a & b & c & d & e:*");
+    }
+
+    @Test
+    void digitsAreKept() {
+        assertThat(BookSearchQuery.toTsQuery("1984 Orwell")).isEqualTo("1984 & Orwell:*");
+    }
+
+    @Test
+    void decomposedInputIsFoldedToNfc() {
+        String decomposed = "Tie\u0302\u0301ng Vie\u0323\u0302t";
+
+        assertThat(BookSearchQuery.toTsQuery(decomposed)).isEqualTo("Ti\u1EBFng & Vi\u1EC7t:*");
+    }
+
+    @Test
+    void onlyTheFirstSixteenWordsAreKept() {
+        String keyword = IntStream.rangeClosed(1, 20).mapToObj(i -> "w" + i).collect(Collectors.joining(" "));
+        String expected = IntStream.rangeClosed(1, 16).mapToObj(i -> "w" + i).collect(Collectors.joining(" & ")) + ":*";
+
+        assertThat(BookSearchQuery.toTsQuery(keyword)).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,145 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.model.Author;
+import com.bookrecommend.book_recommend_be.model.Book;
+import com.bookrecommend.book_recommend_be.model.BookFormat;
+import com.bookrecommend.book_recommend_be.model.BookType;
+import com.bookrecommend.book_recommend_be.model.Genre;
+import com.bookrecommend.book_recommend_be.repository.BookFeatures;
+import com.bookrecommend.book_recommend_be.repository.BookSearchJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.file.CloudinaryService;
+import com.bookrecommend.book_recommend_be.service.file.IFileStorageService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hydration of ranked ids: caller order is kept and list associations are not multiplied by
+ * the author and genre sets fetched with them. The feature projection follows the same rules.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.default_schema="
+})
+@Import(BookService.class)
+class BookServiceBooksByIdsTest {
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private IFileStorageService fileStorageService;
+
+    @MockitoBean
+    private CloudinaryService cloudinaryService;
+
+    @MockitoBean
+    private BookSearchJdbcRepository bookSearchRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        BookType pdf = persist(BookType.builder().name("PDF").build());
+        BookType epub = persist(BookType.builder().name("EPUB").build());
+        Genre fiction = persist(Genre.builder().name("Fiction").build());
+        Genre classics = persist(Genre.builder().name("Classics").build());
+
+        for (int i = 0; i < 6; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setDescription("Description " + i);
+            book.setCoverImageUrl("https://covers.example/" + i + ".jpg");
+            book.setPublicationYear(1990 + i);
+            book.setAuthors(Set.of(
+                    persist(Author.builder().name("Author " + i).build()),
+                    persist(Author.builder().name("Co-author " + i).build())));
+            book.setGenres(Set.of(fiction, classics));
+            book.getFormats().add(format(book, pdf, i));
+            book.getFormats().add(format(book, epub, i));
+            entityManager.persist(book);
+            ids.add(book.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void booksByIdsKeepCallerOrderAndOneEntryPerFormat() {
+        List<Long> ranked = ids.reversed();
+
+        List<BookResponse> books = bookService.getBooksByIds(ranked);
+
+        assertThat(books).extracting(BookResponse::getId).containsExactlyElementsOf(ranked);
+        assertThat(books).allSatisfy(book -> {
+            assertThat(book.getAuthors()).hasSize(2);
+            assertThat(book.getGenres()).hasSize(2);
+            assertThat(book.getFormats()).hasSize(2);
+        });
+    }
+
+    @Test
+    void unknownAndNullIdsAreSkipped() {
+        List<Long> requested = new ArrayList<>();
+        requested.add(ids.get(1));
+        requested.add(null);
+        requested.add(-1L);
+        requested.add(ids.get(0));
+        requested.add(ids.get(1));
+
+        assertThat(bookService.getBooksByIds(requested))
+                .extracting(BookResponse::getId)
+                .containsExactly(ids.get(1), ids.get(0));
+    }
+
+    @Test
+    void bookFeaturesKeepCallerOrderAndIncludeBooksWithoutGenresOrAuthors() {
+        Book bare = new Book();
+        bare.setTitle("Bare");
+        bare.setDescription("No genres, no authors");
+        bare.setCoverImageUrl("https://covers.example/bare.jpg");
+        entityManager.persist(bare);
+        entityManager.flush();
+        entityManager.clear();
+        List<Long> requested = List.of(ids.get(2), bare.getId(), -1L, ids.get(0));
+
+        List<BookFeatures> features = bookService.getBookFeaturesByIds(requested);
+
+        assertThat(features).extracting(BookFeatures::bookId)
+                .containsExactly(ids.get(2), bare.getId(), ids.get(0));
+        assertThat(features.get(0).genreIds()).hasSize(2);
+        assertThat(features.get(0).authorIds()).hasSize(2);
+        assertThat(features.get(0).authorIds()).doesNotContainAnyElementsOf(features.get(2).authorIds());
+        assertThat(features.get(1).genreIds()).isEmpty();
+        assertThat(features.get(1).authorIds()).isEmpty();
+    }
+
+    private BookFormat format(Book book, BookType type, int index) {
+        BookFormat format = new BookFormat();
+        format.setBook(book);
+        format.setType(type);
+        format.setContentUrl("books/" + index + "." + type.getName().toLowerCase());
+        format.setTotalPages(100 + index);
+        format.setFileSizeKb(500 + index);
+        return format;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
@@ -0,0 +1,247 @@
+package com.bookrecommend.book_recommend_be.service.book;
+
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.dto.response.BookSummary;
+import com.bookrecommend.book_recommend_be.dto.response.CursorSlice;
+import com.bookrecommend.book_recommend_be.exceptions.InvalidCursorException;
+import com.bookrecommend.book_recommend_be.model.Author;
+import com.bookrecommend.book_recommend_be.model.Book;
+import com.bookrecommend.book_recommend_be.model.BookFormat;
+import com.bookrecommend.book_recommend_be.model.BookType;
+import com.bookrecommend.book_recommend_be.model.Genre;
+import com.bookrecommend.book_recommend_be.repository.BookSearchJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.file.CloudinaryService;
+import com.bookrecommend.book_recommend_be.service.file.IFileStorageService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Book pages must cost an id query, a count query and two hydration queries whatever their size,
+ * and summary pages a single projection query in place of the hydration. Keyset slices skip
+ * the count and must walk the whole catalog exactly once.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.default_schema=",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(BookService.class)
+class BookServicePageQueryTest {
+
+    private static final int BOOKS = 40;
+    private static final long STATEMENTS_PER_PAGE = 4;
+    private static final long STATEMENTS_PER_SUMMARY_PAGE = 3;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @MockitoBean
+    private IFileStorageService fileStorageService;
+
+    @MockitoBean
+    private CloudinaryService cloudinaryService;
+
+    // Full-text search needs PostgreSQL; these tests never search
+    @MockitoBean
+    private BookSearchJdbcRepository bookSearchRepository;
+
+    private Statistics statistics;
+    private Long genreId;
+
+    @BeforeEach
+    void setUp() {
+        BookType pdf = persist(BookType.builder().name("PDF").build());
+        BookType epub = persist(BookType.builder().name("EPUB").build());
+        Genre fiction = persist(Genre.builder().name("Fiction").build());
+        Genre classics = persist(Genre.builder().name("Classics").build());
+        genreId = fiction.getId();
+
+        for (int i = 0; i < BOOKS; i++) {
+            Book book = new Book();
+            book.setTitle("Book " + i);
+            book.setDescription("Description " + i);
+            book.setCoverImageUrl("https://covers.example/" + i + ".jpg");
+            book.setPublicationYear(1990 + i);
+            book.setAuthors(Set.of(
+                    persist(Author.builder().name("Author " + i).build()),
+                    persist(Author.builder().name("Co-author " + i).build())));
+            book.setGenres(Set.of(fiction, classics));
+            book.getFormats().add(format(book, pdf, i));
+            book.getFormats().add(format(book, epub, i));
+            entityManager.persist(book);
+        }
+        entityManager.flush();
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void allBooksPage(int size) {
+        assertConstantStatements(size, () -> bookService.getBooks(0, size));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void newestBooksPage(int size) {
+        assertConstantStatements(size, () -> bookService.getNewestBooks(0, size));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void mostReadBooksPage(int size) {
+        assertConstantStatements(size, () -> bookService.getMostReadBooks(0, size));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void genrePageSortedByTitle(int size) {
+        assertConstantStatements(size, () -> bookService.getBooksByGenre(genreId, 0, size, "title"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void genrePageSortedByPopularity(int size) {
+        assertConstantStatements(size, () -> bookService.getBooksByGenre(genreId, 0, size, "popular"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void adminPageFilteredByGenreSortedByTitle(int size) {
+        assertConstantStatements(size, () -> bookService.getAdminBooks(0, size, null, genreId, "title-desc"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void adminPageNewest(int size) {
+        assertConstantStatements(size, () -> bookService.getAdminBooks(0, size, null, null, "newest"));
+    }
+
+    @Test
+    void adminPageKeepsTheRequestedSort() {
+        List<String> titles = bookService.getAdminBooks(1, 5, null, genreId, "title-asc").getContent().stream()
+                .map(BookResponse::getTitle)
+                .toList();
+
+        assertThat(titles).containsExactly("Book 13", "Book 14", "Book 15", "Book 16", "Book 17");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void newestSummaryPage(int size) {
+        assertConstantSummaryStatements(size, () -> bookService.getNewestBookSummaries(0, size));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 30})
+    void genreSummaryPageSortedByPopularity(int size) {
+        assertConstantSummaryStatements(size, () -> bookService.getBookSummariesByGenre(genreId, 0, size, "popular"));
+    }
+
+    @Test
+    void summarySlicesWalkCatalogNewestFirst() {
+        List<Long> ids = walk(after -> bookService.scrollBookSummaries(null, after, 7), BookSummary::getId, 2);
+        assertThat(ids).hasSize(BOOKS).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void adminSlicesWalkGenreOldestFirst() {
+        List<Long> ids = walk(after -> bookService.scrollAdminBooks(after, 7, null, genreId, "oldest"), BookResponse::getId, 3);
+        assertThat(ids).hasSize(BOOKS).doesNotHaveDuplicates();
+        assertThat(ids).isSortedAccordingTo((a, b) -> Integer.compare(
+                bookService.getBookById(a).getPublicationYear(), bookService.getBookById(b).getPublicationYear()));
+    }
+
+    @Test
+    void cursorFromAnotherOrderIsRejected() {
+        String cursor = bookService.scrollBookSummaries(null, null, 5).getNextCursor();
+        assertThatThrownBy(() -> bookService.scrollAdminBooks(cursor, 5, null, null, "oldest"))
+                .isInstanceOf(InvalidCursorException.class);
+    }
+
+    private <T> List<Long> walk(Function<String, CursorSlice<T>> loader, Function<T, Long> id, long statementsPerSlice) {
+        List<Long> ids = new ArrayList<>();
+        String after = null;
+        do {
+            entityManager.clear();
+            statistics.clear();
+            CursorSlice<T> slice = loader.apply(after);
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(statementsPerSlice);
+            slice.getContent().forEach(item -> ids.add(id.apply(item)));
+            after = slice.getNextCursor();
+            assertThat(slice.isHasNext()).isEqualTo(after != null);
+        } while (after != null);
+        return ids;
+    }
+
+    private void assertConstantSummaryStatements(int size, Supplier<Page<BookSummary>> loader) {
+        entityManager.clear();
+        statistics.clear();
+
+        Page<BookSummary> page = loader.get();
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getTotalElements()).isEqualTo(BOOKS);
+        assertThat(page.getContent()).allSatisfy(book -> {
+            String index = book.getTitle().substring("Book ".length());
+            assertThat(book.getAuthorNames()).isEqualTo("Author " + index + ", Co-author " + index);
+            assertThat(book.getCoverImageUrl()).isEqualTo("https://covers.example/" + index + ".jpg");
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(STATEMENTS_PER_SUMMARY_PAGE);
+    }
+
+    private void assertConstantStatements(int size, Supplier<Page<BookResponse>> loader) {
+        // Start from an empty persistence context so nothing is served from the first-level cache
+        entityManager.clear();
+        statistics.clear();
+
+        Page<BookResponse> page = loader.get();
+
+        assertThat(page.getContent()).hasSize(size);
+        assertThat(page.getTotalElements()).isEqualTo(BOOKS);
+        List<BookResponse> books = page.getContent();
+        assertThat(books).allSatisfy(book -> {
+            assertThat(book.getAuthors()).hasSize(2);
+            assertThat(book.getGenres()).hasSize(2);
+            assertThat(book.getFormats()).hasSize(2);
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(STATEMENTS_PER_PAGE);
+    }
+
+    private BookFormat format(Book book, BookType type, int index) {
+        BookFormat format = new BookFormat();
+        format.setBook(book);
+        format.setType(type);
+        format.setContentUrl("books/" + index + "." + type.getName().toLowerCase());
+        format.setTotalPages(100 + index);
+        format.setFileSizeKb(500 + index);
+        return format;
+    }
+
+    private <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}
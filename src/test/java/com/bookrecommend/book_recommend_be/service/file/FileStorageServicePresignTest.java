@@ -0,0 +1,130 @@
+package com.bookrecommend.book_recommend_be.service.file;
+
+import com.bookrecommend.book_recommend_be.config.MinioProperties;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Presigned URL reuse, driven by a fake clock.
+ */
+class FileStorageServicePresignTest {
+
+    private static final String KEY = "books/2024/01/01/book_pdf_1234abcd.pdf";
+
+    private final MinioClient minioClient = mock(MinioClient.class);
+    private final MinioProperties properties = new MinioProperties();
+    private final AtomicInteger signatures = new AtomicInteger();
+    private long now = 1_000L;
+    private final FileStorageService storage = new FileStorageService(minioClient, properties, () -> now);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties.setBucketName("books");
+        when(minioClient.getPresignedObjectUrl(any())).thenAnswer(invocation -> {
+            GetPresignedObjectUrlArgs args = invocation.getArgument(0);
+            return "https://minio/" + args.bucket() + "/" + args.object() + "?signature=" + signatures.incrementAndGet();
+        });
+    }
+
+    @Test
+    void urlIsReusedUntilTheRefreshMargin() {
+        // Defaults: one hour expiry, re-signed five minutes before it
+        String first = storage.generatePresignedUrl(KEY);
+
+        advanceSeconds(3_299);
+        assertThat(storage.generatePresignedUrl(KEY)).isEqualTo(first);
+
+        advanceSeconds(1);
+        assertThat(storage.generatePresignedUrl(KEY)).isNotEqualTo(first);
+        assertThat(signatures).hasValue(2);
+    }
+
+    @Test
+    void marginIsCappedAtHalfTheLifetime() {
+        properties.setPresignedRefreshMarginSeconds(10_000);
+        String first = storage.generatePresignedUrl(KEY);
+
+        advanceSeconds(1_799);
+        assertThat(storage.generatePresignedUrl(KEY)).isEqualTo(first);
+        advanceSeconds(1);
+        assertThat(storage.generatePresignedUrl(KEY)).isNotEqualTo(first);
+    }
+
+    @Test
+    void expiryIsClampedToWhatMinioAccepts() throws Exception {
+        properties.setPresignedExpirySeconds(5);
+        storage.generatePresignedUrl(KEY);
+        properties.setPresignedExpirySeconds(30L * 24 * 3600);
+        storage.generatePresignedUrl("other.pdf");
+
+        ArgumentCaptor<GetPresignedObjectUrlArgs> args = ArgumentCaptor.forClass(GetPresignedObjectUrlArgs.class);
+        verify(minioClient, times(2)).getPresignedObjectUrl(args.capture());
+        assertThat(args.getAllValues()).extracting(GetPresignedObjectUrlArgs::expiry).containsExactly(60, 604_800);
+    }
+
+    @Test
+    void evictionAndDeletionForceANewSignature() {
+        String first = storage.generatePresignedUrl(KEY);
+
+        storage.evictPresignedUrl(KEY);
+        String second = storage.generatePresignedUrl(KEY);
+        storage.deleteFile(KEY);
+        String third = storage.generatePresignedUrl(KEY);
+
+        assertThat(first).isNotEqualTo(second).isNotEqualTo(third);
+        assertThat(signatures).hasValue(3);
+    }
+
+    @Test
+    void keysAreCachedSeparately() {
+        String first = storage.generatePresignedUrl(KEY);
+        String other = storage.generatePresignedUrl("other.pdf");
+
+        assertThat(other).isNotEqualTo(first);
+        assertThat(storage.generatePresignedUrl(KEY)).isEqualTo(first);
+        assertThat(signatures).hasValue(2);
+    }
+
+    @Test
+    void disabledCacheSignsEveryCall() {
+        properties.setPresignedCacheMaxEntries(0);
+
+        storage.generatePresignedUrl(KEY);
+        storage.generatePresignedUrl(KEY);
+
+        assertThat(signatures).hasValue(2);
+    }
+
+    @Test
+    void publicEndpointNeedsNoSignature() throws Exception {
+        properties.setPublicEndpoint("https://cdn.example.com/");
+
+        assertThat(storage.generatePresignedUrl(KEY)).isEqualTo("https://cdn.example.com/books/" + KEY);
+        verify(minioClient, never()).getPresignedObjectUrl(any());
+    }
+
+    @Test
+    void blankKeyIsRejected() {
+        assertThatThrownBy(() -> storage.generatePresignedUrl(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void advanceSeconds(long seconds) {
+        now += TimeUnit.SECONDS.toNanos(seconds);
+    }
+}
@@ -0,0 +1,123 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository.GenreBook;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cold/known user detection, the bounded set of known users and the blended list.
+ */
+class ColdStartRecommendationServiceTest {
+
+    private final RecsysProperties properties = new RecsysProperties();
+    private final InteractionJdbcRepository interactionRepository = mock(InteractionJdbcRepository.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    @Test
+    void listIsBuiltOnStartupFromGenresAndRecentReleases() {
+        ColdStartRecommendationService service = service();
+        assertThat(service.getColdStartBookIds(10)).isEmpty();
+
+        service.refreshOnStartup();
+
+        // Genre 2 has the most reads so it leads; every fourth slot is a recent release
+        assertThat(service.getColdStartBookIds(10)).containsExactly(201L, 101L, 102L, 900L, 901L);
+        assertThat(service.getColdStartBookIds(2)).containsExactly(201L, 101L);
+        assertThat(service.getColdStartBookIds(-1)).isEmpty();
+    }
+
+    @Test
+    void usersWithoutInteractionsAreColdAndKnownUsersAreNotQueriedAgain() {
+        when(interactionRepository.hasInteractions(1L)).thenReturn(false);
+        when(interactionRepository.hasInteractions(2L)).thenReturn(true);
+        ColdStartRecommendationService service = service();
+
+        assertThat(service.isColdStart(1L)).isTrue();
+        assertThat(service.isColdStart(1L)).isTrue();
+        assertThat(service.isColdStart(2L)).isFalse();
+        assertThat(service.isColdStart(2L)).isFalse();
+        assertThat(service.isColdStart(null)).isFalse();
+
+        verify(interactionRepository, times(2)).hasInteractions(1L);
+        verify(interactionRepository, times(1)).hasInteractions(2L);
+    }
+
+    @Test
+    void lookupsWithoutRememberLeaveKnownUsersAlone() {
+        when(interactionRepository.hasInteractions(2L)).thenReturn(true);
+        ColdStartRecommendationService service = service();
+
+        assertThat(service.isColdStart(2L, false)).isFalse();
+        assertThat(service.isColdStart(2L, false)).isFalse();
+
+        verify(interactionRepository, times(2)).hasInteractions(2L);
+    }
+
+    @Test
+    void interactionMarksTheUserAsKnown() {
+        ColdStartRecommendationService service = service();
+
+        service.onUserInteraction(new UserInteractionEvent(1L, 10L, null, null, null));
+
+        assertThat(service.isColdStart(1L)).isFalse();
+        verify(interactionRepository, never()).hasInteractions(anyLong());
+    }
+
+    @Test
+    void leastRecentlySeenKnownUserIsForgottenBeyondTheBound() {
+        properties.getColdStart().setKnownUsersMaxEntries(2);
+        when(interactionRepository.hasInteractions(anyLong())).thenReturn(true);
+        ColdStartRecommendationService service = service();
+
+        service.isColdStart(1L);
+        service.isColdStart(2L);
+        // Seeing user 1 again makes user 2 the eldest
+        service.isColdStart(1L);
+        service.isColdStart(3L);
+
+        service.isColdStart(1L);
+        service.isColdStart(3L);
+        verify(interactionRepository, times(1)).hasInteractions(1L);
+        verify(interactionRepository, times(1)).hasInteractions(3L);
+
+        service.isColdStart(2L);
+        verify(interactionRepository, times(2)).hasInteractions(2L);
+    }
+
+    @Test
+    void failedOrDisabledChecksTreatTheUserAsKnown() {
+        when(interactionRepository.hasInteractions(1L)).thenThrow(new QueryTimeoutException("timeout"));
+        assertThat(service().isColdStart(1L)).isFalse();
+
+        properties.getColdStart().setEnabled(false);
+        ColdStartRecommendationService disabled = service();
+        assertThat(disabled.isColdStart(2L)).isFalse();
+        disabled.refreshOnStartup();
+        assertThat(disabled.getColdStartBookIds(10)).isEmpty();
+        verify(interactionRepository, never()).hasInteractions(2L);
+        verify(interactionRepository, never()).findMostReadBooksPerGenre(anyInt());
+    }
+
+    private ColdStartRecommendationService service() {
+        when(interactionRepository.findMostReadBooksPerGenre(anyInt())).thenReturn(List.of(
+                new GenreBook(1L, 101L, 10), new GenreBook(1L, 102L, 5), new GenreBook(2L, 201L, 20)));
+        when(bookRepository.findNewestBookIds(any())).thenReturn(List.of(900L, 901L));
+        return new ColdStartRecommendationService(properties, interactionRepository, bookRepository);
+    }
+}
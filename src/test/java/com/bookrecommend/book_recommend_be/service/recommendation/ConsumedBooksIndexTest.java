@@ -0,0 +1,165 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ConsumedBooksIndexTest {
+
+    private final InteractionJdbcRepository repository = mock(InteractionJdbcRepository.class);
+    private final Map<Long, List<Long>> stored = new HashMap<>();
+    private final RecsysProperties properties = new RecsysProperties();
+
+    ConsumedBooksIndexTest() {
+        doAnswer(invocation -> {
+            LongConsumer consumer = invocation.getArgument(2);
+            stored.getOrDefault(invocation.<Long>getArgument(0), List.of()).forEach(consumer::accept);
+            return null;
+        }).when(repository).forEachConsumedBookId(anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    void loadsOnceAndServesFromMemory() {
+        stored.put(1L, List.of(10L, 11L));
+        ConsumedBooksIndex index = index();
+
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(10L, 11L);
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(10L, 11L);
+        verify(repository, times(1)).forEachConsumedBookId(anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    void filterKeepsRankedOrderAndSkipsConsumedBooks() {
+        ConsumedBooksIndex index = index();
+        Roaring64Bitmap consumed = Roaring64Bitmap.bitmapOf(2L, 4L);
+
+        assertThat(index.filter(List.of(1L, 2L, 3L, 4L, 5L, 6L), consumed, 3)).containsExactly(1L, 3L, 5L);
+        assertThat(index.filter(List.of(1L, 2L, 3L), new Roaring64Bitmap(), 2)).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void candidateLimitOverFetchesUpToTheConsumedCount() {
+        ConsumedBooksIndex index = index();
+
+        assertThat(index.candidateLimit(10, new Roaring64Bitmap())).isEqualTo(10);
+        assertThat(index.candidateLimit(10, Roaring64Bitmap.bitmapOf(1L, 2L, 3L))).isEqualTo(13);
+        // Capped at limit * overFetchFactor
+        assertThat(index.candidateLimit(2, Roaring64Bitmap.bitmapOf(1L, 2L, 3L, 4L, 5L, 6L, 7L))).isEqualTo(6);
+    }
+
+    @Test
+    void committedFavoriteIsAddedToTheCachedBitmap() {
+        stored.put(1L, List.of(10L));
+        ConsumedBooksIndex index = index();
+        Roaring64Bitmap before = index.consumedBy(1L);
+
+        index.onUserInteraction(UserInteractionEvent.of(1L, 20L, InteractionType.FAVORITE_ADDED, null));
+
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(10L, 20L);
+        // Published bitmaps are never modified
+        assertThat(before.toArray()).containsExactly(10L);
+        verify(repository, times(1)).forEachConsumedBookId(anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    void readingProgressCountsOnlyFromTheThreshold() {
+        ConsumedBooksIndex index = index();
+        index.consumedBy(1L);
+
+        index.onUserInteraction(UserInteractionEvent.of(1L, 21L, InteractionType.READING_PROGRESS, 95.0));
+        index.onUserInteraction(UserInteractionEvent.of(1L, 22L, InteractionType.RATED, 5.0));
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(21L);
+
+        // Lower progress may un-finish a book, so the bitmap is reloaded
+        stored.put(1L, List.of(21L));
+        index.onUserInteraction(UserInteractionEvent.of(1L, 21L, InteractionType.READING_PROGRESS, 50.0));
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(21L);
+        verify(repository, times(2)).forEachConsumedBookId(anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    void removedFavoriteDropsTheBitmapForAReload() {
+        stored.put(1L, List.of(10L, 11L));
+        ConsumedBooksIndex index = index();
+        index.consumedBy(1L);
+
+        stored.put(1L, List.of(11L));
+        index.onUserInteraction(UserInteractionEvent.of(1L, 10L, InteractionType.FAVORITE_REMOVED, null));
+
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(11L);
+        verify(repository, times(2)).forEachConsumedBookId(anyLong(), anyDouble(), any());
+    }
+
+    @Test
+    void loadRacingWithAWriteIsReturnedButNotKept() {
+        ConsumedBooksIndex index = index();
+        stored.put(1L, List.of(10L));
+        doAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(2).accept(10L);
+            index.onUserInteraction(UserInteractionEvent.of(1L, 20L, InteractionType.FAVORITE_ADDED, null));
+            return null;
+        }).doAnswer(invocation -> {
+            invocation.<LongConsumer>getArgument(2).accept(10L);
+            invocation.<LongConsumer>getArgument(2).accept(20L);
+            return null;
+        }).when(repository).forEachConsumedBookId(anyLong(), anyDouble(), any());
+
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(10L);
+        assertThat(index.consumedBy(1L).toArray()).containsExactly(10L, 20L);
+    }
+
+    @Test
+    void leastRecentlyUsedUsersAreEvicted() {
+        properties.getConsumedFilter().setMaxUsers(2);
+        ConsumedBooksIndex index = index();
+        index.consumedBy(1L);
+        index.consumedBy(2L);
+        index.consumedBy(1L);
+        index.consumedBy(3L);
+
+        index.consumedBy(1L);
+        index.consumedBy(2L);
+
+        // Users 1 and 3 stayed cached; user 2 was evicted and loaded again
+        verify(repository, times(2)).forEachConsumedBookId(eq(2L), anyDouble(), any());
+        verify(repository, times(1)).forEachConsumedBookId(eq(1L), anyDouble(), any());
+    }
+
+    @Test
+    void failedLoadsAndDisabledFilterReturnNothing() {
+        doThrow(new DataAccessResourceFailureException("down"))
+                .when(repository).forEachConsumedBookId(anyLong(), anyDouble(), any());
+
+        assertThat(index().consumedBy(1L).isEmpty()).isTrue();
+        assertThat(index().consumedBy(null).isEmpty()).isTrue();
+
+        properties.getConsumedFilter().setEnabled(false);
+        assertThat(index().consumedBy(2L).isEmpty()).isTrue();
+        verify(repository, never()).forEachConsumedBookId(eq(2L), anyDouble(), any());
+    }
+
+    private ConsumedBooksIndex index() {
+        return new ConsumedBooksIndex(properties, repository);
+    }
+}
@@ -0,0 +1,233 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationItem;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationsResponse;
+import com.bookrecommend.book_recommend_be.repository.InteractionOutboxJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.InteractionOutboxJdbcRepository.OutboxEntry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The interaction outbox against a real PostgreSQL built from init_db.sql: claims that skip
+ * rows locked by another dispatcher, the lease, the retry backoff and the write breaker. The
+ * model is a real RecsysClient over a stubbed RestTemplate.
+ */
+class InteractionOutboxPostgresTest {
+
+    private static final String SCHEMA = "book_recommendation_system";
+    private static final String MODEL = "implicit";
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private RecsysCircuitBreakerRegistry circuitBreakers;
+    private RecsysClient recsysClient;
+    private InteractionOutboxJdbcRepository repository;
+    private InteractionOutboxService service;
+
+    @BeforeAll
+    static void startPostgres() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("encoding", "UTF8")
+                .setLocaleConfig("locale", "C")
+                .start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("init_db.sql")));
+        }
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE " + SCHEMA + ".interaction_outbox RESTART IDENTITY");
+
+        RecsysProperties.Model model = new RecsysProperties.Model();
+        model.setBaseUrl("http://implicit/api/v1");
+        model.setSupportsOnlineLearning(true);
+        model.getCircuitBreaker().setSlidingWindowSize(2);
+        model.getCircuitBreaker().setMinimumNumberOfCalls(2);
+        model.getCircuitBreaker().setWaitDurationInOpenState(Duration.ofMinutes(5));
+        RecsysProperties properties = new RecsysProperties();
+        properties.setModels(Map.of(MODEL, model));
+        properties.setDefaultModel(MODEL);
+        properties.getOutbox().setEnabled(true);
+        properties.getOutbox().setBatchSize(2);
+        properties.getOutbox().setLease(LEASE);
+        properties.getOutbox().setMaxAttempts(4);
+        properties.getOutbox().setInitialBackoff(Duration.ofSeconds(10));
+        properties.getOutbox().setMaxBackoff(Duration.ofSeconds(25));
+
+        RecsysRoutingService routing = mock(RecsysRoutingService.class);
+        when(routing.getOnlineLearningModelKeys()).thenReturn(List.of(MODEL));
+        when(routing.getLocalRecommender(MODEL)).thenReturn(Optional.empty());
+        circuitBreakers = new RecsysCircuitBreakerRegistry(properties);
+        recsysClient = new RecsysClient(restTemplate, routing, circuitBreakers,
+                new RecsysReplicaRegistry(properties), properties, executor);
+        repository = new InteractionOutboxJdbcRepository(jdbcTemplate, SCHEMA);
+        service = new InteractionOutboxService(properties, routing, recsysClient, repository);
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void claimSkipsRowsLockedByAnotherDispatcher() throws SQLException {
+        append(3);
+
+        try (Connection other = postgres.getPostgresDatabase().getConnection()) {
+            other.setAutoCommit(false);
+            try (Statement statement = other.createStatement()) {
+                statement.execute("SELECT event_id FROM " + SCHEMA + ".interaction_outbox WHERE event_id = 1 FOR UPDATE");
+            }
+
+            List<OutboxEntry> claimed = repository.claim(MODEL, 10, LEASE);
+
+            assertThat(claimed).extracting(OutboxEntry::eventId).containsExactly(2L, 3L);
+            assertThat(claimed).extracting(OutboxEntry::attempts).containsOnly(1);
+            other.rollback();
+        }
+
+        // The other two are leased now
+        assertThat(repository.claim(MODEL, 10, LEASE)).extracting(OutboxEntry::eventId).containsExactly(1L);
+    }
+
+    @Test
+    void claimedEventsBecomeDueAgainWhenTheLeaseExpires() {
+        append(1);
+
+        assertThat(repository.claim(MODEL, 10, LEASE)).hasSize(1);
+        assertThat(repository.claim(MODEL, 10, LEASE)).isEmpty();
+        assertThat(secondsUntilAvailable()).isCloseTo(LEASE.toSeconds(), within(2d));
+
+        makeDue();
+        List<OutboxEntry> reclaimed = repository.claim(MODEL, 10, LEASE);
+        assertThat(reclaimed).extracting(OutboxEntry::eventId).containsExactly(1L);
+        assertThat(reclaimed).extracting(OutboxEntry::attempts).containsExactly(2);
+    }
+
+    @Test
+    void deliveredBatchesAreDeleted() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class))).thenReturn(ResponseEntity.ok().build());
+        append(5);
+
+        service.dispatch();
+
+        assertThat(outboxSize()).isZero();
+        verify(restTemplate, times(3)).postForEntity(eq("http://implicit/api/v1/interactions"), any(), eq(Void.class));
+    }
+
+    @Test
+    void failedBatchBacksOffExponentiallyAndIsDiscardedAfterMaxAttempts() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+        append(1);
+
+        service.dispatch();
+        assertThat(secondsUntilAvailable()).isCloseTo(10d, within(2d));
+
+        makeDue();
+        service.dispatch();
+        assertThat(secondsUntilAvailable()).isCloseTo(20d, within(2d));
+
+        makeDue();
+        service.dispatch();
+        assertThat(secondsUntilAvailable()).isCloseTo(25d, within(2d));
+        assertThat(attempts()).isEqualTo(3);
+
+        makeDue();
+        service.dispatch();
+        assertThat(outboxSize()).isZero();
+    }
+
+    @Test
+    void failingPushesOpenTheWriteBreakerOnly() {
+        when(restTemplate.postForEntity(anyString(), any(), eq(Void.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class)))
+                .thenReturn(new RecommendationsResponse(7L, 1, List.of(new RecommendationItem(42L, 1.0, null, null))));
+        append(1);
+
+        service.dispatch();
+        makeDue();
+        service.dispatch();
+
+        assertThat(circuitBreakers.forModelWrites(MODEL).getState()).isEqualTo(RecsysCircuitBreaker.State.OPEN);
+        assertThat(circuitBreakers.forModel(MODEL).getState()).isEqualTo(RecsysCircuitBreaker.State.CLOSED);
+        assertThat(recsysClient.getRecommendedBookIds(MODEL, 7L, 1)).containsExactly(42L);
+
+        // The open breaker rejects the push without a request, and the event is kept for later
+        makeDue();
+        service.dispatch();
+        verify(restTemplate, times(2)).postForEntity(anyString(), any(), eq(Void.class));
+        assertThat(attempts()).isEqualTo(3);
+        assertThat(secondsUntilAvailable()).isPositive();
+    }
+
+    private void append(int events) {
+        for (long bookId = 1; bookId <= events; bookId++) {
+            repository.append(List.of(MODEL), 7L, bookId, "RATING", 4.0, Instant.now());
+        }
+    }
+
+    private void makeDue() {
+        jdbcTemplate.update("UPDATE " + SCHEMA + ".interaction_outbox SET available_at = now() - interval '1 second'");
+    }
+
+    private double secondsUntilAvailable() {
+        return jdbcTemplate.queryForObject(
+                "SELECT extract(epoch FROM max(available_at) - now())::float8 FROM " + SCHEMA + ".interaction_outbox",
+                Double.class);
+    }
+
+    private int attempts() {
+        return jdbcTemplate.queryForObject("SELECT max(attempts) FROM " + SCHEMA + ".interaction_outbox", Integer.class);
+    }
+
+    private int outboxSize() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + SCHEMA + ".interaction_outbox", Integer.class);
+    }
+}
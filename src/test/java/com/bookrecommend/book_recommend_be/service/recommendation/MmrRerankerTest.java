@@ -0,0 +1,79 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.repository.BookFeatures;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MmrRerankerTest {
+
+    private final MmrReranker reranker = reranker(1f, 1f);
+
+    @Test
+    void lambdaOneKeepsTheRankedOrder() {
+        List<BookFeatures> candidates = List.of(
+                book(1L, 10L, 100L), book(2L, 10L, 100L), book(3L, 20L, 200L), book(4L, 10L, 100L));
+
+        assertThat(reranker.rerank(candidates, 3, 1.0)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void nearDuplicatesMakeRoomForADifferentBook() {
+        List<BookFeatures> candidates = List.of(
+                book(1L, 10L, 100L), book(2L, 10L, 100L), book(3L, 10L, 100L), book(4L, 20L, 200L));
+
+        assertThat(reranker.rerank(candidates, 3, 0.5)).containsExactly(1L, 4L, 2L);
+    }
+
+    @Test
+    void lambdaZeroStillStartsWithTheBestRankedBook() {
+        List<BookFeatures> candidates = List.of(
+                book(1L, 10L, 100L), book(2L, 10L, 100L), book(3L, 20L, 200L));
+
+        assertThat(reranker.rerank(candidates, 2, 0.0)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void heavierAuthorWeightPushesSameAuthorBooksDown() {
+        // Book 2 shares the seed's author, book 3 only its genre
+        List<BookFeatures> candidates = List.of(
+                book(1L, 10L, 100L), book(2L, 20L, 100L), book(3L, 10L, 200L));
+
+        assertThat(reranker.rerank(candidates, 3, 0.5)).containsExactly(1L, 2L, 3L);
+        assertThat(reranker(1f, 3f).rerank(candidates, 3, 0.5)).containsExactly(1L, 3L, 2L);
+    }
+
+    @Test
+    void booksWithoutGenresOrAuthorsAreNeverPenalised() {
+        List<BookFeatures> candidates = List.of(
+                book(1L, null, null), book(2L, null, null), book(3L, 10L, 100L));
+
+        assertThat(reranker.rerank(candidates, 3, 0.5)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void limitIsCappedByTheCandidates() {
+        List<BookFeatures> candidates = List.of(book(1L, 10L, 100L), book(2L, 20L, 200L));
+
+        assertThat(reranker.rerank(candidates, 10, 0.7)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(reranker.rerank(candidates, 0, 0.7)).isEmpty();
+        assertThat(reranker.rerank(List.of(), 5, 0.7)).isEmpty();
+    }
+
+    private static MmrReranker reranker(float genreWeight, float authorWeight) {
+        RecsysProperties properties = new RecsysProperties();
+        properties.getDiversity().setGenreWeight(genreWeight);
+        properties.getDiversity().setAuthorWeight(authorWeight);
+        return new MmrReranker(properties);
+    }
+
+    private static BookFeatures book(long id, Long genreId, Long authorId) {
+        return new BookFeatures(id,
+                genreId != null ? Set.of(genreId) : Set.of(),
+                authorId != null ? Set.of(authorId) : Set.of());
+    }
+}
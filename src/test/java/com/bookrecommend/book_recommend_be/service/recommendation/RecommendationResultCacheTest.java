@@ -0,0 +1,116 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.service.interaction.InteractionType;
+import com.bookrecommend.book_recommend_be.service.interaction.UserInteractionEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hits, LRU eviction, expiry and invalidation of the per-user result cache, including writes
+ * that lose the race against an invalidation.
+ */
+class RecommendationResultCacheTest {
+
+    private static final List<Long> BOOKS = List.of(3L, 1L, 2L);
+
+    @Test
+    void returnsWhatWasPutForTheSameModelUserAndLimit() {
+        RecommendationResultCache cache = cache(10, Duration.ofMinutes(1));
+
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+
+        assertThat(cache.get("implicit", 1L, 20)).contains(BOOKS);
+        assertThat(cache.get("implicit", 1L, 10)).isEmpty();
+        assertThat(cache.get("neural", 1L, 20)).isEmpty();
+        assertThat(cache.getStats().getHits()).isEqualTo(1);
+        assertThat(cache.getStats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryWhenFull() {
+        RecommendationResultCache cache = cache(2, Duration.ofMinutes(1));
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+        cache.put("implicit", 2L, 20, BOOKS, cache.generation(2L));
+        cache.get("implicit", 1L, 20);
+
+        cache.put("implicit", 3L, 20, BOOKS, cache.generation(3L));
+
+        assertThat(cache.get("implicit", 1L, 20)).isPresent();
+        assertThat(cache.get("implicit", 2L, 20)).isEmpty();
+        assertThat(cache.get("implicit", 3L, 20)).isPresent();
+        assertThat(cache.getStats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredEntriesAreMisses() {
+        RecommendationResultCache cache = cache(10, Duration.ZERO);
+
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+
+        assertThat(cache.get("implicit", 1L, 20)).isEmpty();
+        assertThat(cache.getStats().getSize()).isZero();
+    }
+
+    @Test
+    void interactionDropsOnlyThatUsersEntries() {
+        RecommendationResultCache cache = cache(10, Duration.ofMinutes(1));
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+        cache.put("implicit", 1L, 40, BOOKS, cache.generation(1L));
+        cache.put("implicit", 2L, 20, BOOKS, cache.generation(2L));
+
+        cache.onUserInteraction(UserInteractionEvent.of(1L, 7L, InteractionType.RATED, 5.0));
+
+        assertThat(cache.get("implicit", 1L, 20)).isEmpty();
+        assertThat(cache.get("implicit", 1L, 40)).isEmpty();
+        assertThat(cache.get("implicit", 2L, 20)).isPresent();
+        assertThat(cache.getStats().getInvalidations()).isEqualTo(2);
+    }
+
+    @Test
+    void writeStartedBeforeAnInvalidationIsDropped() {
+        RecommendationResultCache cache = cache(10, Duration.ofMinutes(1));
+        long generation = cache.generation(1L);
+
+        cache.invalidateUser(1L);
+        cache.put("implicit", 1L, 20, BOOKS, generation);
+
+        assertThat(cache.get("implicit", 1L, 20)).isEmpty();
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+        assertThat(cache.get("implicit", 1L, 20)).contains(BOOKS);
+    }
+
+    @Test
+    void writeStartedBeforeAFlushIsDropped() {
+        RecommendationResultCache cache = cache(10, Duration.ofMinutes(1));
+        long generation = cache.generation(1L);
+
+        cache.invalidateAll();
+        cache.put("implicit", 1L, 20, BOOKS, generation);
+
+        assertThat(cache.get("implicit", 1L, 20)).isEmpty();
+    }
+
+    @Test
+    void disabledCacheNeverStores() {
+        RecsysProperties properties = new RecsysProperties();
+        properties.getCache().setEnabled(false);
+        RecommendationResultCache cache = new RecommendationResultCache(properties);
+
+        cache.put("implicit", 1L, 20, BOOKS, cache.generation(1L));
+
+        assertThat(cache.get("implicit", 1L, 20)).isEmpty();
+        assertThat(cache.getStats().isEnabled()).isFalse();
+    }
+
+    private static RecommendationResultCache cache(int maxEntries, Duration ttl) {
+        RecsysProperties properties = new RecsysProperties();
+        properties.getCache().setMaxEntries(maxEntries);
+        properties.getCache().setTtl(ttl);
+        return new RecommendationResultCache(properties);
+    }
+}
@@ -0,0 +1,163 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.BulkRecommendationLine;
+import com.bookrecommend.book_recommend_be.dto.response.BookResponse;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import com.bookrecommend.book_recommend_be.repository.InteractionJdbcRepository;
+import com.bookrecommend.book_recommend_be.service.book.IBookService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bulk recommendations: batching, request order, per-user errors, and that an export leaves the
+ * live caches, the arm stats and the shadow traffic alone.
+ */
+class RecommendationServiceBulkTest {
+
+    private static final String MODEL = "implicit";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RecsysClient recsysClient = mock(RecsysClient.class);
+    private final IBookService bookService = mock(IBookService.class);
+    private final RecommendationResultCache resultCache = mock(RecommendationResultCache.class);
+    private final RecommendationFallbackService fallbackService = mock(RecommendationFallbackService.class);
+    private final RecsysArmStats armStats = mock(RecsysArmStats.class);
+    private final ShadowTrafficService shadowTrafficService = mock(ShadowTrafficService.class);
+    private final ColdStartRecommendationService coldStartService = mock(ColdStartRecommendationService.class);
+    private final InteractionJdbcRepository interactionRepository = mock(InteractionJdbcRepository.class);
+    private final RecommendationService service = service();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void linesArriveInBatchesAndInRequestOrder() {
+        List<List<BulkRecommendationLine>> batches = new ArrayList<>();
+
+        service.streamBulkRecommendations(List.of(1L, 2L, 3L, 4L, 5L), 2, batches::add);
+
+        assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+        List<BulkRecommendationLine> lines = batches.stream().flatMap(List::stream).toList();
+        assertThat(lines).extracting(BulkRecommendationLine::getUserId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(bookIds(lines.get(0))).containsExactly(10L, 12L);
+        // User 2 answers last within its batch but keeps its place
+        assertThat(bookIds(lines.get(1))).containsExactly(20L, 21L);
+        assertThat(bookIds(lines.get(2))).containsExactly(30L, 31L);
+        assertThat(bookIds(lines.get(3))).containsExactly(90L);
+        assertThat(lines.subList(0, 4)).extracting(BulkRecommendationLine::getError).containsOnlyNulls();
+        assertThat(lines.get(4).getError()).isNotBlank();
+        // One hydration query per batch; the last one has no books to load
+        verify(bookService, times(2)).getBooksByIds(any());
+    }
+
+    @Test
+    void failedUserGetsAnErrorLineWithoutFailingTheBatch() {
+        List<BulkRecommendationLine> lines = new ArrayList<>();
+
+        service.streamBulkRecommendations(List.of(5L, 1L), 2, lines::addAll);
+
+        assertThat(lines).extracting(BulkRecommendationLine::getUserId).containsExactly(5L, 1L);
+        assertThat(lines.get(0).getBooks()).isEmpty();
+        assertThat(lines.get(0).getError()).isNotBlank();
+        assertThat(bookIds(lines.get(1))).containsExactly(10L, 12L);
+        assertThat(lines.get(1).getError()).isNull();
+    }
+
+    @Test
+    void bulkRunHasNoSideEffects() {
+        service.streamBulkRecommendations(List.of(1L, 2L, 3L, 4L), 2, lines -> {
+        });
+
+        verify(coldStartService, never()).isColdStart(anyLong(), eq(true));
+        verify(coldStartService, never()).isColdStart(anyLong());
+        verify(resultCache, never()).put(anyString(), anyLong(), anyInt(), any(), anyLong());
+        verify(shadowTrafficService, never()).mirror(anyString(), anyLong(), anyInt(), any());
+        verify(armStats, never()).recordRequest();
+        verify(armStats, never()).recordCall(anyLong(), anyBoolean(), anyBoolean());
+
+        // The consumed books of user 1 were not kept, so a live request loads them again
+        service.getRecommendations(1L, 2);
+        verify(interactionRepository, times(2)).forEachConsumedBookId(eq(1L), anyDouble(), any());
+        verify(resultCache).put(eq(MODEL), eq(1L), anyInt(), any(), anyLong());
+        verify(armStats).recordRequest();
+    }
+
+    private RecommendationService service() {
+        RecsysProperties properties = new RecsysProperties();
+        properties.getBulk().setBatchSize(2);
+        properties.getBulk().setParallelism(4);
+
+        // User 1 has read book 11
+        doAnswer(invocation -> {
+            if (invocation.<Long>getArgument(0) == 1L) {
+                invocation.<LongConsumer>getArgument(2).accept(11L);
+            }
+            return null;
+        }).when(interactionRepository).forEachConsumedBookId(anyLong(), anyDouble(), any());
+        ConsumedBooksIndex consumedBooksIndex = new ConsumedBooksIndex(properties, interactionRepository);
+
+        when(coldStartService.isColdStart(anyLong(), anyBoolean()))
+                .thenAnswer(invocation -> invocation.<Long>getArgument(0) == 3L);
+        when(coldStartService.getColdStartBookIds(anyInt()))
+                .thenAnswer(invocation -> List.of(30L, 31L, 32L).subList(0, invocation.<Integer>getArgument(0)));
+        RecsysRoutingService routing = mock(RecsysRoutingService.class);
+        when(routing.resolveModelKey(anyLong())).thenReturn(MODEL);
+        when(resultCache.get(anyString(), anyLong(), anyInt())).thenReturn(Optional.empty());
+        RecsysArmStatsRegistry armStatsRegistry = mock(RecsysArmStatsRegistry.class);
+        when(armStatsRegistry.forModel(MODEL)).thenReturn(armStats);
+        when(fallbackService.getFallbackRecommendations(anyLong(), anyInt())).thenReturn(List.of(90L));
+        when(recsysClient.getRecommendedBookIds(eq(MODEL), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long userId = invocation.getArgument(1);
+            if (userId == 2L) {
+                Thread.sleep(50);
+            } else if (userId == 4L) {
+                throw new RecsysUnavailableException("down");
+            } else if (userId == 5L) {
+                throw new IllegalStateException("broken");
+            }
+            return List.of(userId * 10, userId * 10 + 1, userId * 10 + 2);
+        });
+        when(bookService.getBooksByIds(any())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0).stream()
+                .map(RecommendationServiceBulkTest::book)
+                .toList());
+
+        return new RecommendationService(recsysClient, bookService, routing, resultCache, fallbackService,
+                mock(SimilarBooksMaterializationService.class), armStatsRegistry, shadowTrafficService,
+                mock(MmrReranker.class), coldStartService, consumedBooksIndex, properties, executor);
+    }
+
+    private static BookResponse book(Long id) {
+        BookResponse book = new BookResponse();
+        book.setId(id);
+        return book;
+    }
+
+    private static List<Long> bookIds(BulkRecommendationLine line) {
+        return line.getBooks().stream().map(BookResponse::getId).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RecsysArmStatsTest {
+
+    @Test
+    void countsRequestsCallsErrorsAndEmptyResults() {
+        RecsysArmStats arm = new RecsysArmStats();
+
+        arm.recordRequest();
+        arm.recordRequest();
+        arm.recordRequest();
+        arm.recordCall(millis(5), false, false);
+        arm.recordCall(millis(5), true, false);
+        arm.recordCall(millis(5), false, true);
+
+        assertThat(arm.getRequests()).isEqualTo(3);
+        assertThat(arm.getUpstreamCalls()).isEqualTo(3);
+        assertThat(arm.getErrors()).isEqualTo(1);
+        assertThat(arm.getEmptyResults()).isEqualTo(1);
+    }
+
+    @Test
+    void percentilesAreWithinOneBucketOfTheTrueValue() {
+        RecsysArmStats arm = new RecsysArmStats();
+        for (int ms = 1; ms <= 100; ms++) {
+            arm.recordCall(millis(ms), false, false);
+        }
+
+        // Buckets grow by 10%, so the reported upper bound is at most 10% above the sample
+        assertThat(arm.percentileMillis(0.5)).isBetween(50d, 55d);
+        assertThat(arm.percentileMillis(0.95)).isBetween(95d, 104.5d);
+        assertThat(arm.percentileMillis(1.0)).isEqualTo(100d);
+        assertThat(arm.getMaxMillis()).isEqualTo(100d);
+    }
+
+    @Test
+    void percentileNeverExceedsTheMaximum() {
+        RecsysArmStats arm = new RecsysArmStats();
+        arm.recordCall(millis(42), false, false);
+
+        assertThat(arm.percentileMillis(0.99)).isCloseTo(42d, within(0.001));
+    }
+
+    @Test
+    void emptyAndResetArmsReportZero() {
+        RecsysArmStats arm = new RecsysArmStats();
+        assertThat(arm.percentileMillis(0.5)).isZero();
+
+        arm.recordRequest();
+        arm.recordCall(millis(10), true, false);
+        arm.reset();
+
+        assertThat(arm.getRequests()).isZero();
+        assertThat(arm.getUpstreamCalls()).isZero();
+        assertThat(arm.getErrors()).isZero();
+        assertThat(arm.getMaxMillis()).isZero();
+        assertThat(arm.percentileMillis(0.5)).isZero();
+    }
+
+    @Test
+    void extremeLatenciesLandInTheEdgeBuckets() {
+        RecsysArmStats arm = new RecsysArmStats();
+        arm.recordCall(TimeUnit.MICROSECONDS.toNanos(10), false, false);
+        arm.recordCall(TimeUnit.MINUTES.toNanos(5), false, false);
+
+        assertThat(arm.percentileMillis(0.5)).isEqualTo(0.1d);
+        assertThat(arm.percentileMillis(1.0)).isGreaterThanOrEqualTo(60_000d);
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,158 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysCircuitBreaker.State;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CLOSED -> OPEN on the failure rate of the sliding window, OPEN -> HALF_OPEN after the wait,
+ * and HALF_OPEN back to CLOSED or OPEN depending on the probe calls.
+ */
+class RecsysCircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(5).toNanos();
+
+    @Test
+    void staysClosedUntilTheMinimumNumberOfCalls() {
+        RecsysCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            call(breaker, false);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isEqualTo(100D);
+    }
+
+    @Test
+    void opensAtTheFailureRateThresholdAndRejectsCalls() {
+        RecsysCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, false);
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        call(breaker, false);
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+    }
+
+    @Test
+    void slowSuccessesCountAsFailures() {
+        RecsysCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(breaker.tryAcquirePermission()).isTrue();
+            breaker.onSuccess(SLOW);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void oldOutcomesLeaveTheSlidingWindow() {
+        RecsysCircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+        assertThat(breaker.getFailureRate()).isEqualTo(25D);
+
+        // Window of 4: the early failure is pushed out
+        call(breaker, true);
+
+        assertThat(breaker.getFailureRate()).isZero();
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void halfOpenProbesCloseTheBreakerWhenAllSucceed() {
+        RecsysCircuitBreaker breaker = openBreaker(Duration.ZERO);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        assertThat(breaker.tryAcquirePermission()).as("only two probes are let through").isFalse();
+        breaker.onSuccess(FAST);
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+        breaker.onSuccess(FAST);
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.getFailureRate()).isZero();
+    }
+
+    @Test
+    void failedHalfOpenProbeReopensTheBreaker() {
+        RecsysCircuitBreaker breaker = openBreaker(Duration.ofMillis(50));
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        sleep(Duration.ofMillis(60));
+
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        breaker.onError(FAST);
+
+        assertThat(breaker.tryAcquirePermission()).isFalse();
+        sleep(Duration.ofMillis(60));
+        assertThat(breaker.getState()).isEqualTo(State.HALF_OPEN);
+    }
+
+    @Test
+    void disabledBreakerAlwaysAdmits() {
+        RecsysProperties.CircuitBreaker config = config(Duration.ofMinutes(1));
+        config.setEnabled(false);
+        RecsysCircuitBreaker breaker = new RecsysCircuitBreaker("implicit", config);
+
+        for (int i = 0; i < 10; i++) {
+            call(breaker, false);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+    }
+
+    private static RecsysCircuitBreaker openBreaker(Duration waitInOpen) {
+        RecsysCircuitBreaker breaker = breaker(waitInOpen);
+        for (int i = 0; i < 4; i++) {
+            call(breaker, false);
+        }
+        return breaker;
+    }
+
+    private static void call(RecsysCircuitBreaker breaker, boolean succeeds) {
+        assertThat(breaker.tryAcquirePermission()).isTrue();
+        if (succeeds) {
+            breaker.onSuccess(FAST);
+        } else {
+            breaker.onError(FAST);
+        }
+    }
+
+    private static RecsysCircuitBreaker breaker(Duration waitInOpen) {
+        return new RecsysCircuitBreaker("implicit", config(waitInOpen));
+    }
+
+    private static RecsysProperties.CircuitBreaker config(Duration waitInOpen) {
+        RecsysProperties.CircuitBreaker config = new RecsysProperties.CircuitBreaker();
+        config.setFailureRateThreshold(50);
+        config.setSlidingWindowSize(4);
+        config.setMinimumNumberOfCalls(4);
+        config.setSlowCallDurationThreshold(Duration.ofSeconds(2));
+        config.setWaitDurationInOpenState(waitInOpen);
+        config.setPermittedCallsInHalfOpenState(2);
+        return config;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationItem;
+import com.bookrecommend.book_recommend_be.dto.recommendation.RecommendationsResponse;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Hedged reads against a model with two replicas. Both replicas share one mocked RestTemplate,
+ * so the scripted answers apply in call order whichever replica is chosen first.
+ */
+class RecsysClientHedgingTest {
+
+    private static final String MODEL = "implicit";
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final RecsysProperties properties = properties();
+    private final RecsysClient client = client();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fastFirstReplicaIsNotHedged() {
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class)))
+                .thenReturn(response(1L, 2L));
+
+        assertThat(client.getRecommendedBookIds(MODEL, 7L, 2)).containsExactly(1L, 2L);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(RecommendationsResponse.class));
+    }
+
+    @Test
+    void slowFirstReplicaIsHedgedAndInterrupted() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class))).thenAnswer(invocation -> {
+            if (calls.getAndIncrement() == 0) {
+                try {
+                    Thread.sleep(Duration.ofSeconds(10));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw new ResourceAccessException("cancelled");
+                }
+            }
+            return response(3L);
+        });
+
+        long startedAt = System.nanoTime();
+        List<Long> bookIds = client.getRecommendedBookIds(MODEL, 7L, 1);
+
+        assertThat(bookIds).containsExactly(3L);
+        assertThat(calls).hasValue(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - startedAt)).isLessThan(Duration.ofSeconds(5));
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void failedFirstReplicaIsRetriedOnTheOther() {
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class)))
+                .thenThrow(new ResourceAccessException("connection refused"))
+                .thenReturn(response(4L));
+
+        assertThat(client.getRecommendedBookIds(MODEL, 7L, 1)).containsExactly(4L);
+    }
+
+    @Test
+    void bothReplicasFailing() {
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+
+        assertThatThrownBy(() -> client.getRecommendedBookIds(MODEL, 7L, 1))
+                .isInstanceOf(RecsysUnavailableException.class);
+        verify(restTemplate, times(2)).getForObject(anyString(), eq(RecommendationsResponse.class));
+    }
+
+    @Test
+    void disabledHedgingSendsOneRequest() {
+        properties.getHedging().setEnabled(false);
+        when(restTemplate.getForObject(anyString(), eq(RecommendationsResponse.class)))
+                .thenThrow(new ResourceAccessException("connection refused"));
+
+        assertThatThrownBy(() -> client.getRecommendedBookIds(MODEL, 7L, 1))
+                .isInstanceOf(RecsysUnavailableException.class);
+        verify(restTemplate, times(1)).getForObject(anyString(), eq(RecommendationsResponse.class));
+    }
+
+    private RecsysClient client() {
+        RecsysRoutingService routing = mock(RecsysRoutingService.class);
+        when(routing.getLocalRecommender(MODEL)).thenReturn(Optional.empty());
+        return new RecsysClient(restTemplate, routing, new RecsysCircuitBreakerRegistry(properties),
+                new RecsysReplicaRegistry(properties), properties, executor);
+    }
+
+    private static RecsysProperties properties() {
+        RecsysProperties.Model model = new RecsysProperties.Model();
+        model.setBaseUrl("http://replica-a/api/v1");
+        model.setReplicas(List.of("http://replica-b/api/v1"));
+        RecsysProperties properties = new RecsysProperties();
+        properties.setModels(Map.of(MODEL, model));
+        properties.setDefaultModel(MODEL);
+        properties.getHedging().setMaxDelay(Duration.ofMillis(50));
+        return properties;
+    }
+
+    private static RecommendationsResponse response(Long... bookIds) {
+        List<RecommendationItem> items = Arrays.stream(bookIds)
+                .map(bookId -> new RecommendationItem(bookId, 1.0, null, null))
+                .toList();
+        return new RecommendationsResponse(7L, bookIds.length, items);
+    }
+}
@@ -0,0 +1,168 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.config.RecsysProperties.Model.Endpoint;
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysHealthMonitor.Status;
+import com.bookrecommend.book_recommend_be.service.recommendation.local.LocalRecommender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Probe hysteresis and failover target selection. HTTP probes go to a stubbed RestTemplate that
+ * fails for the hosts listed in {@link #unreachable}.
+ */
+class RecsysHealthMonitorTest {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final Set<String> unreachable = ConcurrentHashMap.newKeySet();
+    private final LocalRecommender cooccurrence = mock(LocalRecommender.class);
+    private final LocalRecommender embedding = mock(LocalRecommender.class);
+    private final RecsysHealthMonitor monitor = monitor();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void modelGoesDownOnlyAfterConsecutiveFailedProbes() {
+        unreachable.add("implicit");
+
+        probe(2);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.UNKNOWN);
+        assertThat(monitor.isHealthy("implicit")).isTrue();
+
+        // A successful probe in between restarts the count
+        unreachable.remove("implicit");
+        probe(1);
+        unreachable.add("implicit");
+        probe(2);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.UP);
+
+        probe(1);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.DOWN);
+        assertThat(monitor.isHealthy("implicit")).isFalse();
+        assertThat(monitor.getHealth("implicit").lastError()).contains("http://implicit");
+    }
+
+    @Test
+    void modelRecoversAfterConsecutiveSuccessfulProbes() {
+        unreachable.add("implicit");
+        probe(3);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.DOWN);
+
+        unreachable.remove("implicit");
+        probe(1);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.DOWN);
+        probe(1);
+        assertThat(monitor.getHealth("implicit").status()).isEqualTo(Status.UP);
+        assertThat(monitor.findFailoverTarget("neural")).contains("implicit");
+    }
+
+    @Test
+    void failoverSkipsModelsMissingAnEndpointOrOnlineLearning() {
+        unreachable.add("implicit");
+        probe(3);
+
+        // basic lacks online learning, the local models lack the diversity endpoint
+        assertThat(monitor.findFailoverTarget("implicit")).contains("neural");
+
+        unreachable.add("neural");
+        probe(3);
+        assertThat(monitor.findFailoverTarget("implicit")).isEmpty();
+
+        unreachable.clear();
+        probe(2);
+        assertThat(monitor.findFailoverTarget("implicit")).contains("neural");
+    }
+
+    @Test
+    void localModelDoesNotFailOverToAModelWithoutOnlineLearning() {
+        when(cooccurrence.isReady()).thenReturn(false);
+        unreachable.add("neural");
+        probe(3);
+        assertThat(monitor.getHealth("cooccurrence").status()).isEqualTo(Status.DOWN);
+
+        // embedding is local too but does not learn online, so an HTTP model that does wins
+        assertThat(monitor.findFailoverTarget("cooccurrence")).contains("implicit");
+
+        unreachable.add("implicit");
+        probe(3);
+        assertThat(monitor.findFailoverTarget("cooccurrence")).isEmpty();
+    }
+
+    @Test
+    void modelsWithoutEndpointRestrictionsCanFailOverToAnyHealthyModel() {
+        probe(1);
+
+        assertThat(monitor.findFailoverTarget("embedding")).contains("cooccurrence");
+        assertThat(monitor.findFailoverTarget("unknown")).isPresent();
+    }
+
+    private void probe(int times) {
+        for (int i = 0; i < times; i++) {
+            monitor.probeAll();
+        }
+    }
+
+    private RecsysHealthMonitor monitor() {
+        when(restTemplate.getForEntity(anyString(), eq(String.class))).thenAnswer(invocation -> {
+            String host = URI.create(invocation.getArgument(0)).getHost();
+            if (unreachable.contains(host)) {
+                throw new ResourceAccessException("connection refused");
+            }
+            return ResponseEntity.ok("UP");
+        });
+        when(cooccurrence.getKey()).thenReturn("cooccurrence");
+        when(cooccurrence.isReady()).thenReturn(true);
+        when(embedding.getKey()).thenReturn("embedding");
+        when(embedding.isReady()).thenReturn(true);
+
+        Map<String, RecsysProperties.Model> models = new LinkedHashMap<>();
+        models.put("implicit", httpModel("implicit", true));
+        models.put("basic", httpModel("basic", false));
+        models.put("neural", httpModel("neural", true));
+        models.put("cooccurrence", localModel(true));
+        models.put("embedding", localModel(false));
+        RecsysProperties properties = new RecsysProperties();
+        properties.setModels(models);
+        properties.getHealth().setFailureThreshold(3);
+        properties.getHealth().setSuccessThreshold(2);
+        return new RecsysHealthMonitor(properties, restTemplate, List.of(cooccurrence, embedding), executor);
+    }
+
+    private static RecsysProperties.Model httpModel(String host, boolean onlineLearning) {
+        RecsysProperties.Model model = new RecsysProperties.Model();
+        model.setBaseUrl("http://" + host + "/api/v1");
+        model.setSupportsOnlineLearning(onlineLearning);
+        return model;
+    }
+
+    private static RecsysProperties.Model localModel(boolean onlineLearning) {
+        RecsysProperties.Model model = new RecsysProperties.Model();
+        model.setLocal(true);
+        model.setSupportsOnlineLearning(onlineLearning);
+        model.setEndpoints(EnumSet.of(Endpoint.RECOMMENDATIONS, Endpoint.SIMILAR));
+        return model;
+    }
+}
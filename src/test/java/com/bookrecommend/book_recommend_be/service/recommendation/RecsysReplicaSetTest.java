@@ -0,0 +1,119 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.service.recommendation.RecsysReplicaSet.Replica;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecsysReplicaSetTest {
+
+    private static final int CHOICES = 5_000;
+
+    @Test
+    void singleReplicaIsAlwaysChosen() {
+        RecsysReplicaSet replicas = replicaSet("http://a");
+
+        Replica only = replicas.choose(null);
+
+        assertThat(replicas.choose(only)).isSameAs(only);
+    }
+
+    @Test
+    void excludedReplicaIsNeverChosen() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b", "http://c");
+        Replica excluded = replicas.choose(null);
+
+        for (int i = 0; i < CHOICES; i++) {
+            assertThat(replicas.choose(excluded)).isNotSameAs(excluded);
+        }
+    }
+
+    @Test
+    void fasterReplicaGetsMostTraffic() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b", "http://c");
+        Map<String, Replica> byUrl = byUrl(replicas);
+        replicas.record(byUrl.get("http://a"), millis(10), false);
+        replicas.record(byUrl.get("http://b"), millis(100), false);
+        replicas.record(byUrl.get("http://c"), millis(100), false);
+
+        Map<String, Integer> counts = choices(replicas);
+
+        // The fast replica wins every pair it is drawn into, two thirds of the pairs
+        assertThat(counts.get("http://a") / (double) CHOICES).isGreaterThan(0.6);
+    }
+
+    @Test
+    void failuresCostAtLeastThePenalty() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b");
+        Map<String, Replica> byUrl = byUrl(replicas);
+        replicas.record(byUrl.get("http://a"), millis(1), true);
+        replicas.record(byUrl.get("http://b"), millis(50), false);
+
+        Map<String, Integer> counts = choices(replicas);
+
+        // Only exploration still reaches the failing replica
+        assertThat(counts.getOrDefault("http://a", 0) / (double) CHOICES).isLessThan(0.05);
+    }
+
+    @Test
+    void hedgeDelayStartsAtTheMaximum() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b");
+
+        assertThat(replicas.getHedgeDelayNanos()).isEqualTo(millis(500));
+    }
+
+    @Test
+    void hedgeDelayFollowsTheQuantileOfSuccessfulCalls() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b");
+        Replica replica = replicas.choose(null);
+        for (int ms = 1; ms <= 32; ms++) {
+            replicas.record(replica, millis(ms), false);
+            // Failed and cancelled calls stay out of the window
+            replicas.record(replica, millis(400), true);
+            replicas.recordCancelled(replica, millis(400));
+        }
+
+        assertThat(replicas.getHedgeDelayNanos()).isEqualTo(millis(31));
+    }
+
+    @Test
+    void hedgeDelayIsClampedToTheMinimum() {
+        RecsysReplicaSet replicas = replicaSet("http://a", "http://b");
+        Replica replica = replicas.choose(null);
+        for (int i = 0; i < 32; i++) {
+            replicas.record(replica, millis(1), false);
+        }
+
+        assertThat(replicas.getHedgeDelayNanos()).isEqualTo(millis(10));
+    }
+
+    private static Map<String, Integer> choices(RecsysReplicaSet replicas) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < CHOICES; i++) {
+            counts.merge(replicas.choose(null).getBaseUrl(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private static Map<String, Replica> byUrl(RecsysReplicaSet replicas) {
+        Map<String, Replica> byUrl = new HashMap<>();
+        while (byUrl.size() < replicas.size()) {
+            Replica replica = replicas.choose(null);
+            byUrl.put(replica.getBaseUrl(), replica);
+        }
+        return byUrl;
+    }
+
+    private static RecsysReplicaSet replicaSet(String... baseUrls) {
+        return new RecsysReplicaSet(List.of(baseUrls), millis(1_000), 0.95, millis(10), millis(500));
+    }
+
+    private static long millis(long value) {
+        return TimeUnit.MILLISECONDS.toNanos(value);
+    }
+}
@@ -0,0 +1,128 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Weighted rendezvous routing of users to A/B arms.
+ */
+class RecsysRoutingServiceTest {
+
+    private static final int USERS = 20_000;
+
+    private final RecsysRoutingService routing = routing("implicit", "neural", "cooccurrence");
+
+    @Test
+    void withoutASplitEveryoneGetsTheActiveModel() {
+        assertThat(routing.resolveModelKey(1L)).isEqualTo("implicit");
+        assertThat(routing.resolveModelKey(null)).isEqualTo("implicit");
+    }
+
+    @Test
+    void anonymousRequestsIgnoreTheSplit() {
+        routing.updateTrafficWeights(Map.of("neural", 1));
+
+        assertThat(routing.resolveModelKey(null)).isEqualTo("implicit");
+        assertThat(routing.resolveModelKey(1L)).isEqualTo("neural");
+    }
+
+    @Test
+    void usersAreSplitInProportionToTheWeights() {
+        routing.updateTrafficWeights(Map.of("implicit", 3, "neural", 1));
+
+        Map<String, Integer> counts = new HashMap<>();
+        assignments().values().forEach(key -> counts.merge(key, 1, Integer::sum));
+
+        assertThat(counts.get("implicit") / (double) USERS).isCloseTo(0.75, within(0.02));
+        assertThat(counts.get("neural") / (double) USERS).isCloseTo(0.25, within(0.02));
+    }
+
+    @Test
+    void assignmentIsSticky() {
+        routing.updateTrafficWeights(Map.of("implicit", 1, "neural", 1, "cooccurrence", 1));
+
+        assertThat(assignments()).isEqualTo(assignments());
+    }
+
+    @Test
+    void raisingOneWeightOnlyMovesUsersIntoThatArm() {
+        routing.updateTrafficWeights(Map.of("implicit", 1, "neural", 1, "cooccurrence", 1));
+        Map<Long, String> before = assignments();
+
+        routing.updateTrafficWeights(Map.of("implicit", 1, "neural", 1, "cooccurrence", 2));
+        Map<Long, String> after = assignments();
+
+        long moved = 0;
+        for (Map.Entry<Long, String> entry : before.entrySet()) {
+            String now = after.get(entry.getKey());
+            if (!now.equals(entry.getValue())) {
+                assertThat(now).isEqualTo("cooccurrence");
+                moved++;
+            }
+        }
+        // cooccurrence grows from a third to half of the users
+        assertThat(moved / (double) USERS).isCloseTo(1 / 6d, within(0.02));
+    }
+
+    @Test
+    void droppingAnArmOnlyMovesItsUsers() {
+        routing.updateTrafficWeights(Map.of("implicit", 1, "neural", 1, "cooccurrence", 1));
+        Map<Long, String> before = assignments();
+
+        routing.updateTrafficWeights(Map.of("implicit", 1, "neural", 1, "cooccurrence", 0));
+        Map<Long, String> after = assignments();
+
+        assertThat(routing.getTrafficWeights()).containsOnlyKeys("implicit", "neural");
+        before.forEach((userId, key) -> {
+            if (!key.equals("cooccurrence")) {
+                assertThat(after.get(userId)).isEqualTo(key);
+            }
+        });
+        assertThat(after.values()).doesNotContain("cooccurrence");
+    }
+
+    @Test
+    void rejectsUnknownModelsAndNegativeWeights() {
+        assertThatThrownBy(() -> routing.updateTrafficWeights(Map.of("missing", 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> routing.updateTrafficWeights(Map.of("neural", -1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(routing.getTrafficWeights()).isEmpty();
+    }
+
+    private Map<Long, String> assignments() {
+        Map<Long, String> assignments = new HashMap<>();
+        for (long userId = 1; userId <= USERS; userId++) {
+            assignments.put(userId, routing.resolveModelKey(userId));
+        }
+        return assignments;
+    }
+
+    private static RecsysRoutingService routing(String... modelKeys) {
+        RecsysProperties properties = new RecsysProperties();
+        Map<String, RecsysProperties.Model> models = new LinkedHashMap<>();
+        for (String key : modelKeys) {
+            RecsysProperties.Model model = new RecsysProperties.Model();
+            model.setBaseUrl("http://localhost:8001/api/v1");
+            models.put(key, model);
+        }
+        properties.setModels(models);
+        properties.setDefaultModel(modelKeys[0]);
+        properties.getHealth().setEnabled(false);
+        return new RecsysRoutingService(properties,
+                new RecommendationResultCache(properties),
+                new RecsysCircuitBreakerRegistry(properties),
+                mock(RecsysHealthMonitor.class),
+                List.of());
+    }
+}
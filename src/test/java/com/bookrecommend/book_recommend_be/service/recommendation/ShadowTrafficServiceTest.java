@@ -0,0 +1,152 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.dto.recommendation.ShadowTrafficStats;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sampling, dropping when the bounded pool is saturated, and the overlap and error statistics
+ * of the shadow model, which is a stubbed RecsysClient.
+ */
+class ShadowTrafficServiceTest {
+
+    private static final String PRIMARY = "implicit";
+    private static final String SHADOW = "neural";
+
+    private final RecsysProperties properties = new RecsysProperties();
+    private final RecsysClient recsysClient = mock(RecsysClient.class);
+    private final RecsysRoutingService routing = mock(RecsysRoutingService.class);
+    private ShadowTrafficService service;
+
+    @AfterEach
+    void shutDown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void mirrorsAboutTheSampledFractionOfRequests() {
+        properties.getShadow().setQueueCapacity(10_000);
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), anyLong(), anyInt())).thenReturn(List.of());
+        service = service(0.25);
+
+        for (long userId = 1; userId <= 4000; userId++) {
+            service.mirror(PRIMARY, userId, 10, List.of());
+        }
+
+        ShadowTrafficStats stats = service.getStats();
+        assertThat(stats.getDropped()).isZero();
+        assertThat(stats.getMirrored()).isBetween(800L, 1200L);
+    }
+
+    @Test
+    void requestsServedByTheShadowModelOrWithoutUserAreNotMirrored() {
+        service = service(1.0);
+
+        service.mirror(SHADOW, 1L, 10, List.of(1L));
+        service.mirror(PRIMARY, null, 10, List.of(1L));
+
+        assertThat(service.getStats().getMirrored()).isZero();
+        verify(recsysClient, never()).getRecommendedBookIds(anyString(), anyLong(), anyInt());
+    }
+
+    @Test
+    void requestsBeyondThePoolAndQueueAreDroppedAndCounted() throws InterruptedException {
+        properties.getShadow().setMaxConcurrency(1);
+        properties.getShadow().setQueueCapacity(2);
+        CountDownLatch release = new CountDownLatch(1);
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), anyLong(), anyInt())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(1L);
+        });
+        service = service(1.0);
+
+        // One call runs and blocks, two wait in the queue, the rest are rejected
+        for (long userId = 1; userId <= 5; userId++) {
+            service.mirror(PRIMARY, userId, 10, List.of(1L));
+        }
+
+        ShadowTrafficStats stats = service.getStats();
+        assertThat(stats.getMirrored()).isEqualTo(3);
+        assertThat(stats.getDropped()).isEqualTo(2);
+
+        release.countDown();
+        awaitSamples(3);
+        assertThat(service.getStats().getMeanOverlap()).isEqualTo(1d);
+    }
+
+    @Test
+    void statsTrackOverlapWithThePrimaryAnswerAndErrors() throws InterruptedException {
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), eq(1L), anyInt())).thenReturn(List.of(2L, 4L, 9L));
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), eq(2L), anyInt())).thenReturn(List.of(5L, 6L, 7L, 8L));
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), eq(3L), anyInt()))
+                .thenThrow(new RecsysUnavailableException("down"));
+        service = service(1.0);
+
+        service.mirror(PRIMARY, 1L, 4, List.of(1L, 2L, 3L, 4L));
+        service.mirror(PRIMARY, 2L, 4, List.of(5L, 6L, 7L, 8L));
+        service.mirror(PRIMARY, 3L, 4, List.of(1L, 2L));
+        awaitSamples(3);
+
+        ShadowTrafficStats stats = service.getStats();
+        assertThat(stats.isEnabled()).isTrue();
+        assertThat(stats.getModelKey()).isEqualTo(SHADOW);
+        assertThat(stats.getErrors()).isEqualTo(1);
+        assertThat(stats.getErrorRate()).isCloseTo(1d / 3, within(1e-9));
+        // Half of the first primary list and all of the second; the failed call does not count
+        assertThat(stats.getMeanOverlap()).isCloseTo(0.75, within(1e-9));
+    }
+
+    @Test
+    void reconfiguringDiscardsStatisticsAndRejectsInvalidSettings() throws InterruptedException {
+        when(recsysClient.getRecommendedBookIds(eq(SHADOW), anyLong(), anyInt())).thenReturn(List.of(1L));
+        service = service(1.0);
+        service.mirror(PRIMARY, 1L, 10, List.of(1L));
+        awaitSamples(1);
+
+        ShadowTrafficStats stats = service.configure(SHADOW, 0.5);
+        assertThat(stats.getSamples()).isZero();
+        assertThat(stats.getMirrored()).isZero();
+        assertThat(stats.getSampleRate()).isEqualTo(0.5);
+
+        assertThatThrownBy(() -> service.configure("unknown", 0.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.configure(SHADOW, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(service.disable().isEnabled()).isFalse();
+    }
+
+    private ShadowTrafficService service(double sampleRate) {
+        when(routing.hasModel(PRIMARY)).thenReturn(true);
+        when(routing.hasModel(SHADOW)).thenReturn(true);
+        properties.getShadow().setEnabled(true);
+        properties.getShadow().setModelKey(SHADOW);
+        properties.getShadow().setSampleRate(sampleRate);
+        return new ShadowTrafficService(properties, recsysClient, routing);
+    }
+
+    private void awaitSamples(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (service.getStats().getSamples() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(service.getStats().getSamples()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,193 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import com.bookrecommend.book_recommend_be.exceptions.RecsysUnavailableException;
+import com.bookrecommend.book_recommend_be.repository.BookRepository;
+import com.bookrecommend.book_recommend_be.repository.SimilarBooksJdbcRepository;
+import com.bookrecommend.book_recommend_be.repository.SimilarBooksJdbcRepository.JobCheckpoint;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The similar books job against a real PostgreSQL built from init_db.sql: the lease taken with
+ * an upsert, resuming from the checkpoint and the stale delete at the end of a run. The model
+ * and the book walk are stubbed; the job tables are real.
+ */
+class SimilarBooksMaterializationPostgresTest {
+
+    private static final String SCHEMA = "book_recommendation_system";
+    private static final String MODEL = "implicit";
+    private static final List<Long> VISIBLE_BOOKS = List.of(1L, 2L, 3L, 4L, 5L, 6L);
+
+    private static EmbeddedPostgres postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final RecsysClient recsysClient = mock(RecsysClient.class);
+    private SimilarBooksJdbcRepository repository;
+    private SimilarBooksMaterializationService service;
+
+    @BeforeAll
+    static void startPostgres() throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder()
+                .setLocaleConfig("encoding", "UTF8")
+                .setLocaleConfig("locale", "C")
+                .start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("init_db.sql")));
+        }
+        jdbcTemplate = new JdbcTemplate(postgres.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE " + SCHEMA + ".books, " + SCHEMA + ".similar_books_job RESTART IDENTITY CASCADE");
+        for (long bookId = 1; bookId <= 7; bookId++) {
+            jdbcTemplate.update("INSERT INTO " + SCHEMA + ".books (book_id, title, description, cover_image_url) VALUES (?, ?, 'd', 'c')",
+                    bookId, "Book " + bookId);
+        }
+
+        RecsysProperties properties = new RecsysProperties();
+        properties.getMaterialization().setBatchSize(2);
+        properties.getMaterialization().setParallelism(2);
+        RecsysRoutingService routing = mock(RecsysRoutingService.class);
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findVisibleBookIdsAfter(anyLong(), any())).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return VISIBLE_BOOKS.stream().filter(id -> id > afterId).limit(page.getPageSize()).toList();
+        });
+        repository = new SimilarBooksJdbcRepository(jdbcTemplate, SCHEMA);
+        service = new SimilarBooksMaterializationService(properties, routing, recsysClient, bookRepository,
+                repository, executor);
+    }
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void leaseIsExclusiveUntilTheHeartbeatExpires() {
+        JobCheckpoint first = repository.claim(MODEL, Duration.ofMinutes(10)).orElseThrow();
+        repository.saveProgress(MODEL, 4L, 4L, 0L);
+
+        assertThat(repository.claim(MODEL, Duration.ofMinutes(10))).isEmpty();
+
+        jdbcTemplate.update("UPDATE " + SCHEMA + ".similar_books_job SET heartbeat_at = now() - interval '1 hour'");
+        JobCheckpoint taken = repository.claim(MODEL, Duration.ofMinutes(10)).orElseThrow();
+        assertThat(taken.lastBookId()).isEqualTo(4L);
+        assertThat(taken.runStartedAt()).isEqualTo(first.runStartedAt());
+    }
+
+    @Test
+    void completedJobStartsOverFromTheFirstBook() {
+        repository.claim(MODEL, Duration.ofMinutes(10));
+        repository.saveProgress(MODEL, 6L, 6L, 1L);
+        repository.finish(MODEL, SimilarBooksJdbcRepository.STATUS_COMPLETED);
+
+        JobCheckpoint next = repository.claim(MODEL, Duration.ofMinutes(10)).orElseThrow();
+
+        assertThat(next.status()).isEqualTo(SimilarBooksJdbcRepository.STATUS_RUNNING);
+        assertThat(next.lastBookId()).isZero();
+        assertThat(next.processed()).isZero();
+        assertThat(next.failed()).isZero();
+    }
+
+    @Test
+    void failedRunResumesFromItsCheckpoint() {
+        // The model goes away after the first batch
+        when(recsysClient.getSimilarBookIds(eq(MODEL), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long bookId = invocation.getArgument(1);
+            if (bookId > 2) {
+                throw new RecsysUnavailableException("down");
+            }
+            return List.of(bookId + 10);
+        });
+
+        service.refresh(MODEL);
+
+        JobCheckpoint stopped = repository.findCheckpoint(MODEL).orElseThrow();
+        assertThat(stopped.status()).isEqualTo(SimilarBooksJdbcRepository.STATUS_FAILED);
+        assertThat(stopped.lastBookId()).isEqualTo(2L);
+
+        when(recsysClient.getSimilarBookIds(eq(MODEL), anyLong(), anyInt()))
+                .thenAnswer(invocation -> List.of((long) invocation.getArgument(1) + 10));
+        service.refresh(MODEL);
+
+        JobCheckpoint completed = repository.findCheckpoint(MODEL).orElseThrow();
+        assertThat(completed.status()).isEqualTo(SimilarBooksJdbcRepository.STATUS_COMPLETED);
+        assertThat(completed.runStartedAt()).isEqualTo(stopped.runStartedAt());
+        assertThat(completed.processed()).isEqualTo(6L);
+        assertThat(storedBookIds()).containsExactlyInAnyOrderElementsOf(VISIBLE_BOOKS);
+        // Books 1 and 2 were stored before the failure and not requested again
+        verify(recsysClient, times(1)).getSimilarBookIds(eq(MODEL), eq(1L), anyInt());
+        verify(recsysClient, times(1)).getSimilarBookIds(eq(MODEL), eq(2L), anyInt());
+    }
+
+    @Test
+    void staleDeleteKeepsTheListsOfBooksTheModelFailedFor() {
+        jdbcTemplate.update("""
+                INSERT INTO %s.similar_books (model_key, book_id, similar_book_ids, computed_at)
+                VALUES ('%s', 3, '{30}', now() - interval '1 day'),
+                       ('%s', 7, '{70}', now() - interval '1 day')
+                """.formatted(SCHEMA, MODEL, MODEL));
+        when(recsysClient.getSimilarBookIds(eq(MODEL), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long bookId = invocation.getArgument(1);
+            if (bookId == 3) {
+                throw new RecsysUnavailableException("timeout");
+            }
+            return List.of(bookId + 10);
+        });
+
+        service.refresh(MODEL);
+
+        JobCheckpoint completed = repository.findCheckpoint(MODEL).orElseThrow();
+        assertThat(completed.status()).isEqualTo(SimilarBooksJdbcRepository.STATUS_COMPLETED);
+        assertThat(completed.failed()).isEqualTo(1L);
+        assertThat(repository.findSimilarBookIds(MODEL, 3L)).contains(List.of(30L));
+        assertThat(repository.findSimilarBookIds(MODEL, 4L)).contains(List.of(14L));
+        // Book 7 is no longer visible, so its list is stale
+        assertThat(repository.findSimilarBookIds(MODEL, 7L)).isEmpty();
+        assertThat(storedBookIds()).containsExactlyInAnyOrderElementsOf(VISIBLE_BOOKS);
+    }
+
+    private Set<Long> storedBookIds() {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT book_id FROM " + SCHEMA + ".similar_books WHERE model_key = ?", Long.class, MODEL));
+    }
+}
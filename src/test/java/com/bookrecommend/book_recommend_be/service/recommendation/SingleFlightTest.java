@@ -0,0 +1,140 @@
+package com.bookrecommend.book_recommend_be.service.recommendation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> calls = startCallers(() -> flights.execute("book-1", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return 42;
+        }));
+        awaitCoalesced(flights, CALLERS - 1);
+        release.countDown();
+
+        for (Future<Integer> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo(42);
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void waitingCallersSeeTheLoadersException() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> calls = startCallers(() -> flights.execute("book-1", () -> {
+            await(release);
+            throw new IllegalStateException("model down");
+        }));
+        awaitCoalesced(flights, CALLERS - 1);
+        release.countDown();
+
+        for (Future<Integer> call : calls) {
+            assertThatThrownBy(() -> call.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .cause()
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("model down");
+        }
+    }
+
+    @Test
+    void completedCallsAreNotCached() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        flights.execute("book-1", loads::incrementAndGet);
+        int second = flights.execute("book-1", loads::incrementAndGet);
+
+        assertThat(second).isEqualTo(2);
+        assertThat(flights.getCoalescedCount()).isZero();
+    }
+
+    @Test
+    void failedCallDoesNotBlockTheNextOne() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+
+        assertThatThrownBy(() -> flights.execute("book-1", () -> {
+            throw new IllegalStateException("model down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(flights.execute("book-1", () -> 7)).isEqualTo(7);
+    }
+
+    @Test
+    void differentKeysLoadIndependently() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        Future<String> first = executor.submit(() -> flights.execute("book-1", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "one";
+        }));
+        Future<String> second = executor.submit(() -> flights.execute("book-2", () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+            return "two";
+        }));
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("one");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("two");
+        assertThat(flights.getCoalescedCount()).isZero();
+    }
+
+    private List<Future<Integer>> startCallers(Callable<Integer> call) {
+        List<Future<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            calls.add(executor.submit(call));
+        }
+        return calls;
+    }
+
+    private static void awaitCoalesced(SingleFlight<?, ?> flights, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (flights.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(flights.getCoalescedCount()).isEqualTo(expected);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
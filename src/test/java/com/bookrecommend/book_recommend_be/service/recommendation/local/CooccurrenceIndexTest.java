@@ -0,0 +1,110 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Neighbour lists and recommendations checked against cosines worked out by hand for
+ * <pre>
+ *          A  B  C  D
+ *   user 1 x  x
+ *   user 2 x  x  x
+ *   user 3    x  x
+ *   user 4       x  x
+ * </pre>
+ * Column lengths are A=2, B=3, C=3, D=1, so cos(A,B) = 2/sqrt(6), cos(A,C) = 1/sqrt(6),
+ * cos(B,C) = 2/3 and cos(C,D) = 1/sqrt(3).
+ */
+class CooccurrenceIndexTest {
+
+    private static final long A = 10;
+    private static final long B = 20;
+    private static final long C = 30;
+    private static final long D = 40;
+
+    @Test
+    void neighboursAreRankedByCosine() {
+        CooccurrenceIndex index = index(10, matrix());
+
+        assertScores(index.similar(A, 10), List.of(B, C), 2 / Math.sqrt(6), 1 / Math.sqrt(6));
+        assertScores(index.similar(C, 10), List.of(B, D, A), 2d / 3, 1 / Math.sqrt(3), 1 / Math.sqrt(6));
+        assertScores(index.similar(D, 10), List.of(C), 1 / Math.sqrt(3));
+        assertThat(index.similar(C, 1)).extracting(LocalRecommender.ScoredBook::bookId).containsExactly(B);
+        assertThat(index.similar(99, 10)).isEmpty();
+    }
+
+    @Test
+    void recommendationsSumNeighbourScoresOfUnseenBooks() {
+        CooccurrenceIndex index = index(10, matrix());
+
+        // User 1 saw A and B: C is a neighbour of both, D of neither
+        assertScores(index.recommend(1, 10), List.of(C), 1 / Math.sqrt(6) + 2d / 3);
+        // User 3 saw B and C: A through both, D through C
+        assertScores(index.recommend(3, 10), List.of(A, D), 2 / Math.sqrt(6) + 1 / Math.sqrt(6), 1 / Math.sqrt(3));
+        assertThat(index.recommend(3, 1)).extracting(LocalRecommender.ScoredBook::bookId).containsExactly(A);
+        assertThat(index.recommend(99, 10)).isEmpty();
+    }
+
+    @Test
+    void usersWithTooManyBooksDoNotCount() {
+        // User 2 has three books, so only users 1, 3 and 4 co-occur; norms still use every entry
+        CooccurrenceIndex index = index(2, matrix());
+
+        assertScores(index.similar(A, 10), List.of(B), 1 / Math.sqrt(6));
+        assertScores(index.similar(B, 10), List.of(A, C), 1 / Math.sqrt(6), 1d / 3);
+    }
+
+    @Test
+    void appendedEntriesAreIncluded() {
+        InteractionMatrix matrix = matrix();
+        // User 1 reads C as well: C has four readers, A-C and B-C gain one co-occurrence each
+        matrix.append(1, C, 1f);
+        CooccurrenceIndex index = index(10, matrix);
+
+        assertScores(index.similar(A, 10), List.of(B, C), 2 / Math.sqrt(6), 2 / Math.sqrt(8));
+        assertScores(index.similar(C, 10), List.of(B, A, D), 3 / Math.sqrt(12), 2 / Math.sqrt(8), 0.5);
+    }
+
+    @Test
+    void recomputeRefreshesOnlyTheGivenColumns() {
+        InteractionMatrix matrix = matrix();
+        CooccurrenceIndex index = index(10, matrix);
+        // User 3 reads A: A now has three readers and co-occurs with C twice
+        matrix.append(3, A, 1f);
+
+        BitSet affected = new BitSet();
+        affected.set(matrix.columnOf(A));
+        index.recompute(matrix, affected);
+
+        assertScores(index.similar(A, 10), List.of(B, C), 3 / Math.sqrt(9), 2 / Math.sqrt(9));
+        // C was not recomputed and still has its old list
+        assertScores(index.similar(C, 10), List.of(B, D, A), 2d / 3, 1 / Math.sqrt(3), 1 / Math.sqrt(6));
+    }
+
+    private static CooccurrenceIndex index(int maxItemsPerUser, InteractionMatrix matrix) {
+        CooccurrenceIndex index = new CooccurrenceIndex(10, maxItemsPerUser);
+        index.computeAll(matrix);
+        return index;
+    }
+
+    private static InteractionMatrix matrix() {
+        return InteractionMatrix.builder()
+                .add(1, A, 1f).add(1, B, 1f)
+                .add(2, A, 1f).add(2, B, 1f).add(2, C, 1f)
+                .add(3, B, 1f).add(3, C, 1f)
+                .add(4, C, 1f).add(4, D, 1f)
+                .build();
+    }
+
+    private static void assertScores(List<LocalRecommender.ScoredBook> books, List<Long> bookIds, double... scores) {
+        assertThat(books).extracting(LocalRecommender.ScoredBook::bookId).containsExactlyElementsOf(bookIds);
+        for (int i = 0; i < scores.length; i++) {
+            assertThat(books.get(i).score()).isCloseTo(scores[i], within(1e-5));
+        }
+    }
+}
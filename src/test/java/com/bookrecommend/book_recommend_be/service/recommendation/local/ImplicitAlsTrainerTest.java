@@ -0,0 +1,172 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import com.bookrecommend.book_recommend_be.config.RecsysProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Two reader groups with disjoint shelves: ALS must recover the groups, training must be
+ * repeatable, and a fold-in must land on the exact least-squares solution.
+ */
+class ImplicitAlsTrainerTest {
+
+    private static final int FACTORS = 4;
+    private static final double REGULARIZATION = 0.1;
+    private static final double ALPHA = 10;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void shutDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void recommendsTheMissingBookOfTheUsersGroup() {
+        InteractionMatrix matrix = twoGroups();
+        ImplicitAlsModel model = trainer().train(matrix);
+
+        int row = matrix.rowOf(1);
+        List<Long> top = topBooks(model, matrix, row, 3);
+
+        // Books 1-4 are seen, so the only unseen book of the user's group must lead
+        assertThat(top).hasSize(3).first().isEqualTo(5L);
+    }
+
+    @Test
+    void similarItemsStayInTheSameGroup() {
+        InteractionMatrix matrix = twoGroups();
+        ImplicitAlsModel model = trainer().train(matrix);
+
+        int[] items = new int[4];
+        float[] scores = new float[4];
+        int found = model.similarItems(matrix.columnOf(8), 4, items, scores);
+
+        assertThat(found).isEqualTo(4);
+        for (int i = 0; i < found; i++) {
+            assertThat(matrix.bookIdOf(items[i])).isBetween(6L, 10L).isNotEqualTo(8L);
+        }
+    }
+
+    @Test
+    void trainingIsRepeatable() {
+        InteractionMatrix matrix = twoGroups();
+
+        ImplicitAlsModel first = trainer().train(matrix);
+        ImplicitAlsModel second = trainer().train(matrix);
+
+        for (int row = 0; row < matrix.rowCount(); row++) {
+            assertThat(second.userVector(row)).containsExactly(first.userVector(row));
+        }
+        assertThat(second.itemFactors()).containsExactly(first.itemFactors());
+    }
+
+    @Test
+    void foldInSolvesTheNormalEquationsExactly() {
+        InteractionMatrix matrix = twoGroups();
+        ImplicitAlsTrainer trainer = trainer();
+        ImplicitAlsModel model = trainer.train(matrix);
+        matrix.append(1, 7, 1f);
+        int row = matrix.rowOf(1);
+
+        float[] folded = trainer.foldIn(model, matrix, row);
+
+        double[] expected = normalEquationSolution(model, matrix, row);
+        for (int d = 0; d < FACTORS; d++) {
+            assertThat((double) folded[d]).isCloseTo(expected[d], within(1e-3));
+        }
+    }
+
+    /**
+     * Users 1-10 read books 1-5 and users 11-20 books 6-10, except that user 1 has not read book 5.
+     */
+    private static InteractionMatrix twoGroups() {
+        InteractionMatrix.Builder builder = InteractionMatrix.builder();
+        for (long user = 1; user <= 20; user++) {
+            long firstBook = user <= 10 ? 1 : 6;
+            for (long book = firstBook; book < firstBook + 5; book++) {
+                if (user != 1 || book != 5) {
+                    builder.add(user, book, 1f);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private ImplicitAlsTrainer trainer() {
+        RecsysProperties.Als settings = new RecsysProperties.Als();
+        settings.setFactors(FACTORS);
+        settings.setIterations(10);
+        settings.setRegularization(REGULARIZATION);
+        settings.setAlpha(ALPHA);
+        settings.setCgSteps(FACTORS);
+        return new ImplicitAlsTrainer(settings, pool);
+    }
+
+    private static List<Long> topBooks(ImplicitAlsModel model, InteractionMatrix matrix, int row, int limit) {
+        BitSet seen = new BitSet();
+        matrix.forEachInRow(row, (column, weight) -> seen.set(column));
+        int[] items = new int[limit];
+        float[] scores = new float[limit];
+        int found = model.topItems(model.userVector(row), seen, limit, items, scores);
+        List<Long> bookIds = new ArrayList<>();
+        for (int i = 0; i < found; i++) {
+            bookIds.add(matrix.bookIdOf(items[i]));
+        }
+        return bookIds;
+    }
+
+    /**
+     * {@code (Y^T C Y + lambda I) x = Y^T C p}, solved directly by Gaussian elimination.
+     */
+    private static double[] normalEquationSolution(ImplicitAlsModel model, InteractionMatrix matrix, int row) {
+        float[] y = model.itemFactors();
+        double[][] a = new double[FACTORS][FACTORS + 1];
+        for (int item = 0; item < model.itemCount(); item++) {
+            for (int i = 0; i < FACTORS; i++) {
+                for (int j = 0; j < FACTORS; j++) {
+                    a[i][j] += (double) y[item * FACTORS + i] * y[item * FACTORS + j];
+                }
+            }
+        }
+        for (int i = 0; i < FACTORS; i++) {
+            a[i][i] += REGULARIZATION;
+        }
+        matrix.forEachInRow(row, (item, weight) -> {
+            double confidence = 1 + ALPHA * weight;
+            for (int i = 0; i < FACTORS; i++) {
+                double yi = y[item * FACTORS + i];
+                for (int j = 0; j < FACTORS; j++) {
+                    a[i][j] += (confidence - 1) * yi * y[item * FACTORS + j];
+                }
+                a[i][FACTORS] += confidence * yi;
+            }
+        });
+
+        for (int pivot = 0; pivot < FACTORS; pivot++) {
+            for (int r = pivot + 1; r < FACTORS; r++) {
+                double factor = a[r][pivot] / a[pivot][pivot];
+                for (int c = pivot; c <= FACTORS; c++) {
+                    a[r][c] -= factor * a[pivot][c];
+                }
+            }
+        }
+        double[] x = new double[FACTORS];
+        for (int r = FACTORS - 1; r >= 0; r--) {
+            double sum = a[r][FACTORS];
+            for (int c = r + 1; c < FACTORS; c++) {
+                sum -= a[r][c] * x[c];
+            }
+            x[r] = sum / a[r][r];
+        }
+        return x;
+    }
+}
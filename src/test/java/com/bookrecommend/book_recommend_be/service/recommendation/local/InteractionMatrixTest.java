@@ -0,0 +1,163 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * CSR build, row and column access through the transposed structure, appends in the delta
+ * buffer and compaction keeping the dense indices.
+ */
+class InteractionMatrixTest {
+
+    @Test
+    void buildSumsRepeatedPairsAndRemapsIds() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(100, 7, 1f)
+                .add(200, 5, 2f)
+                .add(100, 7, 0.5f)
+                .add(100, 9, 3f)
+                .build();
+
+        assertThat(matrix.rowCount()).isEqualTo(2);
+        assertThat(matrix.columnCount()).isEqualTo(3);
+        assertThat(matrix.nonZeroCount()).isEqualTo(3);
+        assertThat(row(matrix, 100)).containsExactly(entry(7L, 1.5f), entry(9L, 3f));
+        assertThat(row(matrix, 200)).containsExactly(entry(5L, 2f));
+        assertThat(matrix.rowOf(300)).isEqualTo(-1);
+        assertThat(matrix.columnOf(8)).isEqualTo(-1);
+    }
+
+    @Test
+    void rowsIterateInAscendingColumnOrder() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 30, 1f)
+                .add(1, 10, 1f)
+                .add(1, 20, 1f)
+                .build();
+
+        List<Integer> columns = new ArrayList<>();
+        matrix.forEachInRow(matrix.rowOf(1), (column, weight) -> columns.add(column));
+
+        assertThat(columns).isSorted().hasSize(3);
+    }
+
+    @Test
+    void columnsSeeTheSameWeightsAsRows() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 7, 1f)
+                .add(2, 7, 2f)
+                .add(3, 7, 4f)
+                .add(2, 8, 8f)
+                .build();
+
+        assertThat(column(matrix, 7)).containsOnly(entry(1L, 1f), entry(2L, 2f), entry(3L, 4f));
+        assertThat(column(matrix, 8)).containsOnly(entry(2L, 8f));
+        assertThat(matrix.columnLength(matrix.columnOf(7))).isEqualTo(3);
+        assertThat(matrix.weight(matrix.rowOf(2), matrix.columnOf(8))).isEqualTo(8f);
+        assertThat(matrix.weight(matrix.rowOf(1), matrix.columnOf(8))).isZero();
+    }
+
+    @Test
+    void appendsAreVisibleStraightAway() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 7, 1f)
+                .build();
+
+        assertThat(matrix.append(1, 8, 2f)).isTrue();
+        assertThat(matrix.append(2, 7, 3f)).isTrue();
+
+        assertThat(matrix.pendingAppends()).isEqualTo(2);
+        assertThat(matrix.nonZeroCount()).isEqualTo(3);
+        assertThat(matrix.rowCount()).isEqualTo(2);
+        assertThat(matrix.columnCount()).isEqualTo(2);
+        assertThat(row(matrix, 1)).containsOnly(entry(7L, 1f), entry(8L, 2f));
+        assertThat(column(matrix, 7)).containsOnly(entry(1L, 1f), entry(2L, 3f));
+        assertThat(matrix.rowLength(matrix.rowOf(1))).isEqualTo(2);
+    }
+
+    @Test
+    void repeatedAppendKeepsTheLargerWeight() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 7, 2f)
+                .build();
+
+        assertThat(matrix.append(1, 7, 1f)).isFalse();
+        assertThat(matrix.append(1, 8, 1f)).isTrue();
+        assertThat(matrix.append(1, 8, 5f)).isFalse();
+        assertThat(matrix.append(1, 8, 3f)).isFalse();
+
+        assertThat(row(matrix, 1)).containsOnly(entry(7L, 2f), entry(8L, 5f));
+        assertThat(matrix.pendingAppends()).isEqualTo(1);
+    }
+
+    @Test
+    void compactionFoldsAppendsAndKeepsIndices() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 7, 1f)
+                .add(2, 8, 1f)
+                .build();
+        matrix.append(3, 9, 2f);
+        matrix.append(1, 9, 4f);
+
+        InteractionMatrix compacted = matrix.compact();
+
+        assertThat(compacted.pendingAppends()).isZero();
+        assertThat(compacted.nonZeroCount()).isEqualTo(4);
+        for (long userId : new long[]{1, 2, 3}) {
+            assertThat(compacted.rowOf(userId)).isEqualTo(matrix.rowOf(userId));
+            assertThat(row(compacted, userId)).isEqualTo(row(matrix, userId));
+        }
+        for (long bookId : new long[]{7, 8, 9}) {
+            assertThat(compacted.columnOf(bookId)).isEqualTo(matrix.columnOf(bookId));
+        }
+        assertThat(column(compacted, 9)).containsOnly(entry(1L, 4f), entry(3L, 2f));
+    }
+
+    @Test
+    void structureMergesAppendsIntoPlainIndexArrays() {
+        InteractionMatrix matrix = InteractionMatrix.builder()
+                .add(1, 7, 1f)
+                .add(2, 8, 1f)
+                .build();
+        matrix.append(1, 8, 1f);
+        matrix.append(3, 9, 1f);
+
+        InteractionMatrix.Structure structure = matrix.structure();
+
+        assertThat(structure.rowCount()).isEqualTo(3);
+        assertThat(structure.columnCount()).isEqualTo(3);
+        for (long userId : new long[]{1, 2, 3}) {
+            int row = matrix.rowOf(userId);
+            List<Integer> columns = new ArrayList<>();
+            matrix.forEachInRow(row, (column, weight) -> columns.add(column));
+            assertThat(structure.rowLength(row)).isEqualTo(matrix.rowLength(row));
+            assertThat(Arrays.copyOfRange(structure.columnIndices(),
+                    structure.rowPointers()[row], structure.rowPointers()[row + 1]))
+                    .containsExactly(columns.stream().mapToInt(Integer::intValue).toArray());
+        }
+        int column = matrix.columnOf(8);
+        assertThat(Arrays.copyOfRange(structure.rowIndices(),
+                structure.columnPointers()[column], structure.columnPointers()[column + 1]))
+                .containsExactlyInAnyOrder(matrix.rowOf(1), matrix.rowOf(2));
+    }
+
+    private static Map<Long, Float> row(InteractionMatrix matrix, long userId) {
+        Map<Long, Float> weights = new LinkedHashMap<>();
+        matrix.forEachInRow(matrix.rowOf(userId), (column, weight) -> weights.put(matrix.bookIdOf(column), weight));
+        return weights;
+    }
+
+    private static Map<Long, Float> column(InteractionMatrix matrix, long bookId) {
+        Map<Long, Float> weights = new LinkedHashMap<>();
+        matrix.forEachInColumn(matrix.columnOf(bookId), (row, weight) -> weights.put(matrix.userIdOf(row), weight));
+        return weights;
+    }
+}
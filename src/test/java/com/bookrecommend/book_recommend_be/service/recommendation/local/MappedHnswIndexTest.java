@@ -0,0 +1,181 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Builds an index on clustered vectors, writes it, maps it back and compares searches with the
+ * exact scan of the same file.
+ */
+class MappedHnswIndexTest {
+
+    private static final int BOOKS = 3_000;
+    private static final int DIMENSION = 32;
+    private static final int CLUSTERS = 20;
+    private static final int QUERIES = 100;
+    private static final int TOP_K = 10;
+
+    @TempDir
+    Path directory;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+    private final float[][] centers = centers();
+
+    @Test
+    void searchRecallAgainstBruteForce() throws IOException {
+        MappedHnswIndex index = writeAndOpen(build(42));
+        int[] nodes = new int[TOP_K];
+        float[] scores = new float[TOP_K];
+        int[] exact = new int[TOP_K];
+        float[] exactScores = new float[TOP_K];
+
+        long hits = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = clustered();
+            int found = index.search(query, TOP_K, 64, nodes, scores);
+            assertThat(index.bruteForce(query, TOP_K, exact, exactScores)).isEqualTo(TOP_K);
+            assertThat(found).isEqualTo(TOP_K);
+            Set<Integer> truth = new HashSet<>();
+            for (int node : exact) {
+                truth.add(node);
+            }
+            for (int i = 0; i < found; i++) {
+                if (truth.contains(nodes[i])) {
+                    hits++;
+                }
+            }
+        }
+
+        assertThat((double) hits / (QUERIES * TOP_K)).isGreaterThanOrEqualTo(0.95);
+    }
+
+    @Test
+    void resultsAreOrderedClosestFirst() throws IOException {
+        MappedHnswIndex index = writeAndOpen(build(42));
+        int[] nodes = new int[TOP_K];
+        float[] scores = new float[TOP_K];
+
+        int found = index.search(clustered(), TOP_K, 64, nodes, scores);
+        for (int i = 1; i < found; i++) {
+            assertThat(scores[i]).isLessThanOrEqualTo(scores[i - 1]);
+        }
+        found = index.bruteForce(clustered(), TOP_K, nodes, scores);
+        for (int i = 1; i < found; i++) {
+            assertThat(scores[i]).isLessThanOrEqualTo(scores[i - 1]);
+        }
+    }
+
+    @Test
+    void mappedIndexKeepsIdsAndUnitVectors() throws IOException {
+        HnswIndexBuilder builder = new HnswIndexBuilder(3, 4, 16, 1);
+        builder.add(30L, new float[]{3f, 0f, 4f});
+        builder.add(10L, new float[]{0f, 2f, 0f});
+        builder.add(20L, new float[]{1f, 1f, 0f});
+        MappedHnswIndex index = writeAndOpen(builder);
+
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.dimension()).isEqualTo(3);
+        assertThat(index.nodeOf(15L)).isEqualTo(-1);
+        for (long bookId : new long[]{10L, 20L, 30L}) {
+            assertThat(index.bookIdOf(index.nodeOf(bookId))).isEqualTo(bookId);
+        }
+        assertThat(index.vector(index.nodeOf(30L), new float[3])).containsExactly(new float[]{0.6f, 0f, 0.8f}, within(1e-6f));
+
+        int[] nodes = new int[1];
+        float[] scores = new float[1];
+        assertThat(index.search(new float[]{0f, 5f, 0f}, 1, 8, nodes, scores)).isEqualTo(1);
+        assertThat(index.bookIdOf(nodes[0])).isEqualTo(10L);
+        assertThat(scores[0]).isCloseTo(1f, within(1e-6f));
+    }
+
+    @Test
+    void everyBookFindsItself() throws IOException {
+        MappedHnswIndex index = writeAndOpen(build(42));
+        int[] nodes = new int[1];
+        float[] scores = new float[1];
+        float[] vector = new float[DIMENSION];
+
+        for (int node = 0; node < index.size(); node += 37) {
+            index.search(index.vector(node, vector), 1, 32, nodes, scores);
+            assertThat(nodes[0]).isEqualTo(node);
+        }
+    }
+
+    @Test
+    void sameSeedWritesTheSameFile() throws IOException {
+        SplittableRandom first = random.split();
+        float[][] vectors = new float[500][];
+        for (int i = 0; i < vectors.length; i++) {
+            vectors[i] = gaussian(first, centers[i % CLUSTERS], 0.8f);
+        }
+        Path a = directory.resolve("a.hnsw");
+        Path b = directory.resolve("b.hnsw");
+        withVectors(vectors, 3).writeTo(a);
+        withVectors(vectors, 3).writeTo(b);
+
+        assertThat(Files.mismatch(a, b)).isEqualTo(-1L);
+    }
+
+    @Test
+    void rejectsDuplicatesAndWrongDimensions() {
+        HnswIndexBuilder builder = new HnswIndexBuilder(DIMENSION, 8, 32, 1);
+        builder.add(1L, clustered());
+
+        assertThatThrownBy(() -> builder.add(1L, clustered())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> builder.add(2L, new float[DIMENSION - 1])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HnswIndexBuilder(DIMENSION, 8, 4, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HnswIndexBuilder build(long seed) {
+        HnswIndexBuilder builder = new HnswIndexBuilder(DIMENSION, 8, 64, seed);
+        for (int i = 0; i < BOOKS; i++) {
+            builder.add(i + 1L, clustered());
+        }
+        return builder;
+    }
+
+    private static HnswIndexBuilder withVectors(float[][] vectors, long seed) {
+        HnswIndexBuilder builder = new HnswIndexBuilder(DIMENSION, 8, 32, seed);
+        for (int i = 0; i < vectors.length; i++) {
+            builder.add(i + 1L, vectors[i]);
+        }
+        return builder;
+    }
+
+    private MappedHnswIndex writeAndOpen(HnswIndexBuilder builder) throws IOException {
+        Path file = directory.resolve("books.hnsw");
+        builder.writeTo(file);
+        return MappedHnswIndex.open(file);
+    }
+
+    private float[] clustered() {
+        return gaussian(random, centers[random.nextInt(CLUSTERS)], 0.8f);
+    }
+
+    private float[][] centers() {
+        float[][] result = new float[CLUSTERS][];
+        for (int c = 0; c < CLUSTERS; c++) {
+            result[c] = gaussian(random, null, 1f);
+        }
+        return result;
+    }
+
+    private static float[] gaussian(SplittableRandom random, float[] center, float scale) {
+        float[] vector = new float[DIMENSION];
+        for (int d = 0; d < DIMENSION; d++) {
+            vector[d] = (center != null ? center[d] : 0f) + (float) (random.nextGaussian() * scale);
+        }
+        return vector;
+    }
+}
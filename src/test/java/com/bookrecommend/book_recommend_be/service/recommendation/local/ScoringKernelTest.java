@@ -0,0 +1,89 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The Vector API kernel must agree with the scalar one up to float rounding, including the
+ * tail lanes of dimensions that are not a multiple of the species length and row counts that
+ * are not a multiple of four.
+ */
+class ScoringKernelTest {
+
+    private static final int ROWS = 1_003;
+
+    private final ScoringKernel scalar = ScoringKernels.scalar();
+    private ScoringKernel simd;
+
+    @BeforeEach
+    void loadSimd() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(),
+                "Vector API module not present");
+        simd = ScoringKernels.simd();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 16, 61, 384})
+    void dotMatchesScalar(int dimension) {
+        float[] left = random(dimension, 1);
+        float[] right = random(dimension, 2);
+
+        assertThat(simd.dot(left, 0, right, 0, dimension))
+                .isCloseTo(scalar.dot(left, 0, right, 0, dimension), within(1e-4f * dimension));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 16, 61, 384})
+    void scoreRowsMatchesScalar(int dimension) {
+        float[] query = random(dimension, 3);
+        float[] matrix = random(ROWS * dimension, 4);
+        float[] expected = new float[ROWS - 5];
+        float[] actual = new float[ROWS - 5];
+
+        scalar.scoreRows(query, 0, matrix, dimension, 5, ROWS, expected);
+        simd.scoreRows(query, 0, matrix, dimension, 5, ROWS, actual);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertThat(actual[i]).isCloseTo(expected[i], within(1e-4f * dimension));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {7, 64})
+    void topKMatchesScalar(int dimension) {
+        float[] query = random(dimension, 5);
+        float[] matrix = random(ROWS * dimension, 6);
+        float[] scale = random(ROWS, 7);
+        BitSet excluded = new BitSet();
+        excluded.set(0, 50);
+        int[] expectedRows = new int[20];
+        int[] actualRows = new int[20];
+        float[] expectedScores = new float[20];
+        float[] actualScores = new float[20];
+
+        int expected = scalar.topK(query, 0, matrix, dimension, ROWS, scale, excluded, 20, expectedRows, expectedScores);
+        int actual = simd.topK(query, 0, matrix, dimension, ROWS, scale, excluded, 20, actualRows, actualScores);
+
+        assertThat(actual).isEqualTo(expected).isEqualTo(20);
+        assertThat(actualRows).containsExactly(expectedRows);
+        assertThat(IntStream.of(actualRows)).allMatch(row -> row >= 50);
+    }
+
+    private static float[] random(int length, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        float[] values = new float[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = (float) random.nextDouble(-1, 1);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookrecommend.book_recommend_be.service.recommendation.local;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TopKSelectorTest {
+
+    @Test
+    void keepsTheHighestScoresInDescendingOrder() {
+        TopKSelector topK = new TopKSelector(3);
+        float[] scores = {0.5f, 2f, -1f, 3f, 1f, 2.5f};
+        for (int id = 0; id < scores.length; id++) {
+            topK.offer(id, scores[id]);
+        }
+
+        int[] ids = new int[3];
+        float[] kept = new float[3];
+        int count = topK.drainDescending(ids, kept);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(ids).containsExactly(3, 5, 1);
+        assertThat(kept).containsExactly(3f, 2.5f, 2f);
+        assertThat(topK.size()).isZero();
+    }
+
+    @Test
+    void thresholdIsTheCutOffOnceFull() {
+        TopKSelector topK = new TopKSelector(2);
+        assertThat(topK.threshold()).isEqualTo(Float.NEGATIVE_INFINITY);
+
+        topK.offer(1, 1f);
+        assertThat(topK.threshold()).isEqualTo(Float.NEGATIVE_INFINITY);
+        topK.offer(2, 4f);
+        assertThat(topK.threshold()).isEqualTo(1f);
+        topK.offer(3, 2f);
+        assertThat(topK.threshold()).isEqualTo(2f);
+        topK.offer(4, 0f);
+        assertThat(topK.threshold()).isEqualTo(2f);
+    }
+
+    @Test
+    void returnsEverythingWhenFewerThanKAreOffered() {
+        TopKSelector topK = new TopKSelector(10);
+        topK.offer(7, 1f);
+        topK.offer(8, 3f);
+
+        int[] ids = new int[10];
+        assertThat(topK.drainDescending(ids, null)).isEqualTo(2);
+        assertThat(Arrays.copyOf(ids, 2)).containsExactly(8, 7);
+    }
+
+    @Test
+    void zeroCapacityKeepsNothing() {
+        TopKSelector topK = new TopKSelector(0);
+        topK.offer(1, 1f);
+
+        assertThat(topK.size()).isZero();
+        assertThat(topK.drainDescending(new int[0], new float[0])).isZero();
+    }
+
+    @Test
+    void matchesAFullSortOnRandomScores() {
+        SplittableRandom random = new SplittableRandom(7);
+        float[] scores = new float[5_000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = (float) random.nextDouble();
+        }
+        TopKSelector topK = new TopKSelector(50);
+        for (int id = 0; id < scores.length; id++) {
+            topK.offer(id, scores[id]);
+        }
+
+        int[] ids = new int[50];
+        topK.drainDescending(ids, null);
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble((Integer id) -> scores[id]).reversed())
+                .limit(50)
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(ids).containsExactly(expected);
+    }
+}